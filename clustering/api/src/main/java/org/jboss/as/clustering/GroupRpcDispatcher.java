@@ -22,6 +22,7 @@
 package org.jboss.as.clustering;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Provide Remote Procedure Call services to a set of nodes that share a common group communication infrastructure.
@@ -129,6 +130,30 @@ public interface GroupRpcDispatcher extends GroupCommunicationService {
      */
     <T> List<T> callMethodOnCluster(String serviceName, String methodName, Object[] args, Class<?>[] types, Class<T> returnType, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered) throws InterruptedException;
 
+    /**
+     * Invoke an RPC call on all nodes of the partition/cluster without blocking the calling thread while waiting for the
+     * responses. The responses are the same as those returned by
+     * {@link #callMethodOnCluster(String, String, Object[], Class[], Class, boolean, ResponseFilter, long, boolean)}.
+     *
+     * @param T the expected type of the return values
+     * @param serviceName name of the target service name on which calls are invoked
+     * @param methodName name of the Java method to be called on remote services
+     * @param args array of Java Object representing the set of parameters to be given to the remote method
+     * @param types types of the parameters
+     * @param returnType the expected type of the return values, null or <code>void.class</code> if no return values are
+     *        expected
+     * @param excludeSelf <code>false</code> if the RPC must also be made on the current node of the partition,
+     *        <code>true</code> if only on remote nodes
+     * @param filter response filter instance which allows for early termination of the RPC call once acceptable responses are
+     *        received. Can be <code>null</code>, in which the call will not complete until all nodes have responded.
+     * @param methodTimeout max number of ms to wait for response to arrive before completing
+     * @param unordered <code>true</code> if the HAPartition isn't required to ensure that this RPC is invoked on all nodes in a
+     *        consistent order with respect to other RPCs originated by the same node
+     * @param callback notified once the responses were received or the call failed. Can be <code>null</code>.
+     * @return a future list of responses from remote nodes
+     */
+    <T> Future<List<T>> callMethodOnClusterAsync(String serviceName, String methodName, Object[] args, Class<?>[] types, Class<T> returnType, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered, RpcCallback<List<T>> callback) throws InterruptedException;
+
     /**
      * Invoke an RPC call on all nodes of the partition/cluster without waiting for any responses. The call will return
      * immediately after sending a message to the cluster telling nodes to invoke the RPC and will not wait for the nodes to
@@ -43,10 +43,15 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     private static final long serialVersionUID = -8852566958387608376L;
     @SuppressWarnings("unchecked")
     private static final ContextClassLoaderSwitcher switcher = (ContextClassLoaderSwitcher) AccessController.doPrivileged(ContextClassLoaderSwitcher.INSTANTIATOR);
+    // Output buffers larger than this are not kept for reuse
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    // The output buffer of the current thread, which is taken while in use so nested values get a buffer of their own
+    private static final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<ByteArrayOutputStream>();
 
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
+    private transient volatile int bytesHashCode;
 
     public SimpleMarshalledValue(T object, MarshallingContext context) {
         this.context = context;
@@ -61,7 +66,13 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
         if (this.object == null) return null;
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream output = buffers.get();
+        if (output != null) {
+            buffers.set(null);
+            output.reset();
+        } else {
+            output = new ByteArrayOutputStream();
+        }
         Marshaller marshaller = this.context.createMarshaller();
         ContextClassLoaderSwitcher.SwitchContext switchContext = switcher.getSwitchContext(context.getClassLoader());
         try {
@@ -72,9 +83,50 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         } finally {
             switchContext.reset();
             marshaller.close();
+            if (output.size() <= MAX_POOLED_BUFFER_SIZE) {
+                buffers.set(output);
+            }
+        }
+    }
+
+    /**
+     * Marshals the object now, rather than when this value is serialized. The bytes reflect the state of the object at the
+     * time of this call, and are not recomputed however often this value is serialized. The object itself is released,
+     * so a subsequent {@link #get(MarshallingContext)} returns a new copy, unaffected by later changes to the original.
+     * @throws IOException if the object could not be marshalled
+     */
+    public synchronized void marshal() throws IOException {
+        byte[] bytes = this.getBytes();
+        if (bytes != null) {
+            this.bytesHashCode = Arrays.hashCode(bytes);
+            this.bytes = bytes;
+            this.object = null;
         }
     }
 
+    /**
+     * Returns the number of marshalled bytes of this value.
+     * @return the size of the marshalled form, or 0 if this value was not {@link #marshal() marshalled} or deserialized
+     */
+    public int getMarshalledSize() {
+        byte[] bytes = this.bytes;
+        return (bytes != null) ? bytes.length : 0;
+    }
+
+    /**
+     * Indicates whether this value and the specified value have the same marshalled form. Only bytes that were already
+     * produced by {@link #marshal()} or by deserialization are compared: if either value has no such bytes, e.g. because
+     * its object was since rehydrated and may have been modified, the values are not considered equal.
+     * @param value another marshalled value
+     * @return true, if both values have the same marshalled bytes, false otherwise
+     */
+    public boolean isMarshalledEqual(SimpleMarshalledValue<?> value) {
+        byte[] us = this.bytes;
+        byte[] them = value.bytes;
+        if ((us == null) || (them == null)) return false;
+        return (this.bytesHashCode == value.bytesHashCode) && Arrays.equals(us, them);
+    }
+
     /**
      * {@inheritDoc}
      * @see org.jboss.as.clustering.MarshalledValue#get(java.lang.Object)
@@ -144,6 +196,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
             bytes = new byte[size];
             in.read(bytes);
         }
+        this.bytesHashCode = Arrays.hashCode(bytes);
         this.bytes = bytes;
     }
 
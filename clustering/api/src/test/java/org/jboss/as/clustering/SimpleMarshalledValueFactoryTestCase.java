@@ -87,6 +87,37 @@ public class SimpleMarshalledValueFactoryTestCase implements ClassLoaderProvider
         assertNull(mv.get(this.context));
     }
 
+    /**
+     * Test method for {@link org.jboss.as.clustering.SimpleMarshalledValue#marshal()}.
+     */
+    @Test
+    public void marshal() throws Exception {
+        GUID guid = new GUID();
+        SimpleMarshalledValue<GUID> mv = this.factory.createMarshalledValue(guid);
+        SimpleMarshalledValue<GUID> dup = this.factory.createMarshalledValue(guid);
+
+        assertEquals(0, mv.getMarshalledSize());
+        assertFalse(mv.isMarshalledEqual(dup));
+
+        mv.marshal();
+        dup.marshal();
+
+        assertNull(mv.peek());
+        assertTrue(mv.getMarshalledSize() > 0);
+        assertTrue(mv.isMarshalledEqual(dup));
+        assertTrue(mv.isMarshalledEqual(replicate(mv)));
+
+        SimpleMarshalledValue<GUID> other = this.factory.createMarshalledValue(new GUID());
+        other.marshal();
+        assertFalse(mv.isMarshalledEqual(other));
+
+        GUID copy = mv.get(this.context);
+        assertNotSame(guid, copy);
+        assertEquals(guid, copy);
+        // Once rehydrated, the object may have been modified
+        assertFalse(mv.isMarshalledEqual(dup));
+    }
+
     /**
      * Test method for {@link org.jboss.ha.framework.server.SimpleMarshalledValue#equals(java.lang.Object)}.
      */
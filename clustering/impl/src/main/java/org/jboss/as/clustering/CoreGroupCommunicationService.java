@@ -28,26 +28,36 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
 import java.security.AccessController;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 import org.jboss.as.clustering.jgroups.ChannelFactory;
@@ -79,6 +89,8 @@ import org.jgroups.blocks.mux.MuxRpcDispatcher;
 import org.jgroups.blocks.mux.Muxer;
 import org.jgroups.blocks.mux.NoMuxHandler;
 import org.jgroups.stack.IpAddress;
+import org.jgroups.util.FutureListener;
+import org.jgroups.util.NotifyingFuture;
 import org.jgroups.util.Rsp;
 import org.jgroups.util.RspList;
 
@@ -104,6 +116,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
     private static final byte NULL_VALUE = 0;
     private static final byte SERIALIZABLE_VALUE = 1;
+    /** The service under which nodes ask each other whether they understand calls which only carry a method id */
+    static final String RPC_METHOD_ID_SERVICE = "CoreGroupCommunicationService.rpcMethodIds";
     // TODO add Streamable support
     // private static final byte STREAMABLE_VALUE = 2;
 
@@ -146,6 +160,11 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
     Short scopeId;
     private RpcDispatcher dispatcher = null;
     final Map<String, Object> rpcHandlers = new ConcurrentHashMap<String, Object>();
+    /** The methods of the registered RPC handlers, by service name */
+    final Map<String, RpcMethodTable> rpcMethodTables = new ConcurrentHashMap<String, RpcMethodTable>();
+    private final RpcStatistics rpcStatistics = new RpcStatistics();
+    /** The other members which understand calls that only carry a method id */
+    final Set<Address> methodIdMembers = Collections.newSetFromMap(new ConcurrentHashMap<Address, Boolean>());
     private boolean directlyInvokeLocal;
     final Map<String, WeakReference<ClassLoader>> clmap = new ConcurrentHashMap<String, WeakReference<ClassLoader>>();
 
@@ -157,6 +176,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
     private final ArrayList<GroupMembershipListener> syncMembershipListeners = new ArrayList<GroupMembershipListener>();
     /** The handler used to send membership change notifications asynchronously */
     private AsynchEventHandler asynchHandler;
+    /** The handler used to notify the callbacks of asynchronous RPCs, and to negotiate method ids, if there is no thread pool */
+    private AsynchEventHandler rpcCallbackHandler;
 
     private long state_transfer_timeout = 60000;
     String stateIdPrefix;
@@ -251,6 +272,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
      */
     @Override
     public void registerRPCHandler(String objName, Object subscriber) {
+        this.rpcMethodTables.put(objName, new RpcMethodTable(subscriber.getClass()));
         this.rpcHandlers.put(objName, subscriber);
     }
 
@@ -269,6 +291,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
     @Override
     public void unregisterRPCHandler(String objName, Object subscriber) {
         this.rpcHandlers.remove(objName);
+        this.rpcMethodTables.remove(objName);
         this.clmap.remove(objName);
     }
 
@@ -299,7 +322,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
     public <T> ArrayList<T> callMethodOnCluster(String serviceName, String methodName, Object[] args, Class<?>[] types,
             Class<T> returnType, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered)
             throws InterruptedException {
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupportedByView());
         RspFilterAdapter rspFilter = filter == null ? null : new RspFilterAdapter(filter, this.nodeFactory);
         RequestOptions ro = new RequestOptions(Request.GET_ALL, methodTimeout, false, rspFilter);
         if (excludeSelf) {
@@ -315,7 +338,13 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             this.log.trace("calling synchronous method on cluster, serviceName=" + serviceName + ", methodName=" + methodName
                     + ", members=" + this.groupView + ", excludeSelf=" + excludeSelf);
         }
-        RspList rsp = this.dispatcher.callRemoteMethods(null, m, ro);
+        RspList rsp = null;
+        long start = System.nanoTime();
+        try {
+            rsp = this.dispatcher.callRemoteMethods(null, m, ro);
+        } finally {
+            this.rpcStatistics.update(serviceName, methodName, System.nanoTime() - start, rsp == null);
+        }
         ArrayList<T> result = this.processResponseList(rsp, returnType, trace);
 
         if (!excludeSelf && this.directlyInvokeLocal && (filter == null || filter.needMoreResponses())) {
@@ -332,14 +361,153 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> Future<List<T>> callMethodOnClusterAsync(String serviceName, String methodName, Object[] args,
+            Class<?>[] types, Class<T> returnType, boolean excludeSelf, ResponseFilter filter, long methodTimeout,
+            boolean unordered, RpcCallback<List<T>> callback) throws InterruptedException {
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupportedByView());
+        RspFilterAdapter rspFilter = filter == null ? null : new RspFilterAdapter(filter, this.nodeFactory);
+        RequestOptions ro = new RequestOptions(Request.GET_ALL, methodTimeout, false, rspFilter);
+        if (excludeSelf) {
+            ro.setExclusionList(this.localJGAddress);
+        }
+        if (unordered) {
+            ro.setFlags(Message.OOB);
+        }
+
+        if (this.channel.flushSupported()) {
+            this.flushBlockGate.await(this.getMethodCallTimeout());
+        }
+
+        if (this.log.isTraceEnabled()) {
+            this.log.trace("calling asynchronous method on cluster, serviceName=" + serviceName + ", methodName=" + methodName
+                    + ", members=" + this.groupView + ", excludeSelf=" + excludeSelf);
+        }
+        RpcFuture<T> future = new RpcFuture<T>(serviceName, methodName, returnType, callback);
+        try {
+            if (!excludeSelf && this.directlyInvokeLocal) {
+                // The local invocation is made while the remote nodes process the call
+                future.setLocalResponses(new ArrayList<T>(1));
+            }
+            future.setFuture(this.dispatcher.callRemoteMethodsWithFuture(null, m, ro));
+            if (future.localResponses != null) {
+                this.invokeDirectly(serviceName, methodName, args, types, returnType, future.localResponses, filter);
+            }
+        } catch (Throwable e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            future.fail(e);
+        } finally {
+            future.localInvocationDone();
+        }
+        return future;
+    }
+
+    /**
+     * Creates the method call for an RPC. If all the nodes it is sent to understand method ids, and the method is known
+     * to the handler registered locally for the service, the call only carries the {@link RpcMethodTable id} of the
+     * method and the arguments. Otherwise it is a plain call by name, which any node understands.
+     */
+    MethodCall createMethodCall(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean methodIdSupported) {
+        if (methodIdSupported) {
+            RpcMethodTable table = this.rpcMethodTables.get(serviceName);
+            Integer id = (table != null) ? table.getId(methodName, types) : null;
+            if (id != null) {
+                return new IndexedMethodCall(serviceName, methodName, id.intValue(), args, types);
+            }
+        }
+        return new MethodCall(serviceName + "." + methodName, args, types);
+    }
+
+    /**
+     * Returns whether a node understands calls which only carry a method id.
+     */
+    boolean isMethodIdSupported(Address address) {
+        return address != null && (address.equals(this.localJGAddress) || this.methodIdMembers.contains(address));
+    }
+
+    /**
+     * Returns whether all the members of the current view understand calls which only carry a method id.
+     */
+    boolean isMethodIdSupportedByView() {
+        for (Address address : this.groupView.jgmembers) {
+            if (!this.isMethodIdSupported(address)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Asks the specified members whether they understand calls which only carry a method id. Members which do not answer
+     * <code>true</code>, e.g. because they predate method ids and have no handler for the question, keep getting calls by
+     * name.
+     */
+    void negotiateMethodIds(Vector<Address> members) {
+        MethodCall m = new MethodCall(RPC_METHOD_ID_SERVICE + ".isMethodIdSupported", new Object[0], new Class<?>[0]);
+        RspList rsps;
+        try {
+            rsps = this.dispatcher.callRemoteMethods(members, m, new RequestOptions(Request.GET_ALL, this.getMethodCallTimeout()));
+        } catch (Exception e) {
+            this.log.debug("Failed to find out whether " + members + " understand method ids", e);
+            return;
+        }
+        for (Rsp<?> rsp : rsps.values()) {
+            // Members which left meanwhile may be added; their addresses are never reused
+            if (rsp.wasReceived() && Boolean.TRUE.equals(rsp.getValue())) {
+                this.methodIdMembers.add(rsp.getSender());
+            }
+        }
+        if (this.log.isTraceEnabled()) {
+            this.log.trace("members which understand method ids: " + this.methodIdMembers);
+        }
+    }
+
+    /**
+     * Returns the method of the RPC handler of a service which has the specified id.
+     *
+     * @return the method, or <code>null</code> if the handler has no such method
+     */
+    Method getRpcMethod(String serviceName, int methodId) {
+        RpcMethodTable table = this.rpcMethodTables.get(serviceName);
+        return (table != null) ? table.getMethod(methodId) : null;
+    }
+
+    /**
+     * Runs a task off the calling thread, e.g. the notification of the callback of an asynchronous RPC, which must not
+     * run on the thread which completes the call, as that may be a JGroups thread which must not be held up by
+     * application code.
+     */
+    void runAsynchronously(Runnable task) {
+        Executor executor = this.threadPool;
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                this.log.debug("Thread pool rejected task, running it from the rpc callback handler", e);
+            }
+        }
+        try {
+            this.rpcCallbackHandler.queueEvent(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     <T> T invokeDirectly(String serviceName, String methodName, Object[] args, Class<?>[] types, Class<T> returnType,
             List<T> remoteResponses, ResponseFilter filter) throws Exception {
         T retVal = null;
         Object handler = this.rpcHandlers.get(serviceName);
         if (handler != null) {
-            MethodCall call = new MethodCall(methodName, args, types);
+            RpcMethodTable table = this.rpcMethodTables.get(serviceName);
+            Integer id = (table != null) ? table.getId(methodName, types) : null;
             try {
-                Object result = call.invoke(handler);
+                Object result = (id != null) ? table.getMethod(id.intValue()).invoke(handler, args) : new MethodCall(methodName, args, types).invoke(handler);
                 if (returnType != null && void.class != returnType) {
                     retVal = returnType.cast(result);
                     if (remoteResponses != null && (filter == null || filter.isAcceptable(retVal, me))) {
@@ -376,8 +544,6 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             Class<T> returnType, boolean excludeSelf, long methodTimeout, boolean unordered) throws Exception {
         boolean trace = this.log.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
-
         if (trace) {
             this.log.trace("callMethodOnCoordinatorNode(false), objName=" + serviceName + ", methodName=" + methodName);
         }
@@ -401,18 +567,25 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         }
 
         Address coord = this.groupView.coordinator;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupported(coord));
         RequestOptions opt = new RequestOptions(Request.GET_ALL, methodTimeout);
         if (unordered) {
             opt.setFlags(Message.OOB);
         }
+        long start = System.nanoTime();
+        boolean failed = true;
         try {
-            return returnType.cast(this.dispatcher.callRemoteMethod(coord, m, opt));
+            Object rsp = this.dispatcher.callRemoteMethod(coord, m, opt);
+            failed = false;
+            return returnType.cast(rsp);
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
             throw e;
         } catch (Throwable e) {
             throw new RuntimeException("Caught raw Throwable on remote invocation", e);
+        } finally {
+            this.rpcStatistics.update(serviceName, methodName, System.nanoTime() - start, failed);
         }
     }
 
@@ -455,7 +628,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         }
         boolean trace = this.log.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address target = ((ClusterNodeImpl) targetNode).getOriginalJGAddress();
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupported(target));
 
         if (trace) {
             this.log.trace("callMethodOnNode( objName=" + serviceName + ", methodName=" + methodName);
@@ -469,14 +643,19 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         if (unordered) {
             opt.setFlags(Message.OOB);
         }
+        long start = System.nanoTime();
+        boolean failed = true;
         try {
-            rsp = this.dispatcher.callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            rsp = this.dispatcher.callRemoteMethod(target, m, opt);
+            failed = false;
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
             throw e;
         } catch (Throwable e) {
             throw new RuntimeException("Caught raw Throwable on remote invocation", e);
+        } finally {
+            this.rpcStatistics.update(serviceName, methodName, System.nanoTime() - start, failed);
         }
 
         if (rsp instanceof NoHandlerForRPC) {
@@ -509,7 +688,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         }
         boolean trace = this.log.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address target = ((ClusterNodeImpl) targetNode).getOriginalJGAddress();
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupported(target));
 
         if (trace) {
             this.log.trace("callAsyncMethodOnNode( objName=" + serviceName + ", methodName=" + methodName);
@@ -525,7 +705,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             opt.setFlags(Message.OOB);
         }
         try {
-            this.dispatcher.callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            this.dispatcher.callRemoteMethod(target, m, opt);
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
@@ -550,7 +730,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
     @Override
     public void callAsynchMethodOnCluster(final String serviceName, final String methodName, final Object[] args,
             final Class<?>[] types, boolean excludeSelf, boolean unordered) throws InterruptedException {
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupportedByView());
         RequestOptions ro = new RequestOptions(Request.GET_NONE, this.getMethodCallTimeout());
         if (excludeSelf) {
             ro.setExclusionList(this.localJGAddress);
@@ -585,8 +765,6 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
         boolean trace = this.log.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
-
         if (trace) {
             this.log.trace("callMethodOnCoordinatorNode(false), objName=" + serviceName + ", methodName=" + methodName);
         }
@@ -606,6 +784,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         }
 
         Address coord = this.groupView.coordinator;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, this.isMethodIdSupported(coord));
         RequestOptions opt = new RequestOptions(Request.GET_ALL, this.getMethodCallTimeout());
         if (unordered) {
             opt.setFlags(Message.OOB);
@@ -743,6 +922,18 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         return buff.toString();
     }
 
+    public RpcStatistics getRpcStatistics() {
+        return this.rpcStatistics;
+    }
+
+    public String showRpcStatistics() {
+        return this.rpcStatistics.toString();
+    }
+
+    public void resetRpcStatistics() {
+        this.rpcStatistics.reset();
+    }
+
     public String showHistoryAsXML() {
         StringBuffer buff = new StringBuffer();
         buff.append("<events>\n");
@@ -916,6 +1107,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
         // Create the asynchronous handler for view changes
         this.asynchHandler = new AsynchEventHandler(new ViewChangeEventProcessor(), "AsynchViewChangeHandler");
+        // Create the asynchronous handler for the callbacks of RPCs
+        this.rpcCallbackHandler = new AsynchEventHandler(new RpcCallbackProcessor(), "AsynchRpcCallbackHandler");
     }
 
     protected void startService() throws Exception {
@@ -932,6 +1125,8 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             this.channel = this.createChannel();
         }
 
+        this.registerRPCHandler(RPC_METHOD_ID_SERVICE, new RpcMethodIdHandler());
+
         // Subscribe to events generated by the channel
         MembershipListener meml = new MembershipListenerImpl();
         MessageListener msgl = this.stateIdPrefix == null ? null : new MessageListenerImpl();
@@ -963,6 +1158,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
         // Start the asynch listener handler thread
         this.asynchHandler.start();
+        this.rpcCallbackHandler.start();
     }
 
     protected void stopService() throws Exception {
@@ -971,6 +1167,14 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         } catch (Exception e) {
             this.log.warn("Failed to stop asynchHandler", e);
         }
+        try {
+            this.rpcCallbackHandler.stop();
+        } catch (Exception e) {
+            this.log.warn("Failed to stop rpcCallbackHandler", e);
+        }
+
+        this.unregisterRPCHandler(RPC_METHOD_ID_SERVICE, null);
+        this.methodIdMembers.clear();
 
         // NR 200505 : [JBCLUSTER-38] replace channel.close() by a disconnect and
         // add the destroyPartition() step
@@ -1167,6 +1371,20 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
         this.groupView = newGroupView;
 
+        // Forget the members which left, and ask the new ones whether they understand method ids
+        this.methodIdMembers.retainAll(newGroupView.jgmembers);
+        final Vector<Address> joined = new Vector<Address>(newGroupView.jgmembers);
+        joined.removeAll(oldMembers.jgmembers);
+        joined.remove(this.channel.getAddress());
+        if (!joined.isEmpty()) {
+            this.runAsynchronously(new Runnable() {
+                @Override
+                public void run() {
+                    CoreGroupCommunicationService.this.negotiateMethodIds(joined);
+                }
+            });
+        }
+
         if (oldMembers.viewId == -1) {
             // Initial viewAccepted
             this.log.debug("ViewAccepted: initial members set for partition " + this.getGroupName() + ": "
@@ -1408,6 +1626,13 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
         @Override
         public byte[] objectToByteBuffer(Object obj) throws Exception {
+            // wrap IndexedMethodCall in Object[service_name, byte[], method_id]. The byte[] only holds the arguments, so
+            // this is only sent to nodes which negotiated method ids, see createMethodCall()
+            if (obj instanceof IndexedMethodCall) {
+                IndexedMethodCall call = (IndexedMethodCall) obj;
+                return CoreGroupCommunicationService.this.objectToByteBufferInternal(new Object[] { call.serviceName,
+                        CoreGroupCommunicationService.this.objectToByteBufferInternal(call.args), Integer.valueOf(call.methodId) });
+            }
             // wrap MethodCall in Object[service_name, byte[]] so that service name is available during demarshalling
             if (obj instanceof MethodCall) {
                 String name = ((MethodCall) obj).getName();
@@ -1487,6 +1712,7 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             Object handler = null;
             boolean trace = this.log.isTraceEnabled();
             String service = null;
+            Integer methodId = null;
             byte[] request_bytes = null;
 
             if (trace) {
@@ -1506,10 +1732,13 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
                     return null;
                 }
 
-                // wrapper should be Object[]{service_name, byte[]}
+                // wrapper should be Object[]{service_name, byte[]}, or Object[]{service_name, byte[], method_id}
                 Object[] temp = (Object[]) wrapper;
                 service = (String) temp[0];
                 request_bytes = (byte[]) temp[1];
+                if (temp.length > 2 && temp[2] instanceof Integer) {
+                    methodId = (Integer) temp[2];
+                }
 
                 // see if this node has registered to handle this service
                 handler = CoreGroupCommunicationService.this.rpcHandlers.get(service);
@@ -1539,6 +1768,11 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
                 context.reset();
             }
 
+            if (methodId != null) {
+                // the body only holds the arguments of the method with this id
+                return this.invoke(handler, service, methodId.intValue(), (Object[]) body, weak != null);
+            }
+
             if (body == null || !(body instanceof MethodCall)) {
                 this.log.warn("Partition " + CoreGroupCommunicationService.this.getGroupName()
                         + " message does not contain a MethodCall object!");
@@ -1589,6 +1823,45 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
             return retval;
         }
 
+        /**
+         * Invokes the method with the specified id on the RPC handler of a service, and returns the return value or the
+         * exception thrown, like a call by name.
+         */
+        private Object invoke(Object handler, String service, int methodId, Object[] args, boolean wrapResponse) {
+            boolean trace = this.log.isTraceEnabled();
+            Method method = CoreGroupCommunicationService.this.getRpcMethod(service, methodId);
+            if (method == null) {
+                // the handler of the caller has a method this node's handler lacks
+                return new NoSuchMethodException("rpc handler of service " + service + " has no method with id " + methodId);
+            }
+            if (trace) {
+                this.log.trace("handlerName: " + service + " methodName: " + method.getName() + " methodId: " + methodId);
+            }
+
+            Object retval = null;
+            try {
+                retval = method.invoke(handler, args);
+                if (wrapResponse) {
+                    // wrap the response so that the service name can be accessed during unmarshalling of the response
+                    byte[] retbytes = CoreGroupCommunicationService.this.objectToByteBufferResponseInternal(retval);
+                    retval = new HAServiceResponse(service, retbytes);
+                }
+                if (trace) {
+                    this.log.trace("rpc call return value: " + retval);
+                }
+            } catch (Throwable t) {
+                if (t instanceof InvocationTargetException) {
+                    t = ((InvocationTargetException) t).getCause();
+                }
+                if (trace) {
+                    this.log.trace("Partition " + CoreGroupCommunicationService.this.getGroupName()
+                            + " rpc call threw exception", t);
+                }
+                retval = t;
+            }
+            return retval;
+        }
+
         @Override
         public void start() {
             super.start();
@@ -1625,6 +1898,16 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
 
     }
 
+    /**
+     * Runs the notifications of RPC callbacks queued on the thread that asynchronously deals with them.
+     */
+    class RpcCallbackProcessor implements AsynchEventHandler.AsynchEventProcessor {
+        @Override
+        public void processEvent(Object event) {
+            ((Runnable) event).run();
+        }
+    }
+
     /**
      * Handles callbacks from the thread that asynchronously deals with view change events.
      */
@@ -1713,6 +1996,192 @@ public class CoreGroupCommunicationService implements GroupRpcDispatcher, GroupM
         }
     }
 
+    /**
+     * A method call which is marshalled as the {@link RpcMethodTable id} of the method and the arguments, without the
+     * method name and parameter types, so that the receiving nodes can invoke the method without looking it up by
+     * reflection. It is never marshalled itself, and only sent to nodes which negotiated method ids.
+     */
+    static class IndexedMethodCall extends MethodCall {
+        private static final long serialVersionUID = -1392455364282716434L;
+
+        final String serviceName;
+        final int methodId;
+        final Object[] args;
+        final Class<?>[] types;
+
+        IndexedMethodCall(String serviceName, String methodName, int methodId, Object[] args, Class<?>[] types) {
+            super(serviceName + "." + methodName, args, types);
+            this.serviceName = serviceName;
+            this.methodId = methodId;
+            this.args = args;
+            this.types = types;
+        }
+    }
+
+    /**
+     * The future result of {@link CoreGroupCommunicationService#callMethodOnClusterAsync}, which completes from the
+     * JGroups thread that receives the last response. The callback is notified from another thread.
+     */
+    class RpcFuture<T> implements Future<List<T>>, FutureListener<RspList> {
+        private final String serviceName;
+        private final String methodName;
+        private final Class<T> returnType;
+        private final RpcCallback<List<T>> callback;
+        private final long start = System.nanoTime();
+        private final CountDownLatch done = new CountDownLatch(1);
+        // Completes the future once both the remote and the local invocation are done
+        private final CountDownLatch pending = new CountDownLatch(2);
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        volatile List<T> localResponses;
+        private volatile Future<RspList> future;
+        private volatile List<T> result;
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+
+        RpcFuture(String serviceName, String methodName, Class<T> returnType, RpcCallback<List<T>> callback) {
+            this.serviceName = serviceName;
+            this.methodName = methodName;
+            this.returnType = returnType;
+            this.callback = callback;
+        }
+
+        void setLocalResponses(List<T> localResponses) {
+            this.localResponses = localResponses;
+        }
+
+        void setFuture(NotifyingFuture<RspList> future) {
+            this.future = future;
+            future.setListener(this);
+        }
+
+        void localInvocationDone() {
+            this.arrive();
+        }
+
+        @Override
+        public void futureDone(Future<RspList> future) {
+            try {
+                ArrayList<T> responses = CoreGroupCommunicationService.this.processResponseList(future.get(), this.returnType,
+                        CoreGroupCommunicationService.this.log.isTraceEnabled());
+                this.result = responses;
+            } catch (ExecutionException e) {
+                this.failure = e.getCause();
+            } catch (Throwable e) {
+                this.failure = e;
+            }
+            this.arrive();
+        }
+
+        void fail(Throwable cause) {
+            if (this.failure == null) {
+                this.failure = cause;
+            }
+            // There will be no remote responses
+            if (this.future == null) {
+                this.arrive();
+            }
+        }
+
+        private void arrive() {
+            this.pending.countDown();
+            if (this.pending.getCount() == 0) {
+                this.complete();
+            }
+        }
+
+        private void complete() {
+            if (!this.completed.compareAndSet(false, true)) return;
+            if ((this.failure == null) && (this.result != null) && (this.localResponses != null)) {
+                this.result.addAll(this.localResponses);
+            }
+            CoreGroupCommunicationService.this.rpcStatistics.update(this.serviceName, this.methodName,
+                    System.nanoTime() - this.start, this.failure != null);
+            this.done.countDown();
+            if (this.callback != null) {
+                CoreGroupCommunicationService.this.runAsynchronously(new Runnable() {
+                    @Override
+                    public void run() {
+                        RpcFuture.this.notifyCallback();
+                    }
+                });
+            }
+        }
+
+        void notifyCallback() {
+            try {
+                if (this.failure != null) {
+                    this.callback.failed(this.failure);
+                } else {
+                    this.callback.completed(this.result);
+                }
+            } catch (RuntimeException e) {
+                CoreGroupCommunicationService.this.log.warn("Caught exception notifying callback of rpc call to "
+                        + this.serviceName + "." + this.methodName, e);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (this.isDone()) return false;
+            Future<RspList> future = this.future;
+            if (future != null) {
+                future.cancel(mayInterruptIfRunning);
+            }
+            this.cancelled = true;
+            this.failure = new CancellationException();
+            while (this.pending.getCount() > 0) {
+                this.pending.countDown();
+            }
+            this.complete();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.done.getCount() == 0;
+        }
+
+        @Override
+        public List<T> get() throws InterruptedException, ExecutionException {
+            this.done.await();
+            return this.report();
+        }
+
+        @Override
+        public List<T> get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!this.done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return this.report();
+        }
+
+        private List<T> report() throws ExecutionException {
+            Throwable failure = this.failure;
+            if (failure instanceof CancellationException) {
+                throw (CancellationException) failure;
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return this.result;
+        }
+    }
+
+    /**
+     * The RPC handler under {@link CoreGroupCommunicationService#RPC_METHOD_ID_SERVICE}, which tells other nodes that
+     * this node understands calls which only carry a method id. Nodes without it answer with a {@link NoHandlerForRPC}.
+     */
+    public static class RpcMethodIdHandler {
+        public Boolean isMethodIdSupported() {
+            return Boolean.TRUE;
+        }
+    }
+
     /**
      * Returned when an RPC call arrives for a service that isn't registered.
      */
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The public methods of an RPC handler class, indexed by a method id. The id of a method is the hash code of its
+ * signature, i.e. of its name and parameter types, so each node derives the same ids independently, without any
+ * coordination, as long as the handlers of a service have methods with the same signatures. Methods whose signatures
+ * have the same hash code are not indexed, and must be called by name.
+ */
+final class RpcMethodTable {
+    private final Map<Integer, Method> methods = new HashMap<Integer, Method>();
+    private final Map<String, List<Method>> methodsByName = new HashMap<String, List<Method>>();
+    private final Map<Method, Integer> ids = new HashMap<Method, Integer>();
+
+    static int getId(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; ++i) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(types[i].getName());
+        }
+        return signature.append(')').toString().hashCode();
+    }
+
+    RpcMethodTable(Class<?> handlerClass) {
+        List<Integer> collisions = new ArrayList<Integer>();
+        for (Method method : handlerClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) continue;
+            // Handlers are often non-public classes
+            method.setAccessible(true);
+            Integer id = Integer.valueOf(getId(method));
+            if (this.methods.put(id, method) != null) {
+                collisions.add(id);
+            }
+        }
+        this.methods.keySet().removeAll(collisions);
+        for (Map.Entry<Integer, Method> entry : this.methods.entrySet()) {
+            Method method = entry.getValue();
+            this.ids.put(method, entry.getKey());
+            List<Method> overloads = this.methodsByName.get(method.getName());
+            if (overloads == null) {
+                overloads = new ArrayList<Method>(1);
+                this.methodsByName.put(method.getName(), overloads);
+            }
+            overloads.add(method);
+        }
+    }
+
+    /**
+     * Returns the id of the specified method.
+     *
+     * @return the method id, or <code>null</code> if the handler has no such indexed method
+     */
+    Integer getId(String methodName, Class<?>[] types) {
+        List<Method> overloads = this.methodsByName.get(methodName);
+        if (overloads == null) return null;
+        Class<?>[] parameterTypes = (types != null) ? types : new Class<?>[0];
+        for (Method method : overloads) {
+            if (Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+                return this.ids.get(method);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the method with the specified id.
+     *
+     * @return the method, or <code>null</code> if the handler has no indexed method with this id
+     */
+    Method getMethod(int id) {
+        return this.methods.get(Integer.valueOf(id));
+    }
+}
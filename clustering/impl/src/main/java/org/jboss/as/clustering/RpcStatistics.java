@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency statistics of the RPCs made through a {@link CoreGroupCommunicationService}, per service method. The latency
+ * of an RPC is the time from sending the call until all the responses it waits for were received.
+ */
+public class RpcStatistics {
+
+    /**
+     * The statistics of a single service method. Updates are not synchronized with each other, so a snapshot of the
+     * values is approximate while calls are in progress.
+     */
+    public static class MethodStatistics {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+
+        void update(long nanos, boolean failed) {
+            this.calls.incrementAndGet();
+            if (failed) {
+                this.failures.incrementAndGet();
+            }
+            this.totalTime.addAndGet(nanos);
+            long max = this.maxTime.get();
+            while ((nanos > max) && !this.maxTime.compareAndSet(max, nanos)) {
+                max = this.maxTime.get();
+            }
+        }
+
+        public long getCalls() {
+            return this.calls.get();
+        }
+
+        public long getFailures() {
+            return this.failures.get();
+        }
+
+        /**
+         * @return the average latency in microseconds
+         */
+        public long getAverageTime() {
+            long calls = this.calls.get();
+            return (calls > 0) ? TimeUnit.NANOSECONDS.toMicros(this.totalTime.get() / calls) : 0;
+        }
+
+        /**
+         * @return the maximum latency in microseconds
+         */
+        public long getMaxTime() {
+            return TimeUnit.NANOSECONDS.toMicros(this.maxTime.get());
+        }
+
+        @Override
+        public String toString() {
+            return "calls=" + this.getCalls() + ", failures=" + this.getFailures() + ", averageTime=" + this.getAverageTime()
+                    + "us, maxTime=" + this.getMaxTime() + "us";
+        }
+    }
+
+    private final ConcurrentMap<String, MethodStatistics> methods = new ConcurrentHashMap<String, MethodStatistics>();
+
+    /**
+     * Records an RPC.
+     *
+     * @param serviceName the name of the called service
+     * @param methodName the name of the called method
+     * @param nanos the latency of the call in nanoseconds
+     * @param failed whether the call failed
+     */
+    public void update(String serviceName, String methodName, long nanos, boolean failed) {
+        String key = serviceName + "." + methodName;
+        MethodStatistics statistics = this.methods.get(key);
+        if (statistics == null) {
+            statistics = new MethodStatistics();
+            MethodStatistics existing = this.methods.putIfAbsent(key, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        statistics.update(nanos, failed);
+    }
+
+    /**
+     * @return the statistics per method, keyed by <code>serviceName.methodName</code>, sorted by key
+     */
+    public Map<String, MethodStatistics> getMethodStatistics() {
+        return new TreeMap<String, MethodStatistics>(this.methods);
+    }
+
+    public void reset() {
+        this.methods.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<String, MethodStatistics> entry : this.getMethodStatistics().entrySet()) {
+            result.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jgroups.Address;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.util.UUID;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for the dispatching of RPCs by method id in CoreGroupCommunicationService.
+ */
+public class CoreGroupCommunicationServiceTestCase {
+    private static final String SERVICE = "service";
+
+    private final CoreGroupCommunicationService service = new CoreGroupCommunicationService();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static class Handler {
+        public String echo(String value) {
+            return value;
+        }
+
+        public String echo(String value, Integer count) {
+            return value + count;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void indexedMethodCallCarriesOnlyIdAndArguments() throws Exception {
+        this.service.registerRPCHandler(SERVICE, new Handler());
+        Class<?>[] types = new Class<?>[] { String.class };
+        int id = new RpcMethodTable(Handler.class).getId("echo", types).intValue();
+
+        byte[] buffer = this.service.new RequestMarshallerImpl().objectToByteBuffer(new CoreGroupCommunicationService.IndexedMethodCall(SERVICE, "echo", id, new Object[] { "a" }, types));
+
+        Object[] wrapper = (Object[]) this.service.objectFromByteBufferInternal(buffer);
+        assertEquals(3, wrapper.length);
+        assertEquals(SERVICE, wrapper[0]);
+        Object body = this.service.objectFromByteBufferInternal((byte[]) wrapper[1]);
+        assertArrayEquals(new Object[] { "a" }, (Object[]) body);
+        assertEquals(Integer.valueOf(id), wrapper[2]);
+    }
+
+    @Test
+    public void indexedMethodCallIsSmallerThanPlainMethodCall() throws Exception {
+        this.service.registerRPCHandler(SERVICE, new Handler());
+        Class<?>[] types = new Class<?>[] { String.class, Integer.class };
+        Object[] args = new Object[] { "a", Integer.valueOf(1) };
+        int id = new RpcMethodTable(Handler.class).getId("echo", types).intValue();
+        CoreGroupCommunicationService.RequestMarshallerImpl marshaller = this.service.new RequestMarshallerImpl();
+
+        byte[] indexed = marshaller.objectToByteBuffer(new CoreGroupCommunicationService.IndexedMethodCall(SERVICE, "echo", id, args, types));
+        byte[] plain = marshaller.objectToByteBuffer(new MethodCall(SERVICE + ".echo", args, types));
+
+        assertTrue(indexed.length + " >= " + plain.length, indexed.length < plain.length);
+    }
+
+    @Test
+    public void methodIdIsOnlySentToNodesWhichSupportIt() throws Exception {
+        this.service.registerRPCHandler(SERVICE, new Handler());
+        Class<?>[] types = new Class<?>[] { String.class };
+        Object[] args = new Object[] { "a" };
+        Address address = UUID.randomUUID();
+
+        // an older node, or one which has not answered the negotiation yet
+        assertFalse(this.service.isMethodIdSupported(address));
+        MethodCall call = this.service.createMethodCall(SERVICE, "echo", args, types, this.service.isMethodIdSupported(address));
+        assertSame(MethodCall.class, call.getClass());
+        assertEquals(SERVICE + ".echo", call.getName());
+
+        this.service.methodIdMembers.add(address);
+        assertTrue(this.service.isMethodIdSupported(address));
+        call = this.service.createMethodCall(SERVICE, "echo", args, types, this.service.isMethodIdSupported(address));
+        assertSame(CoreGroupCommunicationService.IndexedMethodCall.class, call.getClass());
+
+        // methods which the local handler does not know are always called by name
+        call = this.service.createMethodCall(SERVICE, "other", args, types, true);
+        assertSame(MethodCall.class, call.getClass());
+    }
+
+    @Test
+    public void unknownMethodIdIsNotFound() throws Exception {
+        this.service.registerRPCHandler(SERVICE, new Handler());
+        int id = new RpcMethodTable(Handler.class).getId("echo", new Class<?>[] { String.class }).intValue();
+
+        Method method = this.service.getRpcMethod(SERVICE, id);
+        assertNotNull(method);
+        assertEquals("a", method.invoke(new Handler(), "a"));
+
+        assertNull(this.service.getRpcMethod(SERVICE, id + 1));
+        assertNull(this.service.getRpcMethod("other", id));
+    }
+
+    @Test
+    public void rpcCallbackIsNotNotifiedOnCompletingThread() throws Exception {
+        this.service.setThreadPool(this.executor);
+        final CountDownLatch notified = new CountDownLatch(1);
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        RpcCallback<List<String>> callback = new RpcCallback<List<String>>() {
+            @Override
+            public void completed(List<String> result) {
+                thread.set(Thread.currentThread());
+                notified.countDown();
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                thread.set(Thread.currentThread());
+                failure.set(cause);
+                notified.countDown();
+            }
+        };
+        CoreGroupCommunicationService.RpcFuture<String> future = this.service.new RpcFuture<String>(SERVICE, "echo", String.class, callback);
+        Exception cause = new Exception();
+        future.fail(cause);
+        future.localInvocationDone();
+
+        assertTrue(future.isDone());
+        try {
+            future.get();
+            fail("the rpc failed");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+        assertSame(cause, failure.get());
+        assertNotNull(thread.get());
+        assertNotSame(Thread.currentThread(), thread.get());
+    }
+}
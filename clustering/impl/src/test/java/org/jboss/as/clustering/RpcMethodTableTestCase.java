@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for RpcMethodTable.
+ */
+public class RpcMethodTableTestCase {
+
+    public static class Handler {
+        public String echo(String value) {
+            return value;
+        }
+
+        public int echo(int value) {
+            return value;
+        }
+
+        public void ping() {
+        }
+
+        public static void invalid() {
+        }
+    }
+
+    public static class OtherHandler {
+        public void ping() {
+        }
+
+        public String echo(String value) {
+            return value;
+        }
+    }
+
+    @Test
+    public void overloadsHaveDistinctIds() throws Exception {
+        RpcMethodTable table = new RpcMethodTable(Handler.class);
+        Integer stringId = table.getId("echo", new Class<?>[] { String.class });
+        Integer intId = table.getId("echo", new Class<?>[] { int.class });
+        assertNotNull(stringId);
+        assertNotNull(intId);
+        assertFalse(stringId.equals(intId));
+        assertEquals(Handler.class.getMethod("echo", String.class), table.getMethod(stringId.intValue()));
+        assertEquals(Handler.class.getMethod("echo", int.class), table.getMethod(intId.intValue()));
+    }
+
+    @Test
+    public void idsDependOnlyOnSignature() {
+        RpcMethodTable table = new RpcMethodTable(Handler.class);
+        RpcMethodTable other = new RpcMethodTable(OtherHandler.class);
+        assertEquals(table.getId("echo", new Class<?>[] { String.class }), other.getId("echo", new Class<?>[] { String.class }));
+        assertEquals(table.getId("ping", null), other.getId("ping", new Class<?>[0]));
+    }
+
+    @Test
+    public void unknownMethodsHaveNoId() {
+        RpcMethodTable table = new RpcMethodTable(Handler.class);
+        assertNull(table.getId("echo", new Class<?>[] { Long.class }));
+        assertNull(table.getId("missing", null));
+        assertNull(table.getId("invalid", null));
+        assertNull(table.getMethod(0));
+    }
+}
@@ -24,12 +24,16 @@ package org.jboss.as.clustering.web.infinispan;
 import java.io.IOException;
 import java.util.Map;
 
+import org.jboss.as.clustering.SimpleMarshalledValue;
 import org.jboss.as.clustering.web.OutgoingSessionGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
 /**
  * Handles session attribute load/store operations for {@link ReplicationGranularity#SESSION} distributed session managers.
+ * <p/>
+ * The attributes are marshalled when stored, and are not stored again, so not replicated, if their marshalled form is the
+ * same as the one already in the cache.
  *
  * @author Paul Ferraro
  */
@@ -50,7 +54,16 @@ public class CoarseSessionAttributeStorage implements SessionAttributeStorage<Ou
     public void store(Map<Object, Object> map, OutgoingSessionGranularitySessionData sessionData) throws IOException {
         Map<String, Object> attributes = sessionData.getSessionAttributes();
         if (attributes != null) {
-            SessionMapEntry.ATTRIBUTES.put(map, this.marshaller.marshal(attributes));
+            Object marshalled = this.marshaller.marshal(attributes);
+            if (marshalled instanceof SimpleMarshalledValue) {
+                SimpleMarshalledValue<?> value = (SimpleMarshalledValue<?>) marshalled;
+                value.marshal();
+                Object existing = SessionMapEntry.ATTRIBUTES.get(map);
+                if ((existing instanceof SimpleMarshalledValue) && value.isMarshalledEqual((SimpleMarshalledValue<?>) existing)) {
+                    return;
+                }
+            }
+            SessionMapEntry.ATTRIBUTES.put(map, marshalled);
         }
     }
 
@@ -222,14 +222,15 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData,
             public Void invoke(Cache<K, Map<Object, Object>> cache) {
                 Map<Object, Object> map = cache.putIfAbsent(key, null);
 
-                SessionMapEntry.VERSION.put(map, Integer.valueOf(sessionData.getVersion()));
-                SessionMapEntry.METADATA.put(map, sessionData.getMetadata());
-                SessionMapEntry.TIMESTAMP.put(map, sessionData.getTimestamp());
+                // Attributes are stored first, so that the attribute storage can see which version of the session the cache holds
                 try {
                     DistributedCacheManager.this.attributeStorage.store(map, sessionData);
                 } catch (IOException e) {
                     throw getRuntimeException("Failed to store session attributes for session: " + mask(key.getSessionId()), e);
                 }
+                SessionMapEntry.VERSION.put(map, Integer.valueOf(sessionData.getVersion()));
+                SessionMapEntry.METADATA.put(map, sessionData.getMetadata());
+                SessionMapEntry.TIMESTAMP.put(map, sessionData.getTimestamp());
                 return null;
             }
         };
@@ -22,20 +22,37 @@
 package org.jboss.as.clustering.web.infinispan;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.SimpleMarshalledValue;
+import org.jboss.as.clustering.web.DeltaSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 
 /**
  * Handles session attribute load/store operations for {@link ReplicationGranularity#ATTRIBUTE} distributed session managers.
+ * <p/>
+ * Attributes are marshalled when stored, and a modified attribute whose marshalled form is the same as the one already in
+ * the cache is not stored again, so it is not replicated. A {@link DeltaSessionAttribute} already in the cache is
+ * replicated as a sequence of deltas, each stored under a {@link SessionAttributeDeltaKey}, until the sequence reaches
+ * {@link #MAX_DELTAS} and the whole attribute is stored again.
+ * <p/>
+ * Taking a delta from an attribute discards the changes it records, so a delta is only stored if the cache holds the
+ * previous version of the session. Otherwise the batch storing the previous version was rolled back, or another node
+ * stored the session since, and the earlier deltas may be missing from the cache, so the whole attribute is stored
+ * instead. This relies on the attributes being stored before the {@link SessionMapEntry#VERSION version} of the session
+ * is updated.
  *
  * @author Paul Ferraro
  */
 public class FineSessionAttributeStorage implements SessionAttributeStorage<OutgoingAttributeGranularitySessionData> {
+    /** The maximum number of deltas stored for an attribute before the whole attribute is stored */
+    public static final int MAX_DELTAS = 16;
+
     private final SessionAttributeMarshaller marshaller;
 
     public FineSessionAttributeStorage(SessionAttributeMarshaller marshaller) {
@@ -53,8 +70,29 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
         Map<String, Object> modified = sessionData.getModifiedSessionAttributes();
 
         if (modified != null) {
+            Integer storedVersion = SessionMapEntry.VERSION.get(map);
+            boolean previousVersionStored = (storedVersion != null) && (storedVersion.intValue() == sessionData.getVersion() - 1);
+
             for (Map.Entry<String, Object> entry : modified.entrySet()) {
-                map.put(entry.getKey(), this.marshaller.marshal(entry.getValue()));
+                String attribute = entry.getKey();
+                Object value = entry.getValue();
+                if (value instanceof DeltaSessionAttribute) {
+                    // Always take the delta, so the next one does not repeat changes included in the whole attribute
+                    Serializable delta = ((DeltaSessionAttribute<?>) value).getDelta();
+                    if ((delta != null) && previousVersionStored && map.containsKey(attribute)) {
+                        int index = countDeltas(map, attribute);
+                        if (index < MAX_DELTAS) {
+                            map.put(new SessionAttributeDeltaKey(attribute, index), this.marshal(delta));
+                            continue;
+                        }
+                    }
+                }
+                Object marshalled = this.marshal(value);
+                // Deltas only apply to the attribute they were recorded against
+                boolean removedDeltas = removeDeltas(map, attribute);
+                if (removedDeltas || !isUnchanged(map.get(attribute), marshalled)) {
+                    map.put(attribute, marshalled);
+                }
             }
         }
 
@@ -63,6 +101,7 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
         if (removed != null) {
             for (String attribute : removed) {
                 map.remove(attribute);
+                removeDeltas(map, attribute);
             }
         }
     }
@@ -84,6 +123,56 @@ public class FineSessionAttributeStorage implements SessionAttributeStorage<Outg
             }
         }
 
+        for (Map.Entry<String, Object> entry : result.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof DeltaSessionAttribute) {
+                @SuppressWarnings("unchecked")
+                DeltaSessionAttribute<Serializable> attribute = (DeltaSessionAttribute<Serializable>) value;
+                for (int i = 0; i < MAX_DELTAS; ++i) {
+                    Object delta = data.get(new SessionAttributeDeltaKey(entry.getKey(), i));
+                    if (delta == null) break;
+                    attribute.applyDelta(i, (Serializable) this.marshaller.unmarshal(delta));
+                }
+            }
+        }
+
         return result;
     }
+
+    /**
+     * Marshals the specified value, such that its marshalled form can be compared with that of the value already in the
+     * cache, and is not recomputed each time the value is replicated.
+     */
+    private Object marshal(Object value) throws IOException {
+        Object marshalled = this.marshaller.marshal(value);
+        if (marshalled instanceof SimpleMarshalledValue) {
+            ((SimpleMarshalledValue<?>) marshalled).marshal();
+        }
+        return marshalled;
+    }
+
+    private static boolean isUnchanged(Object existing, Object marshalled) {
+        if ((existing == null) || (marshalled == null)) return false;
+        if (marshalled instanceof SimpleMarshalledValue) {
+            return (existing instanceof SimpleMarshalledValue) && ((SimpleMarshalledValue<?>) marshalled).isMarshalledEqual((SimpleMarshalledValue<?>) existing);
+        }
+        // Values that are not marshalled are immutable, unless they are arrays
+        return !marshalled.getClass().isArray() && marshalled.equals(existing);
+    }
+
+    private static int countDeltas(Map<Object, Object> map, String attribute) {
+        int count = 0;
+        while ((count < MAX_DELTAS) && map.containsKey(new SessionAttributeDeltaKey(attribute, count))) {
+            count += 1;
+        }
+        return count;
+    }
+
+    private static boolean removeDeltas(Map<Object, Object> map, String attribute) {
+        int count = countDeltas(map, attribute);
+        for (int i = 0; i < count; ++i) {
+            map.remove(new SessionAttributeDeltaKey(attribute, i));
+        }
+        return count > 0;
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web.infinispan;
+
+import java.io.Serializable;
+
+/**
+ * Key of an entry of a session's atomic map holding one of the deltas of a
+ * {@link org.jboss.as.clustering.web.DeltaSessionAttribute}, stored next to the attribute itself.
+ */
+public class SessionAttributeDeltaKey implements Serializable {
+    private static final long serialVersionUID = 7227862513906387591L;
+
+    private final String attribute;
+    private final int index;
+
+    public SessionAttributeDeltaKey(String attribute, int index) {
+        this.attribute = attribute;
+        this.index = index;
+    }
+
+    public String getAttribute() {
+        return this.attribute;
+    }
+
+    /**
+     * @return the position of this delta in the sequence of deltas to apply to the attribute
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if ((object == null) || !(object instanceof SessionAttributeDeltaKey)) return false;
+
+        SessionAttributeDeltaKey key = (SessionAttributeDeltaKey) object;
+
+        return (this.index == key.index) && this.attribute.equals(key.attribute);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.attribute.hashCode() * 31 + this.index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s#%d", this.attribute, this.index);
+    }
+}
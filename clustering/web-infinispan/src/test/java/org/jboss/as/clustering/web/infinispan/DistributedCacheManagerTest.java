@@ -58,6 +58,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 /**
@@ -190,7 +191,10 @@ public class DistributedCacheManagerTest {
 
         operation.invoke(this.sessionCache);
 
-        verify(this.storage).store(same(map), same(data));
+        // The attribute storage must see the version stored previously
+        InOrder order = inOrder(this.storage, map);
+        order.verify(this.storage).store(same(map), same(data));
+        order.verify(map).put(Byte.valueOf((byte) SessionMapEntry.VERSION.ordinal()), version);
     }
 
     @Test
@@ -26,17 +26,22 @@ import static org.mockito.Mockito.*;
 
 import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.clustering.web.DeltaSessionAttribute;
 import org.jboss.as.clustering.web.OutgoingAttributeGranularitySessionData;
 import org.jboss.as.clustering.web.SessionAttributeMarshaller;
 import org.junit.After;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 /**
  * @author Paul Ferraro
@@ -106,4 +111,171 @@ public class FineSessionAttributeStorageTest {
         assertEquals("value", result.get("key"));
     }
 
+    @Test
+    public void storeUnchanged() throws IOException {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put("key", "value");
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        String value = new String("value");
+
+        when(data.getModifiedSessionAttributes()).thenReturn(Collections.singletonMap("key", (Object) value));
+        when(this.marshaller.marshal(value)).thenReturn(value);
+
+        this.storage.store(map, data);
+
+        assertNotSame(value, map.get("key"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void storeDelta() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        ListAttribute attribute = new ListAttribute();
+        attribute.add("a");
+
+        when(data.getModifiedSessionAttributes()).thenReturn(Collections.singletonMap("key", (Object) attribute));
+        when(this.marshaller.marshal(any())).thenAnswer(new Copy());
+        when(this.marshaller.unmarshal(any())).thenAnswer(new Copy());
+
+        // The first store replicates the whole attribute
+        int version = 1;
+        this.store(map, data, version++);
+
+        assertEquals(2, map.size());
+        assertNotSame(attribute, map.get("key"));
+
+        attribute.add("b");
+        this.store(map, data, version++);
+        attribute.add("c");
+        this.store(map, data, version++);
+
+        assertEquals(4, map.size());
+        assertEquals(Arrays.asList("a"), map.get("key"));
+        assertEquals(Arrays.asList("b"), map.get(new SessionAttributeDeltaKey("key", 0)));
+        assertEquals(Arrays.asList("c"), map.get(new SessionAttributeDeltaKey("key", 1)));
+
+        Map<String, Object> result = this.storage.load(map);
+        assertEquals(Arrays.asList("a", "b", "c"), result.get("key"));
+
+        // Once the deltas are exhausted, the whole attribute is replicated again
+        for (int i = 2; i < FineSessionAttributeStorage.MAX_DELTAS; ++i) {
+            attribute.add(String.valueOf(i));
+            this.store(map, data, version++);
+        }
+        assertEquals(2 + FineSessionAttributeStorage.MAX_DELTAS, map.size());
+        attribute.add("last");
+        this.store(map, data, version++);
+
+        assertEquals(2, map.size());
+        assertEquals(attribute, map.get("key"));
+        assertEquals(attribute, this.storage.load(map).get("key"));
+    }
+
+    @Test
+    public void storeDeltaAfterRollback() throws Exception {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+        ListAttribute attribute = new ListAttribute();
+        attribute.add("a");
+
+        when(data.getModifiedSessionAttributes()).thenReturn(Collections.singletonMap("key", (Object) attribute));
+        when(this.marshaller.marshal(any())).thenAnswer(new Copy());
+        when(this.marshaller.unmarshal(any())).thenAnswer(new Copy());
+
+        this.store(map, data, 1);
+        attribute.add("b");
+        this.store(map, data, 2);
+
+        // The batch storing the next delta is rolled back, but the attribute no longer records that change
+        Map<Object, Object> committed = new HashMap<Object, Object>(map);
+        attribute.add("c");
+        this.store(map, data, 3);
+        map = committed;
+
+        // So the next store replicates the whole attribute
+        attribute.add("d");
+        this.store(map, data, 4);
+
+        assertEquals(2, map.size());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), map.get("key"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), this.storage.load(map).get("key"));
+
+        // After which deltas are stored again
+        attribute.add("e");
+        this.store(map, data, 5);
+
+        assertEquals(3, map.size());
+        assertEquals(Arrays.asList("e"), map.get(new SessionAttributeDeltaKey("key", 0)));
+    }
+
+    @Test
+    public void removeDelta() throws IOException {
+        Map<Object, Object> map = new HashMap<Object, Object>();
+        map.put("key", new ListAttribute());
+        map.put(new SessionAttributeDeltaKey("key", 0), new ArrayList<String>());
+        OutgoingAttributeGranularitySessionData data = mock(OutgoingAttributeGranularitySessionData.class);
+
+        when(data.getRemovedSessionAttributes()).thenReturn(Collections.singleton("key"));
+
+        this.storage.store(map, data);
+
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Stores the attributes of a session, and then its version, as {@link DistributedCacheManager} does.
+     */
+    private void store(Map<Object, Object> map, OutgoingAttributeGranularitySessionData data, int version) throws IOException {
+        when(data.getVersion()).thenReturn(version);
+        this.storage.store(map, data);
+        SessionMapEntry.VERSION.put(map, Integer.valueOf(version));
+    }
+
+    static class ListAttribute extends ArrayList<String> implements DeltaSessionAttribute<ArrayList<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private transient ArrayList<String> added;
+        private transient int lastIndex = -1;
+
+        @Override
+        public boolean add(String value) {
+            if (this.added != null) {
+                this.added.add(value);
+            }
+            return super.add(value);
+        }
+
+        @Override
+        public ArrayList<String> getDelta() {
+            ArrayList<String> delta = this.added;
+            this.added = new ArrayList<String>();
+            return delta;
+        }
+
+        @Override
+        public void applyDelta(int index, ArrayList<String> delta) {
+            if (index > this.lastIndex) {
+                this.lastIndex = index;
+                super.addAll(delta);
+            }
+        }
+    }
+
+    /**
+     * Marshals a value by copying it, as replication would.
+     */
+    static class Copy implements Answer<Object> {
+        @SuppressWarnings("unchecked")
+        @Override
+        public Object answer(InvocationOnMock invocation) {
+            Object value = invocation.getArguments()[0];
+            if (value instanceof ListAttribute) {
+                ListAttribute copy = new ListAttribute();
+                copy.addAll((ListAttribute) value);
+                return copy;
+            }
+            return (value instanceof ArrayList) ? new ArrayList<String>((ArrayList<String>) value) : value;
+        }
+    }
 }
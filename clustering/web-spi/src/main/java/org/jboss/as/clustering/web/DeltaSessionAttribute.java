@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.web;
+
+import java.io.Serializable;
+
+/**
+ * A session attribute, typically a large collection, that records its own changes so that only those changes need to be
+ * replicated for {@link org.jboss.metadata.web.jboss.ReplicationGranularity#ATTRIBUTE} distributed session managers,
+ * rather than the whole attribute.
+ * @param <D> the type of the changes
+ */
+public interface DeltaSessionAttribute<D extends Serializable> extends Serializable {
+    /**
+     * Returns the changes made to this attribute since the last call to this method, and starts recording changes anew.
+     * @return the recorded changes, or <code>null</code> if the whole attribute must be replicated, e.g. because its
+     *         changes were not recorded since it was created or deserialized.
+     */
+    D getDelta();
+
+    /**
+     * Applies changes returned by {@link #getDelta()} on another node to this attribute. Deltas are applied in the order
+     * of their index, which starts at 0 for the first delta recorded after the whole attribute was last replicated. When a
+     * session is reloaded, deltas already applied to this attribute are applied again, so implementations must ignore a
+     * delta whose index is not greater than that of the last delta they applied.
+     * @param index the index of the delta
+     * @param delta the changes to apply
+     */
+    void applyDelta(int index, D delta);
+}
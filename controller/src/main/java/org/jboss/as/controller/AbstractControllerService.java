@@ -23,6 +23,7 @@
 package org.jboss.as.controller;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -32,6 +33,7 @@ import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
+import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
@@ -39,6 +41,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 
 /**
  * A base class for controller services.
@@ -98,7 +101,9 @@ public abstract class AbstractControllerService implements Service<ModelControll
     private final DescriptionProvider rootDescriptionProvider;
     private final ControlledProcessState processState;
     private final OperationStepHandler prepareStep;
+    private final ReadOperationStatistics readOperationStatistics = new ReadOperationStatistics();
     private volatile ModelControllerImpl controller;
+    private final InjectedValue<ExecutorService> readOnlyExecutor = new InjectedValue<ExecutorService>();
 
     /**
      * Construct a new instance.
@@ -121,7 +126,7 @@ public abstract class AbstractControllerService implements Service<ModelControll
         final ServiceController<?> serviceController = context.getController();
         final ServiceContainer container = serviceController.getServiceContainer();
         final ServiceTarget target = context.getChildTarget();
-        final ModelControllerImpl controller = new ModelControllerImpl(container, target, ManagementResourceRegistration.Factory.create(rootDescriptionProvider), new ContainerStateMonitor(container, serviceController), configurationPersister, controllerType, prepareStep, processState);
+        final ModelControllerImpl controller = new ModelControllerImpl(container, target, ManagementResourceRegistration.Factory.create(rootDescriptionProvider), new ContainerStateMonitor(container, serviceController), configurationPersister, controllerType, prepareStep, processState, readOnlyExecutor.getOptionalValue(), readOperationStatistics);
         initModel(controller.getRootResource(), controller.getRootRegistration());
         this.controller = controller;
 
@@ -182,6 +187,26 @@ public abstract class AbstractControllerService implements Service<ModelControll
         controller = null;
     }
 
+    /**
+     * Gets the injector for the executor used to run the steps of read-only composite operations in parallel. If
+     * nothing is injected the steps are run one after the other.
+     *
+     * @return the injector
+     * @see ReadOnlyOperationExecutorService
+     */
+    protected Injector<ExecutorService> getReadOnlyExecutorInjector() {
+        return readOnlyExecutor;
+    }
+
+    /**
+     * Gets the latency statistics of the read-only operations executed by the controller.
+     *
+     * @return the statistics. Will not be {@code null}
+     */
+    protected ReadOperationStatistics getReadOperationStatistics() {
+        return readOperationStatistics;
+    }
+
     public ModelController getValue() throws IllegalStateException, IllegalArgumentException {
         final ModelController controller = this.controller;
         if (controller == null) {
@@ -25,25 +25,39 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOW_RESOURCE_SERVICE_RESTART;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -52,6 +66,7 @@ import org.jboss.as.controller.operations.common.ExtensionAddHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -87,10 +102,13 @@ class ModelControllerImpl implements ModelController {
     private final AtomicBoolean bootingFlag = new AtomicBoolean(true);
     private final OperationStepHandler prepareStep;
     private final ControlledProcessState processState;
+    private final Executor readOnlyExecutor;
+    private final ReadOperationStatistics readOperationStatistics;
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister, final OperationContext.Type controllerType,
-                        final OperationStepHandler prepareStep, final ControlledProcessState processState) {
+                        final OperationStepHandler prepareStep, final ControlledProcessState processState,
+                        final Executor readOnlyExecutor, final ReadOperationStatistics readOperationStatistics) {
         this.serviceRegistry = serviceRegistry;
         this.serviceTarget = serviceTarget;
         this.rootRegistration = rootRegistration;
@@ -99,10 +117,45 @@ class ModelControllerImpl implements ModelController {
         this.controllerType = controllerType;
         this.prepareStep = prepareStep == null ? new DefaultPrepareStepHandler() : prepareStep;
         this.processState = processState;
+        this.readOnlyExecutor = readOnlyExecutor;
+        this.readOperationStatistics = readOperationStatistics;
         this.serviceTarget.addListener(ServiceListener.Inheritance.ALL, stateMonitor);
     }
 
     public ModelNode execute(final ModelNode operation, final OperationMessageHandler handler, final OperationTransactionControl control, final OperationAttachments attachments) {
+        final ModelNode response;
+        if (isReadOnly(operation)) {
+            final long start = System.nanoTime();
+            try {
+                // The published model is never modified (writes go to a CopyOnWriteModel), so read-only operations
+                // can use it as a consistent snapshot without taking the write lock.
+                final Resource snapshot = model.getDelegate();
+                if (readOnlyExecutor != null && prepareStep instanceof DefaultPrepareStepHandler
+                        && (control == null || control == OperationTransactionControl.COMMIT) && isComposite(operation)) {
+                    response = executeReadOnlyComposite(operation, handler, control, attachments, snapshot);
+                } else {
+                    response = execute(operation, handler, control, attachments, snapshot);
+                }
+            } finally {
+                readOperationStatistics.record(System.nanoTime() - start);
+            }
+        } else {
+            response = execute(operation, handler, control, attachments, model);
+        }
+
+        ControlledProcessState.State state = processState.getState();
+        switch (state) {
+            case RELOAD_REQUIRED:
+            case RESTART_REQUIRED:
+                response.get(RESPONSE_HEADERS, PROCESS_STATE).set(state.toString());
+                break;
+            default:
+                break;
+        }
+        return response;
+    }
+
+    private ModelNode execute(final ModelNode operation, final OperationMessageHandler handler, final OperationTransactionControl control, final OperationAttachments attachments, final Resource model) {
         final ModelNode headers = operation.has(OPERATION_HEADERS) ? operation.get(OPERATION_HEADERS) : null;
         final boolean rollbackOnFailure = headers == null || !headers.hasDefined(ROLLBACK_ON_RUNTIME_FAILURE) || headers.get(ROLLBACK_ON_RUNTIME_FAILURE).asBoolean();
         final EnumSet<OperationContextImpl.ContextFlag> contextFlags = rollbackOnFailure ? EnumSet.of(OperationContextImpl.ContextFlag.ROLLBACK_ON_FAIL) : EnumSet.noneOf(OperationContextImpl.ContextFlag.class);
@@ -115,19 +168,137 @@ class ModelControllerImpl implements ModelController {
         context.addStep(response, operation, prepareStep, OperationContext.Stage.MODEL);
 
         context.completeStep();
+        return response;
+    }
 
-        ControlledProcessState.State state = processState.getState();
-        switch (state) {
-            case RELOAD_REQUIRED:
-            case RESTART_REQUIRED:
-                response.get(RESPONSE_HEADERS, PROCESS_STATE).set(state.toString());
-                break;
-            default:
-                break;
+    /**
+     * Executes the steps of a composite operation which only consists of read-only operations. Every step is executed
+     * in an operation context of its own, against the same snapshot of the model. The steps addressing the same top
+     * level resource (typically a subsystem) are executed in order, the ones addressing different top level resources
+     * are executed concurrently.
+     */
+    private ModelNode executeReadOnlyComposite(final ModelNode operation, final OperationMessageHandler handler, final OperationTransactionControl control,
+                                               final OperationAttachments attachments, final Resource snapshot) {
+        final List<ModelNode> steps = operation.get(STEPS).asList();
+        final ModelNode[] responses = new ModelNode[steps.size()];
+        final Map<PathElement, List<Integer>> groups = new LinkedHashMap<PathElement, List<Integer>>();
+        for (int i = 0; i < steps.size(); i++) {
+            final PathAddress address = getAddress(steps.get(i));
+            final PathElement key = address.size() == 0 ? null : address.getElement(0);
+            List<Integer> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                groups.put(key, group);
+            }
+            group.add(i);
+        }
+        final OperationMessageHandler messageHandler = handler == null ? null : new OperationMessageHandler() {
+            public synchronized void handleReport(final MessageSeverity severity, final String message) {
+                handler.handleReport(severity, message);
+            }
+        };
+
+        final List<Future<?>> futures = new ArrayList<Future<?>>(groups.size());
+        Runnable last = null;
+        for (final List<Integer> group : groups.values()) {
+            final Runnable task = new Runnable() {
+                public void run() {
+                    for (Integer i : group) {
+                        responses[i] = execute(steps.get(i), messageHandler, control, attachments, snapshot);
+                    }
+                }
+            };
+            if (last != null) {
+                final FutureTask<Void> future = new FutureTask<Void>(last, null);
+                futures.add(future);
+                readOnlyExecutor.execute(future);
+            }
+            last = task;
+        }
+
+        final ModelNode response = new ModelNode();
+        try {
+            // the calling thread takes care of the last group itself
+            if (last != null) {
+                last.run();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            response.get(OUTCOME).set(CANCELLED);
+            response.get(FAILURE_DESCRIPTION).set("Operation cancelled");
+            return response;
+        } catch (ExecutionException e) {
+            log.errorf(e.getCause(), "Operation (%s) failed", operation.get(OP));
+        }
+
+        final ModelNode result = response.get(RESULT).setEmptyObject();
+        final ModelNode failureMsg = new ModelNode();
+        // the steps only read, so there is nothing to roll back
+        final String baseMsg = "Composite operation failed. Steps that failed:";
+        for (int i = 0; i < steps.size(); i++) {
+            final String stepName = "step-" + (i + 1);
+            final ModelNode stepResponse = responses[i];
+            if (stepResponse == null) {
+                failureMsg.get(baseMsg, "Operation " + stepName).set("Operation handler failed to complete");
+                result.get(stepName).setEmptyObject();
+            } else {
+                if (stepResponse.hasDefined(FAILURE_DESCRIPTION)) {
+                    failureMsg.get(baseMsg, "Operation " + stepName).set(stepResponse.get(FAILURE_DESCRIPTION));
+                }
+                result.get(stepName).set(stepResponse);
+            }
+        }
+        if (failureMsg.isDefined()) {
+            response.get(OUTCOME).set(FAILED);
+            response.get(FAILURE_DESCRIPTION).set(failureMsg);
+        } else {
+            response.get(OUTCOME).set(SUCCESS);
         }
         return response;
     }
 
+    /**
+     * Determines whether an operation only reads, i.e. whether it is registered with the
+     * {@link OperationEntry.Flag#READ_ONLY} flag, or is a composite consisting of such operations only.
+     */
+    private boolean isReadOnly(final ModelNode operation) {
+        try {
+            if (!operation.hasDefined(OP)) {
+                return false;
+            }
+            if (isComposite(operation)) {
+                if (!operation.hasDefined(STEPS) || operation.get(STEPS).asList().isEmpty()) {
+                    return false;
+                }
+                for (ModelNode step : operation.get(STEPS).asList()) {
+                    if (!isReadOnly(step)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            final Set<OperationEntry.Flag> flags = rootRegistration.getOperationFlags(getAddress(operation), operation.get(OP).asString());
+            return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY);
+        } catch (RuntimeException e) {
+            // malformed; leave it to the regular path to report the failure
+            return false;
+        }
+    }
+
+    private static boolean isComposite(final ModelNode operation) {
+        return COMPOSITE.equals(operation.get(OP).asString()) && getAddress(operation).size() == 0;
+    }
+
+    private static PathAddress getAddress(final ModelNode operation) {
+        return operation.hasDefined(OP_ADDR) ? PathAddress.pathAddress(operation.get(OP_ADDR)) : PathAddress.EMPTY_ADDRESS;
+    }
+
     void boot(final List<ModelNode> bootList, final OperationMessageHandler handler, final OperationTransactionControl control) {
 
         // Execute all ops prior to the first ExtensionAddHandler as well as all ExtensionAddHandlers; save the rest.
@@ -207,6 +378,16 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    /**
+     * Gets the currently published model, as opposed to the {@link #getRootResource() root resource} which always
+     * delegates to the latest published model.
+     *
+     * @return the published model
+     */
+    Resource getPublishedModel() {
+        return model.getDelegate();
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -409,7 +590,7 @@ class ModelControllerImpl implements ModelController {
 
     /**
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
-     * after acquiring the write lock on a clone of the underlying model.
+     * after acquiring the write lock on a (copy-on-write) copy of the underlying model.
      */
     private class RootResource implements Resource {
 
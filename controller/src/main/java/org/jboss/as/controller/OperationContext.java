@@ -363,6 +363,16 @@ public interface OperationContext {
      */
     Resource getRootResource();
 
+    /**
+     * Get a read-only reference of the entire management model as it was published when this context was created.
+     * Unlike {@link #getRootResource()} the model is not copied, which makes this cheap to call for large models.
+     * The returned resource is shared with the controller and other operations so it must never be modified, and
+     * it does not reflect changes made by this context.
+     *
+     * @return the read-only resource
+     */
+    Resource getOriginalRootResource();
+
     /**
      * Determine whether the model has thus far been affected by this operation.
      *
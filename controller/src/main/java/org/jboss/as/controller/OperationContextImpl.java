@@ -55,6 +55,7 @@ import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -114,6 +115,10 @@ final class OperationContextImpl implements OperationContext {
     private ModelNode operation;
 
     private Resource model;
+    /** The published model this context was created against */
+    private final Resource originalModel;
+    /** The private copy of the model, once any steps have gotten write access to it */
+    private CopyOnWriteModel writableModel;
     private ResultAction resultAction;
     /** Tracks whether any steps have gotten write access to the runtime */
     private boolean affectsRuntime;
@@ -141,6 +146,7 @@ final class OperationContextImpl implements OperationContext {
         this.transactionControl = transactionControl;
         this.booting = booting;
         this.model = model;
+        this.originalModel = model == modelController.getRootResource() ? modelController.getPublishedModel() : model;
         this.modelController = modelController;
         this.messageHandler = messageHandler;
         this.attachments = attachments;
@@ -676,6 +682,16 @@ final class OperationContextImpl implements OperationContext {
         return serviceTarget;
     }
 
+    /**
+     * Takes the write lock and creates a private copy of the model. Only the resources on the paths that are
+     * written to are actually copied, the rest of the model is shared with the published one.
+     */
+    private void createWritableModel() {
+        takeWriteLock();
+        writableModel = CopyOnWriteModel.create(modelController.getPublishedModel());
+        model = writableModel.getRoot();
+    }
+
     private void takeWriteLock() {
         if (lockDepth == 0) {
             if (currentStage == Stage.DONE) {
@@ -736,8 +752,7 @@ final class OperationContextImpl implements OperationContext {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
         if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
+            createWritableModel();
         }
         affectsModel.add(address);
         Resource model = this.model;
@@ -757,13 +772,13 @@ final class OperationContextImpl implements OperationContext {
                     }
                     // TODO check cardinality
                     final Resource newModel = Resource.Factory.create();
-                    model.registerChild(element, newModel);
+                    writableModel.registerChild(model, element, newModel);
                     model = newModel;
                 } else {
-                    model = model.requireChild(element);
+                    model = writableModel.requireChildForUpdate(model, element);
                 }
             } else {
-                model = model.requireChild(element);
+                model = writableModel.requireChildForUpdate(model, element);
             }
         }
         if(model == null) {
@@ -797,8 +812,7 @@ final class OperationContextImpl implements OperationContext {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
         if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
+            createWritableModel();
         }
         affectsModel.add(address);
         Resource resource = this.model;
@@ -808,9 +822,9 @@ final class OperationContextImpl implements OperationContext {
             if (element.isMultiTarget()) {
                 throw new IllegalArgumentException("Cannot write to *");
             }
-            resource = resource.requireChild(element);
+            resource = writableModel.requireChildForUpdate(resource, element);
         }
-        return resource;
+        return writableModel.requireSubtreeForUpdate(resource);
     }
 
     public Resource createResource(PathAddress relativeAddress) {
@@ -833,8 +847,7 @@ final class OperationContextImpl implements OperationContext {
             throw new IllegalStateException("Duplicate resource " + absoluteAddress);
         }
         if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
+            createWritableModel();
         }
         affectsModel.add(absoluteAddress);
         Resource model = this.model;
@@ -855,11 +868,11 @@ final class OperationContextImpl implements OperationContext {
                         throw new IllegalStateException("no child-type " + key);
                     }
                     // TODO check cardinality
-                    model.registerChild(element, toAdd);
+                    writableModel.registerChild(model, element, toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = writableModel.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -886,8 +899,7 @@ final class OperationContextImpl implements OperationContext {
             throw new IllegalStateException("Stage MODEL is already complete");
         }
         if (affectsModel.size() == 0) {
-            takeWriteLock();
-            model = model.clone();
+            createWritableModel();
         }
         affectsModel.add(address);
         Resource model = this.model;
@@ -898,9 +910,9 @@ final class OperationContextImpl implements OperationContext {
                 throw new IllegalArgumentException("Cannot remove *");
             }
             if (! i.hasNext()) {
-                model = model.removeChild(element);
+                model = writableModel.removeChild(model, element);
             } else {
-                model = model.requireChild(element);
+                model = writableModel.requireChildForUpdate(model, element);
             }
         }
         return model;
@@ -915,6 +927,10 @@ final class OperationContextImpl implements OperationContext {
         return readOnlyModel.clone();
     }
 
+    public Resource getOriginalRootResource() {
+        return originalModel;
+    }
+
     public boolean isModelAffected() {
         return affectsModel.size() > 0;
     }
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service providing the executor a {@link ModelController} uses to run the steps of read-only composite operations
+ * in parallel. The pool is bounded; if all threads are busy a step is run by the thread executing the operation.
+ */
+public final class ReadOnlyOperationExecutorService implements Service<ExecutorService> {
+
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * Adds the executor service for the given controller to the given service target.
+     *
+     * @param serviceTarget the service target
+     * @param controllerName the name of the controller service using the executor
+     * @return the name of the executor service
+     */
+    public static ServiceName addService(final ServiceTarget serviceTarget, final ServiceName controllerName) {
+        final ServiceName serviceName = getServiceName(controllerName);
+        serviceTarget.addService(serviceName, new ReadOnlyOperationExecutorService())
+                .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                .install();
+        return serviceName;
+    }
+
+    /**
+     * Gets the name of the executor service of the given controller.
+     *
+     * @param controllerName the name of the controller service
+     * @return the name of the executor service
+     */
+    public static ServiceName getServiceName(final ServiceName controllerName) {
+        return controllerName.append("read-only-executor");
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Management Read Thread-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public synchronized void stop(final StopContext context) {
+        executor.shutdown();
+        executor = null;
+    }
+
+    public synchronized ExecutorService getValue() throws IllegalStateException {
+        final ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        return executor;
+    }
+}
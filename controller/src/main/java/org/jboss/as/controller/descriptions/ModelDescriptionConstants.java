@@ -40,6 +40,9 @@ public class ModelDescriptionConstants {
     public static final String ALLOWED = "allowed";
     public static final String ALLOW_RESOURCE_SERVICE_RESTART = "allow-resource-service-restart";
     public static final String ALTERNATIVES = "alternatives";
+    public static final String ANNOTATION_INDEX_CACHE_HITS = "annotation-index-cache-hits";
+    public static final String ANNOTATION_INDEX_CACHE_MISSES = "annotation-index-cache-misses";
+    public static final String ANNOTATION_INDEX_TIMES = "annotation-index-times";
     public static final String ANY = "any";
     public static final String ANY_ADDRESS = "any-address";
     public static final String ANY_IPV4_ADDRESS = "any-ipv4-address";
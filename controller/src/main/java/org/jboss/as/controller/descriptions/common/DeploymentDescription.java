@@ -19,6 +19,9 @@
 package org.jboss.as.controller.descriptions.common;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ANNOTATION_INDEX_CACHE_HITS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ANNOTATION_INDEX_CACHE_MISSES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ANNOTATION_INDEX_TIMES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ARCHIVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BYTES;
@@ -56,6 +59,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TO_REPLACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEPLOY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNIT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_BYTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_STREAM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UPLOAD_DEPLOYMENT_URL;
@@ -65,6 +69,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VAL
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -149,6 +154,18 @@ public class DeploymentDescription {
                 root.get(ATTRIBUTES, STATUS, TYPE).set(ModelType.STRING);
                 root.get(ATTRIBUTES, STATUS, DESCRIPTION).set(bundle.getString("deployment.status"));
                 root.get(ATTRIBUTES, STATUS, REQUIRED).set(false);
+
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_TIMES, TYPE).set(ModelType.OBJECT);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_TIMES, VALUE_TYPE).set(ModelType.LONG);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_TIMES, DESCRIPTION).set(bundle.getString("deployment.annotation-index-times"));
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_TIMES, REQUIRED).set(false);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_TIMES, UNIT).set(MeasurementUnit.MILLISECONDS.getName());
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, TYPE).set(ModelType.LONG);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, DESCRIPTION).set(bundle.getString("deployment.annotation-index-cache-hits"));
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, REQUIRED).set(false);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, TYPE).set(ModelType.LONG);
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, DESCRIPTION).set(bundle.getString("deployment.annotation-index-cache-misses"));
+                root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, REQUIRED).set(false);
             }
         }
 
@@ -40,10 +40,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SECURITY_REALM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNIT;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
 
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.common.ReadOperationStatisticsHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -85,6 +88,15 @@ public class ManagementDescription {
             root.get(CHILDREN, MANAGEMENT_INTERFACE, DESCRIPTION).set(bundle.getString("core.management.management-interfaces"));
             root.get(CHILDREN, MANAGEMENT_INTERFACE, MIN_OCCURS).set(0);
             root.get(CHILDREN, MANAGEMENT_INTERFACE, MODEL_DESCRIPTION);
+
+            root.get(ATTRIBUTES, ReadOperationStatisticsHandler.READ_OPERATION_COUNT, DESCRIPTION).set(bundle.getString("core.management.read-operation-count"));
+            root.get(ATTRIBUTES, ReadOperationStatisticsHandler.READ_OPERATION_COUNT, TYPE).set(ModelType.LONG);
+            for (String latency : new String[] {ReadOperationStatisticsHandler.READ_OPERATION_LATENCY_50, ReadOperationStatisticsHandler.READ_OPERATION_LATENCY_90,
+                    ReadOperationStatisticsHandler.READ_OPERATION_LATENCY_99, ReadOperationStatisticsHandler.READ_OPERATION_LATENCY_MAX}) {
+                root.get(ATTRIBUTES, latency, DESCRIPTION).set(bundle.getString("core.management." + latency));
+                root.get(ATTRIBUTES, latency, TYPE).set(ModelType.LONG);
+                root.get(ATTRIBUTES, latency, UNIT).set(MeasurementUnit.MICROSECONDS.getName());
+            }
         }
 
         return root;
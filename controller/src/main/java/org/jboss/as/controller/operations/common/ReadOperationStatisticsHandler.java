@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.operations.common;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.ReadOperationStatistics;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Metric handler exposing the {@link ReadOperationStatistics} of a controller on its
+ * {@code core-service=management} resource.
+ */
+public final class ReadOperationStatisticsHandler implements OperationStepHandler {
+
+    public static final String READ_OPERATION_COUNT = "read-operation-count";
+    public static final String READ_OPERATION_LATENCY_50 = "read-operation-latency-50th-percentile";
+    public static final String READ_OPERATION_LATENCY_90 = "read-operation-latency-90th-percentile";
+    public static final String READ_OPERATION_LATENCY_99 = "read-operation-latency-99th-percentile";
+    public static final String READ_OPERATION_LATENCY_MAX = "read-operation-latency-max";
+
+    private final ReadOperationStatistics statistics;
+
+    public ReadOperationStatisticsHandler(final ReadOperationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Registers the read operation metrics with the {@code core-service=management} resource.
+     *
+     * @param management the registration of the management resource
+     * @param statistics the statistics of the controller
+     */
+    public static void registerMetrics(final ManagementResourceRegistration management, final ReadOperationStatistics statistics) {
+        final ReadOperationStatisticsHandler handler = new ReadOperationStatisticsHandler(statistics);
+        management.registerMetric(READ_OPERATION_COUNT, handler);
+        management.registerMetric(READ_OPERATION_LATENCY_50, handler);
+        management.registerMetric(READ_OPERATION_LATENCY_90, handler);
+        management.registerMetric(READ_OPERATION_LATENCY_99, handler);
+        management.registerMetric(READ_OPERATION_LATENCY_MAX, handler);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (READ_OPERATION_COUNT.equals(attributeName)) {
+            result.set(statistics.getCount());
+        } else if (READ_OPERATION_LATENCY_50.equals(attributeName)) {
+            result.set(statistics.getLatencyPercentile(50));
+        } else if (READ_OPERATION_LATENCY_90.equals(attributeName)) {
+            result.set(statistics.getLatencyPercentile(90));
+        } else if (READ_OPERATION_LATENCY_99.equals(attributeName)) {
+            result.set(statistics.getLatencyPercentile(99));
+        } else if (READ_OPERATION_LATENCY_MAX.equals(attributeName)) {
+            result.set(statistics.getMaxLatency());
+        } else {
+            throw new OperationFailedException(new ModelNode().set("Unknown metric " + attributeName));
+        }
+        context.completeStep();
+    }
+}
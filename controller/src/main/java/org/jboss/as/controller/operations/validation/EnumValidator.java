@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.validation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * {@link ParameterValidator} that validates the value is a string matching the {@link Enum#toString()} of one of the
+ * constants of an enum, which lets an enum use its configuration names as its string form.
+ */
+public class EnumValidator<E extends Enum<E>> extends ModelTypeValidator implements AllowedValuesValidator {
+
+    private final EnumSet<E> allowedValues;
+    private final Map<String, E> toStringMap = new LinkedHashMap<String, E>();
+
+    public EnumValidator(final Class<E> enumType, final boolean nullable) {
+        this(enumType, nullable, false);
+    }
+
+    public EnumValidator(final Class<E> enumType, final boolean nullable, final boolean allowExpressions) {
+        this(enumType, nullable, allowExpressions, EnumSet.allOf(enumType));
+    }
+
+    public EnumValidator(final Class<E> enumType, final boolean nullable, final boolean allowExpressions, final E... allowed) {
+        this(enumType, nullable, allowExpressions, toEnumSet(enumType, allowed));
+    }
+
+    private EnumValidator(final Class<E> enumType, final boolean nullable, final boolean allowExpressions, final EnumSet<E> allowed) {
+        super(ModelType.STRING, nullable, allowExpressions);
+        allowedValues = allowed;
+        for (E value : allowed) {
+            toStringMap.put(value.toString(), value);
+        }
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> toEnumSet(final Class<E> enumType, final E... values) {
+        final EnumSet<E> set = EnumSet.noneOf(enumType);
+        for (E value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Override
+    public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+        super.validateParameter(parameterName, value);
+        if (value.isDefined() && value.getType() != ModelType.EXPRESSION) {
+            final String str = value.asString();
+            if (!toStringMap.containsKey(str)) {
+                throw new OperationFailedException(new ModelNode().set(String.format("Invalid value %s for %s; legal values are %s",
+                        str, parameterName, toStringMap.keySet())));
+            }
+        }
+    }
+
+    @Override
+    public List<ModelNode> getAllowedValues() {
+        final List<ModelNode> result = new ArrayList<ModelNode>();
+        for (E value : allowedValues) {
+            result.add(new ModelNode().set(value.toString()));
+        }
+        return result;
+    }
+}
@@ -37,7 +37,8 @@ import org.jboss.dmr.ModelNode;
  * Standard {@link Resource} implementation.
  *
  * <p>Concurrency note: if a thread needs to modify a BasicResource, it must use the clone() method to obtain its
- * own copy of the resource. That instance cannot be made visible to other threads until all writes are complete.</p>
+ * own copy of the resource, or obtain private copies of the resources along the path it changes through a
+ * {@link CopyOnWriteModel}. That instance cannot be made visible to other threads until all writes are complete.</p>
  *
  * @author Emanuel Muckenhuber
  */
@@ -189,6 +190,50 @@ class BasicResource implements Resource {
         return clone;
     }
 
+    /**
+     * Creates a copy of this resource which has its own local model, but shares the child resources with this
+     * resource. The copy can be written to, and can get children registered or removed, without affecting this
+     * resource; the shared children however must not be modified.
+     *
+     * @return the shallow copy
+     */
+    BasicResource shallowCopy() {
+        final BasicResource copy = new BasicResource();
+        copy.writeModel(model);
+        synchronized (children) {
+            for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
+                final ResourceProvider provider = entry.getValue();
+                final DefaultResourceProvider providerCopy;
+                if (provider instanceof DefaultResourceProvider) {
+                    providerCopy = ((DefaultResourceProvider) provider).copy();
+                } else {
+                    providerCopy = new DefaultResourceProvider();
+                    for (final String name : provider.children()) {
+                        providerCopy.register(name, provider.get(name));
+                    }
+                }
+                copy.children.put(entry.getKey(), providerCopy);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces an existing child, keeping its position amongst its siblings.
+     *
+     * @param address the address of the child
+     * @param resource the new child
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        final ResourceProvider provider = getProvider(address.getKey());
+        if (provider instanceof DefaultResourceProvider) {
+            ((DefaultResourceProvider) provider).replace(address.getValue(), resource);
+        } else {
+            removeChild(address);
+            registerChild(address, resource);
+        }
+    }
+
     protected void registerResourceProvider(final String type, final ResourceProvider provider) {
         synchronized (children) {
             if (children.containsKey(type)) {
@@ -217,54 +262,73 @@ class BasicResource implements Resource {
         }
     }
 
+    /**
+     * Keeps the children in a {@link PersistentOrderedMap}, so reads don't need to lock and a copy of the provider
+     * can be taken in constant time.
+     */
     static class DefaultResourceProvider implements ResourceProvider {
 
-        private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        private volatile PersistentOrderedMap<String, Resource> children;
 
         protected DefaultResourceProvider() {
+            this(PersistentOrderedMap.<String, Resource>empty());
+        }
+
+        private DefaultResourceProvider(final PersistentOrderedMap<String, Resource> children) {
+            this.children = children;
         }
 
         @Override
         public Set<String> children() {
-            synchronized (children) {
-                return new LinkedHashSet<String>(children.keySet());
+            final PersistentOrderedMap.Entry<String, Resource>[] entries = children.entries();
+            final Set<String> names = new LinkedHashSet<String>(entries.length * 2);
+            for (final PersistentOrderedMap.Entry<String, Resource> entry : entries) {
+                names.add(entry.getKey());
             }
+            return names;
         }
 
         @Override
         public boolean has(String name) {
-            synchronized (children) {
-                return children.get(name) != null;
-            }
+            return children.get(name) != null;
         }
 
         @Override
         public Resource get(String name) {
-            synchronized (children) {
-                return children.get(name);
-            }
+            return children.get(name);
         }
 
         @Override
         public boolean hasChildren() {
-            return ! children().isEmpty();
+            return ! children.isEmpty();
         }
 
         @Override
-        public void register(String name, Resource resource) {
-            synchronized (children) {
-                if (children.containsKey(name)) {
-                    throw new IllegalStateException("duplicate resource" + name);
-                }
-                children.put(name, resource);
+        public synchronized void register(String name, Resource resource) {
+            if (children.containsKey(name)) {
+                throw new IllegalStateException("duplicate resource" + name);
             }
+            children = children.put(name, resource);
         }
 
         @Override
-        public Resource remove(String name) {
-            synchronized (children) {
-                return children.remove(name);
+        public synchronized Resource remove(String name) {
+            final Resource resource = children.get(name);
+            if (resource != null) {
+                children = children.remove(name);
             }
+            return resource;
+        }
+
+        synchronized void replace(String name, Resource resource) {
+            if (! children.containsKey(name)) {
+                throw new NoSuchElementException(name);
+            }
+            children = children.put(name, resource);
+        }
+
+        DefaultResourceProvider copy() {
+            return new DefaultResourceProvider(children);
         }
     }
 
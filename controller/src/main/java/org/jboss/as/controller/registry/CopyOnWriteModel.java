@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A private, writable version of a published resource tree, which only copies the resources that are actually
+ * written to.
+ * <p/>
+ * Instead of cloning the whole tree up front, the root is copied shallowly and all other resources are shared with
+ * the published tree until they are reached through one of the {@code ...ForUpdate} methods. At that point the
+ * resource is copied and replaced in its (already private) parent, so a write only copies the path from the root to
+ * the changed resource. The published tree is never modified, which means discarding this model is all it takes to
+ * roll back.
+ * <p/>
+ * Resources reached through this model are private to it and can be written to. Resources reached through the
+ * {@link Resource} API of a private resource however may still be shared, unless the resource was returned by
+ * {@link #requireSubtreeForUpdate(Resource)}. Resources registered through {@link #registerChild} are expected
+ * to be private to the caller.
+ * <p/>
+ * This class is not thread safe.
+ */
+public final class CopyOnWriteModel {
+
+    private final Resource root;
+    /** Resources which were copied for this model; their children may still be shared. */
+    private final Map<Resource, Boolean> copied = new IdentityHashMap<Resource, Boolean>();
+    /** Resources which are private to this model, including all their children. */
+    private final Map<Resource, Boolean> privateSubtrees = new IdentityHashMap<Resource, Boolean>();
+
+    private CopyOnWriteModel(final Resource published) {
+        if (published instanceof BasicResource) {
+            root = ((BasicResource) published).shallowCopy();
+            copied.put(root, Boolean.TRUE);
+        } else {
+            root = published.clone();
+            privateSubtrees.put(root, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Creates a writable model based on a published resource tree.
+     *
+     * @param published the root of the published tree, which will not be modified
+     * @return the writable model
+     */
+    public static CopyOnWriteModel create(final Resource published) {
+        return new CopyOnWriteModel(published);
+    }
+
+    /**
+     * Gets the private root of this model.
+     *
+     * @return the root resource
+     */
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets a private copy of a child of a private resource.
+     *
+     * @param parent the parent, which must have been obtained from this model
+     * @param element the path element of the child
+     * @return the private child, or {@code null} if there is no such child
+     */
+    public Resource getChildForUpdate(final Resource parent, final PathElement element) {
+        assert isPrivate(parent);
+        final Resource child = parent.getChild(element);
+        if (child == null || isPrivate(child)) {
+            return child;
+        }
+        if (privateSubtrees.containsKey(parent) || !(parent instanceof BasicResource)) {
+            privateSubtrees.put(child, Boolean.TRUE);
+            return child;
+        }
+        final Resource copy = copy(child);
+        ((BasicResource) parent).replaceChild(element, copy);
+        return copy;
+    }
+
+    /**
+     * Gets a private copy of a child of a private resource.
+     *
+     * @param parent the parent, which must have been obtained from this model
+     * @param element the path element of the child
+     * @return the private child
+     * @throws NoSuchElementException if there is no such child
+     */
+    public Resource requireChildForUpdate(final Resource parent, final PathElement element) {
+        final Resource child = getChildForUpdate(parent, element);
+        if (child == null) {
+            throw new NoSuchElementException(element.toString());
+        }
+        return child;
+    }
+
+    /**
+     * Makes sure that all the resources below a private resource are private as well, so the resource can be handed
+     * out to code which writes to its children through the {@link Resource} API.
+     *
+     * @param resource the resource, which must have been obtained from this model
+     * @return the resource
+     */
+    public Resource requireSubtreeForUpdate(final Resource resource) {
+        assert isPrivate(resource);
+        if (privateSubtrees.containsKey(resource)) {
+            return resource;
+        }
+        final BasicResource basic = (BasicResource) resource;
+        for (final String childType : basic.getChildTypes()) {
+            for (final String name : basic.getChildrenNames(childType)) {
+                final PathElement element = PathElement.pathElement(childType, name);
+                final Resource child = basic.getChild(element);
+                if (copied.containsKey(child)) {
+                    requireSubtreeForUpdate(child);
+                } else if (!privateSubtrees.containsKey(child)) {
+                    final Resource clone = child.clone();
+                    privateSubtrees.put(clone, Boolean.TRUE);
+                    basic.replaceChild(element, clone);
+                }
+            }
+        }
+        privateSubtrees.put(resource, Boolean.TRUE);
+        return resource;
+    }
+
+    /**
+     * Registers a child with a private resource.
+     *
+     * @param parent the parent, which must have been obtained from this model
+     * @param element the path element of the child
+     * @param child the child, including all its children, which must not be shared with other trees
+     */
+    public void registerChild(final Resource parent, final PathElement element, final Resource child) {
+        assert isPrivate(parent);
+        parent.registerChild(element, child);
+        privateSubtrees.put(child, Boolean.TRUE);
+    }
+
+    /**
+     * Removes a child from a private resource.
+     *
+     * @param parent the parent, which must have been obtained from this model
+     * @param element the path element of the child
+     * @return a private version of the removed child, or {@code null} if there was no such child
+     */
+    public Resource removeChild(final Resource parent, final PathElement element) {
+        assert isPrivate(parent);
+        final Resource removed = parent.removeChild(element);
+        if (removed == null || privateSubtrees.containsKey(removed)) {
+            return removed;
+        }
+        if (privateSubtrees.containsKey(parent) || !(parent instanceof BasicResource)) {
+            privateSubtrees.put(removed, Boolean.TRUE);
+            return removed;
+        }
+        if (copied.containsKey(removed)) {
+            return requireSubtreeForUpdate(removed);
+        }
+        final Resource clone = removed.clone();
+        privateSubtrees.put(clone, Boolean.TRUE);
+        return clone;
+    }
+
+    private boolean isPrivate(final Resource resource) {
+        return copied.containsKey(resource) || privateSubtrees.containsKey(resource);
+    }
+
+    private Resource copy(final Resource resource) {
+        if (resource instanceof BasicResource) {
+            final Resource copy = ((BasicResource) resource).shallowCopy();
+            copied.put(copy, Boolean.TRUE);
+            return copy;
+        }
+        final Resource clone = resource.clone();
+        privateSubtrees.put(clone, Boolean.TRUE);
+        return clone;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An immutable, insertion ordered map backed by a hash array mapped trie. Every update returns a new map which shares
+ * all but the changed path of the trie with the map it was derived from, so taking a copy of a map is free and an
+ * update only costs <code>O(log<sub>32</sub> n)</code> allocations.
+ * <p/>
+ * The iteration order is the order in which the keys were first added; replacing the value of an existing key
+ * keeps the position of that key.
+ */
+final class PersistentOrderedMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentOrderedMap<Object, Object> EMPTY = new PersistentOrderedMap<Object, Object>(null, 0, 0L);
+
+    private static final Comparator<Entry<?, ?>> INSERTION_ORDER = new Comparator<Entry<?, ?>>() {
+        @Override
+        public int compare(final Entry<?, ?> o1, final Entry<?, ?> o2) {
+            return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+        }
+    };
+
+    private final Node root;
+    private final int size;
+    /** The sequence number handed to the next new key. */
+    private final long nextSequence;
+
+    private PersistentOrderedMap(final Node root, final int size, final long nextSequence) {
+        this.root = root;
+        this.size = size;
+        this.nextSequence = nextSequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentOrderedMap<K, V> empty() {
+        return (PersistentOrderedMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean containsKey(final K key) {
+        return root != null && root.find(hash(key), 0, key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final K key) {
+        if (root == null) {
+            return null;
+        }
+        final Entry<?, ?> entry = root.find(hash(key), 0, key);
+        return entry == null ? null : (V) entry.value;
+    }
+
+    /**
+     * Returns a map in which {@code key} maps to {@code value}.
+     *
+     * @param key the key, cannot be {@code null}
+     * @param value the value
+     * @return the new map
+     */
+    PersistentOrderedMap<K, V> put(final K key, final V value) {
+        final int hash = hash(key);
+        final Entry<K, V> entry = new Entry<K, V>(key, hash, value, nextSequence);
+        if (root == null) {
+            return new PersistentOrderedMap<K, V>(new BitmapNode(bit(hash, 0), new Object[] {entry}), 1, nextSequence + 1);
+        }
+        final boolean[] added = new boolean[1];
+        final Node newRoot = root.put(hash, 0, entry, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return added[0] ? new PersistentOrderedMap<K, V>(newRoot, size + 1, nextSequence + 1) : new PersistentOrderedMap<K, V>(newRoot, size, nextSequence);
+    }
+
+    /**
+     * Returns a map without a mapping for {@code key}.
+     *
+     * @param key the key
+     * @return the new map, or this map if there was no mapping for the key
+     */
+    PersistentOrderedMap<K, V> remove(final K key) {
+        if (root == null) {
+            return this;
+        }
+        final Node newRoot = root.remove(hash(key), 0, key);
+        if (newRoot == root) {
+            return this;
+        }
+        return size == 1 ? PersistentOrderedMap.<K, V>empty() : new PersistentOrderedMap<K, V>(newRoot, size - 1, nextSequence);
+    }
+
+    /**
+     * Gets the entries of this map in insertion order.
+     *
+     * @return the entries
+     */
+    @SuppressWarnings("unchecked")
+    Entry<K, V>[] entries() {
+        final Entry<?, ?>[] entries = new Entry<?, ?>[size];
+        if (root != null) {
+            root.collect(entries, 0);
+            Arrays.sort(entries, INSERTION_ORDER);
+        }
+        return (Entry<K, V>[]) entries;
+    }
+
+    private static int hash(final Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    static final class Entry<K, V> {
+        private final K key;
+        private final int hash;
+        private final V value;
+        private final long sequence;
+
+        Entry(final K key, final int hash, final V value, final long sequence) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        K getKey() {
+            return key;
+        }
+
+        V getValue() {
+            return value;
+        }
+    }
+
+    private abstract static class Node {
+
+        abstract Entry<?, ?> find(int hash, int shift, Object key);
+
+        /**
+         * Returns a node that contains {@code entry}, or this node if nothing changed. An existing entry for the
+         * same key is replaced by one with the new value and the sequence number of the existing entry.
+         */
+        abstract Node put(int hash, int shift, Entry<?, ?> entry, boolean[] added);
+
+        /**
+         * Returns a node without an entry for {@code key}, {@code null} if the node became empty, or this node if
+         * it did not contain the key.
+         */
+        abstract Node remove(int hash, int shift, Object key);
+
+        abstract int collect(Entry<?, ?>[] entries, int index);
+    }
+
+    /**
+     * A node holding either an entry or a child node for every bit set in its bitmap.
+     */
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+        private final Object[] slots;
+
+        BitmapNode(final int bitmap, final Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        Entry<?, ?> find(final int hash, final int shift, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final Object slot = slots[index(bit)];
+            if (slot instanceof Node) {
+                return ((Node) slot).find(hash, shift + BITS, key);
+            }
+            final Entry<?, ?> entry = (Entry<?, ?>) slot;
+            return entry.key.equals(key) ? entry : null;
+        }
+
+        @Override
+        Node put(final int hash, final int shift, final Entry<?, ?> entry, final boolean[] added) {
+            final int bit = bit(hash, shift);
+            final int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] newSlots = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, newSlots, 0, index);
+                newSlots[index] = entry;
+                System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newSlots);
+            }
+            final Object slot = slots[index];
+            final Object newSlot;
+            if (slot instanceof Node) {
+                final Node node = (Node) slot;
+                newSlot = node.put(hash, shift + BITS, entry, added);
+                if (newSlot == node) {
+                    return this;
+                }
+            } else {
+                final Entry<?, ?> existing = (Entry<?, ?>) slot;
+                if (existing.key.equals(entry.key)) {
+                    if (existing.value == entry.value) {
+                        return this;
+                    }
+                    newSlot = replacement(existing, entry);
+                } else {
+                    newSlot = createNode(shift + BITS, existing, entry);
+                    added[0] = true;
+                }
+            }
+            final Object[] newSlots = slots.clone();
+            newSlots[index] = newSlot;
+            return new BitmapNode(bitmap, newSlots);
+        }
+
+        @Override
+        Node remove(final int hash, final int shift, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object slot = slots[index];
+            final Object newSlot;
+            if (slot instanceof Node) {
+                final Node node = (Node) slot;
+                final Node newNode = node.remove(hash, shift + BITS, key);
+                if (newNode == node) {
+                    return this;
+                }
+                newSlot = inline(newNode);
+            } else {
+                if (!((Entry<?, ?>) slot).key.equals(key)) {
+                    return this;
+                }
+                newSlot = null;
+            }
+            if (newSlot != null) {
+                final Object[] newSlots = slots.clone();
+                newSlots[index] = newSlot;
+                return new BitmapNode(bitmap, newSlots);
+            }
+            if (slots.length == 1) {
+                return null;
+            }
+            final Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, newSlots.length - index);
+            return new BitmapNode(bitmap & ~bit, newSlots);
+        }
+
+        @Override
+        int collect(final Entry<?, ?>[] entries, int index) {
+            for (final Object slot : slots) {
+                if (slot instanceof Node) {
+                    index = ((Node) slot).collect(entries, index);
+                } else {
+                    entries[index++] = (Entry<?, ?>) slot;
+                }
+            }
+            return index;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * Pulls a lone entry up into the parent node, so that removals don't leave chains of single entry nodes.
+         */
+        private static Object inline(final Node node) {
+            if (node instanceof BitmapNode) {
+                final BitmapNode bitmapNode = (BitmapNode) node;
+                if (bitmapNode.slots.length == 1 && bitmapNode.slots[0] instanceof Entry) {
+                    return bitmapNode.slots[0];
+                }
+            }
+            return node;
+        }
+    }
+
+    /**
+     * A node holding entries of which the keys have the same hash.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Entry<?, ?>[] entries;
+
+        CollisionNode(final int hash, final Entry<?, ?>[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        Entry<?, ?> find(final int hash, final int shift, final Object key) {
+            final int index = indexOf(key);
+            return index < 0 ? null : entries[index];
+        }
+
+        @Override
+        Node put(final int hash, final int shift, final Entry<?, ?> entry, final boolean[] added) {
+            if (hash != this.hash) {
+                // the hashes only share the prefix up to this level, so push this node down one level
+                return new BitmapNode(bit(this.hash, shift), new Object[] {this}).put(hash, shift, entry, added);
+            }
+            final int index = indexOf(entry.key);
+            final Entry<?, ?>[] newEntries;
+            if (index < 0) {
+                newEntries = Arrays.copyOf(entries, entries.length + 1);
+                newEntries[entries.length] = entry;
+                added[0] = true;
+            } else {
+                if (entries[index].value == entry.value) {
+                    return this;
+                }
+                newEntries = entries.clone();
+                newEntries[index] = replacement(entries[index], entry);
+            }
+            return new CollisionNode(this.hash, newEntries);
+        }
+
+        @Override
+        Node remove(final int hash, final int shift, final Object key) {
+            final int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            if (entries.length == 2) {
+                return new BitmapNode(bit(this.hash, shift), new Object[] {entries[1 - index]});
+            }
+            final Entry<?, ?>[] newEntries = new Entry<?, ?>[entries.length - 1];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index + 1, newEntries, index, newEntries.length - index);
+            return new CollisionNode(this.hash, newEntries);
+        }
+
+        @Override
+        int collect(final Entry<?, ?>[] entries, int index) {
+            for (final Entry<?, ?> entry : this.entries) {
+                entries[index++] = entry;
+            }
+            return index;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static Entry<?, ?> replacement(final Entry<?, ?> existing, final Entry<?, ?> entry) {
+        return new Entry<Object, Object>(existing.key, existing.hash, entry.value, existing.sequence);
+    }
+
+    private static Node createNode(final int shift, final Entry<?, ?> first, final Entry<?, ?> second) {
+        if (first.hash == second.hash) {
+            return new CollisionNode(first.hash, new Entry<?, ?>[] {first, second});
+        }
+        final int firstBit = bit(first.hash, shift);
+        final int secondBit = bit(second.hash, shift);
+        if (firstBit == secondBit) {
+            return new BitmapNode(firstBit, new Object[] {createNode(shift + BITS, first, second)});
+        }
+        final boolean ordered = ((first.hash >>> shift) & MASK) < ((second.hash >>> shift) & MASK);
+        return new BitmapNode(firstBit | secondBit, ordered ? new Object[] {first, second} : new Object[] {second, first});
+    }
+}
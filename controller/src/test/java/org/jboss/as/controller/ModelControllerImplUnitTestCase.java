@@ -26,6 +26,7 @@
 package org.jboss.as.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
@@ -50,6 +51,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLED_BACK;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_UPDATE_SKIPPED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
@@ -60,8 +62,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.EnumSet;
 import java.util.Locale;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -72,6 +77,7 @@ import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.Service;
@@ -98,6 +104,7 @@ public class ModelControllerImplUnitTestCase {
     private ServiceContainer container;
     private ModelController controller;
     private AtomicBoolean sharedState;
+    private ReadOperationStatistics readOperationStatistics;
 
     public static final void toggleRuntimeState(AtomicBoolean state) {
         boolean runtimeVal = false;
@@ -112,9 +119,13 @@ public class ModelControllerImplUnitTestCase {
         ServiceTarget target = container.subTarget();
         ControlledProcessState processState = new ControlledProcessState(true);
         ModelControllerService svc = new ModelControllerService(processState);
-        ServiceBuilder<ModelController> builder = target.addService(ServiceName.of("ModelController"), svc);
+        ServiceName svcName = ServiceName.of("ModelController");
+        ServiceName readOnlyExecutorName = ReadOnlyOperationExecutorService.addService(target, svcName);
+        ServiceBuilder<ModelController> builder = target.addService(svcName, svc);
+        builder.addDependency(readOnlyExecutorName, ExecutorService.class, svc.getReadOnlyExecutorInjector());
         builder.install();
         sharedState = svc.state;
+        readOperationStatistics = svc.getReadOperationStatistics();
         svc.latch.await();
         controller = svc.getValue();
         ModelNode setup = Util.getEmptyOperation("setup", new ModelNode());
@@ -166,6 +177,8 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler("missing-service", new MissingServiceHandler(), DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("reload-required", new ReloadRequiredHandler(), DESC_PROVIDER, false);
             rootRegistration.registerOperationHandler("restart-required", new RestartRequiredHandler(), DESC_PROVIDER, false);
+            rootRegistration.registerOperationHandler("read-barrier", new ReadBarrierHandler(), DESC_PROVIDER, true,
+                    OperationEntry.EntryType.PUBLIC, EnumSet.of(OperationEntry.Flag.READ_ONLY));
 
             rootRegistration.registerOperationHandler(READ_RESOURCE_OPERATION, GlobalOperationHandlers.READ_RESOURCE, CommonProviders.READ_RESOURCE_PROVIDER, true);
             rootRegistration.registerOperationHandler(READ_ATTRIBUTE_OPERATION, GlobalOperationHandlers.READ_ATTRIBUTE, CommonProviders.READ_ATTRIBUTE_PROVIDER, true);
@@ -505,6 +518,26 @@ public class ModelControllerImplUnitTestCase {
         assertEquals(1, result.get("result").asInt());
     }
 
+    @Test
+    public void testReadOnlyCompositeStepsRunConcurrently() throws Exception {
+        ModelNode op = new ModelNode();
+        op.get(OP).set(COMPOSITE);
+        op.get(OP_ADDR).setEmptyList();
+        ModelNode step1 = op.get(STEPS).add();
+        step1.get(OP).set("read-barrier");
+        step1.get(OP_ADDR).add("child", "one");
+        ModelNode step2 = op.get(STEPS).add();
+        step2.get(OP).set("read-barrier");
+        step2.get(OP_ADDR).add("child", "two");
+
+        // both steps wait for each other, so this only succeeds if they execute at the same time
+        ModelNode result = controller.execute(op, null, null, null);
+        assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT, "step-1", RESULT, "attribute1").asInt());
+        assertEquals(2, result.get(RESULT, "step-2", RESULT, "attribute2").asInt());
+        assertEquals(1, readOperationStatistics.getCount());
+    }
+
     public static ModelNode getOperation(String opName, String attr, int val) {
         return getOperation(opName, attr, val, null, false);
     }
@@ -526,6 +559,22 @@ public class ModelControllerImplUnitTestCase {
         return op;
     }
 
+    public static class ReadBarrierHandler implements OperationStepHandler {
+
+        private final CyclicBarrier barrier = new CyclicBarrier(2);
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new OperationFailedException(new ModelNode().set("Step was not executed concurrently: " + e));
+            }
+            context.getResult().set(context.readModel(PathAddress.EMPTY_ADDRESS));
+            context.completeStep();
+        }
+    }
+
     public static class SetupHandler implements OperationStepHandler {
 
         @Override
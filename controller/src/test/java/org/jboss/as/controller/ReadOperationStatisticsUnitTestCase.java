@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ReadOperationStatistics}.
+ */
+public class ReadOperationStatisticsUnitTestCase {
+
+    @Test
+    public void testEmpty() {
+        final ReadOperationStatistics statistics = new ReadOperationStatistics();
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, statistics.getMaxLatency());
+        assertEquals(0, statistics.getLatencyPercentile(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final ReadOperationStatistics statistics = new ReadOperationStatistics();
+        for (int i = 1; i <= 1000; i++) {
+            statistics.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, statistics.getCount());
+        assertEquals(1000, statistics.getMaxLatency());
+        assertWithin(500, statistics.getLatencyPercentile(50));
+        assertWithin(900, statistics.getLatencyPercentile(90));
+        assertWithin(990, statistics.getLatencyPercentile(99));
+        assertEquals(1000, statistics.getLatencyPercentile(100));
+        assertEquals(1, statistics.getLatencyPercentile(0));
+    }
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int bucket = 0; bucket < ReadOperationStatistics.bucket(Long.MAX_VALUE) + 1; bucket++) {
+            final long highest = ReadOperationStatistics.highestValue(bucket);
+            assertTrue(highest > previous);
+            assertEquals(bucket, ReadOperationStatistics.bucket(highest));
+            assertEquals(bucket, ReadOperationStatistics.bucket(previous + 1));
+            previous = highest;
+        }
+        assertEquals(Long.MAX_VALUE, previous);
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue("expected about " + expected + " but was " + actual, actual >= expected && actual <= expected * 1.04);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.PathElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures a single attribute write to a model of 10k resources, the way an operation context performs it: take a
+ * private copy of the published model, write to one resource, and publish the result as the new model.
+ * <ul>
+ * <li><code>clone</code> clones the whole model, which is what the operation context used to do.</li>
+ * <li><code>copy-on-write</code> uses a {@link CopyOnWriteModel}, which only copies the path to the resource.</li>
+ * </ul>
+ * The <code>flat</code> shape has all resources below a single subsystem, <code>nested</code> spreads them over
+ * 100 subsystems with 100 resources each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CopyOnWriteModelBenchmark {
+
+    @Param({"clone", "copy-on-write"})
+    public String copy;
+
+    @Param({"flat", "nested"})
+    public String shape;
+
+    @Param({"10000"})
+    public int resources;
+
+    private Resource published;
+    private PathElement[] subsystems;
+    private PathElement[] children;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final int subsystemCount = "flat".equals(shape) ? 1 : (int) Math.sqrt(resources);
+        final int childCount = resources / subsystemCount;
+        subsystems = new PathElement[subsystemCount];
+        children = new PathElement[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = PathElement.pathElement("child", "child-" + i);
+        }
+        published = Resource.Factory.create();
+        for (int i = 0; i < subsystemCount; i++) {
+            subsystems[i] = PathElement.pathElement("subsystem", "subsystem-" + i);
+            final Resource subsystem = Resource.Factory.create();
+            for (PathElement element : children) {
+                final Resource child = Resource.Factory.create();
+                child.getModel().get("name").set(element.getValue());
+                child.getModel().get("value").set(0);
+                subsystem.registerChild(element, child);
+            }
+            published.registerChild(subsystems[i], subsystem);
+        }
+    }
+
+    @Benchmark
+    public Resource writeAttribute() {
+        final int i = next++;
+        final PathElement subsystem = subsystems[i % subsystems.length];
+        final PathElement child = children[(i / subsystems.length) % children.length];
+        final Resource root;
+        final Resource resource;
+        if ("clone".equals(copy)) {
+            root = published.clone();
+            resource = root.requireChild(subsystem).requireChild(child);
+        } else {
+            final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+            root = model.getRoot();
+            resource = model.requireChildForUpdate(model.requireChildForUpdate(root, subsystem), child);
+        }
+        resource.getModel().get("value").set(i);
+        published = root;
+        return root;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(CopyOnWriteModelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteModel}.
+ */
+public class CopyOnWriteModelUnitTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+
+    private Resource published;
+    private ModelNode publishedModel;
+
+    @Before
+    public void setup() {
+        published = Resource.Factory.create();
+        published.getModel().get("name").set("root");
+        final Resource subsystem = Resource.Factory.create();
+        published.registerChild(SUBSYSTEM, subsystem);
+        for (int i = 0; i < 10; i++) {
+            final Resource child = Resource.Factory.create();
+            child.getModel().get("value").set(i);
+            subsystem.registerChild(child(i), child);
+            final Resource grandChild = Resource.Factory.create();
+            grandChild.getModel().get("value").set(i);
+            child.registerChild(PathElement.pathElement("grand-child", "a"), grandChild);
+        }
+        published.registerChild(PathElement.pathElement("interface", "public"), Resource.Factory.create());
+        publishedModel = Resource.Tools.readModel(published);
+    }
+
+    @Test
+    public void testWriteOnlyCopiesPath() {
+        final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource subsystem = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM);
+        final Resource child = model.requireChildForUpdate(subsystem, child(5));
+        child.getModel().get("value").set(50);
+
+        assertNotSame(published, model.getRoot());
+        assertNotSame(published.getChild(SUBSYSTEM), subsystem);
+        assertNotSame(published.getChild(SUBSYSTEM).getChild(child(5)), child);
+        // everything off the path is shared
+        assertSame(published.getChild(SUBSYSTEM).getChild(child(4)), subsystem.getChild(child(4)));
+        assertSame(published.getChild(SUBSYSTEM).getChild(child(5)).getChild(PathElement.pathElement("grand-child", "a")),
+                child.getChild(PathElement.pathElement("grand-child", "a")));
+        // the same private copy is returned for the rest of the operation
+        assertSame(subsystem, model.requireChildForUpdate(model.getRoot(), SUBSYSTEM));
+        assertSame(child, model.requireChildForUpdate(subsystem, child(5)));
+
+        assertEquals(publishedModel, Resource.Tools.readModel(published));
+        assertEquals(50, Resource.Tools.readModel(model.getRoot()).get("subsystem", "test", "child", "5", "value").asInt());
+    }
+
+    @Test
+    public void testChildOrderIsKept() {
+        final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource subsystem = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM);
+        model.requireChildForUpdate(subsystem, child(3));
+        model.requireChildForUpdate(subsystem, child(0));
+        model.registerChild(subsystem, child(10), Resource.Factory.create());
+
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i <= 10; i++) {
+            expected.add(String.valueOf(i));
+        }
+        assertEquals(expected, new ArrayList<String>(subsystem.getChildrenNames("child")));
+        assertEquals(expected.subList(0, 10), new ArrayList<String>(published.getChild(SUBSYSTEM).getChildrenNames("child")));
+    }
+
+    @Test
+    public void testSubtreeForUpdate() {
+        final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource subsystem = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM);
+        final Resource copied = model.requireChildForUpdate(subsystem, child(1));
+        assertSame(subsystem, model.requireSubtreeForUpdate(subsystem));
+        assertSame(copied, subsystem.getChild(child(1)));
+
+        // write through the plain resource api
+        subsystem.getChild(child(2)).getModel().get("value").set(20);
+        subsystem.getChild(child(1)).getChild(PathElement.pathElement("grand-child", "a")).getModel().get("value").set(10);
+        subsystem.getChild(child(3)).registerChild(PathElement.pathElement("grand-child", "b"), Resource.Factory.create());
+
+        assertEquals(publishedModel, Resource.Tools.readModel(published));
+        final ModelNode written = Resource.Tools.readModel(model.getRoot());
+        assertEquals(20, written.get("subsystem", "test", "child", "2", "value").asInt());
+        assertEquals(10, written.get("subsystem", "test", "child", "1", "grand-child", "a", "value").asInt());
+        assertTrue(written.get("subsystem", "test", "child", "3", "grand-child").has("b"));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource subsystem = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM);
+        final Resource added = Resource.Factory.create();
+        model.registerChild(subsystem, child(20), added);
+        assertSame(added, model.requireChildForUpdate(subsystem, child(20)));
+
+        final Resource removed = model.removeChild(subsystem, child(7));
+        assertNotSame(published.getChild(SUBSYSTEM).getChild(child(7)), removed);
+        removed.getModel().get("value").set(70);
+        removed.getChild(PathElement.pathElement("grand-child", "a")).getModel().get("value").set(70);
+        assertNull(model.removeChild(subsystem, child(7)));
+        assertSame(added, model.removeChild(subsystem, child(20)));
+
+        assertFalse(subsystem.hasChild(child(7)));
+        assertTrue(published.getChild(SUBSYSTEM).hasChild(child(7)));
+        assertEquals(publishedModel, Resource.Tools.readModel(published));
+    }
+
+    @Test
+    public void testRollback() {
+        CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource subsystem = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM);
+        model.requireChildForUpdate(subsystem, child(0)).getModel().get("value").set(-1);
+        model.removeChild(model.getRoot(), PathElement.pathElement("interface", "public"));
+        model.getRoot().getModel().get("name").set("changed");
+        // discarding the private model is all it takes to roll back
+        assertEquals(publishedModel, Resource.Tools.readModel(published));
+
+        // commit the next one, and make sure it in turn is not affected by a later model
+        model = CopyOnWriteModel.create(published);
+        model.requireChildForUpdate(model.requireChildForUpdate(model.getRoot(), SUBSYSTEM), child(0)).getModel().get("value").set(100);
+        final Resource committed = model.getRoot();
+        final ModelNode committedModel = Resource.Tools.readModel(committed);
+        model = CopyOnWriteModel.create(committed);
+        model.requireChildForUpdate(model.requireChildForUpdate(model.getRoot(), SUBSYSTEM), child(0)).getModel().get("value").set(200);
+        assertEquals(committedModel, Resource.Tools.readModel(committed));
+        assertEquals(publishedModel, Resource.Tools.readModel(published));
+    }
+
+    private static PathElement child(final int i) {
+        return PathElement.pathElement("child", String.valueOf(i));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link PersistentOrderedMap}.
+ */
+public class PersistentOrderedMapUnitTestCase {
+
+    @Test
+    public void testInsertionOrder() {
+        PersistentOrderedMap<String, Integer> map = PersistentOrderedMap.empty();
+        for (int i = 0; i < 100; i++) {
+            map = map.put("key" + (99 - i), i);
+        }
+        map = map.put("key50", -1);
+        map = map.remove("key10").put("key10", 10);
+        final PersistentOrderedMap.Entry<String, Integer>[] entries = map.entries();
+        assertEquals(100, entries.length);
+        assertEquals("key99", entries[0].getKey());
+        assertEquals("key50", entries[49].getKey());
+        assertEquals(Integer.valueOf(-1), entries[49].getValue());
+        assertEquals("key10", entries[99].getKey());
+    }
+
+    @Test
+    public void testUpdatesDoNotAffectOtherVersions() {
+        PersistentOrderedMap<String, Integer> map = PersistentOrderedMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            map = map.put("key" + i, i);
+        }
+        final PersistentOrderedMap<String, Integer> updated = map.put("key1", -1).remove("key2").put("new", 0);
+        assertEquals(1000, map.size());
+        assertEquals(Integer.valueOf(1), map.get("key1"));
+        assertEquals(Integer.valueOf(2), map.get("key2"));
+        assertFalse(map.containsKey("new"));
+        assertEquals(1000, updated.size());
+        assertEquals(Integer.valueOf(-1), updated.get("key1"));
+        assertNull(updated.get("key2"));
+        assertTrue(updated.containsKey("new"));
+        assertSame(map, map.remove("absent"));
+        assertSame(map, map.put("key3", map.get("key3")));
+    }
+
+    @Test
+    public void testHashCollisions() {
+        // "Aa" and "BB" have the same hash code, so every combination of them does as well
+        final List<String> keys = new ArrayList<String>();
+        keys.add("");
+        for (int i = 0; i < 4; i++) {
+            final List<String> longer = new ArrayList<String>();
+            for (String key : keys) {
+                longer.add(key + "Aa");
+                longer.add(key + "BB");
+            }
+            keys.clear();
+            keys.addAll(longer);
+        }
+        PersistentOrderedMap<String, String> map = PersistentOrderedMap.empty();
+        for (String key : keys) {
+            map = map.put(key, key);
+            map = map.put("x" + key, key);
+        }
+        assertEquals(keys.size() * 2, map.size());
+        for (String key : keys) {
+            assertEquals(key, map.get(key));
+        }
+        for (String key : keys) {
+            map = map.remove(key);
+            assertNull(map.get(key));
+            assertEquals(key, map.get("x" + key));
+        }
+        assertEquals(keys.size(), map.size());
+    }
+
+    @Test
+    public void testAgainstLinkedHashMap() {
+        final Random random = new Random(7);
+        final Map<String, Integer> expected = new LinkedHashMap<String, Integer>();
+        PersistentOrderedMap<String, Integer> map = PersistentOrderedMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            final String key = "key" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        final PersistentOrderedMap.Entry<String, Integer>[] entries = map.entries();
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), entries[i].getKey());
+            assertEquals(entry.getValue(), entries[i].getValue());
+            i++;
+        }
+        for (String key : expected.keySet()) {
+            map = map.remove(key);
+        }
+        assertTrue(map.isEmpty());
+    }
+}
@@ -19,7 +19,6 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.jboss.as.server.deployment.repository.impl;
 
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
@@ -29,31 +28,71 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
 import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Default implementation of {@link org.jboss.as.server.deployment.repository.api.ContentRepository}.
+ * <p/>
+ * Content is added without any repository wide lock: every upload has its own digest and is streamed into its own
+ * temp file through a {@link FileChannel}. Once an upload gets large, the hashing is handed to a separate thread so
+ * that it overlaps with reading and writing the stream. The hashes of the stored content are kept in an in-memory
+ * index, which is built when the repository is created and answers {@link #hasContent(byte[])}. Other processes may
+ * add content to the same directory (the servers of a host share the host controller's repository), so a hash missing
+ * from the index is looked up on disk before it is reported as absent.
+ *
  * @author John Bailey
  */
 public class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * The number of bytes after which an upload is hashed on a separate thread
+     */
+    static final long PIPELINE_THRESHOLD = 4 * 1024 * 1024;
+    /**
+     * The number of buffers a pipelined upload can have in flight
+     */
+    private static final int PIPELINE_DEPTH = 4;
+    private static final int LOCK_STRIPES = 32;
+
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
+    /**
+     * The hex encoded hashes of the content in the repository
+     */
+    private final Set<String> index = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    /**
+     * Serialise moving content into and out of the repository per hash, concurrent uploads of different content
+     * never share a lock
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile ExecutorService hashExecutor;
 
     // TODO: return void
     public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot) {
@@ -77,48 +116,161 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             throw new IllegalStateException("Failed to create a directory at " + repoRoot.getAbsolutePath());
         }
         this.repoRoot = repoRoot;
-
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        // fail early if SHA-1 is not available
+        createDigest();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
         }
+        buildIndex();
+        this.hashExecutor = createHashExecutor();
+    }
+
+    private static ExecutorService createHashExecutor() {
+        return Executors.newCachedThreadPool(new JBossThreadFactory(new ThreadGroup("ContentRepository-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext()));
     }
 
     @Override
     public byte[] addContent(InputStream stream) throws IOException {
-        byte[] sha1Bytes = null;
-        File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
+        if (stream instanceof FileInputStream) {
+            return addContent(((FileInputStream) stream).getChannel());
+        }
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        final byte[] sha1Bytes;
+        try {
+            sha1Bytes = copyAndHash(stream, tmp);
+        } catch (IOException e) {
+            deleteTemp(tmp);
+            throw e;
+        } catch (RuntimeException e) {
+            deleteTemp(tmp);
+            throw e;
+        }
+        addTempContent(tmp, sha1Bytes);
+        return sha1Bytes;
+    }
+
+    /**
+     * Add the content of the given file to the repository. The file is hashed before anything is copied, so content
+     * that is already present is never copied at all.
+     *
+     * @param file the file. Cannot be {@code null}
+     * @return the hash of the content
+     * @throws IOException
+     */
+    public byte[] addContent(final File file) throws IOException {
+        final FileInputStream fis = new FileInputStream(file);
+        try {
+            return addContent(fis.getChannel());
+        } finally {
+            safeClose(fis);
+        }
+    }
+
+    private byte[] addContent(final FileChannel source) throws IOException {
+        final long start = source.position();
+        final MessageDigest digest = createDigest();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        while (source.read(buffer) > -1) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        final byte[] sha1Bytes = digest.digest();
+        if (hasContent(sha1Bytes)) {
+            log.debugf("Content was already present in repository at location %s", getDeploymentContentFile(sha1Bytes).getAbsolutePath());
+            return sha1Bytes;
+        }
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        final FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            final FileChannel target = fos.getChannel();
+            final long size = source.size();
+            long position = start;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        } catch (IOException e) {
+            safeClose(fos);
+            deleteTemp(tmp);
+            throw e;
+        } finally {
+            safeClose(fos);
+        }
+        addTempContent(tmp, sha1Bytes);
+        return sha1Bytes;
+    }
+
+    private byte[] copyAndHash(final InputStream stream, final File tmp) throws IOException {
+        final MessageDigest digest = createDigest();
+        final FileOutputStream fos = new FileOutputStream(tmp);
+        HashPipeline pipeline = null;
+        try {
+            final FileChannel channel = fos.getChannel();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = fill(stream, buffer)) > 0) {
+                final ByteBuffer bb = ByteBuffer.wrap(buffer, 0, read);
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
+                }
+                if (pipeline != null) {
+                    pipeline.submit(buffer, read);
+                    buffer = pipeline.nextBuffer();
+                } else {
+                    digest.update(buffer, 0, read);
+                    total += read;
+                    if (total >= PIPELINE_THRESHOLD) {
+                        pipeline = new HashPipeline(digest);
+                        hashExecutor.execute(pipeline);
+                    }
                 }
             }
-            finally {
-                safeClose(fos);
+            if (pipeline != null) {
+                final HashPipeline finished = pipeline;
+                pipeline = null;
+                finished.finish();
+            }
+        } finally {
+            if (pipeline != null) {
+                pipeline.abort();
             }
-            sha1Bytes = messageDigest.digest();
+            safeClose(fos);
         }
-        final File realFile = getDeploymentContentFile(sha1Bytes, true);
-        if(hasContent(sha1Bytes)) {
-            // we've already got this content
-            if (!tmp.delete()) {
-                tmp.deleteOnExit();
+        return digest.digest();
+    }
+
+    /**
+     * Reads from the stream until the buffer is full or the stream ends.
+     *
+     * @return the number of bytes read, 0 at the end of the stream
+     */
+    private static int fill(final InputStream stream, final byte[] buffer) throws IOException {
+        int count = 0;
+        while (count < buffer.length) {
+            final int read = stream.read(buffer, count, buffer.length - count);
+            if (read == -1) {
+                break;
             }
-            log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
-        } else {
-            moveTempToPermanent(tmp, realFile);
-            log.infof("Content added at location %s",realFile.getAbsolutePath());
+            count += read;
         }
+        return count;
+    }
 
-        return sha1Bytes;
+    private void addTempContent(final File tmp, final byte[] sha1Bytes) throws IOException {
+        final String key = HashUtil.bytesToHexString(sha1Bytes);
+        synchronized (lockFor(key)) {
+            final File realFile = getDeploymentContentFile(sha1Bytes, true);
+            if (index.contains(key)) {
+                // we've already got this content
+                deleteTemp(tmp);
+                log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
+            } else {
+                moveTempToPermanent(tmp, realFile);
+                index.add(key);
+                log.infof("Content added at location %s", realFile.getAbsolutePath());
+            }
+        }
     }
 
     @Override
@@ -130,7 +282,16 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
 
     @Override
     public boolean hasContent(byte[] hash) {
-        return getDeploymentContentFile(hash).exists();
+        final String key = HashUtil.bytesToHexString(hash);
+        if (index.contains(key)) {
+            return true;
+        }
+        // content may have been added by another process sharing this repository
+        if (getDeploymentContentFile(hash).exists()) {
+            index.add(key);
+            return true;
+        }
+        return false;
     }
 
     protected File getRepoRoot() {
@@ -176,35 +337,77 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     private void moveTempToPermanent(File tmpFile, File permanentFile) throws IOException {
 
         if (!tmpFile.renameTo(permanentFile)) {
-            FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
             FileInputStream fis = null;
+            FileOutputStream fos = null;
             try {
-                fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
                 fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
+                fos = new FileOutputStream(permanentFile);
+                final FileChannel source = fis.getChannel();
+                final FileChannel target = fos.getChannel();
+                final long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
                 }
             } finally {
-                safeClose(bos);
                 safeClose(fos);
                 safeClose(fis);
-                if (!tmpFile.delete()) {
-                    tmpFile.deleteOnExit();
-                }
+                deleteTemp(tmpFile);
             }
         }
     }
 
     @Override
     public void removeContent(byte[] hash) {
-        File file = getDeploymentContentFile(hash, true);
-        if(!file.delete())
-            file.deleteOnExit();
+        final String key = HashUtil.bytesToHexString(hash);
+        synchronized (lockFor(key)) {
+            index.remove(key);
+            File file = getDeploymentContentFile(hash, true);
+            if(!file.delete())
+                file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Adds the hashes of all the content in the repository to the index.
+     */
+    private void buildIndex() {
+        final File[] partAs = repoRoot.listFiles();
+        if (partAs == null) {
+            return;
+        }
+        for (File partA : partAs) {
+            if (partA.getName().length() != 2 || !partA.isDirectory()) {
+                continue;
+            }
+            final File[] partBs = partA.listFiles();
+            if (partBs == null) {
+                continue;
+            }
+            for (File partB : partBs) {
+                if (new File(partB, CONTENT).isFile()) {
+                    index.add(partA.getName() + partB.getName());
+                }
+            }
+        }
+    }
+
+    private Object lockFor(final String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    private static void deleteTemp(final File tmp) {
+        if (!tmp.delete()) {
+            tmp.deleteOnExit();
+        }
     }
 
     protected static void safeClose(final Closeable closeable) {
@@ -218,12 +421,16 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     }
 
     @Override
-    public void start(StartContext context) throws StartException {
+    public synchronized void start(StartContext context) throws StartException {
+        if (hashExecutor.isShutdown()) {
+            hashExecutor = createHashExecutor();
+        }
         log.debugf("%s started", ContentRepository.class.getSimpleName());
     }
 
     @Override
-    public void stop(StopContext context) {
+    public synchronized void stop(StopContext context) {
+        hashExecutor.shutdown();
         log.debugf("%s stopped", ContentRepository.class.getSimpleName());
     }
 
@@ -231,4 +438,102 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     public ContentRepository getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
     }
+
+    /**
+     * Hashes the buffers of a large upload on a separate thread while the uploading thread reads and writes the
+     * next ones. Buffers are handed back once they have been hashed, so at most {@link #PIPELINE_DEPTH} of them are
+     * in flight.
+     */
+    private static final class HashPipeline implements Runnable {
+
+        private static final Chunk END = new Chunk(null, 0);
+
+        private final MessageDigest digest;
+        private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<byte[]>(PIPELINE_DEPTH);
+        // one more than the number of buffers, so that putting the end marker never blocks
+        private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<Chunk>(PIPELINE_DEPTH + 1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int allocated = 1;
+        private volatile Throwable failure;
+
+        private HashPipeline(final MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        public void run() {
+            try {
+                for (;;) {
+                    final Chunk chunk = full.take();
+                    if (chunk == END) {
+                        return;
+                    }
+                    digest.update(chunk.buffer, 0, chunk.length);
+                    free.add(chunk.buffer);
+                }
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        void submit(final byte[] buffer, final int length) throws IOException {
+            if (!full.offer(new Chunk(buffer, length))) {
+                throw new IllegalStateException("More buffers than " + PIPELINE_DEPTH + " in flight");
+            }
+        }
+
+        byte[] nextBuffer() throws IOException {
+            byte[] buffer = free.poll();
+            if (buffer == null && allocated < PIPELINE_DEPTH) {
+                allocated++;
+                return new byte[BUFFER_SIZE];
+            }
+            try {
+                while (buffer == null) {
+                    checkFailure();
+                    buffer = free.poll(100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return buffer;
+        }
+
+        void finish() throws IOException {
+            full.add(END);
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            checkFailure();
+        }
+
+        void abort() {
+            full.clear();
+            full.add(END);
+        }
+
+        private void checkFailure() throws IOException {
+            final Throwable t = failure;
+            if (t != null) {
+                final IOException e = new IOException("Failed to hash content");
+                e.initCause(t);
+                throw e;
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] buffer;
+        private final int length;
+
+        private Chunk(final byte[] buffer, final int length) {
+            this.buffer = buffer;
+            this.length = length;
+        }
+    }
 }
@@ -0,0 +1,250 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.repository.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ContentRepositoryImpl}
+ */
+public class ContentRepositoryImplTestCase {
+
+    private File root;
+    private ContentRepositoryImpl repository;
+
+    @Before
+    public void beforeTest() throws IOException {
+        root = File.createTempFile("content-repository", "test");
+        root.delete();
+        repository = new ContentRepositoryImpl(root);
+    }
+
+    @After
+    public void afterTest() {
+        repository.stop(null);
+        delete(root);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static byte[] content(final int size, final long seed) {
+        final byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] sha1(final byte[] bytes) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(bytes);
+    }
+
+    private File contentFile(final byte[] hash) {
+        final String sha1 = HashUtil.bytesToHexString(hash);
+        return new File(new File(new File(root, sha1.substring(0, 2)), sha1.substring(2)), ContentRepositoryImpl.CONTENT);
+    }
+
+    private void assertStored(final byte[] content, final byte[] hash) throws Exception {
+        Assert.assertArrayEquals(sha1(content), hash);
+        Assert.assertTrue(repository.hasContent(hash));
+        final File file = contentFile(hash);
+        Assert.assertEquals(content.length, file.length());
+        final byte[] stored = new byte[content.length];
+        final InputStream in = new java.io.FileInputStream(file);
+        try {
+            int off = 0;
+            while (off < stored.length) {
+                off += in.read(stored, off, stored.length - off);
+            }
+        } finally {
+            in.close();
+        }
+        Assert.assertTrue(Arrays.equals(content, stored));
+    }
+
+    private int tempFiles() {
+        int count = 0;
+        for (String name : root.list()) {
+            if (name.endsWith("tmp")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testAddContent() throws Exception {
+        final byte[] content = content(100000, 1);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+        assertStored(content, hash);
+        // adding it again is a no-op
+        Assert.assertArrayEquals(hash, repository.addContent(new ByteArrayInputStream(content)));
+        Assert.assertEquals(0, tempFiles());
+
+        repository.removeContent(hash);
+        Assert.assertFalse(repository.hasContent(hash));
+        Assert.assertFalse(contentFile(hash).exists());
+    }
+
+    @Test
+    public void testIndexIsRebuilt() throws Exception {
+        final byte[] content = content(1000, 2);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(content));
+        Assert.assertTrue(new ContentRepositoryImpl(root).hasContent(hash));
+        Assert.assertFalse(new ContentRepositoryImpl(root).hasContent(sha1(content(1000, 3))));
+    }
+
+    @Test
+    public void testContentAddedBySharingRepository() throws Exception {
+        // a repository created before the content was added, as a server sharing the host controller's content is
+        final ContentRepositoryImpl sharing = new ContentRepositoryImpl(root);
+        final byte[] hash = repository.addContent(new ByteArrayInputStream(content(1000, 5)));
+        Assert.assertTrue(sharing.hasContent(hash));
+        Assert.assertFalse(sharing.hasContent(sha1(content(1000, 6))));
+    }
+
+    @Test
+    public void testRestart() throws Exception {
+        repository.stop(null);
+        repository.start(null);
+        final byte[] content = content((int) ContentRepositoryImpl.PIPELINE_THRESHOLD + 1000, 8);
+        assertStored(content, repository.addContent(new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    public void testLargeContentIsPipelined() throws Exception {
+        final byte[] content = content((int) ContentRepositoryImpl.PIPELINE_THRESHOLD * 3 + 12345, 4);
+        // a stream that returns short reads
+        final InputStream in = new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7000));
+            }
+        };
+        assertStored(content, repository.addContent(in));
+    }
+
+    @Test
+    public void testAddFileContent() throws Exception {
+        final byte[] content = content(200000, 5);
+        final File file = new File(root, "deployment.ear");
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            fos.write(content);
+        } finally {
+            fos.close();
+        }
+        final byte[] hash = repository.addContent(file);
+        assertStored(content, hash);
+        Assert.assertArrayEquals(hash, repository.addContent(new java.io.FileInputStream(file)));
+        Assert.assertEquals(0, tempFiles());
+    }
+
+    @Test
+    public void testSlowUploadDoesNotBlockOthers() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final byte[] slowContent = content(10000, 6);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<byte[]> slow = executor.submit(new Callable<byte[]>() {
+                public byte[] call() throws Exception {
+                    return repository.addContent(new ByteArrayInputStream(slowContent) {
+                        @Override
+                        public synchronized int read(byte[] b, int off, int len) {
+                            if (pos > 0) {
+                                try {
+                                    release.await();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                            return super.read(b, off, Math.min(len, 1000));
+                        }
+                    });
+                }
+            });
+            final byte[] content = content(10000, 7);
+            assertStored(content, repository.addContent(new ByteArrayInputStream(content)));
+            Assert.assertFalse(slow.isDone());
+            release.countDown();
+            assertStored(slowContent, slow.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentUploads() throws Exception {
+        final int threads = 8;
+        final int uploads = 64;
+        final int size = 1024 * 1024;
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        for (int i = 0; i < uploads; i++) {
+            // every other upload is a duplicate of the previous one
+            contents.add(i % 2 == 0 ? content(size, 100 + i) : contents.get(i - 1));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<byte[]>> results = new ArrayList<Future<byte[]>>();
+            for (final byte[] content : contents) {
+                results.add(executor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws Exception {
+                        return repository.addContent(new ByteArrayInputStream(content));
+                    }
+                }));
+            }
+            for (int i = 0; i < uploads; i++) {
+                assertStored(contents.get(i), results.get(i).get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(0, tempFiles());
+    }
+}
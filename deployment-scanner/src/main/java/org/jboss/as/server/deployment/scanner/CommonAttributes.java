@@ -31,11 +31,17 @@ interface CommonAttributes {
     String AUTO_DEPLOY_EXPLODED = "auto-deploy-exploded";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String INCREMENTAL_SCAN = "incremental-scan";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String SCAN_COUNT = "scan-count";
+    String SKIPPED_SCAN_COUNT = "skipped-scan-count";
+    String LAST_SCAN_TIME = "last-scan-time";
+    String MAX_SCAN_TIME = "max-scan-time";
+    String AVERAGE_SCAN_TIME = "average-scan-time";
 
 }
@@ -0,0 +1,260 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-memory view of the deployment directory, used to find out cheaply whether anything relevant to the
+ * {@link FileSystemDeploymentService} has changed since the last time it looked.
+ * <p/>
+ * Each tracked directory remembers its own last modified time along with the last modified time and size of
+ * each of its children. A refresh only lists a directory again if its own timestamp changed, or if that
+ * timestamp was too recent to be trusted given the timestamp granularity of the file system. Otherwise
+ * only the known children are checked. Subdirectories are tracked the same way the scanner walks them;
+ * misplaced {@code WEB-INF} or {@code META-INF} directories are only tracked by their own timestamp. Exploded
+ * deployments are only tracked by their own timestamp as well, unless the view is told to track exploded content,
+ * in which case their whole tree is tracked so that a change anywhere inside them is noticed.
+ * <p/>
+ * If the view would have to track more than a given number of files it overflows: it is discarded and every
+ * refresh reports a change until it fits again.
+ */
+final class DeploymentDirectoryView {
+
+    /** A directory modified less than this many ms before it was listed is listed again on the next refresh */
+    static final long TIMESTAMP_GRANULARITY = 2000;
+
+    /** Default max number of files and directories the view tracks before it overflows */
+    static final int MAX_TRACKED_FILES = 50000;
+
+    private final File root;
+    private final FileFilter filter;
+    private final int maxTrackedFiles;
+    private boolean trackExplodedContent;
+    private DirectoryState rootState;
+
+    DeploymentDirectoryView(final File root, final FileFilter filter) {
+        this(root, filter, MAX_TRACKED_FILES);
+    }
+
+    DeploymentDirectoryView(final File root, final FileFilter filter, final int maxTrackedFiles) {
+        this.root = root;
+        this.filter = filter;
+        this.maxTrackedFiles = maxTrackedFiles;
+    }
+
+    /**
+     * Bring the view up to date with the file system.
+     *
+     * @return {@code true} if the view changed since the last refresh, or if the state of the directory could not
+     *         be determined or the view overflowed and a full scan is required; {@code false} if nothing changed
+     */
+    synchronized boolean refresh() {
+        final long now = System.currentTimeMillis();
+        if (rootState == null) {
+            rootState = new DirectoryState(false);
+            if (!list(root, rootState, now) || rootState.trackedFiles > maxTrackedFiles) {
+                rootState = null;
+            }
+            return true;
+        }
+        if (!refresh(root, rootState, now) || rootState.trackedFiles > maxTrackedFiles) {
+            // Could not read some directory, or too much to track; start over on the next refresh
+            rootState = null;
+            return true;
+        }
+        return rootState.changed;
+    }
+
+    /**
+     * Discard the view, so the next refresh reports a change.
+     */
+    synchronized void reset() {
+        rootState = null;
+    }
+
+    /**
+     * Sets whether the whole tree of exploded deployments is tracked, rather than only their own timestamp.
+     *
+     * @param trackExplodedContent {@code true} if changes inside exploded deployments must be noticed
+     */
+    synchronized void setTrackExplodedContent(final boolean trackExplodedContent) {
+        if (trackExplodedContent != this.trackExplodedContent) {
+            this.trackExplodedContent = trackExplodedContent;
+            rootState = null;
+        }
+    }
+
+    /**
+     * @return {@code false} if the directory could not be read
+     */
+    private boolean refresh(final File dir, final DirectoryState state, final long now) {
+        final long lastModified = dir.lastModified();
+        if (lastModified == 0L) {
+            return false;
+        }
+        state.changed = false;
+        boolean relist = lastModified != state.lastModified || state.recent;
+        if (!relist) {
+            for (Map.Entry<String, Stamp> entry : state.children.entrySet()) {
+                if (!entry.getValue().matches(new File(dir, entry.getKey()))) {
+                    // Gone, replaced or modified; re-list so subdirectory tracking stays right
+                    relist = true;
+                    break;
+                }
+            }
+        }
+        if (relist && !list(dir, state, now)) {
+            return false;
+        }
+        int trackedFiles = state.children.size();
+        for (Map.Entry<String, DirectoryState> entry : state.subdirectories.entrySet()) {
+            final DirectoryState subState = entry.getValue();
+            if (!refresh(new File(dir, entry.getKey()), subState, now)) {
+                return false;
+            }
+            state.changed |= subState.changed;
+            trackedFiles += subState.trackedFiles;
+        }
+        state.trackedFiles = trackedFiles;
+        return true;
+    }
+
+    /**
+     * List the directory and replace the view of its children, recording in {@code state.changed} whether anything
+     * differs from the previous view.
+     *
+     * @return {@code false} if the directory could not be read
+     */
+    private boolean list(final File dir, final DirectoryState state, final long now) {
+        final long lastModified = dir.lastModified();
+        // The scanner uses every file of an exploded deployment to compute its timestamp, so don't filter them
+        final File[] files = state.explodedContent ? dir.listFiles() : dir.listFiles(filter);
+        if (files == null) {
+            return false;
+        }
+        final Map<String, Stamp> children = new HashMap<String, Stamp>(files.length * 2);
+        final Map<String, DirectoryState> subdirectories = new HashMap<String, DirectoryState>();
+        boolean changed = files.length != state.children.size();
+        int trackedFiles = files.length;
+        for (File file : files) {
+            final String name = file.getName();
+            final Stamp stamp = new Stamp(file);
+            final Stamp previous = state.children.get(name);
+            if (previous == null || !previous.equals(stamp)) {
+                changed = true;
+            }
+            children.put(name, stamp);
+            if (stamp.directory) {
+                final boolean explodedContent = state.explodedContent || (trackExplodedContent && isExplodedDeployment(name));
+                if (explodedContent || isScannedDirectory(name)) {
+                    DirectoryState subState = state.subdirectories.get(name);
+                    if (subState == null) {
+                        subState = new DirectoryState(explodedContent);
+                        if (!list(file, subState, now)) {
+                            return false;
+                        }
+                        changed = true;
+                    }
+                    subdirectories.put(name, subState);
+                    trackedFiles += subState.trackedFiles;
+                    if (trackedFiles > maxTrackedFiles) {
+                        // Overflow; no point in looking any further
+                        break;
+                    }
+                }
+            }
+        }
+        state.lastModified = lastModified;
+        state.recent = now - lastModified < TIMESTAMP_GRANULARITY;
+        state.children = children;
+        state.subdirectories = subdirectories;
+        state.changed = changed || state.changed;
+        state.trackedFiles = trackedFiles;
+        return true;
+    }
+
+    private static boolean isExplodedDeployment(final String name) {
+        return FileSystemDeploymentService.ARCHIVE_PATTERN.matcher(name).matches();
+    }
+
+    /** Whether the scanner would walk into a directory of this name */
+    private static boolean isScannedDirectory(final String name) {
+        return !isExplodedDeployment(name)
+                && !FileSystemDeploymentService.WEB_INF.equalsIgnoreCase(name)
+                && !FileSystemDeploymentService.META_INF.equalsIgnoreCase(name);
+    }
+
+    private static final class DirectoryState {
+        /** Whether this directory is, or is inside, an exploded deployment whose whole tree is tracked */
+        private final boolean explodedContent;
+        private long lastModified;
+        private boolean recent;
+        private boolean changed;
+        /** The number of files and directories tracked in and below this directory */
+        private int trackedFiles;
+        private Map<String, Stamp> children = new HashMap<String, Stamp>();
+        private Map<String, DirectoryState> subdirectories = new HashMap<String, DirectoryState>();
+
+        private DirectoryState(final boolean explodedContent) {
+            this.explodedContent = explodedContent;
+        }
+    }
+
+    private static final class Stamp {
+        private final long lastModified;
+        private final long length;
+        private final boolean directory;
+
+        private Stamp(final File file) {
+            this.directory = file.isDirectory();
+            this.lastModified = file.lastModified();
+            this.length = directory ? 0L : file.length();
+        }
+
+        private boolean matches(final File file) {
+            final long lastModified = file.lastModified();
+            if (lastModified != this.lastModified || lastModified == 0L) {
+                return false;
+            }
+            return directory ? file.isDirectory() : file.length() == length;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Stamp)) {
+                return false;
+            }
+            final Stamp other = (Stamp) obj;
+            return lastModified == other.lastModified && length == other.length && directory == other.directory;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) length;
+        }
+    }
+}
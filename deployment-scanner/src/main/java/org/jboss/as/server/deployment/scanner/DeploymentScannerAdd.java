@@ -62,6 +62,7 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         final Boolean autoDeployZip = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_ZIPPED) ? operation.get(CommonAttributes.AUTO_DEPLOY_ZIPPED).asBoolean() : true;
         final Boolean autoDeployExp = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_EXPLODED) ? operation.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).asBoolean() : false;
         final Long deploymentTimeout = operation.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT) ? operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asLong() : 60L;
+        final Boolean incrementalScan = operation.hasDefined(CommonAttributes.INCREMENTAL_SCAN) ? operation.get(CommonAttributes.INCREMENTAL_SCAN).asBoolean() : false;
 
         model.get(CommonAttributes.NAME).set(name);
         model.get(CommonAttributes.PATH).set(path);
@@ -71,6 +72,7 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         if (autoDeployExp != null) model.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).set(autoDeployExp);
         if (relativeTo != null) model.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
         if (deploymentTimeout != null) model.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+        if (incrementalScan != null) model.get(CommonAttributes.INCREMENTAL_SCAN).set(incrementalScan);
 
     }
 
@@ -84,10 +86,11 @@ class DeploymentScannerAdd extends AbstractAddStepHandler implements Description
         final Boolean autoDeployZip = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_ZIPPED) ? operation.get(CommonAttributes.AUTO_DEPLOY_ZIPPED).asBoolean() : true;
         final Boolean autoDeployExp = operation.hasDefined(CommonAttributes.AUTO_DEPLOY_EXPLODED) ? operation.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).asBoolean() : false;
         final Long deploymentTimeout = operation.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT) ? operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asLong() : 60L;
+        final Boolean incrementalScan = operation.hasDefined(CommonAttributes.INCREMENTAL_SCAN) ? operation.get(CommonAttributes.INCREMENTAL_SCAN).asBoolean() : false;
 
         final ServiceTarget serviceTarget = context.getServiceTarget();
         DeploymentScannerService.addService(serviceTarget, name, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                autoDeployZip, autoDeployExp, enabled, deploymentTimeout, newControllers, verificationHandler);
+                autoDeployZip, autoDeployExp, enabled, deploymentTimeout, incrementalScan, newControllers, verificationHandler);
     }
 
     @Override
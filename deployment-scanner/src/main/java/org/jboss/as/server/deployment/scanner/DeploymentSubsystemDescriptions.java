@@ -136,6 +136,20 @@ public class DeploymentSubsystemDescriptions {
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, DESCRIPTION).set(bundle.getString("scanner.incremental.scan"));
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, REQUIRED).set(false);
+        root.get(ATTRIBUTES, INCREMENTAL_SCAN, DEFAULT).set(false);
+        root.get(ATTRIBUTES, SCAN_COUNT, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, SCAN_COUNT, DESCRIPTION).set(bundle.getString("scanner.scan.count"));
+        root.get(ATTRIBUTES, SKIPPED_SCAN_COUNT, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, SKIPPED_SCAN_COUNT, DESCRIPTION).set(bundle.getString("scanner.skipped.scan.count"));
+        root.get(ATTRIBUTES, LAST_SCAN_TIME, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, LAST_SCAN_TIME, DESCRIPTION).set(bundle.getString("scanner.last.scan.time"));
+        root.get(ATTRIBUTES, MAX_SCAN_TIME, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, MAX_SCAN_TIME, DESCRIPTION).set(bundle.getString("scanner.max.scan.time"));
+        root.get(ATTRIBUTES, AVERAGE_SCAN_TIME, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, AVERAGE_SCAN_TIME, DESCRIPTION).set(bundle.getString("scanner.average.scan.time"));
 
         root.get(OPERATIONS);
 
@@ -177,6 +191,10 @@ public class DeploymentSubsystemDescriptions {
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, TYPE).set(ModelType.BOOLEAN);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, DESCRIPTION).set(bundle.getString("scanner.incremental.scan"));
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, INCREMENTAL_SCAN, DEFAULT).set(false);
 
         operation.get(REPLY_PROPERTIES).setEmptyObject();
 
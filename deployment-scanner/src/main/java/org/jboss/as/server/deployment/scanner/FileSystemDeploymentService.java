@@ -58,6 +58,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
@@ -89,7 +90,7 @@ import org.jboss.logging.Logger;
  */
 class FileSystemDeploymentService implements DeploymentScanner {
 
-    private static final Pattern ARCHIVE_PATTERN = Pattern.compile("^.*\\.[SsWwJjEeRr][Aa][Rr]$");
+    static final Pattern ARCHIVE_PATTERN = Pattern.compile("^.*\\.[SsWwJjEeRr][Aa][Rr]$");
     private static final Logger log = Logger.getLogger("org.jboss.as.deployment");
 
     static final String DEPLOYED = ".deployed";
@@ -110,6 +111,15 @@ class FileSystemDeploymentService implements DeploymentScanner {
     /** Default timeout for deployments to execute in seconds*/
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 60;
 
+    /** Period the deployment directory must remain unchanged before an incremental scan proceeds */
+    static final long QUIET_PERIOD = 500;
+
+    /** Max period an incremental scan waits for the deployment directory to become quiet */
+    static final long MAX_QUIET_PERIOD_WAIT = 10000;
+
+    /** Max period an incremental scan goes without a full scan, so changes made through the management API are reconciled */
+    static final long RECONCILE_INTERVAL = 60000;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -137,6 +147,20 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    private final DeploymentDirectoryView directoryView;
+    private volatile boolean incrementalScan;
+    private volatile boolean rescanRequired;
+    private volatile long quietPeriod = QUIET_PERIOD;
+    private volatile long reconcileInterval = RECONCILE_INTERVAL;
+    private volatile long lastScanStart;
+
+    // Scan statistics; written with the scanLock held
+    private volatile long scanCount;
+    private volatile long totalScanTime;
+    private volatile long lastScanTime;
+    private volatile long maxScanTime;
+    private final AtomicLong skippedScanCount = new AtomicLong();
+
     private final String relativeTo;
     private final String relativePath;
 
@@ -144,7 +168,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
         @Override
         public void run() {
             try {
-                scan();
+                if (incrementalScan) {
+                    incrementalScan();
+                } else {
+                    scan();
+                }
             } catch (Exception e) {
                 log.errorf(e, "Scan of %s threw Exception", deploymentDir.getAbsolutePath());
             }
@@ -194,6 +222,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
         else {
             relativePath = null;
         }
+        this.directoryView = new DeploymentDirectoryView(deploymentDir, filter);
         establishDeployedContentList(deploymentDir);
     }
 
@@ -221,6 +250,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     "scanner's %s setting to \"false\" is recommended.", DO_DEPLOY, CommonAttributes.AUTO_DEPLOY_EXPLODED);
         }
         this.autoDeployExploded = autoDeployExploded;
+        directoryView.setTrackExplodedContent(autoDeployExploded);
     }
 
 
@@ -248,6 +278,20 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public boolean isIncrementalScan() {
+        return incrementalScan;
+    }
+
+    @Override
+    public void setIncrementalScan(boolean incrementalScan) {
+        if (incrementalScan && !this.incrementalScan) {
+            // Changes made while the view wasn't maintained are unknown
+            directoryView.reset();
+        }
+        this.incrementalScan = incrementalScan;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -277,6 +321,62 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /** Hook solely for unit test to control how long the directory must be unchanged before an incremental scan proceeds */
+    void setQuietPeriod(long quietPeriod) {
+        this.quietPeriod = quietPeriod;
+    }
+
+    /** Hook solely for unit test to control how long an incremental scan can go without a full scan */
+    void setReconcileInterval(long reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * Gets the number of scans of the deployment directory.
+     *
+     * @return the number of scans
+     */
+    long getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Gets the number of incremental scans skipped because nothing changed in the deployment directory.
+     *
+     * @return the number of skipped scans
+     */
+    long getSkippedScanCount() {
+        return skippedScanCount.get();
+    }
+
+    /**
+     * Gets the duration of the most recent scan, in ms.
+     *
+     * @return the duration of the last scan
+     */
+    long getLastScanTime() {
+        return lastScanTime;
+    }
+
+    /**
+     * Gets the duration of the longest scan, in ms.
+     *
+     * @return the max duration of a scan
+     */
+    long getMaxScanTime() {
+        return maxScanTime;
+    }
+
+    /**
+     * Gets the average duration of a scan, in ms.
+     *
+     * @return the average duration of a scan
+     */
+    long getAverageScanTime() {
+        final long count = scanCount;
+        return count == 0 ? 0 : totalScanTime / count;
+    }
+
     private void establishDeployedContentList(File dir) throws OperationFailedException {
         final Set<String> deploymentNames = getDeploymentNames();
         final File[] children = dir.listFiles();
@@ -306,6 +406,48 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Scan only if the {@link DeploymentDirectoryView} shows something changed since the last look, if the
+     * previous scan asked for a retry, or if no scan was done for the reconcile interval. A change is only acted
+     * upon once the directory has been quiet for the quiet period, so that a burst of writes (e.g. a file being
+     * copied in) results in a single scan. The view reports a change when it overflows, so very large directory
+     * trees fall back to a full scan every time.
+     * <p/>
+     * When auto-deployment of exploded content is enabled, the view tracks the whole tree of exploded
+     * deployments, so a change inside one of them is noticed as well.
+     * <p/>
+     * The periodic full scan picks up what the view can't see, such as a deployment removed through the
+     * management API.
+     * <p/>
+     * This method isn't private solely to allow a unit test in the same package to call it
+     */
+    void incrementalScan() {
+        if (directoryView.refresh()) {
+            awaitQuietPeriod();
+        } else if (!rescanRequired && System.currentTimeMillis() - lastScanStart < reconcileInterval) {
+            skippedScanCount.incrementAndGet();
+            return;
+        }
+        scan();
+    }
+
+    private void awaitQuietPeriod() {
+        final long deadline = System.currentTimeMillis() + MAX_QUIET_PERIOD_WAIT;
+        boolean changed = true;
+        while (changed && System.currentTimeMillis() < deadline) {
+            final long quietPeriod = this.quietPeriod;
+            if (quietPeriod > 0) {
+                try {
+                    Thread.sleep(quietPeriod);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            changed = directoryView.refresh();
+        }
+    }
+
     /** This method isn't private solely to allow a unit test in the same package to call it */
     void scan() {
 
@@ -317,9 +459,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
 
         boolean scheduleRescan = false;
+        long scanStart = 0;
         try {
             if (scanEnabled) { // confirm the scan is still wanted
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
+                scanStart = System.currentTimeMillis();
+                lastScanStart = scanStart;
+                rescanRequired = false;
 
                 ScanContext scanContext = new ScanContext();
                 scanDirectory(deploymentDir, relativePath, scanContext);
@@ -371,6 +517,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
                 if (status != ScanStatus.PROCEED) {
+                    // The content may not change again, so don't let an incremental scan skip the next round
+                    rescanRequired = true;
                     if (status == ScanStatus.RETRY && scanInterval > 1000) {
                         // in finally block, schedule a non-repeating task to try again more quickly
                         scheduleRescan = true;
@@ -457,6 +605,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
             }
         } finally {
 
+            if (scanStart != 0) {
+                recordScanTime(System.currentTimeMillis() - scanStart);
+            }
+
             scanLock.unlock();
 
             if (scheduleRescan) {
@@ -469,6 +621,18 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Invoke with the scanLock held
+     */
+    private void recordScanTime(final long duration) {
+        lastScanTime = duration;
+        totalScanTime += duration;
+        if (duration > maxScanTime) {
+            maxScanTime = duration;
+        }
+        scanCount++;
+    }
+
     /**
      * Scan the given directory for content changes.
      *
@@ -490,6 +654,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     scanContext.toRemove.remove(deploymentName);
                     removeExtraneousMarker(child, fileName);
                 }
+                else if (!scanContext.registeredDeployments.contains(deploymentName)) {
+                    // Removed through the management API; stop tracking it and don't deploy it again by itself
+                    log.infof("Deployment %s was removed through the management API; replacing marker file %s with %s%s",
+                            deploymentName, fileName, deploymentName, UNDEPLOYED);
+                    scanContext.toRemove.remove(deploymentName);
+                    removeExtraneousMarker(child, fileName);
+                    final File undeployedMarker = new File(directory, deploymentName + UNDEPLOYED);
+                    createMarkerFile(undeployedMarker, deploymentName);
+                    undeployedMarker.setLastModified(scanContext.scanStartTime);
+                    deployed.remove(deploymentName);
+                }
                 else {
                     final File deploymentFile = new File(directory, deploymentName);
                     if (deploymentFile.exists()) {
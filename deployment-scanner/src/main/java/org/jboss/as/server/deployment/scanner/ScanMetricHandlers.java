@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * {@code DeploymentScanner} scan duration metric handlers.
+ */
+final class ScanMetricHandlers {
+
+    private static final ModelNode NO_METRICS = new ModelNode().set("no metrics available");
+
+    abstract static class AbstractScanMetricHandler implements OperationStepHandler {
+
+        /** {@inheritDoc} */
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    final ModelNode result = context.getResult();
+                    final ServiceController<?> controller = context.getServiceRegistry(false).getService(DeploymentScannerService.getServiceName(name));
+                    if (controller != null && controller.getState() == ServiceController.State.UP
+                            && controller.getValue() instanceof FileSystemDeploymentService) {
+                        result.set(AbstractScanMetricHandler.this.getValue((FileSystemDeploymentService) controller.getValue()));
+                    } else {
+                        result.set(NO_METRICS);
+                    }
+                    context.completeStep();
+                }
+            }, OperationContext.Stage.RUNTIME);
+            context.completeStep();
+        }
+
+        abstract long getValue(FileSystemDeploymentService scanner);
+    }
+
+    static final OperationStepHandler SCAN_COUNT = new AbstractScanMetricHandler() {
+        @Override
+        long getValue(final FileSystemDeploymentService scanner) {
+            return scanner.getScanCount();
+        }
+    };
+
+    static final OperationStepHandler SKIPPED_SCAN_COUNT = new AbstractScanMetricHandler() {
+        @Override
+        long getValue(final FileSystemDeploymentService scanner) {
+            return scanner.getSkippedScanCount();
+        }
+    };
+
+    static final OperationStepHandler LAST_SCAN_TIME = new AbstractScanMetricHandler() {
+        @Override
+        long getValue(final FileSystemDeploymentService scanner) {
+            return scanner.getLastScanTime();
+        }
+    };
+
+    static final OperationStepHandler MAX_SCAN_TIME = new AbstractScanMetricHandler() {
+        @Override
+        long getValue(final FileSystemDeploymentService scanner) {
+            return scanner.getMaxScanTime();
+        }
+    };
+
+    static final OperationStepHandler AVERAGE_SCAN_TIME = new AbstractScanMetricHandler() {
+        @Override
+        long getValue(final FileSystemDeploymentService scanner) {
+            return scanner.getAverageScanTime();
+        }
+    };
+
+    private ScanMetricHandlers() {
+        //
+    }
+}
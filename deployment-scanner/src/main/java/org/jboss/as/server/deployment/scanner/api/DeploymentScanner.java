@@ -106,4 +106,20 @@ public interface DeploymentScanner {
      * @param timeout The deployment timeout
      */
     void setDeploymentTimeout(long timeout);
+
+    /**
+     * Gets whether the scanner only does a full scan of the deployment directory
+     * when a change in the directory has been detected.
+     *
+     * @return true if incremental scanning is enabled
+     */
+    boolean isIncrementalScan();
+
+    /**
+     * Sets whether the scanner only does a full scan of the deployment directory
+     * when a change in the directory has been detected.
+     *
+     * @param incrementalScan true if incremental scanning is enabled
+     */
+    void setIncrementalScan(boolean incrementalScan);
 }
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentDirectoryView}.
+ */
+public class DeploymentDirectoryViewUnitTestCase {
+
+    private File tmpDir;
+    private DeploymentDirectoryView view;
+
+    @Before
+    public void setup() throws Exception {
+        File tmp = new File(System.getProperty("java.io.tmpdir"));
+        tmpDir = new File(tmp, DeploymentDirectoryViewUnitTestCase.class.getSimpleName() + System.nanoTime());
+        assertTrue(tmpDir.mkdirs());
+        view = new DeploymentDirectoryView(tmpDir, new ExtensibleFilter());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        delete(tmpDir);
+    }
+
+    @Test
+    public void testInitialRefresh() throws Exception {
+        createFile(tmpDir, "foo.war");
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testAddedFile() throws Exception {
+        createFile(tmpDir, "foo.war");
+        view.refresh();
+        createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testRemovedFile() throws Exception {
+        File marker = createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        view.refresh();
+        assertTrue(marker.delete());
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testModifiedFile() throws Exception {
+        File war = createFile(tmpDir, "foo.war");
+        age(tmpDir);
+        age(war);
+        view.refresh();
+        assertFalse(view.refresh());
+
+        // Same size, only the timestamp changes
+        assertTrue(war.setLastModified(war.lastModified() + 1000));
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testNestedDirectory() throws Exception {
+        File nested = new File(tmpDir, "nested");
+        createFile(nested, "foo.war");
+        view.refresh();
+        assertFalse(view.refresh());
+
+        createFile(nested, "foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+
+        File deeper = new File(nested, "deeper");
+        createFile(deeper, "bar.jar");
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+
+        File jar = new File(deeper, "bar.jar");
+        age(deeper);
+        age(jar);
+        view.refresh();
+        assertTrue(jar.setLastModified(jar.lastModified() + 1000));
+        assertTrue(view.refresh());
+    }
+
+    @Test
+    public void testExplodedContentNotWalked() throws Exception {
+        File exploded = new File(tmpDir, "foo.war");
+        File index = createFile(exploded, "index.html");
+        age(index);
+        age(exploded);
+        age(tmpDir);
+        view.refresh();
+        assertFalse(view.refresh());
+
+        assertTrue(index.setLastModified(index.lastModified() + 1000));
+        assertFalse(view.refresh());
+
+        // The directory itself is tracked
+        assertTrue(exploded.setLastModified(exploded.lastModified() + 1000));
+        assertTrue(view.refresh());
+    }
+
+    @Test
+    public void testExplodedContentTracked() throws Exception {
+        File exploded = new File(tmpDir, "foo.war");
+        File webInf = new File(exploded, "WEB-INF");
+        File index = createFile(exploded, "index.html");
+        File webXml = createFile(webInf, "web.xml");
+        age(webXml);
+        age(webInf);
+        age(index);
+        age(exploded);
+        age(tmpDir);
+        view.setTrackExplodedContent(true);
+        view.refresh();
+        assertFalse(view.refresh());
+
+        assertTrue(index.setLastModified(index.lastModified() + 1000));
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+
+        assertTrue(webXml.setLastModified(webXml.lastModified() + 1000));
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+
+        // Switching the mode starts over
+        view.setTrackExplodedContent(false);
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+        assertTrue(index.setLastModified(index.lastModified() + 1000));
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        view = new DeploymentDirectoryView(tmpDir, new ExtensibleFilter(), 2);
+        File war = createFile(tmpDir, "foo.war");
+        age(war);
+        age(tmpDir);
+        view.refresh();
+        assertFalse(view.refresh());
+
+        File jar = createFile(tmpDir, "bar.jar");
+        File rar = createFile(tmpDir, "baz.rar");
+        age(jar);
+        age(rar);
+        // Too much to track; every refresh asks for a full scan
+        assertTrue(view.refresh());
+        assertTrue(view.refresh());
+
+        assertTrue(rar.delete());
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        createFile(tmpDir, "foo.war");
+        view.refresh();
+        assertFalse(view.refresh());
+        view.reset();
+        assertTrue(view.refresh());
+        assertFalse(view.refresh());
+    }
+
+    /** Move the timestamp out of the window in which the view doesn't trust directory timestamps */
+    private static void age(File file) {
+        long old = System.currentTimeMillis() - 2 * DeploymentDirectoryView.TIMESTAMP_GRANULARITY;
+        assertTrue(file.setLastModified(old - old % 1000));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static File createFile(File dir, String fileName) throws IOException {
+        dir.mkdirs();
+        File f = new File(dir, fileName);
+        FileOutputStream fos = new FileOutputStream(f);
+        try {
+            fos.write(fileName.getBytes("UTF-8"));
+        } finally {
+            fos.close();
+        }
+        return f;
+    }
+}
@@ -1329,6 +1329,132 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     }
 
+    @Test
+    public void testIncrementalScan() throws Exception {
+        File war1 = createFile("foo.war");
+        File dodeploy1 = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed1 = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setIncrementalScan(true);
+        ts.testee.setQuietPeriod(0);
+
+        // First look at the directory always scans
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.incrementalScan();
+        assertTrue(war1.exists());
+        assertFalse(dodeploy1.exists());
+        assertTrue(deployed1.exists());
+        assertEquals(1, ts.testee.getScanCount());
+
+        // The markers written by the scan are a change
+        ts.testee.incrementalScan();
+        assertEquals(2, ts.testee.getScanCount());
+
+        // Nothing changed since
+        ts.testee.incrementalScan();
+        ts.testee.incrementalScan();
+        assertEquals(2, ts.testee.getScanCount());
+        assertEquals(2, ts.testee.getSkippedScanCount());
+
+        File war2 = createFile("bar.war");
+        File dodeploy2 = createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed2 = new File(tmpDir, "bar.war" + FileSystemDeploymentService.DEPLOYED);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.incrementalScan();
+        assertTrue(war2.exists());
+        assertFalse(dodeploy2.exists());
+        assertTrue(deployed2.exists());
+        assertEquals(3, ts.testee.getScanCount());
+        assertTrue(ts.testee.getMaxScanTime() >= ts.testee.getAverageScanTime());
+    }
+
+    @Test
+    public void testIncrementalScanRetriesIncompleteContent() throws Exception {
+        File war = new File(tmpDir, "foo.war");
+        File pending = new File(tmpDir, "foo.war" + FileSystemDeploymentService.PENDING);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        testSupport.createZip(war, 0, false, true, true, false);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployZippedContent(true);
+        ts.testee.setIncrementalScan(true);
+        ts.testee.setQuietPeriod(0);
+
+        ts.testee.incrementalScan();
+        assertTrue(pending.exists());
+        assertFalse(deployed.exists());
+        assertEquals(1, ts.testee.getScanCount());
+
+        // The content didn't change, but the scan must be retried
+        ts.testee.incrementalScan();
+        ts.testee.incrementalScan();
+        assertEquals(3, ts.testee.getScanCount());
+        assertEquals(0, ts.testee.getSkippedScanCount());
+        assertTrue(war.exists());
+    }
+
+    @Test
+    public void testIncrementalScanDetectsExplodedContentChange() throws Exception {
+        File war = createDirectory("foo.war", "index.html");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployExplodedContent(true);
+        ts.testee.setIncrementalScan(true);
+        ts.testee.setQuietPeriod(0);
+
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.incrementalScan();
+        assertTrue(deployed.exists());
+        assertEquals(1, ts.controller.deployed.size());
+        ts.testee.incrementalScan();
+        ts.testee.incrementalScan();
+        assertEquals(2, ts.testee.getScanCount());
+        assertEquals(1, ts.testee.getSkippedScanCount());
+
+        // Only a file inside the exploded deployment changes
+        File index = new File(war, "index.html");
+        assertTrue(index.setLastModified(index.lastModified() + 1000));
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.incrementalScan();
+        assertEquals(3, ts.testee.getScanCount());
+        assertTrue(ts.controller.responses.isEmpty());
+        assertTrue(deployed.exists());
+    }
+
+    @Test
+    public void testIncrementalScanReconcilesManagementUndeploy() throws Exception {
+        File war = createFile("foo.war");
+        File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        File undeployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.UNDEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setIncrementalScan(true);
+        ts.testee.setQuietPeriod(0);
+
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.incrementalScan();
+        ts.testee.incrementalScan();
+        assertTrue(war.exists());
+        assertFalse(dodeploy.exists());
+        assertTrue(deployed.exists());
+        assertEquals(2, ts.testee.getScanCount());
+
+        // Undeployed through the management API, which leaves the deployment directory alone
+        ts.controller.added.remove("foo.war");
+        ts.controller.deployed.remove("foo.war");
+        ts.testee.incrementalScan();
+        assertEquals(2, ts.testee.getScanCount());
+        assertTrue(deployed.exists());
+
+        // Once the reconcile interval is up, a full scan notices
+        ts.testee.setReconcileInterval(0);
+        ts.testee.incrementalScan();
+        assertEquals(3, ts.testee.getScanCount());
+        assertTrue(war.exists());
+        assertFalse(deployed.exists());
+        assertTrue(undeployed.exists());
+        assertEquals(0, ts.controller.added.size());
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(new MockDeploymentRepository(), existingContent));
     }
@@ -34,6 +34,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.ImmediateValue;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -47,6 +48,12 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class BasicComponent implements Component {
 
+    /**
+     * Private data key which, if present on the post-construct invocation, causes the user lifecycle callbacks to be
+     * skipped. Injection and instantiation of interceptors still take place.
+     */
+    public static final Object SKIP_LIFECYCLE_CALLBACKS_KEY = new Object();
+
     private final String componentName;
     private final Class<?> componentClass;
     private final InterceptorFactory postConstruct;
@@ -117,8 +124,23 @@ public class BasicComponent implements Component {
      * @return the component instance
      */
     protected final BasicComponentInstance constructComponentInstance(ManagedReference instance) {
+        return constructComponentInstance(instance, Collections.emptyMap(), true);
+    }
+
+    /**
+     * Construct the component instance.  Upon return, the object instance has had its injections completed. The
+     * user lifecycle callbacks are only invoked if <code>invokeLifecycleCallbacks</code> is true, which allows an
+     * existing object instance, such as a re-activated stateful bean, to be associated with a new component instance.
+     *
+     * @param instance                 An instance to be wrapped, or null if a new instance should be created
+     * @param contextData              Additional data for the interceptor factory context
+     * @param invokeLifecycleCallbacks Whether the post-construct lifecycle callbacks should be invoked
+     * @return the component instance
+     */
+    protected final BasicComponentInstance constructComponentInstance(ManagedReference instance, Map<?, ?> contextData, boolean invokeLifecycleCallbacks) {
         // Interceptor factory context
         final SimpleInterceptorFactoryContext context = new SimpleInterceptorFactoryContext();
+        context.getContextData().putAll(contextData);
         context.getContextData().put(Component.class, this);
 
         // Create the post-construct interceptors for the ComponentInstance
@@ -145,7 +167,9 @@ public class BasicComponent implements Component {
         final InterceptorContext interceptorContext = new InterceptorContext();
         interceptorContext.putPrivateData(Component.class, this);
         interceptorContext.putPrivateData(ComponentInstance.class, basicComponentInstance);
-
+        if (!invokeLifecycleCallbacks) {
+            interceptorContext.putPrivateData(SKIP_LIFECYCLE_CALLBACKS_KEY, Boolean.TRUE);
+        }
 
 
         try {
@@ -33,7 +33,9 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * An interceptor factory which gets an object instance from a managed resource.  A reference to the resource will be
  * attached to the given factory context key; the resource should be retained and passed to an instance of {@link
- * org.jboss.as.ee.component.ManagedReferenceReleaseInterceptor} which is run during destruction.
+ * org.jboss.as.ee.component.ManagedReferenceReleaseInterceptor} which is run during destruction. If the factory
+ * context already holds a reference under the key, for instance because an existing object is being restored, that
+ * reference is used and no new object is created.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -61,8 +63,12 @@ class ManagedReferenceInterceptorFactory implements InterceptorFactory {
 
     /** {@inheritDoc} */
     public Interceptor create(final InterceptorFactoryContext context) {
-        final AtomicReference<ManagedReference> referenceReference = new AtomicReference<ManagedReference>();
-        context.getContextData().put(contextKey, referenceReference);
+        @SuppressWarnings("unchecked")
+        AtomicReference<ManagedReference> referenceReference = (AtomicReference<ManagedReference>) context.getContextData().get(contextKey);
+        if (referenceReference == null) {
+            referenceReference = new AtomicReference<ManagedReference>();
+            context.getContextData().put(contextKey, referenceReference);
+        }
         return new ManagedReferenceInterceptor(componentInstantiation, referenceReference);
     }
 }
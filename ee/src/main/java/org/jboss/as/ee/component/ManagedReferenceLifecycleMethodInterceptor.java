@@ -50,6 +50,10 @@ final class ManagedReferenceLifecycleMethodInterceptor implements Interceptor {
 
     /** {@inheritDoc} */
     public Object processInvocation(final InterceptorContext context) throws Exception {
+        if (changeMethod && context.getPrivateData(BasicComponent.SKIP_LIFECYCLE_CALLBACKS_KEY) != null) {
+            // lifecycle callbacks have been suppressed for this invocation
+            return context.proceed();
+        }
         final ManagedReference reference = instanceRef.get();
         final Object instance = reference.getInstance();
         try {
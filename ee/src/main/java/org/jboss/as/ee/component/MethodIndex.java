@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * An immutable index of the methods of a view, which maps each method to its position in the list of methods
+ * the index was created with. The view and its instances keep their interceptors in arrays in the same order,
+ * so that an invocation is dispatched by index.
+ * <p/>
+ * Methods are compared by identity, which is what the proxies generated for a view pass to their invocation
+ * handler. The lookup is a probe into an open addressed table, it does not allocate and does not call
+ * {@link Method#hashCode()} or {@link Method#equals(Object)}.
+ */
+public final class MethodIndex {
+
+    private final Method[] methods;
+    private final Method[] keys;
+    private final int[] values;
+    private final int mask;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param methods the methods to index, a method which is listed more than once is indexed at its first position
+     */
+    public MethodIndex(final List<Method> methods) {
+        final int size = methods.size();
+        this.methods = methods.toArray(new Method[size]);
+        int capacity = 2;
+        while (capacity < size << 1) {
+            capacity <<= 1;
+        }
+        keys = new Method[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            final Method method = this.methods[i];
+            int slot = hash(method) & mask;
+            while (keys[slot] != null && keys[slot] != method) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                keys[slot] = method;
+                values[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * Get the index of a method.
+     *
+     * @param method the method
+     * @return the index of the method, or {@code -1} if it is not indexed
+     */
+    public int indexOf(final Method method) {
+        final Method[] keys = this.keys;
+        int slot = hash(method) & mask;
+        Method key;
+        while ((key = keys[slot]) != method) {
+            if (key == null) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return values[slot];
+    }
+
+    /**
+     * Get the method at an index.
+     *
+     * @param index the index
+     * @return the method
+     */
+    public Method getMethod(final int index) {
+        return methods[index];
+    }
+
+    /**
+     * Get the number of indexed methods.
+     *
+     * @return the number of methods
+     */
+    public int size() {
+        return methods.length;
+    }
+
+    private static int hash(final Method method) {
+        final int h = System.identityHashCode(method);
+        return h ^ (h >>> 16);
+    }
+}
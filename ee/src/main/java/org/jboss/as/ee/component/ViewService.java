@@ -53,8 +53,9 @@ import java.util.Set;
 public final class ViewService implements Service<ComponentView> {
     private static final Logger logger = Logger.getLogger(ViewService.class);
     private final InjectedValue<Component> componentInjector = new InjectedValue<Component>();
-    private final Map<Method, InterceptorFactory> viewInterceptorFactories;
-    private final Map<Method, InterceptorFactory> clientInterceptorFactories;
+    private final MethodIndex methodIndex;
+    private final InterceptorFactory[] viewInterceptorFactories;
+    private final InterceptorFactory[] clientInterceptorFactories;
     private final InterceptorFactory viewPostConstruct;
     private final InterceptorFactory viewPreDestroy;
     private final InterceptorFactory clientPostConstruct;
@@ -82,19 +83,25 @@ public final class ViewService implements Service<ComponentView> {
         viewPreDestroy = Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewPreDestroyInterceptors());
         clientPostConstruct = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPostConstructInterceptors());
         clientPreDestroy = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPreDestroyInterceptors());
-        final IdentityHashMap<Method, InterceptorFactory> viewInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
-        final IdentityHashMap<Method, InterceptorFactory> clientInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
-        for (Method method : methods) {
+        // the interceptor factories are kept in the order of the method index, so proxies can dispatch by index
+        final MethodIndex methodIndex = new MethodIndex(methods);
+        final InterceptorFactory[] viewInterceptorFactories = new InterceptorFactory[methodCount];
+        final InterceptorFactory[] clientInterceptorFactories = new InterceptorFactory[methodCount];
+        final Set<Method> allowedMethods = Collections.newSetFromMap(new IdentityHashMap<Method, Boolean>(methodCount));
+        for (int i = 0; i < methodCount; i++) {
+            final Method method = methodIndex.getMethod(i);
             if (method.getName().equals("finalize") && method.getParameterTypes().length == 0) {
-                viewInterceptorFactories.put(method, DESTROY_INTERCEPTOR);
+                viewInterceptorFactories[i] = DESTROY_INTERCEPTOR;
             } else {
-                viewInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method)));
-                clientInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method)));
+                viewInterceptorFactories[i] = Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method));
+                clientInterceptorFactories[i] = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method));
             }
+            allowedMethods.add(method);
         }
+        this.methodIndex = methodIndex;
         this.viewInterceptorFactories = viewInterceptorFactories;
         this.clientInterceptorFactories = clientInterceptorFactories;
-        allowedMethods = Collections.unmodifiableSet(viewInterceptorFactories.keySet());
+        this.allowedMethods = Collections.unmodifiableSet(allowedMethods);
         this.asyncMethods = viewConfiguration.getAsyncMethods();
     }
 
@@ -120,27 +127,28 @@ public final class ViewService implements Service<ComponentView> {
     class View implements ComponentView {
 
         private final Component component;
-        private final Map<Method, Interceptor> viewInterceptors;
+        private final Interceptor[] viewInterceptors;
         private final Map<MethodDescription, Method> methods;
 
         View() {
             component = componentInjector.getValue();
             //we need to build the view interceptor chain
-            this.viewInterceptors = new IdentityHashMap<Method, Interceptor>();
+            this.viewInterceptors = new Interceptor[methodIndex.size()];
             this.methods = new HashMap<MethodDescription, Method>();
         }
 
         void initializeInterceptors() {
             final SimpleInterceptorFactoryContext factoryContext = new SimpleInterceptorFactoryContext();
-            final Map<Method, InterceptorFactory> viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
-            final Map<Method, Interceptor> viewEntryPoints = viewInterceptors;
+            final InterceptorFactory[] viewInterceptorFactories = ViewService.this.viewInterceptorFactories;
+            final Interceptor[] viewEntryPoints = viewInterceptors;
             factoryContext.getContextData().put(Component.class, component);
             //we don't have this code in the constructor so we avoid passing around
             //a half constructed instance
             factoryContext.getContextData().put(ComponentView.class, this);
 
-            for (Method method : viewInterceptorFactories.keySet()) {
-                viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
+            for (int i = 0; i < viewEntryPoints.length; i++) {
+                final Method method = methodIndex.getMethod(i);
+                viewEntryPoints[i] = viewInterceptorFactories[i].create(factoryContext);
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
             }
 
@@ -160,10 +168,12 @@ public final class ViewService implements Service<ComponentView> {
             final Interceptor clientPostConstructInterceptor = clientPostConstruct.create(factoryContext);
             final Interceptor clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
 
-            final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-            IdentityHashMap<Method, Interceptor> clientEntryPoints = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
-            for (Method method : clientInterceptorFactories.keySet()) {
-                clientEntryPoints.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+            final InterceptorFactory[] clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
+            final Interceptor[] clientEntryPoints = new Interceptor[clientInterceptorFactories.length];
+            for (int i = 0; i < clientEntryPoints.length; i++) {
+                if (clientInterceptorFactories[i] != null) {
+                    clientEntryPoints[i] = clientInterceptorFactories[i].create(factoryContext);
+                }
             }
 
             final ComponentViewInstance instance = new ViewInstance(viewInterceptors, clientPreDestroyInterceptor, clientEntryPoints);
@@ -182,8 +192,11 @@ public final class ViewService implements Service<ComponentView> {
         @Override
         public Object invoke(InterceptorContext interceptorContext) throws Exception {
             final Method method = interceptorContext.getMethod();
-            final Interceptor interceptor = viewInterceptors.get(method);
-            return interceptor.processInvocation(interceptorContext);
+            final int index = methodIndex.indexOf(method);
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid view entry point " + method);
+            }
+            return viewInterceptors[index].processInvocation(interceptorContext);
         }
 
         public Component getComponent() {
@@ -202,7 +215,7 @@ public final class ViewService implements Service<ComponentView> {
 
         @Override
         public Set<Method> getViewMethods() {
-            return viewInterceptors.keySet();
+            return allowedMethods;
         }
 
         @Override
@@ -221,11 +234,11 @@ public final class ViewService implements Service<ComponentView> {
 
         class ViewInstance implements ComponentViewInstance {
 
-            private final Map<Method, Interceptor> viewEntryPoints;
-            private final Map<Method, Interceptor> clientEntryPoints;
+            private final Interceptor[] viewEntryPoints;
+            private final Interceptor[] clientEntryPoints;
             private final Interceptor preDestroyInterceptor;
 
-            ViewInstance(final Map<Method, Interceptor> viewEntryPoints, final Interceptor preDestroyInterceptor, Map<Method, Interceptor> clientEntryPoints) {
+            ViewInstance(final Interceptor[] viewEntryPoints, final Interceptor preDestroyInterceptor, Interceptor[] clientEntryPoints) {
                 this.viewEntryPoints = viewEntryPoints;
                 this.preDestroyInterceptor = preDestroyInterceptor;
                 this.clientEntryPoints = clientEntryPoints;
@@ -241,7 +254,7 @@ public final class ViewService implements Service<ComponentView> {
 
             public Object createProxy() {
                 try {
-                    return proxyFactory.newInstance(new ProxyInvocationHandler(clientEntryPoints, component, View.this, this));
+                    return proxyFactory.newInstance(new ProxyInvocationHandler(methodIndex, clientEntryPoints, component, View.this, this));
                 } catch (InstantiationException e) {
                     InstantiationError error = new InstantiationError(e.getMessage());
                     Throwable cause = e.getCause();
@@ -260,11 +273,11 @@ public final class ViewService implements Service<ComponentView> {
             }
 
             public Interceptor getEntryPoint(final Method method) throws IllegalArgumentException {
-                Interceptor interceptor = viewEntryPoints.get(method);
-                if (interceptor == null) {
+                final int index = methodIndex.indexOf(method);
+                if (index < 0) {
                     throw new IllegalArgumentException("Invalid view entry point " + method);
                 }
-                return interceptor;
+                return viewEntryPoints[index];
             }
 
             public void destroy() {
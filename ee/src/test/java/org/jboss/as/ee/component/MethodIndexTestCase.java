@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MethodIndexTestCase {
+
+    @Test
+    public void testIndexOf() throws Exception {
+        final List<Method> methods = new ArrayList<Method>(Arrays.asList(Object.class.getMethods()));
+        methods.addAll(Arrays.asList(String.class.getDeclaredMethods()));
+        final MethodIndex index = new MethodIndex(methods);
+        assertEquals(methods.size(), index.size());
+        for (int i = 0; i < methods.size(); i++) {
+            assertEquals(i, index.indexOf(methods.get(i)));
+            assertSame(methods.get(i), index.getMethod(i));
+        }
+    }
+
+    @Test
+    public void testIndexOfUnknownMethod() throws Exception {
+        final MethodIndex index = new MethodIndex(Arrays.asList(Object.class.getMethod("hashCode")));
+        assertEquals(-1, index.indexOf(Object.class.getMethod("toString")));
+        // an equal method that is not the indexed instance
+        assertEquals(-1, index.indexOf(Object.class.getMethod("hashCode")));
+    }
+
+    @Test
+    public void testDuplicateMethod() throws Exception {
+        final Method method = Object.class.getMethod("hashCode");
+        final MethodIndex index = new MethodIndex(Arrays.asList(method, Object.class.getMethod("toString"), method));
+        assertEquals(0, index.indexOf(method));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final MethodIndex index = new MethodIndex(new ArrayList<Method>());
+        assertEquals(-1, index.indexOf(Object.class.getMethod("hashCode")));
+    }
+}
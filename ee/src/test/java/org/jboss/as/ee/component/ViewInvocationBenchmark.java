@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.Interceptors;
+import org.jboss.invocation.proxy.ProxyConfiguration;
+import org.jboss.invocation.proxy.ProxyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the overhead of invoking a method of a local no-interface view, from the call on the view proxy to the
+ * end of the client interceptor chain. The chain consists of a few interceptors that just proceed, the last one
+ * returns the argument of the call, so that only the dispatch is measured.
+ * <ul>
+ * <li><code>map</code> finds the interceptor chain of the method in a <code>Map&lt;Method, Interceptor&gt;</code>,
+ * which is what {@link ProxyInvocationHandler} used to do.</li>
+ * <li><code>index</code> uses {@link ProxyInvocationHandler}, which finds it by the index of the method in the
+ * {@link MethodIndex} of the view.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ViewInvocationBenchmark {
+
+    private static final AtomicInteger PROXY_ID = new AtomicInteger();
+
+    @Param({"map", "index"})
+    public String dispatch;
+
+    @Param({"3"})
+    public int interceptors;
+
+    private NoInterfaceBean proxy;
+    private Integer value = Integer.valueOf(42);
+
+    @Setup
+    public void setup() throws Exception {
+        final ProxyConfiguration<NoInterfaceBean> proxyConfiguration = new ProxyConfiguration<NoInterfaceBean>();
+        proxyConfiguration.setProxyName(NoInterfaceBean.class.getName() + "$$$view" + PROXY_ID.incrementAndGet());
+        proxyConfiguration.setClassLoader(NoInterfaceBean.class.getClassLoader());
+        proxyConfiguration.setProtectionDomain(NoInterfaceBean.class.getProtectionDomain());
+        proxyConfiguration.setSuperClass(NoInterfaceBean.class);
+        final ProxyFactory<NoInterfaceBean> proxyFactory = new ProxyFactory<NoInterfaceBean>(proxyConfiguration);
+
+        final List<Method> methods = proxyFactory.getCachedMethods();
+        final Interceptor[] entryPoints = new Interceptor[methods.size()];
+        final Map<Method, Interceptor> entryPointMap = new IdentityHashMap<Method, Interceptor>();
+        for (int i = 0; i < entryPoints.length; i++) {
+            final List<Interceptor> chain = new ArrayList<Interceptor>();
+            for (int j = 0; j < interceptors; j++) {
+                chain.add(PROCEED);
+            }
+            chain.add(RETURN_FIRST_PARAMETER);
+            entryPoints[i] = Interceptors.getChainedInterceptor(chain);
+            entryPointMap.put(methods.get(i), entryPoints[i]);
+        }
+        final InvocationHandler handler;
+        if ("map".equals(dispatch)) {
+            handler = new MapInvocationHandler(entryPointMap);
+        } else {
+            handler = new ProxyInvocationHandler(new MethodIndex(methods), entryPoints, null, null, null);
+        }
+        proxy = proxyFactory.newInstance(handler);
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return proxy.echo(value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(ViewInvocationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static final Interceptor PROCEED = new Interceptor() {
+        public Object processInvocation(final InterceptorContext context) throws Exception {
+            return context.proceed();
+        }
+    };
+
+    private static final Interceptor RETURN_FIRST_PARAMETER = new Interceptor() {
+        public Object processInvocation(final InterceptorContext context) throws Exception {
+            return context.getParameters()[0];
+        }
+    };
+
+    /**
+     * The dispatch of the invocation handler before the view method index was introduced.
+     */
+    private static final class MapInvocationHandler implements InvocationHandler {
+        private final Map<Method, Interceptor> interceptors;
+
+        MapInvocationHandler(final Map<Method, Interceptor> interceptors) {
+            this.interceptors = interceptors;
+        }
+
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Interceptor interceptor = interceptors.get(method);
+            if (interceptor == null) {
+                throw new NoSuchMethodError(method.toString());
+            }
+            final InterceptorContext context = new InterceptorContext();
+            context.putPrivateData(Object.class, proxy);
+            context.putPrivateData(Component.class, null);
+            context.putPrivateData(ComponentView.class, null);
+            context.putPrivateData(ComponentViewInstance.class, null);
+            context.setParameters(args);
+            context.setMethod(method);
+            context.setContextData(new HashMap());
+            return interceptor.processInvocation(context);
+        }
+    }
+
+    public static class NoInterfaceBean {
+
+        public Object echo(final Object value) {
+            return value;
+        }
+
+        public String hello(final String name) {
+            return "Hello " + name;
+        }
+
+        public int add(final int a, final int b) {
+            return a + b;
+        }
+
+        public void ping() {
+        }
+
+        public long now() {
+            return System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.ejb.client.SessionID;
+import org.jboss.logging.Logger;
+
+import javax.ejb.NoSuchEJBException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache that handles EJB expiration without scanning all of its entries.
+ * <p/>
+ * As every entry of a cache shares the same timeout, entries expire in the order in which they were released. Each
+ * release appends a marker to a FIFO expiry queue, so the expiration task only has to look at the head of the queue
+ * and the cost of a run is proportional to the number of markers which have timed out, rather than to the number
+ * of live sessions. A marker is stale if its entry has been used again since it was queued, in which case it is
+ * simply dropped. As a bean which is used often would otherwise leave a trail of stale markers behind it until they
+ * time out, the queue is purged of stale markers as soon as they outnumber the entries, which keeps its size
+ * proportional to the number of entries.
+ * <p/>
+ * The expiration task runs on a {@link ScheduledExecutorService} which is shared between all stateful components.
+ */
+public class ExpiryQueueCache<T extends Identifiable> implements Cache<T>, CacheStatistics {
+
+    private static final Logger logger = Logger.getLogger(ExpiryQueueCache.class);
+
+    /**
+     * The delay between two runs of the expiration task.
+     */
+    static final long RESOLUTION = 500;
+
+    private final long millisecondTimeout;
+    private final String beanName;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<SessionID, Entry> cache = new ConcurrentHashMap<SessionID, Entry>();
+    /**
+     * Markers in release order. Consumers must hold {@link #expirationLock}.
+     */
+    private final ConcurrentLinkedQueue<Expiry> expiryQueue = new ConcurrentLinkedQueue<Expiry>();
+    private final AtomicInteger expiryQueueSize = new AtomicInteger();
+    /**
+     * Serializes the expiration and purge tasks. It is never acquired by request threads.
+     */
+    private final Object expirationLock = new Object();
+    /**
+     * Set while a run of the purge task is pending.
+     */
+    private final AtomicBoolean purgePending = new AtomicBoolean();
+
+    private volatile StatefulObjectFactory<T> factory;
+    private ScheduledFuture<?> expirationTask;
+
+    private final AtomicLong expiredCount = new AtomicLong();
+    private volatile double expirationRate;
+    private volatile long expirationScanTime;
+    // only touched by the expiration task
+    private long windowStart = System.nanoTime();
+    private long windowCount;
+
+    private static final int IN_USE = 0;
+    private static final int INACTIVE = 1;
+    private static final int EXPIRED = 2;
+
+    private final class Entry {
+        private final T value;
+        /**
+         * One of {@link #IN_USE}, {@link #INACTIVE} or {@link #EXPIRED}. Once expired an entry never changes state again.
+         */
+        private final AtomicInteger state = new AtomicInteger(IN_USE);
+        /**
+         * Incremented on every release, so that expiry markers queued by an earlier release can be recognised.
+         */
+        private final AtomicInteger generation = new AtomicInteger();
+
+        Entry(final T value) {
+            this.value = value;
+        }
+    }
+
+    private final class Expiry {
+        private final Entry entry;
+        private final int generation;
+        private final long expiryTime;
+
+        Expiry(final Entry entry, final int generation, final long expiryTime) {
+            this.entry = entry;
+            this.generation = generation;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private class ExpirationTask implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                expire(System.currentTimeMillis());
+            } catch (Throwable t) {
+                // never let an exception cancel the periodic task
+                logger.error("Failed to expire stateful beans for " + beanName, t);
+            }
+        }
+    }
+
+    private class PurgeTask implements Runnable {
+
+        @Override
+        public void run() {
+            purgePending.set(false);
+            try {
+                purge();
+            } catch (Throwable t) {
+                logger.error("Failed to purge the expiry queue of " + beanName, t);
+            }
+        }
+    }
+
+    public ExpiryQueueCache(long value, TimeUnit timeUnit, final String beanName, final ScheduledExecutorService scheduler) {
+        this.beanName = beanName;
+        this.scheduler = scheduler;
+        this.millisecondTimeout = TimeUnit.MILLISECONDS.convert(value, timeUnit);
+    }
+
+    @Override
+    public T create() {
+        T obj = factory.createInstance();
+        cache.put(obj.getId(), new Entry(obj));
+        return obj;
+    }
+
+    @Override
+    public void discard(final SessionID key) {
+        cache.remove(key);
+    }
+
+    @Override
+    public T get(final SessionID key) throws NoSuchEJBException {
+        final Entry entry = cache.get(key);
+        if (entry != null) {
+            for (;;) {
+                final int state = entry.state.get();
+                if (state == EXPIRED) {
+                    break;
+                }
+                if (entry.state.compareAndSet(state, IN_USE)) {
+                    return entry.value;
+                }
+            }
+        }
+        throw new NoSuchEJBException("Could not find EJB with id " + key);
+    }
+
+    @Override
+    public void release(final T obj) {
+        final Entry entry = cache.get(obj.getId());
+        if (entry == null) {
+            logger.warn("Could not find stateful bean to release " + obj.getId());
+            return;
+        }
+        final int generation = entry.generation.incrementAndGet();
+        entry.state.set(INACTIVE);
+        if (millisecondTimeout >= 0) {
+            expiryQueue.offer(new Expiry(entry, generation, System.currentTimeMillis() + millisecondTimeout));
+            if (expiryQueueSize.incrementAndGet() > 2 * cache.size() + 16 && purgePending.compareAndSet(false, true)) {
+                try {
+                    scheduler.execute(new PurgeTask());
+                } catch (RejectedExecutionException e) {
+                    // the cache is being stopped
+                    purgePending.set(false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(final SessionID key) {
+        final Entry object = cache.remove(key);
+        // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
+        if (object == null)
+            throw new NoSuchEJBException(String.valueOf(key));
+
+        factory.destroyInstance(object.value);
+    }
+
+    /**
+     * Removes and destroys all entries which have been inactive for longer than the timeout at the given time.
+     *
+     * @param currentTime the current time in milliseconds
+     */
+    void expire(final long currentTime) {
+        final long start = System.nanoTime();
+        int expired = 0;
+        synchronized (expirationLock) {
+            Expiry expiry;
+            while ((expiry = expiryQueue.peek()) != null && expiry.expiryTime < currentTime) {
+                expiryQueue.poll();
+                expiryQueueSize.decrementAndGet();
+                expired += expire(expiry);
+            }
+        }
+        final long end = System.nanoTime();
+        expiredCount.addAndGet(expired);
+        expirationScanTime = TimeUnit.NANOSECONDS.toMicros(end - start);
+        windowCount += expired;
+        final long window = end - windowStart;
+        if (window >= TimeUnit.SECONDS.toNanos(1)) {
+            expirationRate = (double) windowCount * TimeUnit.SECONDS.toNanos(1) / window;
+            windowStart = end;
+            windowCount = 0;
+        }
+    }
+
+    /**
+     * Expires the entry of a marker which has timed out, unless the marker is stale.
+     *
+     * @return 1 if the entry expired, 0 otherwise
+     */
+    private int expire(final Expiry expiry) {
+        final Entry entry = expiry.entry;
+        // the generation check must come first, a newer marker is still queued if the entry was used again
+        if (entry.generation.get() == expiry.generation && entry.state.compareAndSet(INACTIVE, EXPIRED)) {
+            final SessionID key = entry.value.getId();
+            if (cache.remove(key, entry)) {
+                try {
+                    logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, key, millisecondTimeout);
+                    factory.destroyInstance(entry.value);
+                } catch (Exception e) {
+                    logger.error("Exception removing stateful bean " + key, e);
+                }
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Removes the markers of entries which have been used again or removed since the marker was queued.
+     */
+    void purge() {
+        synchronized (expirationLock) {
+            final Iterator<Expiry> it = expiryQueue.iterator();
+            while (it.hasNext()) {
+                final Expiry expiry = it.next();
+                final Entry entry = expiry.entry;
+                if (entry.generation.get() != expiry.generation || entry.state.get() != INACTIVE || cache.get(entry.value.getId()) != entry) {
+                    it.remove();
+                    expiryQueueSize.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    int getExpiryQueueSize() {
+        return expiryQueueSize.get();
+    }
+
+    @Override
+    public void setStatefulObjectFactory(final StatefulObjectFactory<T> tStatefulObjectFactory) {
+        this.factory = tStatefulObjectFactory;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (millisecondTimeout >= 0) {
+            final long delay = Math.max(1, Math.min(RESOLUTION, millisecondTimeout));
+            expirationTask = scheduler.scheduleWithFixedDelay(new ExpirationTask(), delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (expirationTask != null) {
+            expirationTask.cancel(false);
+            expirationTask = null;
+        }
+        cache.clear();
+        synchronized (expirationLock) {
+            expiryQueue.clear();
+            expiryQueueSize.set(0);
+        }
+    }
+
+    @Override
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    @Override
+    public double getExpirationRate() {
+        return expirationRate;
+    }
+
+    @Override
+    public long getExpirationScanTime() {
+        return expirationScanTime;
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.as.ejb3.cache.store.PassivationStore;
+import org.jboss.ejb.client.SessionID;
+import org.jboss.logging.Logger;
+
+import javax.ejb.EJBException;
+import javax.ejb.NoSuchEJBException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache which passivates idle instances into a {@link PassivationStore}, so that conversational state which is not
+ * being used does not have to be kept on the java heap.
+ * <p/>
+ * An inactive instance is passivated once it has been idle for longer than the idle timeout, or as soon as the number
+ * of instances held in memory exceeds the maximum size, in which case the least recently released instances are
+ * passivated first. Passivated instances are activated again when they are next looked up with {@link #get(SessionID)}.
+ * <p/>
+ * Like {@link ExpiryQueueCache}, every release appends a marker to FIFO queues, one for expiration and one for
+ * passivation, so that neither has to scan all of the entries. Instances are only ever serialized by the scheduler,
+ * never on the thread which creates, looks up or releases an instance; exceeding the maximum size merely triggers an
+ * extra run of the passivation task. Passivated instances which time out are removed from
+ * the store without being activated, and so without their pre-destroy callbacks being invoked (EJB 3.1 FR 4.4).
+ * Instances which cannot be serialized are kept in memory.
+ */
+public class PassivatingCache<T extends Identifiable> implements Cache<T>, CacheStatistics, PassivationStatistics {
+
+    private static final Logger logger = Logger.getLogger(PassivatingCache.class);
+
+    /**
+     * The maximum delay between two runs of the expiration and passivation task.
+     */
+    static final long RESOLUTION = 500;
+
+    private final long millisecondTimeout;
+    private final long millisecondIdleTimeout;
+    private final int maxSize;
+    private final String beanName;
+    private final ScheduledExecutorService scheduler;
+    private final PassivationManager<T> passivationManager;
+    private final PassivationStore store;
+    private final ConcurrentMap<SessionID, Entry> cache = new ConcurrentHashMap<SessionID, Entry>();
+    private final ConcurrentLinkedQueue<Marker> expiryQueue = new ConcurrentLinkedQueue<Marker>();
+    /**
+     * Markers in release order. Consumers must hold {@link #passivationLock}.
+     */
+    private final ConcurrentLinkedQueue<Marker> passivationQueue = new ConcurrentLinkedQueue<Marker>();
+    private final AtomicInteger passivationQueueSize = new AtomicInteger();
+    /**
+     * Serializes the runs of the passivation task. It is never acquired by request threads.
+     */
+    private final Object passivationLock = new Object();
+    /**
+     * Set while a run of the passivation task, triggered because there are too many instances in memory, is pending.
+     */
+    private final AtomicBoolean overflowTaskPending = new AtomicBoolean();
+    /**
+     * The number of instances which are held in memory
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    private volatile StatefulObjectFactory<T> factory;
+    private ScheduledFuture<?> task;
+
+    private final AtomicLong expiredCount = new AtomicLong();
+    private volatile double expirationRate;
+    private volatile long expirationScanTime;
+    // only touched by the expiration task
+    private long windowStart = System.nanoTime();
+    private long windowCount;
+
+    private final AtomicInteger passivatedCount = new AtomicInteger();
+    private final AtomicLong passivationCount = new AtomicLong();
+    private final AtomicLong passivationTime = new AtomicLong();
+    private final AtomicLong activationCount = new AtomicLong();
+    private final AtomicLong activationTime = new AtomicLong();
+    private volatile boolean passivationFailureLogged;
+
+    private static final int IN_USE = 0;
+    private static final int INACTIVE = 1;
+    private static final int PASSIVATED = 2;
+    private static final int REMOVED = 3;
+
+    /**
+     * A cache entry. All fields are guarded by the monitor of the entry.
+     */
+    private final class Entry {
+        private final SessionID id;
+        /**
+         * The instance, or null if it is passivated
+         */
+        private T value;
+        /**
+         * One of {@link #IN_USE}, {@link #INACTIVE}, {@link #PASSIVATED} or {@link #REMOVED}. Once removed an entry
+         * never changes state again.
+         */
+        private int state = IN_USE;
+        /**
+         * Incremented on every release, so that markers queued by an earlier release can be recognised.
+         */
+        private int generation;
+
+        Entry(final T value) {
+            this.id = value.getId();
+            this.value = value;
+        }
+    }
+
+    private final class Marker {
+        private final Entry entry;
+        private final int generation;
+        private final long time;
+
+        Marker(final Entry entry, final int generation, final long time) {
+            this.entry = entry;
+            this.generation = generation;
+            this.time = time;
+        }
+    }
+
+    private class CacheTask implements Runnable {
+
+        @Override
+        public void run() {
+            final long currentTime = System.currentTimeMillis();
+            try {
+                expire(currentTime);
+            } catch (Throwable t) {
+                // never let an exception cancel the periodic task
+                logger.error("Failed to expire stateful beans for " + beanName, t);
+            }
+            try {
+                passivate(currentTime);
+            } catch (Throwable t) {
+                logger.error("Failed to passivate stateful beans for " + beanName, t);
+            }
+        }
+    }
+
+    private class OverflowTask implements Runnable {
+
+        @Override
+        public void run() {
+            overflowTaskPending.set(false);
+            try {
+                passivate(System.currentTimeMillis());
+            } catch (Throwable t) {
+                logger.error("Failed to passivate stateful beans for " + beanName, t);
+            }
+        }
+    }
+
+    /**
+     * @param timeout            the time after which an inactive instance is removed, or -1 if instances never expire
+     * @param timeUnit           the unit of <code>timeout</code>
+     * @param idleTimeout        the time after which an inactive instance is passivated, or -1 if instances are only
+     *                           passivated once there are more than <code>maxSize</code> of them in memory
+     * @param idleTimeUnit       the unit of <code>idleTimeout</code>
+     * @param maxSize            the maximum number of instances held in memory, or -1 for no limit
+     * @param beanName           the name of the bean, for logging
+     * @param scheduler          the scheduler which runs the expiration and passivation task
+     * @param passivationManager serializes and deserializes instances
+     * @param store              where the state of passivated instances is kept, it is started and stopped together with the cache
+     */
+    public PassivatingCache(final long timeout, final TimeUnit timeUnit, final long idleTimeout, final TimeUnit idleTimeUnit, final int maxSize,
+                            final String beanName, final ScheduledExecutorService scheduler, final PassivationManager<T> passivationManager, final PassivationStore store) {
+        this.millisecondTimeout = TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
+        this.millisecondIdleTimeout = TimeUnit.MILLISECONDS.convert(idleTimeout, idleTimeUnit);
+        this.maxSize = maxSize;
+        this.beanName = beanName;
+        this.scheduler = scheduler;
+        this.passivationManager = passivationManager;
+        this.store = store;
+    }
+
+    @Override
+    public T create() {
+        final T obj = factory.createInstance();
+        cache.put(obj.getId(), new Entry(obj));
+        active.incrementAndGet();
+        passivateOverflow();
+        return obj;
+    }
+
+    @Override
+    public void discard(final SessionID key) {
+        final Entry entry = cache.remove(key);
+        if (entry != null) {
+            final int state;
+            synchronized (entry) {
+                state = entry.state;
+                entry.state = REMOVED;
+                entry.value = null;
+            }
+            if (state == PASSIVATED) {
+                store.remove(key);
+                passivatedCount.decrementAndGet();
+            } else if (state != REMOVED) {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public T get(final SessionID key) throws NoSuchEJBException {
+        final Entry entry = cache.get(key);
+        if (entry == null) {
+            throw new NoSuchEJBException("Could not find EJB with id " + key);
+        }
+        final boolean activated;
+        final T value;
+        synchronized (entry) {
+            activated = entry.state == PASSIVATED;
+            if (activated) {
+                activate(entry);
+            } else if (entry.state == REMOVED) {
+                throw new NoSuchEJBException("Could not find EJB with id " + key);
+            }
+            entry.state = IN_USE;
+            value = entry.value;
+        }
+        if (activated) {
+            passivateOverflow();
+        }
+        return value;
+    }
+
+    @Override
+    public void release(final T obj) {
+        final Entry entry = cache.get(obj.getId());
+        if (entry == null) {
+            logger.warn("Could not find stateful bean to release " + obj.getId());
+            return;
+        }
+        final int generation;
+        synchronized (entry) {
+            if (entry.state != IN_USE) {
+                return;
+            }
+            generation = ++entry.generation;
+            entry.state = INACTIVE;
+        }
+        final long currentTime = System.currentTimeMillis();
+        if (millisecondTimeout >= 0) {
+            expiryQueue.offer(new Marker(entry, generation, currentTime + millisecondTimeout));
+        }
+        passivationQueue.offer(new Marker(entry, generation, currentTime + Math.max(0, millisecondIdleTimeout)));
+        passivationQueueSize.incrementAndGet();
+        passivateOverflow();
+    }
+
+    @Override
+    public void remove(final SessionID key) {
+        final Entry entry = cache.remove(key);
+        // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
+        if (entry == null)
+            throw new NoSuchEJBException(String.valueOf(key));
+
+        final T value;
+        synchronized (entry) {
+            if (entry.state == REMOVED) {
+                throw new NoSuchEJBException(String.valueOf(key));
+            }
+            if (entry.state == PASSIVATED) {
+                // the bean has to be activated so that its pre-destroy callbacks can be invoked
+                activate(entry);
+            }
+            value = entry.value;
+            entry.state = REMOVED;
+            entry.value = null;
+        }
+        active.decrementAndGet();
+        factory.destroyInstance(value);
+    }
+
+    /**
+     * Removes and destroys all entries which have been inactive for longer than the timeout at the given time.
+     *
+     * @param currentTime the current time in milliseconds
+     */
+    void expire(final long currentTime) {
+        final long start = System.nanoTime();
+        int expired = 0;
+        Marker marker;
+        while ((marker = expiryQueue.peek()) != null && marker.time < currentTime) {
+            expiryQueue.poll();
+            final Entry entry = marker.entry;
+            final int state;
+            final T value;
+            synchronized (entry) {
+                state = entry.state;
+                if (entry.generation != marker.generation || (state != INACTIVE && state != PASSIVATED)) {
+                    continue;
+                }
+                value = entry.value;
+                entry.state = REMOVED;
+                entry.value = null;
+            }
+            cache.remove(entry.id, entry);
+            expired++;
+            if (state == PASSIVATED) {
+                logger.debugf("Removing passivated stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, entry.id, millisecondTimeout);
+                store.remove(entry.id);
+                passivatedCount.decrementAndGet();
+            } else {
+                active.decrementAndGet();
+                try {
+                    logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, entry.id, millisecondTimeout);
+                    factory.destroyInstance(value);
+                } catch (Exception e) {
+                    logger.error("Exception removing stateful bean " + entry.id, e);
+                }
+            }
+        }
+        final long end = System.nanoTime();
+        expiredCount.addAndGet(expired);
+        expirationScanTime = TimeUnit.NANOSECONDS.toMicros(end - start);
+        windowCount += expired;
+        final long window = end - windowStart;
+        if (window >= TimeUnit.SECONDS.toNanos(1)) {
+            expirationRate = (double) windowCount * TimeUnit.SECONDS.toNanos(1) / window;
+            windowStart = end;
+            windowCount = 0;
+        }
+    }
+
+    /**
+     * Passivates all entries which have been inactive for longer than the idle timeout at the given time, and the
+     * least recently released entries for as long as there are more than the maximum number of entries in memory.
+     *
+     * @param currentTime the current time in milliseconds
+     */
+    void passivate(final long currentTime) {
+        synchronized (passivationLock) {
+            Marker marker;
+            while ((marker = passivationQueue.peek()) != null) {
+                final boolean idle = millisecondIdleTimeout >= 0 && marker.time < currentTime;
+                final boolean overflow = maxSize >= 0 && active.get() > maxSize;
+                if (!idle && !overflow) {
+                    break;
+                }
+                passivationQueue.poll();
+                passivationQueueSize.decrementAndGet();
+                passivate(marker);
+            }
+            // markers of entries which have been used again pile up behind an entry which stays idle without being
+            // passivated, so purge them once they outnumber the entries
+            if (passivationQueueSize.get() > 2 * cache.size() + 16) {
+                final Iterator<Marker> it = passivationQueue.iterator();
+                while (it.hasNext()) {
+                    if (isStale(it.next())) {
+                        it.remove();
+                        passivationQueueSize.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules a run of the passivation task if there are more than the maximum number of instances in memory.
+     */
+    private void passivateOverflow() {
+        if (maxSize >= 0 && active.get() > maxSize && overflowTaskPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(new OverflowTask());
+            } catch (RejectedExecutionException e) {
+                // the cache is being stopped, or the periodic task will catch up
+                overflowTaskPending.set(false);
+            }
+        }
+    }
+
+    private boolean isStale(final Marker marker) {
+        final Entry entry = marker.entry;
+        synchronized (entry) {
+            return entry.generation != marker.generation || entry.state != INACTIVE;
+        }
+    }
+
+    private void passivate(final Marker marker) {
+        final Entry entry = marker.entry;
+        synchronized (entry) {
+            if (entry.generation != marker.generation || entry.state != INACTIVE) {
+                return;
+            }
+            final long start = System.nanoTime();
+            try {
+                store.store(entry.id, passivationManager.passivate(entry.value));
+            } catch (Exception e) {
+                // the instance simply stays in memory
+                if (!passivationFailureLogged) {
+                    passivationFailureLogged = true;
+                    logger.warn("Could not passivate stateful bean " + beanName + " - " + entry.id + ", instances which cannot be passivated are kept in memory", e);
+                } else {
+                    logger.debug("Could not passivate stateful bean " + beanName + " - " + entry.id, e);
+                }
+                return;
+            }
+            entry.value = null;
+            entry.state = PASSIVATED;
+            active.decrementAndGet();
+            passivatedCount.incrementAndGet();
+            passivationCount.incrementAndGet();
+            passivationTime.addAndGet(System.nanoTime() - start);
+            logger.tracef("Passivated stateful bean %s - %s", beanName, entry.id);
+        }
+    }
+
+    /**
+     * Activates a passivated entry. Must be called while holding the monitor of the entry.
+     */
+    private void activate(final Entry entry) {
+        final long start = System.nanoTime();
+        final byte[] state = store.load(entry.id);
+        passivatedCount.decrementAndGet();
+        if (state == null) {
+            entry.state = REMOVED;
+            cache.remove(entry.id, entry);
+            throw new NoSuchEJBException("Could not find passivated EJB with id " + entry.id);
+        }
+        final T value;
+        try {
+            value = passivationManager.activate(entry.id, state);
+        } catch (IOException e) {
+            entry.state = REMOVED;
+            cache.remove(entry.id, entry);
+            throw new EJBException("Could not activate stateful bean " + beanName + " - " + entry.id, e);
+        }
+        entry.value = value;
+        active.incrementAndGet();
+        activationCount.incrementAndGet();
+        activationTime.addAndGet(System.nanoTime() - start);
+        logger.tracef("Activated stateful bean %s - %s", beanName, entry.id);
+    }
+
+    @Override
+    public void setStatefulObjectFactory(final StatefulObjectFactory<T> tStatefulObjectFactory) {
+        this.factory = tStatefulObjectFactory;
+    }
+
+    @Override
+    public synchronized void start() {
+        store.start();
+        long delay = RESOLUTION;
+        if (millisecondTimeout >= 0) {
+            delay = Math.min(delay, millisecondTimeout);
+        }
+        if (millisecondIdleTimeout >= 0) {
+            delay = Math.min(delay, millisecondIdleTimeout);
+        }
+        delay = Math.max(1, delay);
+        task = scheduler.scheduleWithFixedDelay(new CacheTask(), delay, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        cache.clear();
+        expiryQueue.clear();
+        synchronized (passivationLock) {
+            passivationQueue.clear();
+            passivationQueueSize.set(0);
+        }
+        active.set(0);
+        passivatedCount.set(0);
+        store.stop();
+    }
+
+    @Override
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    @Override
+    public double getExpirationRate() {
+        return expirationRate;
+    }
+
+    @Override
+    public long getExpirationScanTime() {
+        return expirationScanTime;
+    }
+
+    @Override
+    public int getPassivatedCount() {
+        return passivatedCount.get();
+    }
+
+    @Override
+    public long getPassivationCount() {
+        return passivationCount.get();
+    }
+
+    @Override
+    public long getActivationCount() {
+        return activationCount.get();
+    }
+
+    @Override
+    public long getAveragePassivationTime() {
+        final long count = passivationCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(passivationTime.get() / count);
+    }
+
+    @Override
+    public long getAverageActivationTime() {
+        final long count = activationCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(activationTime.get() / count);
+    }
+}
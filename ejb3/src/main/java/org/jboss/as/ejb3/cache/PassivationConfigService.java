@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.as.ejb3.cache.store.MappedFilePassivationStore;
+import org.jboss.as.ejb3.cache.store.OffHeapPassivationStore;
+import org.jboss.as.ejb3.cache.store.PassivationStore;
+import org.jboss.as.ejb3.cache.store.PassivationStoreType;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service which holds the passivation configuration of the EJB3 subsystem. Stateful components only passivate idle
+ * instances if this service is installed.
+ */
+public class PassivationConfigService implements Service<PassivationConfigService> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "passivation");
+
+    /**
+     * The directory of the file store
+     */
+    public static final ServiceName PATH_SERVICE_NAME = SERVICE_NAME.append("path");
+
+    private final int maxSize;
+    private final long idleTimeout;
+    private final PassivationStoreType storeType;
+    private final InjectedValue<String> path = new InjectedValue<String>();
+    private final AtomicInteger storeCount = new AtomicInteger();
+    private volatile File directory;
+
+    /**
+     * @param maxSize     the maximum number of instances of a component held in memory, or -1 for no limit
+     * @param idleTimeout the time in milliseconds after which an inactive instance is passivated, or -1 to only
+     *                    passivate instances once there are more than <code>maxSize</code> of them
+     * @param storeType   the kind of store passivated instances are kept in
+     */
+    public PassivationConfigService(final int maxSize, final long idleTimeout, final PassivationStoreType storeType) {
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.storeType = storeType;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        if (storeType == PassivationStoreType.FILE) {
+            directory = new File(path.getValue());
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new StartException("Could not create passivation directory " + directory);
+            }
+            // passivated state does not survive a restart, so remove the stores left behind by a previous run
+            final File[] stale = directory.listFiles();
+            if (stale != null) {
+                for (File store : stale) {
+                    deleteStore(store);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+        directory = null;
+    }
+
+    @Override
+    public PassivationConfigService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    /**
+     * Creates a new, unstarted store for a component.
+     *
+     * @param componentName the name of the component
+     * @return the store
+     */
+    public PassivationStore createStore(final String componentName) {
+        switch (storeType) {
+            case FILE:
+                final String name = storeCount.incrementAndGet() + "-" + componentName.replaceAll("[^A-Za-z0-9._-]", "_");
+                return new MappedFilePassivationStore(new File(directory, name));
+            default:
+                return new OffHeapPassivationStore();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public PassivationStoreType getStoreType() {
+        return storeType;
+    }
+
+    public InjectedValue<String> getPathInjector() {
+        return path;
+    }
+
+    private static void deleteStore(final File store) {
+        if (!store.isDirectory()) {
+            return;
+        }
+        final File[] segments = store.listFiles();
+        if (segments != null) {
+            for (File segment : segments) {
+                segment.delete();
+            }
+        }
+        store.delete();
+    }
+}
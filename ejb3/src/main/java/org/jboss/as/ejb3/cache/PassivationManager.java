@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import org.jboss.ejb.client.SessionID;
+
+import java.io.IOException;
+
+/**
+ * Converts stateful objects to and from their serialized form when they are passivated and activated by a
+ * {@link PassivatingCache}.
+ */
+public interface PassivationManager<T extends Identifiable> {
+
+    /**
+     * Serializes the state of an object. The object is not used by the cache afterwards.
+     *
+     * @param obj the object to passivate
+     * @return the serialized state
+     * @throws IOException if the object could not be serialized
+     */
+    byte[] passivate(T obj) throws IOException;
+
+    /**
+     * Recreates an object from its serialized state.
+     *
+     * @param id    the identifier of the object
+     * @param state the state, as returned by {@link #passivate(Identifiable)}
+     * @return the activated object, which must have the given identifier
+     * @throws IOException if the object could not be deserialized
+     */
+    T activate(SessionID id, byte[] state) throws IOException;
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.store;
+
+import org.jboss.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link PassivationStore} which keeps passivated state in memory mapped segment files, so that the operating
+ * system can page it out to disk.
+ * <p/>
+ * Every segment is a file named <code>segment-&lt;id&gt;</code> in the directory of the store. The directory is
+ * emptied when the store is started, as passivated state does not survive a restart.
+ */
+public class MappedFilePassivationStore extends SegmentedPassivationStore {
+
+    private static final Logger logger = Logger.getLogger(MappedFilePassivationStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private final File directory;
+
+    public MappedFilePassivationStore(final File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedFilePassivationStore(final File directory, final int segmentSize) {
+        super(segmentSize);
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!directory.exists()) {
+            if (!directory.mkdirs()) {
+                throw new IllegalStateException("Could not create passivation store directory " + directory);
+            }
+        }
+        if (!directory.isDirectory()) {
+            throw new IllegalStateException("Passivation store directory " + directory + " is not a directory");
+        }
+        final File[] stale = directory.listFiles();
+        if (stale != null) {
+            for (File file : stale) {
+                if (file.getName().startsWith(SEGMENT_PREFIX)) {
+                    delete(file);
+                }
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    protected ByteBuffer allocateSegment(final int id, final int size) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(segmentFile(id), "rw");
+        try {
+            file.setLength(size);
+            // the mapping stays valid once the file has been closed
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Override
+    protected void releaseSegment(final int id, final ByteBuffer buffer) {
+        delete(segmentFile(id));
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private File segmentFile(final int id) {
+        return new File(directory, SEGMENT_PREFIX + id);
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete()) {
+            // the file may still be mapped on some platforms
+            logger.debug("Could not delete passivation store segment " + file);
+            file.deleteOnExit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "file passivation store " + directory;
+    }
+}
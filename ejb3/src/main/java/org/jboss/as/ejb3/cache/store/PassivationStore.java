@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.store;
+
+import org.jboss.ejb.client.SessionID;
+
+/**
+ * Holds the serialized state of passivated stateful session beans outside of the java heap.
+ * <p/>
+ * Implementations must be thread safe.
+ */
+public interface PassivationStore {
+
+    /**
+     * Stores the serialized state of a bean, replacing any state previously stored under the same id.
+     *
+     * @param id    the session id of the bean
+     * @param state the serialized state
+     */
+    void store(SessionID id, byte[] state);
+
+    /**
+     * Removes the state of a bean from the store and returns it.
+     *
+     * @param id the session id of the bean
+     * @return the serialized state, or null if nothing is stored under the id
+     */
+    byte[] load(SessionID id);
+
+    /**
+     * Removes the state of a bean from the store, without reading it.
+     *
+     * @param id the session id of the bean
+     * @return true if state was stored under the id
+     */
+    boolean remove(SessionID id);
+
+    /**
+     * @return the number of beans currently held by the store
+     */
+    int size();
+
+    /**
+     * @return the number of bytes currently reserved by the store
+     */
+    long getCapacity();
+
+    /**
+     * Start the store.
+     */
+    void start();
+
+    /**
+     * Stop the store, discarding its contents and releasing the memory or files it holds.
+     */
+    void stop();
+}
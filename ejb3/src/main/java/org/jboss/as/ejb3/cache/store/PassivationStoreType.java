@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.store;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The kinds of {@link PassivationStore} which can be configured.
+ */
+public enum PassivationStoreType {
+
+    /**
+     * {@link OffHeapPassivationStore}
+     */
+    OFF_HEAP("off-heap"),
+    /**
+     * {@link MappedFilePassivationStore}
+     */
+    FILE("file");
+
+    private final String name;
+
+    private PassivationStoreType(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the configuration name of this store type.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the configuration name, as validated by {@link org.jboss.as.controller.operations.validation.EnumValidator}
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final Map<String, PassivationStoreType> MAP;
+
+    static {
+        final Map<String, PassivationStoreType> map = new HashMap<String, PassivationStoreType>();
+        for (PassivationStoreType type : values()) {
+            map.put(type.name, type);
+        }
+        MAP = map;
+    }
+
+    /**
+     * @param name the configuration name
+     * @return the store type with the given name, or null if there is none
+     */
+    public static PassivationStoreType forName(final String name) {
+        return MAP.get(name);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.store;
+
+import org.jboss.ejb.client.SessionID;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link PassivationStore} which appends serialized state to large, fixed size segments.
+ * <p/>
+ * Allocating a buffer per bean would make every passivation pay for a native allocation, so state is instead written
+ * sequentially into the current segment and a new segment is only allocated once the current one is full. A segment
+ * keeps track of the number of live entries it holds and is released as soon as the last of them has been loaded or
+ * removed. One empty segment is kept as a spare so that a store which is drained and refilled does not allocate a
+ * segment each time. State which is larger than a segment gets a segment of its own.
+ * <p/>
+ * A long lived entry would otherwise pin a whole segment, so once less than a quarter of a full segment is still in
+ * use, its remaining entries are copied to the current segment and the segment is released.
+ * <p/>
+ * Subclasses decide where segments live.
+ */
+public abstract class SegmentedPassivationStore implements PassivationStore {
+
+    /**
+     * The default segment size, 16 MB.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * A segment is compacted once less than 1 / COMPACTION_RATIO of it is in use.
+     */
+    private static final int COMPACTION_RATIO = 4;
+
+    private final int segmentSize;
+    private final Map<SessionID, Slot> slots = new HashMap<SessionID, Slot>();
+    private Segment current;
+    private Segment spare;
+    private int nextSegmentId;
+    private long capacity;
+    private boolean started;
+
+    private static final class Segment {
+        private final int id;
+        private final ByteBuffer buffer;
+        /**
+         * The ids of the live entries in the segment
+         */
+        private final Set<SessionID> ids = new HashSet<SessionID>();
+        private int liveBytes;
+
+        Segment(final int id, final ByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Slot {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        Slot(final Segment segment, final int offset, final int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    protected SegmentedPassivationStore(final int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be at least 1: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Allocates a new segment.
+     *
+     * @param id   the id of the segment, unique within this store
+     * @param size the size of the segment in bytes
+     * @return a buffer with the given capacity and its position at zero
+     * @throws IOException if the segment could not be allocated
+     */
+    protected abstract ByteBuffer allocateSegment(int id, int size) throws IOException;
+
+    /**
+     * Releases a segment which is no longer used. The buffer must not be accessed afterwards.
+     *
+     * @param id     the id of the segment
+     * @param buffer the segment
+     */
+    protected abstract void releaseSegment(int id, ByteBuffer buffer);
+
+    @Override
+    public synchronized void store(final SessionID id, final byte[] state) {
+        if (!started) {
+            throw new IllegalStateException("Passivation store " + this + " is not started");
+        }
+        final Slot previous = slots.remove(id);
+        if (previous != null) {
+            free(id, previous);
+        }
+        slots.put(id, append(id, ByteBuffer.wrap(state)));
+    }
+
+    @Override
+    public synchronized byte[] load(final SessionID id) {
+        final Slot slot = slots.remove(id);
+        if (slot == null) {
+            return null;
+        }
+        final byte[] state = new byte[slot.length];
+        final ByteBuffer buffer = slot.segment.buffer.duplicate();
+        buffer.position(slot.offset);
+        buffer.get(state);
+        free(id, slot);
+        return state;
+    }
+
+    @Override
+    public synchronized boolean remove(final SessionID id) {
+        final Slot slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        free(id, slot);
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    @Override
+    public synchronized long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void start() {
+        started = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        started = false;
+        for (Slot slot : slots.values()) {
+            final Segment segment = slot.segment;
+            if (!segment.ids.isEmpty()) {
+                segment.ids.clear();
+                if (segment != current) {
+                    releaseSegment(segment.id, segment.buffer);
+                }
+            }
+        }
+        slots.clear();
+        if (current != null) {
+            releaseSegment(current.id, current.buffer);
+            current = null;
+        }
+        if (spare != null) {
+            releaseSegment(spare.id, spare.buffer);
+            spare = null;
+        }
+        capacity = 0;
+    }
+
+    private Segment newSegment(final int size) {
+        final int id = nextSegmentId++;
+        final ByteBuffer buffer;
+        try {
+            buffer = allocateSegment(id, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not allocate passivation store segment of " + size + " bytes", e);
+        }
+        capacity += size;
+        return new Segment(id, buffer);
+    }
+
+    /**
+     * Appends state to the current segment, or to a segment of its own if it is larger than a segment.
+     *
+     * @param id    the session id of the bean
+     * @param state the state, from its position to its limit
+     * @return the slot holding the state
+     */
+    private Slot append(final SessionID id, final ByteBuffer state) {
+        final int length = state.remaining();
+        final Segment segment;
+        if (length > segmentSize) {
+            segment = newSegment(length);
+        } else {
+            if (current == null || current.buffer.remaining() < length) {
+                // the full segment stays around until its last entry is freed, or it is compacted
+                current = spare != null ? spare : newSegment(segmentSize);
+                spare = null;
+            }
+            segment = current;
+        }
+        final int offset = segment.buffer.position();
+        segment.buffer.put(state);
+        segment.ids.add(id);
+        segment.liveBytes += length;
+        return new Slot(segment, offset, length);
+    }
+
+    private void free(final SessionID id, final Slot slot) {
+        final Segment segment = slot.segment;
+        segment.ids.remove(id);
+        segment.liveBytes -= slot.length;
+        if (segment.ids.isEmpty()) {
+            if (segment == current) {
+                // the current segment is empty, so it can simply be reused from the start
+                segment.buffer.clear();
+                segment.liveBytes = 0;
+            } else {
+                release(segment);
+            }
+        } else if (segment != current && segment.buffer.capacity() == segmentSize && segment.liveBytes < segmentSize / COMPACTION_RATIO) {
+            compact(segment);
+        }
+    }
+
+    /**
+     * Moves the remaining entries of a segment which is mostly unused to the current segment, and releases it.
+     */
+    private void compact(final Segment segment) {
+        for (SessionID id : segment.ids) {
+            final Slot slot = slots.get(id);
+            final ByteBuffer state = segment.buffer.duplicate();
+            state.limit(slot.offset + slot.length);
+            state.position(slot.offset);
+            slots.put(id, append(id, state));
+        }
+        segment.ids.clear();
+        segment.liveBytes = 0;
+        release(segment);
+    }
+
+    private void release(final Segment segment) {
+        if (spare == null && segment.buffer.capacity() == segmentSize) {
+            segment.buffer.clear();
+            spare = segment;
+        } else {
+            capacity -= segment.buffer.capacity();
+            releaseSegment(segment.id, segment.buffer);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.entity.entitycache.LRUReadyEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.ReadyEntityCache;
 import org.jboss.as.ejb3.component.entity.entitycache.TransactionLocalEntityCache;
 import org.jboss.as.ejb3.pool.InfinitePool;
@@ -35,6 +36,7 @@ import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 import org.jboss.as.naming.ManagedReference;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.service.StopContext;
 
 /**
  * @author Stuart Douglas
@@ -61,7 +63,11 @@ public class EntityBeanComponent extends EJBComponent {
             }
         };
         pool = new InfinitePool<EntityBeanComponentInstance>(factory);
-        cache = new TransactionLocalEntityCache(this);
+        if (ejbComponentCreateService.getReadyCacheMaxSize() > 0) {
+            cache = new LRUReadyEntityCache(this, ejbComponentCreateService.getReadyCacheMaxSize(), ejbComponentCreateService.getCommitOption());
+        } else {
+            cache = new TransactionLocalEntityCache(this);
+        }
     }
 
 
@@ -79,4 +85,16 @@ public class EntityBeanComponent extends EJBComponent {
     public Pool<EntityBeanComponentInstance> getPool() {
         return pool;
     }
+
+    @Override
+    public void start() {
+        super.start();
+        cache.start();
+    }
+
+    @Override
+    public void stop(final StopContext stopContext) {
+        super.stop(stopContext);
+        cache.stop();
+    }
 }
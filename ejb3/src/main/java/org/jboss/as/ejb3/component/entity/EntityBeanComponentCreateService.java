@@ -27,6 +27,7 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.ComponentCreateServiceFactory;
 import org.jboss.as.ejb3.component.EJBComponentCreateService;
 import org.jboss.as.ejb3.component.EJBComponentCreateServiceFactory;
+import org.jboss.as.ejb3.component.entity.entitycache.CommitOption;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 
 /**
@@ -34,8 +35,14 @@ import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
  */
 public class EntityBeanComponentCreateService extends EJBComponentCreateService {
 
+    private final int readyCacheMaxSize;
+    private final CommitOption commitOption;
+
     public EntityBeanComponentCreateService(final ComponentConfiguration componentConfiguration, final EjbJarConfiguration ejbJarConfiguration) {
         super(componentConfiguration, ejbJarConfiguration);
+        final EntityBeanComponentDescription description = (EntityBeanComponentDescription) componentConfiguration.getComponentDescription();
+        this.readyCacheMaxSize = description.getReadyCacheMaxSize();
+        this.commitOption = description.getCommitOption();
     }
 
     @Override
@@ -43,6 +50,14 @@ public class EntityBeanComponentCreateService extends EJBComponentCreateService
         return new EntityBeanComponent(this);
     }
 
+    public int getReadyCacheMaxSize() {
+        return readyCacheMaxSize;
+    }
+
+    public CommitOption getCommitOption() {
+        return commitOption;
+    }
+
     public static final ComponentCreateServiceFactory FACTORY = new EJBComponentCreateServiceFactory() {
         @Override
         public BasicComponentCreateService constructService(final ComponentConfiguration configuration) {
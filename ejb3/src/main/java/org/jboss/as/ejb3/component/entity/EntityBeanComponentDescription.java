@@ -31,6 +31,7 @@ import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ee.component.interceptors.InterceptorOrder;
 import org.jboss.as.ejb3.component.EjbHomeViewDescription;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
+import org.jboss.as.ejb3.component.entity.entitycache.CommitOption;
 import org.jboss.as.ejb3.component.entity.interceptors.EntityBeanReentrancyInterceptor;
 import org.jboss.as.ejb3.component.entity.interceptors.EntityBeanSynchronizationInterceptor;
 import org.jboss.as.ejb3.component.entity.interceptors.EntityInvocationContextInterceptor;
@@ -53,6 +54,11 @@ public class EntityBeanComponentDescription extends EJBComponentDescription {
     private PersistenceType persistenceType;
     private boolean reentrant;
     private String primaryKeyType;
+    /**
+     * The maximum size of the shared ready cache, 0 if instances are only cached within a transaction
+     */
+    private int readyCacheMaxSize;
+    private CommitOption commitOption = CommitOption.C;
 
     public EntityBeanComponentDescription(final String componentName, final String componentClassName, final EjbJarDescription ejbJarDescription, final ServiceName deploymentUnitServiceName) {
         super(componentName, componentClassName, ejbJarDescription, deploymentUnitServiceName);
@@ -157,5 +163,21 @@ public class EntityBeanComponentDescription extends EJBComponentDescription {
         this.persistenceType = persistenceType;
     }
 
+    public int getReadyCacheMaxSize() {
+        return readyCacheMaxSize;
+    }
+
+    public void setReadyCacheMaxSize(final int readyCacheMaxSize) {
+        this.readyCacheMaxSize = readyCacheMaxSize;
+    }
+
+    public CommitOption getCommitOption() {
+        return commitOption;
+    }
+
+    public void setCommitOption(final CommitOption commitOption) {
+        this.commitOption = commitOption;
+    }
+
 
 }
@@ -47,6 +47,7 @@ public class EntityBeanComponentInstance extends BasicComponentInstance {
     private volatile boolean isDiscarded;
     private volatile BaseEntityContext entityContext;
     private volatile boolean removed = false;
+    private volatile boolean reloadRequired = false;
 
     protected EntityBeanComponentInstance(final BasicComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors) {
         super(component, instanceReference, preDestroyInterceptor, methodInterceptors);
@@ -92,6 +93,7 @@ public class EntityBeanComponentInstance extends BasicComponentInstance {
      */
     public synchronized void associate(Object primaryKey) {
         this.primaryKey = primaryKey;
+        this.reloadRequired = false;
         EntityBean instance = getInstance();
         try {
             instance.ejbActivate();
@@ -101,6 +103,21 @@ public class EntityBeanComponentInstance extends BasicComponentInstance {
         }
     }
 
+    /**
+     * Invokes the ejbLoad method if the state of this instance has been marked as out of date by the cache. This
+     * is called once the instance has been locked for a transaction.
+     */
+    public synchronized void reloadIfRequired() {
+        if (reloadRequired && !removed) {
+            try {
+                getInstance().ejbLoad();
+            } catch (RemoteException e) {
+                throw new WrappedRemoteException(e);
+            }
+            reloadRequired = false;
+        }
+    }
+
     /**
      * Invokes the ejbStore method
      */
@@ -130,6 +147,7 @@ public class EntityBeanComponentInstance extends BasicComponentInstance {
             throw new WrappedRemoteException(e);
         }
         this.primaryKey = null;
+        this.reloadRequired = false;
     }
 
     public void setupContext() {
@@ -160,4 +178,12 @@ public class EntityBeanComponentInstance extends BasicComponentInstance {
     public void setRemoved(final boolean removed) {
         this.removed = removed;
     }
+
+    public boolean isReloadRequired() {
+        return reloadRequired;
+    }
+
+    public void setReloadRequired(final boolean reloadRequired) {
+        this.reloadRequired = reloadRequired;
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The commit options of the EJB 2.1 specification (section 10.5.9), which determine what happens to an entity bean
+ * instance in the ready cache once the transaction it took part in has completed.
+ */
+public enum CommitOption {
+
+    /**
+     * The instance stays in the ready cache and its state is not reloaded, the container is assumed to have
+     * exclusive access to the database.
+     */
+    A("A"),
+    /**
+     * The instance stays in the ready cache, but {@link javax.ejb.EntityBean#ejbLoad()} is invoked before it is
+     * used by the next transaction.
+     */
+    B("B"),
+    /**
+     * The instance is passivated and returned to the pool.
+     */
+    C("C");
+
+    private final String name;
+
+    private CommitOption(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the configuration name of this commit option.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the configuration name, as validated by {@link org.jboss.as.controller.operations.validation.EnumValidator}
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final Map<String, CommitOption> MAP;
+
+    static {
+        final Map<String, CommitOption> map = new HashMap<String, CommitOption>();
+        for (CommitOption option : values()) {
+            map.put(option.name, option);
+        }
+        MAP = map;
+    }
+
+    /**
+     * @param name the configuration name
+     * @return the commit option with the given name, or null if there is none
+     */
+    public static CommitOption forName(final String name) {
+        return MAP.get(name);
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ejb.NoSuchEntityException;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.logging.Logger;
+
+/**
+ * A bounded ready cache which is shared by all transactions, so that an entity that is looked up again does not have
+ * to be activated and loaded each time.
+ * <p/>
+ * There is at most one cached instance per primary key; concurrent transactions using the same entity are serialised
+ * by the {@link org.jboss.as.ejb3.component.entity.interceptors.EntityBeanSynchronizationInterceptor}. Each
+ * {@link #get(Object)} takes a reference on the instance which is given back by {@link #release(EntityBeanComponentInstance, boolean)},
+ * and only instances without references are ever passivated. What happens to an instance once it is released depends
+ * on the {@link CommitOption}.
+ * <p/>
+ * The keys are spread over a number of segments, each of which has its own lock and evicts its least recently used
+ * idle instances once it holds more than its share of the maximum size.
+ */
+public class LRUReadyEntityCache implements ReadyEntityCache, EntityCacheStatistics {
+
+    private static final Logger logger = Logger.getLogger(LRUReadyEntityCache.class);
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Pool<EntityBeanComponentInstance> pool;
+    private final CommitOption commitOption;
+    private final int maxSize;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LRUReadyEntityCache(final EntityBeanComponent component, final int maxSize, final CommitOption commitOption) {
+        this(component.getPool(), maxSize, commitOption);
+    }
+
+    LRUReadyEntityCache(final Pool<EntityBeanComponentInstance> pool, final int maxSize, final CommitOption commitOption) {
+        this(pool, maxSize, commitOption, MAX_SEGMENTS);
+    }
+
+    LRUReadyEntityCache(final Pool<EntityBeanComponentInstance> pool, final int maxSize, final CommitOption commitOption, final int maxSegments) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1: " + maxSize);
+        }
+        this.pool = pool;
+        this.maxSize = maxSize;
+        this.commitOption = commitOption;
+        int count = 1;
+        while (count < maxSegments && count * 2 <= maxSize) {
+            count <<= 1;
+        }
+        this.segments = new Segment[count];
+        final int segmentSize = (maxSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    @Override
+    public void create(final EntityBeanComponentInstance instance) {
+        final Object key = instance.getPrimaryKey();
+        final Segment segment = segmentFor(key);
+        final List<EntityBeanComponentInstance> evicted;
+        synchronized (segment) {
+            final Entry existing = segment.entries.put(key, new Entry(instance));
+            if (existing != null && existing.referenceCount == 0) {
+                // the old identity has been removed and was waiting to be released
+                segment.released.add(existing.instance);
+            }
+            evicted = segment.evict();
+        }
+        passivate(evicted);
+    }
+
+    @Override
+    public EntityBeanComponentInstance get(final Object key) throws NoSuchEntityException {
+        final Segment segment = segmentFor(key);
+        synchronized (segment) {
+            final Entry entry = segment.entries.get(key);
+            if (entry != null) {
+                // a removed instance is rejected by the caller, and so is never released
+                if (!entry.instance.isRemoved()) {
+                    entry.referenceCount++;
+                }
+                hits.incrementAndGet();
+                return entry.instance;
+            }
+        }
+        misses.incrementAndGet();
+        // activate and load outside of the lock, at worst a concurrent miss on the same key does this twice
+        final EntityBeanComponentInstance instance = pool.get();
+        instance.associate(key);
+        final Entry entry;
+        final List<EntityBeanComponentInstance> evicted;
+        synchronized (segment) {
+            Entry existing = segment.entries.get(key);
+            if (existing == null) {
+                existing = new Entry(instance);
+                segment.entries.put(key, existing);
+            }
+            existing.referenceCount++;
+            entry = existing;
+            evicted = segment.evict();
+        }
+        if (entry.instance != instance) {
+            releaseToPool(instance);
+        }
+        passivate(evicted);
+        return entry.instance;
+    }
+
+    @Override
+    public void release(final EntityBeanComponentInstance instance, final boolean transactionSuccess) {
+        //roll back unsuccessful removal
+        if (!transactionSuccess && instance.isRemoved()) {
+            instance.setRemoved(false);
+        }
+        final Object key = instance.getPrimaryKey();
+        if (key == null) {
+            return;
+        }
+        final Segment segment = segmentFor(key);
+        final List<EntityBeanComponentInstance> evicted;
+        synchronized (segment) {
+            final Entry entry = segment.entries.get(key);
+            if (entry == null || entry.instance != instance) {
+                // discarded, or replaced by a new identity with the same key
+                segment.released.add(instance);
+            } else {
+                if (entry.referenceCount > 0) {
+                    entry.referenceCount--;
+                }
+                if (!transactionSuccess) {
+                    // the in memory state may not match the database any more
+                    entry.invalid = true;
+                }
+                if (entry.referenceCount == 0 && (entry.invalid || instance.isRemoved() || commitOption == CommitOption.C)) {
+                    segment.entries.remove(key);
+                    segment.released.add(instance);
+                } else if (entry.invalid || commitOption != CommitOption.A) {
+                    instance.setReloadRequired(true);
+                }
+            }
+            evicted = segment.evict();
+        }
+        passivate(evicted);
+    }
+
+    @Override
+    public void discard(final EntityBeanComponentInstance instance) {
+        final Object key = instance.getPrimaryKey();
+        if (key == null) {
+            return;
+        }
+        final Segment segment = segmentFor(key);
+        synchronized (segment) {
+            final Entry entry = segment.entries.get(key);
+            if (entry != null && entry.instance == instance) {
+                segment.entries.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        for (Segment segment : segments) {
+            final List<EntityBeanComponentInstance> idle = new ArrayList<EntityBeanComponentInstance>();
+            synchronized (segment) {
+                final Iterator<Entry> it = segment.entries.values().iterator();
+                while (it.hasNext()) {
+                    final Entry entry = it.next();
+                    if (entry.referenceCount == 0) {
+                        it.remove();
+                        idle.add(entry.instance);
+                    }
+                }
+                idle.addAll(segment.drainReleased());
+            }
+            for (EntityBeanComponentInstance instance : idle) {
+                releaseToPool(instance);
+            }
+        }
+    }
+
+    @Override
+    public int getCacheSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public CommitOption getCommitOption() {
+        return commitOption;
+    }
+
+    private Segment segmentFor(final Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return segments[h & segmentMask];
+    }
+
+    private void passivate(final List<EntityBeanComponentInstance> instances) {
+        for (EntityBeanComponentInstance instance : instances) {
+            releaseToPool(instance);
+        }
+    }
+
+    private void releaseToPool(final EntityBeanComponentInstance instance) {
+        try {
+            instance.passivate();
+            pool.release(instance);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to passivate entity bean instance " + instance, e);
+            pool.discard(instance);
+        }
+    }
+
+    private static final class Entry {
+        private final EntityBeanComponentInstance instance;
+        /**
+         * The number of {@link #get(Object)} calls that have not been released yet, guarded by the segment lock
+         */
+        private int referenceCount;
+        /**
+         * Set when a transaction using the instance rolled back, the instance is dropped once it is idle
+         */
+        private boolean invalid;
+
+        private Entry(final EntityBeanComponentInstance instance) {
+            this.instance = instance;
+        }
+    }
+
+    private final class Segment {
+        private final int maxSize;
+        private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        /**
+         * Instances that have left the cache and still have to be passivated, which is done outside of the lock
+         */
+        private List<EntityBeanComponentInstance> released = new ArrayList<EntityBeanComponentInstance>();
+
+        private Segment(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * Removes the least recently used idle entries until the segment is within its size. Entries that are in
+         * use are skipped, so the segment may stay above its size while all of its instances are busy.
+         *
+         * @return the instances to passivate
+         */
+        private List<EntityBeanComponentInstance> evict() {
+            int excess = entries.size() - maxSize;
+            if (excess > 0) {
+                final Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+                while (excess > 0 && it.hasNext()) {
+                    final Entry entry = it.next().getValue();
+                    if (entry.referenceCount == 0) {
+                        it.remove();
+                        released.add(entry.instance);
+                        evictions.incrementAndGet();
+                        excess--;
+                    }
+                }
+            }
+            return drainReleased();
+        }
+
+        private List<EntityBeanComponentInstance> drainReleased() {
+            if (released.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<EntityBeanComponentInstance> result = released;
+            released = new ArrayList<EntityBeanComponentInstance>();
+            return result;
+        }
+    }
+}
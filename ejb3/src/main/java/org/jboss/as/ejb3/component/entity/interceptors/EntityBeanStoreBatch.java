@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.interceptors;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+
+/**
+ * Collects the entity bean instances used by a transaction, so that each of them is stored exactly once in a single
+ * pass at {@link #beforeCompletion()}, rather than once for every invocation made on it.
+ * <p/>
+ * There is one batch per transaction, shared by all entity bean components.
+ */
+final class EntityBeanStoreBatch implements Synchronization {
+
+    private static final Object KEY = new Object();
+
+    private final Set<EntityBeanComponentInstance> pending = new LinkedHashSet<EntityBeanComponentInstance>();
+    private boolean completed;
+
+    private EntityBeanStoreBatch() {
+    }
+
+    /**
+     * Adds an instance to the batch of the current transaction, creating and registering the batch if needed.
+     *
+     * @param transactionSynchronizationRegistry
+     *                 the registry of the current transaction
+     * @param instance the instance to store before the transaction completes
+     */
+    static void enlist(final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final EntityBeanComponentInstance instance) {
+        EntityBeanStoreBatch batch = (EntityBeanStoreBatch) transactionSynchronizationRegistry.getResource(KEY);
+        if (batch == null) {
+            batch = new EntityBeanStoreBatch();
+            transactionSynchronizationRegistry.registerInterposedSynchronization(batch);
+            transactionSynchronizationRegistry.putResource(KEY, batch);
+        }
+        if (!batch.add(instance)) {
+            // enlisted by another synchronization after the batch was flushed
+            instance.store();
+        }
+    }
+
+    private synchronized boolean add(final EntityBeanComponentInstance instance) {
+        if (completed) {
+            return false;
+        }
+        pending.add(instance);
+        return true;
+    }
+
+    @Override
+    public void beforeCompletion() {
+        // storing an entity may invoke other entities, which are enlisted in turn
+        for (;;) {
+            final List<EntityBeanComponentInstance> instances;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    completed = true;
+                    return;
+                }
+                instances = new ArrayList<EntityBeanComponentInstance>(pending);
+                pending.clear();
+            }
+            for (EntityBeanComponentInstance instance : instances) {
+                instance.store();
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(final int status) {
+    }
+}
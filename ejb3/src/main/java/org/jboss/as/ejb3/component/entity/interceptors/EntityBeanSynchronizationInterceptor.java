@@ -78,6 +78,13 @@ public class EntityBeanSynchronizationInterceptor extends AbstractEJBInterceptor
                 if (log.isTraceEnabled()) {
                     log.trace("Acquired lock: " + lock + " for entity bean instance: " + instance + " during invocation: " + context);
                 }
+                // the cache may keep instances between transactions, in which case their state may need reloading
+                try {
+                    instance.reloadIfRequired();
+                } catch (RuntimeException e) {
+                    releaseInstance(instance, false);
+                    throw e;
+                }
 
                 Object currentTransactionKey = null;
                 boolean wasTxSyncRegistered = false;
@@ -92,6 +99,7 @@ public class EntityBeanSynchronizationInterceptor extends AbstractEJBInterceptor
                         final Synchronization statefulSessionSync = new EntityBeanSynchronization(instance);
                         transactionSynchronizationRegistry.registerInterposedSynchronization(statefulSessionSync);
                         wasTxSyncRegistered = true;
+                        EntityBeanStoreBatch.enlist(transactionSynchronizationRegistry, instance);
                         if (log.isTraceEnabled()) {
                             log.trace("Registered tx synchronization: " + statefulSessionSync + " for tx: " + currentTransactionKey +
                                     " associated with stateful component instance: " + instance);
@@ -153,10 +161,7 @@ public class EntityBeanSynchronizationInterceptor extends AbstractEJBInterceptor
 
         @Override
         public void beforeCompletion() {
-            synchronized (threadLock) {
-                //invoke the EJB store method within the transaction
-                componentInstance.store();
-            }
+            //the EJB store method is invoked within the transaction by the EntityBeanStoreBatch
         }
 
         @Override
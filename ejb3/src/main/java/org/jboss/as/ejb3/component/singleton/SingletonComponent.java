@@ -28,6 +28,7 @@ import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.ConcurrencyLockType;
 import org.jboss.as.ejb3.concurrency.LockableComponent;
 import org.jboss.as.ejb3.timerservice.SingletonTimedObjectInvokerImpl;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
@@ -72,6 +73,8 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
 
 
     private final DefaultAccessTimeoutService defaultAccessTimeoutProvider;
+
+    private final ConcurrencyLockType concurrencyLockType;
     /**
      * Construct a new instance.
      *
@@ -88,6 +91,8 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         this.methodLockTypes = singletonComponentCreateService.getMethodApplicableLockTypes();
         this.methodAccessTimeouts = singletonComponentCreateService.getMethodApplicableAccessTimeouts();
         this.defaultAccessTimeoutProvider = singletonComponentCreateService.getDefaultAccessTimeoutProvider();
+        final ConcurrencyLockType concurrencyLockType = singletonComponentCreateService.getConcurrencyLockType();
+        this.concurrencyLockType = concurrencyLockType == null ? ConcurrencyLockType.READ_WRITE : concurrencyLockType;
     }
 
     @Override
@@ -183,6 +188,11 @@ public class SingletonComponent extends SessionBeanComponent implements Lockable
         return defaultAccessTimeoutProvider.getDefaultAccessTimeout();
     }
 
+    @Override
+    public ConcurrencyLockType getConcurrencyLockType() {
+        return concurrencyLockType;
+    }
+
     private synchronized void destroySingletonInstance() {
         if (this.singletonComponentInstance != null) {
             singletonComponentInstance.destroy();
@@ -26,6 +26,7 @@ import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
+import org.jboss.as.ejb3.concurrency.ConcurrencyLockType;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.msc.service.ServiceName;
 
@@ -39,12 +40,14 @@ public class SingletonComponentCreateService extends SessionBeanComponentCreateS
     private final boolean initOnStartup;
     private final List<ServiceName> dependsOn;
     private final DefaultAccessTimeoutService defaultAccessTimeoutProvider;
+    private final ConcurrencyLockType concurrencyLockType;
 
     public SingletonComponentCreateService(final ComponentConfiguration componentConfiguration, final EjbJarConfiguration ejbJarConfiguration, final boolean initOnStartup, final List<ServiceName> dependsOn) {
         super(componentConfiguration, ejbJarConfiguration);
         this.initOnStartup = initOnStartup;
         this.dependsOn = dependsOn;
         this.defaultAccessTimeoutProvider = ((SingletonComponentDescription)componentConfiguration.getComponentDescription()).getDefaultAccessTimeoutProvider();
+        this.concurrencyLockType = ((SingletonComponentDescription)componentConfiguration.getComponentDescription()).getDefaultConcurrencyLockType();
     }
 
     @Override
@@ -59,4 +62,8 @@ public class SingletonComponentCreateService extends SessionBeanComponentCreateS
     public DefaultAccessTimeoutService getDefaultAccessTimeoutProvider() {
         return defaultAccessTimeoutProvider;
     }
+
+    public ConcurrencyLockType getConcurrencyLockType() {
+        return concurrencyLockType;
+    }
 }
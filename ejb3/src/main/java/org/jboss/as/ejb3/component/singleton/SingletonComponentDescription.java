@@ -36,6 +36,7 @@ import org.jboss.as.ejb3.component.ComponentTypeIdentityInterceptorFactory;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.MethodIntf;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
+import org.jboss.as.ejb3.concurrency.ConcurrencyLockType;
 import org.jboss.as.ejb3.concurrency.ContainerManagedConcurrencyInterceptorFactory;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.ejb3.tx.SingletonLifecycleCMTTxInterceptorFactory;
@@ -69,6 +70,8 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
 
     private DefaultAccessTimeoutService defaultAccessTimeoutProvider;
 
+    private ConcurrencyLockType defaultConcurrencyLockType;
+
     /**
      * Construct a new instance.
      *
@@ -224,4 +227,12 @@ public class SingletonComponentDescription extends SessionBeanComponentDescripti
     public void setDefaultAccessTimeoutProvider(final DefaultAccessTimeoutService defaultAccessTimeoutProvider) {
         this.defaultAccessTimeoutProvider = defaultAccessTimeoutProvider;
     }
+
+    public ConcurrencyLockType getDefaultConcurrencyLockType() {
+        return defaultConcurrencyLockType;
+    }
+
+    public void setDefaultConcurrencyLockType(final ConcurrencyLockType defaultConcurrencyLockType) {
+        this.defaultConcurrencyLockType = defaultConcurrencyLockType;
+    }
 }
@@ -28,12 +28,14 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.ComponentConfigurator;
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.ComponentInstanceInterceptorFactory;
+import org.jboss.as.ee.component.DependencyConfigurator;
 import org.jboss.as.ee.component.EEApplicationDescription;
 import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewConfigurator;
 import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ee.component.serialization.WriteReplaceInterface;
 import org.jboss.as.ee.component.interceptors.InterceptorOrder;
+import org.jboss.as.ejb3.cache.PassivationConfigService;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
@@ -47,6 +49,8 @@ import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.proxy.MethodIdentifier;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionManagementType;
@@ -56,6 +60,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * User: jpai
@@ -163,6 +168,16 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         final ComponentConfiguration statefulComponentConfiguration = new ComponentConfiguration(this, applicationDescription.getClassConfiguration(getComponentClassName()));
         // setup the component create service
         statefulComponentConfiguration.setComponentCreateServiceFactory(new StatefulComponentCreateServiceFactory());
+        // the expiration of idle instances is driven by the scheduler shared between all stateful components
+        // idle instances are only passivated if passivation has been configured in the subsystem
+        statefulComponentConfiguration.getCreateDependencies().add(new DependencyConfigurator<Service<Component>>() {
+            @Override
+            public void configureDependency(final ServiceBuilder<?> serviceBuilder, final Service<Component> service) throws DeploymentUnitProcessingException {
+                final StatefulSessionComponentCreateService statefulService = (StatefulSessionComponentCreateService) service;
+                serviceBuilder.addDependency(StatefulSessionComponent.EXPIRATION_SCHEDULER_SERVICE_NAME, ScheduledExecutorService.class, statefulService.getExpirationScheduler());
+                serviceBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, PassivationConfigService.SERVICE_NAME, PassivationConfigService.class, statefulService.getPassivationConfig());
+            }
+        });
 
         if (getTransactionManagementType() == TransactionManagementType.BEAN) {
             getConfigurators().add(new ComponentConfigurator() {
@@ -23,7 +23,9 @@ package org.jboss.as.ejb3.component.stateful;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -37,7 +39,10 @@ import javax.transaction.Transaction;
 import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.cache.Cache;
-import org.jboss.as.ejb3.cache.ExpiringCache;
+import org.jboss.as.ejb3.cache.ExpiryQueueCache;
+import org.jboss.as.ejb3.cache.PassivatingCache;
+import org.jboss.as.ejb3.cache.PassivationConfigService;
+import org.jboss.as.ejb3.cache.PassivationManager;
 import org.jboss.as.ejb3.cache.StatefulObjectFactory;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
@@ -45,13 +50,17 @@ import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
 import org.jboss.as.ejb3.context.spi.SessionContext;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ValueManagedReference;
+import org.jboss.as.threads.ThreadsServices;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.SimpleInterceptorFactoryContext;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.tm.TxUtils;
 
 
@@ -64,6 +73,11 @@ public class StatefulSessionComponent extends SessionBeanComponent {
 
     public static final Object SESSION_ID_REFERENCE_KEY = new Object();
 
+    /**
+     * The scheduler which expires idle instances of all stateful components
+     */
+    public static final ServiceName EXPIRATION_SCHEDULER_SERVICE_NAME = ThreadsServices.EXECUTOR.append("ejb3-stateful-expiration");
+
     private static final Logger logger = Logger.getLogger(StatefulSessionComponent.class);
 
     private final Cache<StatefulSessionComponentInstance> cache;
@@ -89,10 +103,17 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         this.defaultAccessTimeoutProvider = ejbComponentCreateService.getDefaultAccessTimeoutProvider();
 
         final StatefulTimeoutInfo statefulTimeout = ejbComponentCreateService.getStatefulTimeout();
-        if (statefulTimeout != null) {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(statefulTimeout.getValue(), statefulTimeout.getTimeUnit(), ejbComponentCreateService.getComponentClass().getName());
+        final long timeout = statefulTimeout != null ? statefulTimeout.getValue() : -1;
+        final TimeUnit timeUnit = statefulTimeout != null ? statefulTimeout.getTimeUnit() : TimeUnit.MILLISECONDS;
+        final String beanName = ejbComponentCreateService.getComponentClass().getName();
+        final ScheduledExecutorService expirationScheduler = ejbComponentCreateService.getExpirationScheduler().getValue();
+        final PassivationConfigService passivationConfig = ejbComponentCreateService.getPassivationConfig().getOptionalValue();
+        if (passivationConfig != null) {
+            final PassivationManager<StatefulSessionComponentInstance> passivationManager = new StatefulSessionPassivationManager(this, ejbComponentCreateService.getComponentClass().getClassLoader());
+            cache = new PassivatingCache<StatefulSessionComponentInstance>(timeout, timeUnit, passivationConfig.getIdleTimeout(), TimeUnit.MILLISECONDS, passivationConfig.getMaxSize(),
+                    beanName, expirationScheduler, passivationManager, passivationConfig.createStore(getComponentName()));
         } else {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(-1, TimeUnit.MILLISECONDS, ejbComponentCreateService.getComponentClass().getName());
+            cache = new ExpiryQueueCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName, expirationScheduler);
         }
         cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
             @Override
@@ -154,9 +175,45 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         return cache;
     }
 
+    /**
+     * Associates a bean instance and its interceptor instances which have been activated with a new component
+     * instance. The injections of the bean and interceptor instances are performed again, but their post-construct
+     * callbacks are not invoked.
+     *
+     * @param sessionId            the session id of the bean
+     * @param instance             the bean instance
+     * @param interceptorInstances the interceptor instances, by interceptor class
+     * @return the component instance
+     */
+    StatefulSessionComponentInstance activateInstance(final SessionID sessionId, final Object instance, final Map<Class<?>, Object> interceptorInstances) {
+        waitForComponentStart();
+        final Map<Object, Object> contextData = new HashMap<Object, Object>();
+        contextData.put(SessionID.SESSION_ID_KEY, sessionId);
+        for (Map.Entry<Class<?>, Object> entry : interceptorInstances.entrySet()) {
+            // the interceptor factories pick up these references instead of creating new interceptor instances
+            final ManagedReference reference = new ValueManagedReference(new ImmediateValue<Object>(entry.getValue()));
+            contextData.put(entry.getKey(), new AtomicReference<ManagedReference>(reference));
+        }
+        final ManagedReference reference = new ValueManagedReference(new ImmediateValue<Object>(instance));
+        return (StatefulSessionComponentInstance) constructComponentInstance(reference, contextData, false);
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     protected BasicComponentInstance instantiateComponentInstance(AtomicReference<ManagedReference> instanceReference, Interceptor preDestroyInterceptor, Map<Method, Interceptor> methodInterceptors, final InterceptorFactoryContext interceptorContext) {
-        return new StatefulSessionComponentInstance(this, instanceReference, preDestroyInterceptor, methodInterceptors);
+        // interceptor instances are kept in the factory context under their class
+        final Map<Class<?>, AtomicReference<ManagedReference>> interceptorReferences = new HashMap<Class<?>, AtomicReference<ManagedReference>>();
+        for (Map.Entry<Object, Object> entry : interceptorContext.getContextData().entrySet()) {
+            if (entry.getKey() instanceof Class && entry.getValue() instanceof AtomicReference) {
+                interceptorReferences.put((Class<?>) entry.getKey(), (AtomicReference<ManagedReference>) entry.getValue());
+            }
+        }
+        //if we are activating an existing instance this will not be null
+        final SessionID sessionId = (SessionID) interceptorContext.getContextData().get(SessionID.SESSION_ID_KEY);
+        if (sessionId != null) {
+            return new StatefulSessionComponentInstance(this, instanceReference, preDestroyInterceptor, methodInterceptors, interceptorReferences, sessionId);
+        }
+        return new StatefulSessionComponentInstance(this, instanceReference, preDestroyInterceptor, methodInterceptors, interceptorReferences);
     }
 
     /**
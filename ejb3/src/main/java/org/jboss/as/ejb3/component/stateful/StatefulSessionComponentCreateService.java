@@ -26,6 +26,7 @@ import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.TCCLInterceptor;
 import org.jboss.as.ejb3.PrimitiveClassLoaderUtil;
+import org.jboss.as.ejb3.cache.PassivationConfigService;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
@@ -33,9 +34,11 @@ import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.Interceptors;
+import org.jboss.msc.value.InjectedValue;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @author Stuart Douglas
@@ -46,6 +49,8 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
     private final InterceptorFactory beforeCompletion;
     private final StatefulTimeoutInfo statefulTimeout;
     private final DefaultAccessTimeoutService defaultAccessTimeoutProvider;
+    private final InjectedValue<ScheduledExecutorService> expirationScheduler = new InjectedValue<ScheduledExecutorService>();
+    private final InjectedValue<PassivationConfigService> passivationConfig = new InjectedValue<PassivationConfigService>();
 
     /**
      * Construct a new instance.
@@ -137,4 +142,12 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
     public DefaultAccessTimeoutService getDefaultAccessTimeoutProvider() {
         return defaultAccessTimeoutProvider;
     }
+
+    public InjectedValue<ScheduledExecutorService> getExpirationScheduler() {
+        return expirationScheduler;
+    }
+
+    public InjectedValue<PassivationConfigService> getPassivationConfig() {
+        return passivationConfig;
+    }
 }
@@ -34,6 +34,7 @@ import javax.ejb.EJBException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
@@ -43,6 +44,10 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class StatefulSessionComponentInstance extends SessionBeanComponentInstance implements Identifiable {
     private final SessionID id;
+    /**
+     * The references to the interceptor instances of this bean, by interceptor class
+     */
+    private final Map<Class<?>, AtomicReference<ManagedReference>> interceptorReferences;
 
     private final Interceptor afterBegin;
     private final Interceptor afterCompletion;
@@ -53,21 +58,39 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
     /**
      * Construct a new instance.
      *
-     * @param component the component
+     * @param component             the component
+     * @param interceptorReferences the references to the interceptor instances, by interceptor class
      */
-    protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors) {
+    protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors,
+                                               final Map<Class<?>, AtomicReference<ManagedReference>> interceptorReferences) {
+        this(component, instanceReference, preDestroyInterceptor, methodInterceptors, interceptorReferences, createSessionId());
+    }
+
+    /**
+     * Construct an instance with an existing session id, for a bean which is being activated.
+     *
+     * @param component             the component
+     * @param interceptorReferences the references to the interceptor instances, by interceptor class
+     * @param id                    the session id of the bean
+     */
+    protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors,
+                                               final Map<Class<?>, AtomicReference<ManagedReference>> interceptorReferences, final SessionID id) {
         super(component, instanceReference, preDestroyInterceptor, methodInterceptors, Collections.<Method, Interceptor>emptyMap());
 
+        this.id = id;
+        this.interceptorReferences = interceptorReferences;
 
+        this.afterBegin = component.createInterceptor(component.getAfterBegin());
+        this.afterCompletion = component.createInterceptor(component.getAfterCompletion());
+        this.beforeCompletion = component.createInterceptor(component.getBeforeCompletion());
+    }
+
+    private static SessionID createSessionId() {
         final UUID uuid = UUID.randomUUID();
         ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
         bb.putLong(uuid.getMostSignificantBits());
         bb.putLong(uuid.getLeastSignificantBits());
-        this.id = SessionID.createSessionID(bb.array());
-
-        this.afterBegin = component.createInterceptor(component.getAfterBegin());
-        this.afterCompletion = component.createInterceptor(component.getAfterCompletion());
-        this.beforeCompletion = component.createInterceptor(component.getBeforeCompletion());
+        return SessionID.createSessionID(bb.array());
     }
 
     protected void afterBegin() {
@@ -115,4 +138,18 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
     public SessionID getId() {
         return id;
     }
+
+    /**
+     * @return the interceptor instances of this bean, by interceptor class
+     */
+    Map<Class<?>, Object> getInterceptorInstances() {
+        final Map<Class<?>, Object> instances = new HashMap<Class<?>, Object>();
+        for (Map.Entry<Class<?>, AtomicReference<ManagedReference>> entry : interceptorReferences.entrySet()) {
+            final ManagedReference reference = entry.getValue().get();
+            if (reference != null) {
+                instances.put(entry.getKey(), reference.getInstance());
+            }
+        }
+        return instances;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.stateful;
+
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.ejb.client.SessionID;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Passivates stateful session beans by serializing the conversational state of the component instance, that is the
+ * bean instance together with the instances of its interceptors, with JBoss Marshalling.
+ * <p/>
+ * On activation the bean and interceptor instances are associated with a new {@link StatefulSessionComponentInstance}
+ * with the same session id. Their injections are performed again, but their post-construct callbacks are not invoked.
+ */
+public class StatefulSessionPassivationManager implements PassivationManager<StatefulSessionComponentInstance> {
+
+    private final StatefulSessionComponent component;
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    public StatefulSessionPassivationManager(final StatefulSessionComponent component, final ClassLoader classLoader) {
+        this.component = component;
+        this.factory = new RiverMarshallerFactory();
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(new SimpleClassResolver(classLoader));
+        this.configuration = configuration;
+    }
+
+    @Override
+    public byte[] passivate(final StatefulSessionComponentInstance obj) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        try {
+            marshaller.start(Marshalling.createByteOutput(out));
+            marshaller.writeObject(obj.getInstance());
+            final Map<Class<?>, Object> interceptors = obj.getInterceptorInstances();
+            marshaller.writeInt(interceptors.size());
+            for (Map.Entry<Class<?>, Object> entry : interceptors.entrySet()) {
+                marshaller.writeObject(entry.getKey());
+                marshaller.writeObject(entry.getValue());
+            }
+            marshaller.finish();
+        } finally {
+            marshaller.close();
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public StatefulSessionComponentInstance activate(final SessionID id, final byte[] state) throws IOException {
+        final Object instance;
+        final Map<Class<?>, Object> interceptors = new HashMap<Class<?>, Object>();
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        try {
+            unmarshaller.start(Marshalling.createByteInput(new ByteArrayInputStream(state)));
+            instance = unmarshaller.readObject();
+            final int count = unmarshaller.readInt();
+            for (int i = 0; i < count; i++) {
+                final Class<?> interceptorClass = (Class<?>) unmarshaller.readObject();
+                interceptors.put(interceptorClass, unmarshaller.readObject());
+            }
+            unmarshaller.finish();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not load class of passivated bean " + id, e);
+        } finally {
+            unmarshaller.close();
+        }
+        return component.activateInstance(id, instance, interceptors);
+    }
+}
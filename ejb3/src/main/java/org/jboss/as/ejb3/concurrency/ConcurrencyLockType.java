@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * The kinds of lock which can be used for container managed concurrency of a {@link LockableComponent}.
+ */
+public enum ConcurrencyLockType {
+
+    /**
+     * {@link EJBReadWriteLock}, a single {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+     */
+    READ_WRITE("read-write") {
+        @Override
+        public ReadWriteLock createLock() {
+            return new EJBReadWriteLock();
+        }
+    },
+    /**
+     * {@link StripedEJBReadWriteLock}, which scales better with many concurrent readers
+     */
+    STRIPED("striped") {
+        @Override
+        public ReadWriteLock createLock() {
+            return new StripedEJBReadWriteLock();
+        }
+    };
+
+    private final String name;
+
+    private ConcurrencyLockType(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the configuration name of this lock type.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the configuration name, as validated by {@link org.jboss.as.controller.operations.validation.EnumValidator}
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Create a new lock of this type.
+     *
+     * @return the lock
+     */
+    public abstract ReadWriteLock createLock();
+
+    private static final Map<String, ConcurrencyLockType> MAP;
+
+    static {
+        final Map<String, ConcurrencyLockType> map = new HashMap<String, ConcurrencyLockType>();
+        for (ConcurrencyLockType type : values()) {
+            map.put(type.name, type);
+        }
+        MAP = map;
+    }
+
+    /**
+     * @param name the configuration name
+     * @return the lock type with the given name, or null if there is none
+     */
+    public static ConcurrencyLockType forName(final String name) {
+        return MAP.get(name);
+    }
+}
@@ -45,9 +45,10 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
     private static final Logger logger = Logger.getLogger(ContainerManagedConcurrencyInterceptor.class);
 
     /**
-     * A spec compliant {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock}
+     * A spec compliant lock, an {@link org.jboss.as.ejb3.concurrency.EJBReadWriteLock} unless the component is
+     * configured to use another {@link ConcurrencyLockType}
      */
-    private final ReadWriteLock readWriteLock = new EJBReadWriteLock();
+    private final ReadWriteLock readWriteLock;
 
     private final LockableComponent lockableComponent;
 
@@ -56,6 +57,7 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
             throw new IllegalArgumentException(LockableComponent.class.getName() + " cannot be null");
         }
         this.lockableComponent = component;
+        this.readWriteLock = component.getConcurrencyLockType().createLock();
     }
 
     protected LockableComponent getLockableComponent() {
@@ -61,4 +61,12 @@ public interface LockableComponent {
      * @return
      */
     AccessTimeoutDetails getDefaultAccessTimeout();
+
+    /**
+     * Returns the {@link ConcurrencyLockType} of the lock which guards the concurrent access to the component. This
+     * method must *not* return a null value.
+     *
+     * @return
+     */
+    ConcurrencyLockType getConcurrencyLockType();
 }
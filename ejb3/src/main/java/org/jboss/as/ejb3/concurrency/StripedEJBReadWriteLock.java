@@ -0,0 +1,400 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import javax.ejb.IllegalLoopbackException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An implementation of {@link java.util.concurrent.locks.ReadWriteLock} for read mostly components, which throws an
+ * {@link javax.ejb.IllegalLoopbackException} when a thread holding a read lock tries to obtain a write lock, just
+ * like {@link EJBReadWriteLock}.
+ * <p/>
+ * Readers don't share a single lock state. Each reader announces itself in one of a number of padded counters
+ * (stripes), picked by its thread, and then checks that no writer is active. A writer first excludes other writers,
+ * then marks itself as active, which makes new readers wait, and finally waits until the counters of all stripes
+ * have drained. A read lock is therefore two uncontended atomic operations on a cache line which is mostly private
+ * to the reading thread, while acquiring the write lock is more expensive than with a
+ * {@link java.util.concurrent.locks.ReentrantReadWriteLock}. Waiting writers take precedence over new readers.
+ * <p/>
+ * Both locks are reentrant, and a thread holding the write lock can obtain the read lock.
+ */
+public class StripedEJBReadWriteLock implements ReadWriteLock {
+
+    /**
+     * The distance between two stripes in the reader counts, so that each stripe has a cache line of its own
+     */
+    private static final int STRIPE_SHIFT = 4;
+
+    /**
+     * The number of read locks held per stripe, at index <code>stripe << STRIPE_SHIFT</code>
+     */
+    private final AtomicLongArray readerCounts;
+
+    private final int stripeMask;
+
+    /**
+     * Keep track of the number of read locks held by this thread
+     */
+    private final ThreadLocal<ReadLockCount> readLockCount = new ThreadLocal<ReadLockCount>() {
+        @Override
+        protected ReadLockCount initialValue() {
+            return new ReadLockCount();
+        }
+    };
+
+    /**
+     * Excludes writers from each other
+     */
+    private final ReentrantLock writerLock = new ReentrantLock();
+
+    /**
+     * The thread which holds the write lock, or waits for the readers to drain. Only written by the holder of
+     * the {@link #writerLock}.
+     */
+    private volatile Thread writer;
+
+    /**
+     * Readers wait on {@link #writerReleased} for the active writer to release the write lock
+     */
+    private final ReentrantLock readerGate = new ReentrantLock();
+    private final Condition writerReleased = readerGate.newCondition();
+
+    private final Lock readLock = new ReadLock();
+
+    private final Lock writeLock = new WriteLock();
+
+    public StripedEJBReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedEJBReadWriteLock(final int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.readerCounts = new AtomicLongArray(size << STRIPE_SHIFT);
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * The read lock. Acquisition is reentrant and never waits if the thread already holds a read lock or the
+     * write lock.
+     */
+    public class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            for (; ; ) {
+                try {
+                    acquireRead(false, 0L);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            acquireRead(false, 0L);
+        }
+
+        /**
+         * No implementation provided
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean tryLock() {
+            final ReadLockCount count = readLockCount.get();
+            final int index = readerIndex();
+            if (count.value > 0 || writerLock.isHeldByCurrentThread()) {
+                readerCounts.incrementAndGet(index);
+                count.value++;
+                return true;
+            }
+            if (tryAnnounceReader(index)) {
+                count.value++;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return acquireRead(true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            final ReadLockCount count = readLockCount.get();
+            if (count.value == 0) {
+                throw new IllegalMonitorStateException("Read lock is not held by " + Thread.currentThread());
+            }
+            count.value--;
+            releaseReader(readerIndex());
+        }
+    }
+
+    /**
+     * The write lock. If the thread already holds a read lock, any attempt to obtain it throws an
+     * {@link javax.ejb.IllegalLoopbackException}.
+     */
+    public class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            boolean interrupted = false;
+            for (; ; ) {
+                try {
+                    acquireWrite(false, 0L);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            acquireWrite(false, 0L);
+        }
+
+        /**
+         * Not implemented
+         *
+         * @throws UnsupportedOperationException
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean tryLock() {
+            checkLoopback();
+            if (!writerLock.tryLock()) {
+                return false;
+            }
+            if (writerLock.getHoldCount() > 1) {
+                return true;
+            }
+            if (getReaderCount() != 0) {
+                writerLock.unlock();
+                return false;
+            }
+            writer = Thread.currentThread();
+            if (getReaderCount() != 0) {
+                abortWrite();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return acquireWrite(true, unit.toNanos(time));
+        }
+
+        @Override
+        public void unlock() {
+            if (!writerLock.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException("Write lock is not held by " + Thread.currentThread());
+            }
+            if (writerLock.getHoldCount() == 1) {
+                releaseWriter();
+            }
+            writerLock.unlock();
+        }
+    }
+
+    private boolean acquireRead(final boolean timed, long nanos) throws InterruptedException {
+        final ReadLockCount count = readLockCount.get();
+        final int index = readerIndex();
+        if (count.value > 0 || writerLock.isHeldByCurrentThread()) {
+            // a waiting writer would wait for this thread, so a nested read must not wait for the writer
+            readerCounts.incrementAndGet(index);
+            count.value++;
+            return true;
+        }
+        for (; ; ) {
+            if (tryAnnounceReader(index)) {
+                count.value++;
+                return true;
+            }
+            readerGate.lockInterruptibly();
+            try {
+                while (writer != null) {
+                    if (!timed) {
+                        writerReleased.await();
+                    } else if (nanos <= 0L) {
+                        return false;
+                    } else {
+                        nanos = writerReleased.awaitNanos(nanos);
+                    }
+                }
+            } finally {
+                readerGate.unlock();
+            }
+        }
+    }
+
+    private boolean tryAnnounceReader(final int index) {
+        if (writer != null) {
+            return false;
+        }
+        readerCounts.incrementAndGet(index);
+        if (writer == null) {
+            return true;
+        }
+        // a writer came in between, back off
+        releaseReader(index);
+        return false;
+    }
+
+    private void releaseReader(final int index) {
+        readerCounts.decrementAndGet(index);
+        final Thread writer = this.writer;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean acquireWrite(final boolean timed, final long nanos) throws InterruptedException {
+        checkLoopback();
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        if (timed) {
+            if (!writerLock.tryLock(nanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } else {
+            writerLock.lockInterruptibly();
+        }
+        if (writerLock.getHoldCount() > 1) {
+            return true;
+        }
+        writer = Thread.currentThread();
+        // new readers now wait, so wait for the active ones to drain
+        while (getReaderCount() != 0) {
+            if (timed) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    abortWrite();
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted()) {
+                abortWrite();
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+    private void abortWrite() {
+        releaseWriter();
+        writerLock.unlock();
+    }
+
+    private void releaseWriter() {
+        writer = null;
+        readerGate.lock();
+        try {
+            writerReleased.signalAll();
+        } finally {
+            readerGate.unlock();
+        }
+    }
+
+    private long getReaderCount() {
+        long count = 0L;
+        for (int i = 0; i <= stripeMask; i++) {
+            count += readerCounts.get(i << STRIPE_SHIFT);
+        }
+        return count;
+    }
+
+    /**
+     * Maps the calling thread onto the index of its stripe in {@link #readerCounts}. The thread id is mixed so
+     * that sequentially allocated thread ids do not all end up clustered together.
+     */
+    private int readerIndex() {
+        final long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return (h & stripeMask) << STRIPE_SHIFT;
+    }
+
+    /**
+     * Ensures that the current thread doesn't hold any read locks. If
+     * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
+     */
+    private void checkLoopback() {
+        if (readLockCount.get().value > 0) {
+            throw new IllegalLoopbackException("EJB 3.1 PFD2 4.8.5.1.1 upgrading from read to write lock is not allowed");
+        }
+    }
+
+    /**
+     * @see java.util.concurrent.locks.ReadWriteLock#readLock()
+     */
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    /**
+     * @see java.util.concurrent.locks.ReadWriteLock#writeLock()
+     */
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    private static final class ReadLockCount {
+        int value;
+    }
+}
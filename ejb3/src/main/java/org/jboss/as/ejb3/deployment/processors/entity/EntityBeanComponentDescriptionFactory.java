@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.deployment.processors.entity;
 
 import org.jboss.as.ejb3.component.entity.EntityBeanComponentDescription;
+import org.jboss.as.ejb3.component.entity.entitycache.CommitOption;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.ejb3.deployment.processors.EJBComponentDescriptionFactory;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -39,6 +40,19 @@ public class EntityBeanComponentDescriptionFactory extends EJBComponentDescripti
 
     private static final Logger logger = Logger.getLogger(EntityBeanComponentDescriptionFactory.class);
 
+    private final int readyCacheMaxSize;
+    private final CommitOption commitOption;
+
+    /**
+     * @param readyCacheMaxSize the size of the ready cache shared between transactions, 0 to only cache instances
+     *                          within a transaction
+     * @param commitOption      the commit option of the shared ready cache
+     */
+    public EntityBeanComponentDescriptionFactory(final int readyCacheMaxSize, final CommitOption commitOption) {
+        this.readyCacheMaxSize = readyCacheMaxSize;
+        this.commitOption = commitOption;
+    }
+
     @Override
     protected void processAnnotations(DeploymentUnit deploymentUnit, CompositeIndex compositeIndex) throws DeploymentUnitProcessingException {
 
@@ -66,6 +80,8 @@ public class EntityBeanComponentDescriptionFactory extends EJBComponentDescripti
         description.setPersistenceType(entity.getPersistenceType());
         description.setReentrant(entity.isReentrant());
         description.setPrimaryKeyType(entity.getPrimKeyClass());
+        description.setReadyCacheMaxSize(readyCacheMaxSize);
+        description.setCommitOption(commitOption);
         //TODO: validation
 
         final String localHome = entity.getLocalHome();
@@ -29,6 +29,7 @@ import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.component.singleton.SingletonComponentDescription;
 import org.jboss.as.ejb3.component.stateful.StatefulComponentDescription;
 import org.jboss.as.ejb3.concurrency.AccessTimeoutDetails;
+import org.jboss.as.ejb3.concurrency.ConcurrencyLockType;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.reflect.ClassReflectionIndex;
@@ -57,11 +58,13 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
 
     private final DefaultAccessTimeoutService singletonDefault;
     private final DefaultAccessTimeoutService statefulDefault;
+    private final ConcurrencyLockType singletonLockType;
 
-    public EjbConcurrencyMergingProcessor(final DefaultAccessTimeoutService singletonDefault, final DefaultAccessTimeoutService statefulDefault) {
+    public EjbConcurrencyMergingProcessor(final DefaultAccessTimeoutService singletonDefault, final DefaultAccessTimeoutService statefulDefault, final ConcurrencyLockType singletonLockType) {
         super(SessionBeanComponentDescription.class);
         this.singletonDefault = singletonDefault;
         this.statefulDefault = statefulDefault;
+        this.singletonLockType = singletonLockType;
     }
 
     protected void handleAnnotations(final DeploymentUnit deploymentUnit, final EEApplicationClasses applicationClasses, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) {
@@ -97,7 +100,9 @@ public class EjbConcurrencyMergingProcessor extends AbstractMergingProcessor<Ses
     protected void handleDeploymentDescriptor(final DeploymentUnit deploymentUnit, final DeploymentReflectionIndex deploymentReflectionIndex, final Class<?> componentClass, final SessionBeanComponentDescription componentConfiguration) throws DeploymentUnitProcessingException {
 
         if(componentConfiguration instanceof SingletonComponentDescription) {
-            ((SingletonComponentDescription) componentConfiguration).setDefaultAccessTimeoutProvider(singletonDefault);
+            final SingletonComponentDescription singletonComponentDescription = (SingletonComponentDescription) componentConfiguration;
+            singletonComponentDescription.setDefaultAccessTimeoutProvider(singletonDefault);
+            singletonComponentDescription.setDefaultConcurrencyLockType(singletonLockType);
         } else if(componentConfiguration instanceof StatefulComponentDescription) {
             ((StatefulComponentDescription) componentConfiguration).setDefaultAccessTimeoutProvider(singletonDefault);
         }
@@ -29,6 +29,7 @@ import javax.ejb.EJBException;
 import java.util.LinkedList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A pool with a maximum size.
@@ -60,7 +61,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      */
     private final LinkedList<T> pool = new LinkedList<T>();
 
-    private int inUse = 0;
+    private final AtomicInteger inUse = new AtomicInteger(0);
 
     public StrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
         super(factory);
@@ -78,7 +79,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
 
         // If we block when maxSize instances are in use, invoke release on strictMaxSize
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
 
         // Let the super do any other remove stuff
         super.doRemove(ctx);
@@ -89,7 +90,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
     }
 
     public int getAvailableCount() {
-        return maxSize - inUse;
+        return maxSize - inUse.get();
     }
 
     public int getMaxSize() {
@@ -124,11 +125,11 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
         T bean = null;
         try {
             // Pool is empty, create an instance
-            ++inUse;
+            inUse.incrementAndGet();
             bean = create();
         } finally {
             if (bean == null) {
-                --inUse;
+                inUse.decrementAndGet();
                 semaphore.release();
             }
         }
@@ -162,7 +163,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
             destroy(obj);
         // If we block when maxSize instances are in use, invoke release on strictMaxSize
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
     }
 
     @Override
@@ -173,7 +174,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
         }
 
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
         // let the super do the other remove stuff
         super.doRemove(ctx);
     }
@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.striped;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.logging.Logger;
+
+import javax.ejb.EJBException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool with a maximum size, which keeps its idle instances in a number of lock-free stripes.
+ * <p/>
+ * Unlike {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool} there is no single lock guarding the idle
+ * instances. Each thread is mapped to a home stripe which it releases instances to and acquires instances
+ * from; if the home stripe is empty the other stripes are searched (work stealing) before a new instance
+ * is created. Entry into the pool is still controlled by a (non-fair) semaphore, so no more than
+ * <code>maxSize</code> instances are ever in use at the same time.
+ * <p/>
+ * The maximum size can be changed while the pool is in use. When it is lowered, instances which are in use over
+ * the new maximum are destroyed as they are released, and new callers block until the number of instances in use
+ * has dropped below the new maximum.
+ */
+public class StripedMaxPool<T> extends AbstractPool<T> {
+    private static final Logger log = Logger.getLogger(StripedMaxPool.class);
+
+    /**
+     * A non-fair semaphore that enforces the strict max size behaviour. Only maxSize instances may be active
+     * and any attempt to get an instance will block until an instance is freed.
+     */
+    private final ResizableSemaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private volatile int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances, one queue per stripe. The number of stripes is always a power of two.
+     */
+    private final ConcurrentLinkedQueue<T>[] stripes;
+    private final int stripeMask;
+    /**
+     * The number of idle instances over all stripes
+     */
+    private final AtomicInteger pooled = new AtomicInteger(0);
+
+    private final AtomicInteger inUse = new AtomicInteger(0);
+
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Math.min(maxSize, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int stripeCount) {
+        super(factory);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.semaphore = new ResizableSemaphore(maxSize);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentLinkedQueue<T>();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    public void discard(T ctx) {
+        if (log.isTraceEnabled()) {
+            String msg = "Discard instance:" + this + "#" + ctx;
+            log.trace(msg);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return maxSize - inUse.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1: " + maxSize);
+        }
+        final int delta = maxSize - this.maxSize;
+        this.maxSize = maxSize;
+        if (delta > 0) {
+            semaphore.release(delta);
+        } else if (delta < 0) {
+            semaphore.reducePermits(-delta);
+            // destroy the idle instances which no longer fit in the pool
+            for (ConcurrentLinkedQueue<T> stripe : stripes) {
+                while (pooled.get() > maxSize) {
+                    final T obj = stripe.poll();
+                    if (obj == null) {
+                        break;
+                    }
+                    pooled.decrementAndGet();
+                    destroy(obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        try {
+            boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+            if (!acquired)
+                throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EJBException("Acquire semaphore was interrupted");
+        }
+        inUse.incrementAndGet();
+
+        final int home = homeStripe();
+        for (int i = 0; i <= stripeMask; i++) {
+            final T bean = stripes[(home + i) & stripeMask].poll();
+            if (bean != null) {
+                pooled.decrementAndGet();
+                return bean;
+            }
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                inUse.decrementAndGet();
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     * <p/>
+     * Called in 2 cases:
+     * a) Done with finder method
+     * b) Just removed
+     *
+     * @param obj
+     */
+    public void release(T obj) {
+        if (log.isTraceEnabled()) {
+            String msg = pooled.get() + "/" + maxSize + " Free instance:" + this;
+            log.trace(msg);
+        }
+
+        if (pooled.incrementAndGet() <= maxSize) {
+            // Add the unused context back into the pool
+            stripes[homeStripe()].offer(obj);
+        } else {
+            pooled.decrementAndGet();
+            destroy(obj);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+    }
+
+    @Override
+    public void remove(T ctx) {
+        if (log.isTraceEnabled()) {
+            String msg = "Removing instance:" + this + "#" + ctx;
+            log.trace(msg);
+        }
+
+        inUse.decrementAndGet();
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (ConcurrentLinkedQueue<T> stripe : stripes) {
+            T obj;
+            while ((obj = stripe.poll()) != null) {
+                pooled.decrementAndGet();
+                destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * Maps the calling thread onto a stripe. The thread id is mixed so that sequentially allocated
+     * thread ids do not all end up clustered together.
+     */
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h & stripeMask;
+    }
+
+    /**
+     * A non-fair semaphore whose permits can be reduced, to lower the maximum size of the pool.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(final int permits) {
+            super(permits, false);
+        }
+
+        @Override
+        protected void reducePermits(final int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
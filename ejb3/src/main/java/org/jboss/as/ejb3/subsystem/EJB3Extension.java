@@ -91,6 +91,9 @@ public class EJB3Extension implements Extension {
         // subsystem=ejb3/timer-service=*
         subsystemRegistration.registerSubModel(TimerServiceResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/service=passivation
+        subsystemRegistration.registerSubModel(PassivationResourceDefinition.INSTANCE);
+
         ResourceDefinition deploymentsDef = new SimpleResourceDefinition(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME),
                                                                          getResourceDescriptionResolver("deployed"));
         final ManagementResourceRegistration deploymentsRegistration = subsystem.registerDeploymentModel(deploymentsDef);
@@ -131,6 +134,13 @@ public class EJB3Extension implements Extension {
         return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
     }
 
+    private static ModelNode createPassivationOperation(final ModelNode model) {
+        final ModelNode address = new ModelNode();
+        address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        address.add(EJB3SubsystemModel.SERVICE, EJB3SubsystemModel.PASSIVATION);
+        return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
+    }
+
     private static class SubsystemDescribeHandler implements OperationStepHandler, DescriptionProvider {
         static final SubsystemDescribeHandler INSTANCE = new SubsystemDescribeHandler();
 
@@ -145,6 +155,10 @@ public class EJB3Extension implements Extension {
             if (timerService != null) {
                 result.add(createTimerServiceOperation(timerService.getModel()));
             }
+            final Resource passivation = root.getChild(EJB3SubsystemModel.PASSIVATION_PATH);
+            if (passivation != null) {
+                result.add(createPassivationOperation(passivation.getModel()));
+            }
 
             context.completeStep();
         }
@@ -62,6 +62,8 @@ import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPED;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PASSIVATION;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMER_SERVICE;
 
 /**
@@ -131,9 +133,21 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
             // </timer-service>
             writer.writeEndElement();
         }
+        // passivation
+        if (model.hasDefined(SERVICE) && model.get(SERVICE).hasDefined(PASSIVATION)) {
+            // <passivation>
+            writer.writeStartElement(EJB3SubsystemXMLElement.PASSIVATION.getLocalName());
+            final ModelNode passivationModel = model.get(SERVICE, PASSIVATION);
+            this.writePassivation(writer, passivationModel);
+            // </passivation>
+            writer.writeEndElement();
+        }
 
         EJB3SubsystemRootResourceDefinition.DEFAULT_STATEFUL_ACCESS_TIMEOUT.marshallAsElement(model, writer);
         EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_ACCESS_TIMEOUT.marshallAsElement(model, writer);
+        EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_LOCK.marshallAsElement(model, writer);
+        EJB3SubsystemRootResourceDefinition.DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE.marshallAsElement(model, writer);
+        EJB3SubsystemRootResourceDefinition.DEFAULT_ENTITY_BEAN_COMMIT_OPTION.marshallAsElement(model, writer);
         // write the subsystem end element
         writer.writeEndElement();
     }
@@ -180,16 +194,35 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                             parseTimerService(reader, operations);
                             break;
                         }
+                        case PASSIVATION: {
+                            parsePassivation(reader, operations);
+                            break;
+                        }
                         case DEFAULT_STATEFUL_ACCESS_TIMEOUT: {
-                            final String timeout = parseDefaultTimeout(reader, EJB3SubsystemModel.DEFAULT_STATEFUL_ACCESS_TIMEOUT);
+                            final String timeout = parseElementText(reader, EJB3SubsystemModel.DEFAULT_STATEFUL_ACCESS_TIMEOUT);
                             EJB3SubsystemRootResourceDefinition.DEFAULT_STATEFUL_ACCESS_TIMEOUT.parseAndSetParameter(timeout, ejb3SubsystemAddOperation, reader.getLocation());
                             break;
                         }
                         case DEFAULT_SINGLETON_ACCESS_TIMEOUT: {
-                            final String timeout = parseDefaultTimeout(reader, EJB3SubsystemModel.DEFAULT_SINGLETON_ACCESS_TIMEOUT);
+                            final String timeout = parseElementText(reader, EJB3SubsystemModel.DEFAULT_SINGLETON_ACCESS_TIMEOUT);
                             EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_ACCESS_TIMEOUT.parseAndSetParameter(timeout, ejb3SubsystemAddOperation, reader.getLocation());
                             break;
                         }
+                        case DEFAULT_SINGLETON_LOCK: {
+                            final String lock = parseElementText(reader, EJB3SubsystemModel.DEFAULT_SINGLETON_LOCK);
+                            EJB3SubsystemRootResourceDefinition.DEFAULT_SINGLETON_LOCK.parseAndSetParameter(lock, ejb3SubsystemAddOperation, reader.getLocation());
+                            break;
+                        }
+                        case DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE: {
+                            final String maxSize = parseElementText(reader, EJB3SubsystemModel.DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE);
+                            EJB3SubsystemRootResourceDefinition.DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE.parseAndSetParameter(maxSize, ejb3SubsystemAddOperation, reader.getLocation());
+                            break;
+                        }
+                        case DEFAULT_ENTITY_BEAN_COMMIT_OPTION: {
+                            final String commitOption = parseElementText(reader, EJB3SubsystemModel.DEFAULT_ENTITY_BEAN_COMMIT_OPTION);
+                            EJB3SubsystemRootResourceDefinition.DEFAULT_ENTITY_BEAN_COMMIT_OPTION.parseAndSetParameter(commitOption, ejb3SubsystemAddOperation, reader.getLocation());
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -203,7 +236,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    static String parseDefaultTimeout(XMLExtendedStreamReader reader, final String element) throws XMLStreamException {
+    static String parseElementText(XMLExtendedStreamReader reader, final String element) throws XMLStreamException {
 
         // we don't expect any attributes for this element.
         requireNoAttributes(reader);
@@ -314,6 +347,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.marshallAsAttribute(strictMaxPoolModelNode, writer);
         StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.marshallAsAttribute(strictMaxPoolModelNode, writer);
         StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.marshallAsAttribute(strictMaxPoolModelNode, writer);
+        StrictMaxPoolResourceDefinition.STRIPED.marshallAsAttribute(strictMaxPoolModelNode, writer);
     }
 
     private void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
@@ -334,10 +368,21 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
             writer.writeEmptyElement(EJB3SubsystemXMLElement.DATA_STORE.getLocalName());
             TimerServiceResourceDefinition.PATH.marshallAsAttribute(timerServiceModel, writer);
             TimerServiceResourceDefinition.RELATIVE_TO.marshallAsAttribute(timerServiceModel, writer);
+            if (TimerServiceResourceDefinition.DATA_STORE_TYPE.isMarshallable(timerServiceModel)) {
+                writer.writeAttribute(EJB3SubsystemXMLAttribute.TYPE.getLocalName(), timerServiceModel.get(EJB3SubsystemModel.DATA_STORE_TYPE).asString());
+            }
         }
 
     }
 
+    private void writePassivation(final XMLExtendedStreamWriter writer, final ModelNode passivationModel) throws XMLStreamException {
+        PassivationResourceDefinition.MAX_SIZE.marshallAsAttribute(passivationModel, writer);
+        PassivationResourceDefinition.IDLE_TIMEOUT.marshallAsAttribute(passivationModel, writer);
+        PassivationResourceDefinition.STORE.marshallAsAttribute(passivationModel, writer);
+        PassivationResourceDefinition.PATH.marshallAsAttribute(passivationModel, writer);
+        PassivationResourceDefinition.RELATIVE_TO.marshallAsAttribute(passivationModel, writer);
+    }
+
     private ModelNode parseMDB(final XMLExtendedStreamReader reader, List<ModelNode> operations, ModelNode ejb3SubsystemAddOperation) throws XMLStreamException {
         ModelNode mdbModelNode = new ModelNode();
         // no attributes expected
@@ -438,6 +483,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         Integer maxPoolSize = null;
         Long timeout = null;
         String unit = null;
+        Boolean striped = null;
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
             final String value = reader.getAttributeValue(i);
@@ -455,6 +501,9 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                 case INSTANCE_AQUISITION_TIMEOUT_UNIT:
                     unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.parse(value, reader.getLocation()).asString();
                     break;
+                case STRIPED:
+                    striped = StrictMaxPoolResourceDefinition.STRIPED.parse(value, reader.getLocation()).asBoolean();
+                    break;
 
                 default:
                     throw unexpectedAttribute(reader, i);
@@ -465,7 +514,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit));
+        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit, striped));
     }
 
     private void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -532,6 +581,9 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
                                 }
                                 dataStorePathRelativeTo = TimerServiceResourceDefinition.RELATIVE_TO.parse(value, location).asString();
                                 break;
+                            case TYPE:
+                                TimerServiceResourceDefinition.DATA_STORE_TYPE.parseAndSetParameter(value, timerServiceAdd, location);
+                                break;
                             default:
                                 throw unexpectedAttribute(reader, i);
                         }
@@ -554,6 +606,49 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         operations.add(timerServiceAdd);
     }
 
+    private void parsePassivation(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(SERVICE, PASSIVATION);
+        final ModelNode passivationAdd = new ModelNode();
+        passivationAdd.get(OP).set(ADD);
+        passivationAdd.get(OP_ADDR).set(address);
+
+        final EnumSet<EJB3SubsystemXMLAttribute> parsed = EnumSet.noneOf(EJB3SubsystemXMLAttribute.class);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final Location location = reader.getLocation();
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            if (!parsed.add(attribute)) {
+                throw duplicateAttribute(reader, attribute.getLocalName());
+            }
+            switch (attribute) {
+                case MAX_SIZE:
+                    PassivationResourceDefinition.MAX_SIZE.parseAndSetParameter(value, passivationAdd, location);
+                    break;
+                case IDLE_TIMEOUT:
+                    PassivationResourceDefinition.IDLE_TIMEOUT.parseAndSetParameter(value, passivationAdd, location);
+                    break;
+                case STORE:
+                    PassivationResourceDefinition.STORE.parseAndSetParameter(value, passivationAdd, location);
+                    break;
+                case PATH:
+                    PassivationResourceDefinition.PATH.parseAndSetParameter(value, passivationAdd, location);
+                    break;
+                case RELATIVE_TO:
+                    PassivationResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, passivationAdd, location);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+        operations.add(passivationAdd);
+    }
+
     /**
      * <p>
      * Parses all attributes from the current element and sets them in the specified {@code ModelNode}.
@@ -598,7 +693,7 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         }
     }
 
-    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit) {
+    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit, final Boolean striped) {
         // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
         final ModelNode addStrictMaxPoolOperation = new ModelNode();
         addStrictMaxPoolOperation.get(OP).set(ADD);
@@ -615,6 +710,9 @@ public class EJB3Subsystem12Parser implements XMLElementReader<List<ModelNode>>,
         if (timeoutUnit != null) {
             addStrictMaxPoolOperation.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).set(timeoutUnit);
         }
+        if (striped != null) {
+            addStrictMaxPoolOperation.get(STRIPED).set(striped);
+        }
 
         return addStrictMaxPoolOperation;
     }
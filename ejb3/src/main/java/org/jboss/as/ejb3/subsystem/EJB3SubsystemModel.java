@@ -39,20 +39,31 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
 
     String CORE_THREADS = "core-threads";
     String MAX_THREADS = "max-threads";
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String DATA_STORE_TYPE = "data-store-type";
+
+    String IDLE_TIMEOUT = "idle-timeout";
+    String MAX_SIZE = "max-size";
+    String STORE = "store";
 
     String DEFAULT_STATEFUL_ACCESS_TIMEOUT = "default-stateful-access-timeout";
     String DEFAULT_SINGLETON_ACCESS_TIMEOUT = "default-singleton-access-timeout";
+    String DEFAULT_SINGLETON_LOCK = "default-singleton-lock";
+    String DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE = "default-entity-bean-cache-max-size";
+    String DEFAULT_ENTITY_BEAN_COMMIT_OPTION = "default-entity-bean-commit-option";
 
     String SERVICE = "service";
     String TIMER_SERVICE = "timer-service";
+    String PASSIVATION = "passivation";
     String DEFAULT = "default";
 
     PathElement TIMER_SERVICE_PATH = PathElement.pathElement(SERVICE, TIMER_SERVICE);
+    PathElement PASSIVATION_PATH = PathElement.pathElement(SERVICE, PASSIVATION);
 
 
 }
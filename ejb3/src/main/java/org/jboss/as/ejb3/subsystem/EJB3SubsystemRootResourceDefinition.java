@@ -23,15 +23,20 @@
 package org.jboss.as.ejb3.subsystem;
 
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ejb3.component.DefaultAccessTimeoutService;
+import org.jboss.as.ejb3.component.entity.entitycache.CommitOption;
+import org.jboss.as.ejb3.concurrency.ConcurrencyLockType;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -65,6 +70,24 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
                     .setAllowExpression(true)
                     .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
                     .build();
+    public static final SimpleAttributeDefinition DEFAULT_SINGLETON_LOCK =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_SINGLETON_LOCK, ModelType.STRING, true)
+                    .setValidator(new EnumValidator<ConcurrencyLockType>(ConcurrencyLockType.class, true, true))
+                    .setDefaultValue(new ModelNode().set(ConcurrencyLockType.READ_WRITE.getName()))
+                    .setAllowExpression(true)
+                    .build();
+    public static final SimpleAttributeDefinition DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE, ModelType.INT, true)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode().set(0))
+                    .setAllowExpression(true)
+                    .build();
+    public static final SimpleAttributeDefinition DEFAULT_ENTITY_BEAN_COMMIT_OPTION =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_ENTITY_BEAN_COMMIT_OPTION, ModelType.STRING, true)
+                    .setValidator(new EnumValidator<CommitOption>(CommitOption.class, true, true))
+                    .setDefaultValue(new ModelNode().set(CommitOption.C.getName()))
+                    .setAllowExpression(true)
+                    .build();
 
     private EJB3SubsystemRootResourceDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME),
@@ -80,5 +103,8 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         resourceRegistration.registerReadWriteAttribute(DEFAULT_RESOURCE_ADAPTER_NAME, null, DefaultResourceAdapterWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_STATEFUL_ACCESS_TIMEOUT, null, new DefaultSessionBeanAccessTimeoutWriteHandler(DEFAULT_STATEFUL_ACCESS_TIMEOUT, DefaultAccessTimeoutService.STATEFUL_SERVICE_NAME));
         resourceRegistration.registerReadWriteAttribute(DEFAULT_SINGLETON_ACCESS_TIMEOUT, null, new DefaultSessionBeanAccessTimeoutWriteHandler(DEFAULT_SINGLETON_ACCESS_TIMEOUT, DefaultAccessTimeoutService.SINGLETON_SERVICE_NAME));
+        resourceRegistration.registerReadWriteAttribute(DEFAULT_SINGLETON_LOCK, null, new ReloadRequiredWriteAttributeHandler(DEFAULT_SINGLETON_LOCK));
+        resourceRegistration.registerReadWriteAttribute(DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE, null, new ReloadRequiredWriteAttributeHandler(DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE));
+        resourceRegistration.registerReadWriteAttribute(DEFAULT_ENTITY_BEAN_COMMIT_OPTION, null, new ReloadRequiredWriteAttributeHandler(DEFAULT_ENTITY_BEAN_COMMIT_OPTION));
     }
 }
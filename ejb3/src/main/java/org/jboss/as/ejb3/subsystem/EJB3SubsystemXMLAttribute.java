@@ -32,11 +32,13 @@ public enum EJB3SubsystemXMLAttribute {
 
     CORE_THREADS("core-threads"),
 
+    IDLE_TIMEOUT("idle-timeout"),
     INSTANCE_AQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_AQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
 
     MAX_POOL_SIZE("max-pool-size"),
+    MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
 
     NAME("name"),
@@ -46,6 +48,11 @@ public enum EJB3SubsystemXMLAttribute {
 
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
+
+    STORE("store"),
+    STRIPED("striped"),
+
+    TYPE("type"),
     ;
 
     private final String name;
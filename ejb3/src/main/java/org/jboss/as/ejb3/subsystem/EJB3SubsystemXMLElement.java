@@ -40,8 +40,12 @@ public enum EJB3SubsystemXMLElement {
     DATA_STORE("data-store"),
     DEFAULT_STATEFUL_ACCESS_TIMEOUT("default-stateful-access-timeout"),
     DEFAULT_SINGLETON_ACCESS_TIMEOUT("default-singleton-access-timeout"),
+    DEFAULT_SINGLETON_LOCK("default-singleton-lock"),
+    DEFAULT_ENTITY_BEAN_CACHE_MAX_SIZE("default-entity-bean-cache-max-size"),
+    DEFAULT_ENTITY_BEAN_COMMIT_OPTION("default-entity-bean-commit-option"),
     MDB("mdb"),
 
+    PASSIVATION("passivation"),
     POOLS("pools"),
 
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
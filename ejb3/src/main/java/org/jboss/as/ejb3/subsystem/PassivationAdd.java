@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.List;
+
+import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.ejb3.cache.PassivationConfigService;
+import org.jboss.as.ejb3.cache.store.PassivationStoreType;
+import org.jboss.as.server.services.path.RelativePathService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Adds the passivation of idle stateful session beans
+ */
+public class PassivationAdd extends AbstractBoottimeAddStepHandler {
+
+    public static final PassivationAdd INSTANCE = new PassivationAdd();
+
+    /**
+     * Populate the <code>passivation</code> model from the <code>operation</code>
+     *
+     * @param operation        the operation
+     * @param passivationModel passivation ModelNode
+     * @throws OperationFailedException
+     */
+    protected void populateModel(ModelNode operation, ModelNode passivationModel) throws OperationFailedException {
+
+        for (AttributeDefinition attr : PassivationResourceDefinition.ATTRIBUTES.values()) {
+            attr.validateAndSet(operation, passivationModel);
+        }
+    }
+
+    protected void performBoottime(final OperationContext context, ModelNode operation, final ModelNode model,
+                                   final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) throws OperationFailedException {
+
+        final ModelNode maxSizeNode = PassivationResourceDefinition.MAX_SIZE.validateResolvedOperation(model);
+        final int maxSize = maxSizeNode.isDefined() ? maxSizeNode.asInt() : -1;
+        final ModelNode idleTimeoutNode = PassivationResourceDefinition.IDLE_TIMEOUT.validateResolvedOperation(model);
+        final long idleTimeout = idleTimeoutNode.isDefined() ? idleTimeoutNode.asLong() : -1;
+        final PassivationStoreType storeType = PassivationStoreType.forName(PassivationResourceDefinition.STORE.validateResolvedOperation(model).asString());
+
+        final PassivationConfigService passivationConfigService = new PassivationConfigService(maxSize, idleTimeout, storeType);
+        final ServiceBuilder<PassivationConfigService> builder = context.getServiceTarget().addService(PassivationConfigService.SERVICE_NAME, passivationConfigService);
+        if (storeType == PassivationStoreType.FILE) {
+            final String path = PassivationResourceDefinition.PATH.validateResolvedOperation(model).asString();
+            final String relativeTo = PassivationResourceDefinition.RELATIVE_TO.validateResolvedOperation(model).asString();
+            RelativePathService.addService(PassivationConfigService.PATH_SERVICE_NAME, path, true, relativeTo,
+                    context.getServiceTarget(), newControllers, verificationHandler);
+            builder.addDependency(PassivationConfigService.PATH_SERVICE_NAME, String.class, passivationConfigService.getPathInjector());
+        }
+        newControllers.add(builder.addListener(verificationHandler).install());
+    }
+}
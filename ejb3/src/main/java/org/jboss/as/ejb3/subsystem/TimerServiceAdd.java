@@ -36,6 +36,8 @@ import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
 import org.jboss.as.ejb3.timerservice.TimerServiceFactoryService;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
+import org.jboss.as.ejb3.timerservice.wheel.TimerWheelService;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -86,6 +88,8 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             final ModelNode relativeToNode = TimerServiceResourceDefinition.RELATIVE_TO.validateResolvedOperation(model);
             final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
 
+            final TimerPersistenceType dataStoreType = TimerPersistenceType.forName(TimerServiceResourceDefinition.DATA_STORE_TYPE.validateResolvedOperation(model).asString());
+
             final int coreThreadCount = TimerServiceResourceDefinition.CORE_THREADS.validateResolvedOperation(model).asInt();
             final int maxThreadCount = TimerServiceResourceDefinition.CORE_THREADS.validateResolvedOperation(model).asInt(Runtime.getRuntime().availableProcessors());
 
@@ -106,11 +110,16 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
                         }
                     }
 
+                    //install the timing wheel which schedules the timers of all deployments
+                    newControllers.add(context.getServiceTarget().addService(TimerWheelService.SERVICE_NAME, new TimerWheelService())
+                            .addListener(verificationHandler)
+                            .install());
+
                     //we only add the timer service DUP's when the timer service in enabled in XML
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_TIMEOUT_ANNOTATION, new TimerServiceAnnotationProcessor());
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_AROUNDTIMEOUT_ANNOTATION, new AroundTimeoutAnnotationParsingProcessor());
                     processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_METADATA_MERGE, new TimerMethodMergingProcessor());
-                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, true));
+                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, dataStoreType, true));
                 }
             }, OperationContext.Stage.RUNTIME);
         }
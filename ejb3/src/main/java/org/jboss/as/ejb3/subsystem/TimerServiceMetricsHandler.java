@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
+import org.jboss.as.ejb3.timerservice.wheel.TimerWheelService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the metrics of the timing wheel which schedules the timers of all deployments
+ */
+public class TimerServiceMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final TimerServiceMetricsHandler INSTANCE = new TimerServiceMetricsHandler();
+
+    private TimerServiceMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(TimerWheelService.SERVICE_NAME);
+        if (controller != null && controller.getState() == ServiceController.State.UP) {
+            final HashedTimerWheel timerWheel = (HashedTimerWheel) controller.getValue();
+            final ModelNode result = context.getResult();
+            if (TimerServiceResourceDefinition.SCHEDULED_TIMERS.getName().equals(attributeName)) {
+                result.set(timerWheel.getScheduledCount());
+            } else if (TimerServiceResourceDefinition.EXPIRED_TIMERS.getName().equals(attributeName)) {
+                result.set(timerWheel.getExpiredCount());
+            } else if (TimerServiceResourceDefinition.CANCELLED_TIMERS.getName().equals(attributeName)) {
+                result.set(timerWheel.getCancelledCount());
+            } else if (TimerServiceResourceDefinition.LATE_TIMERS.getName().equals(attributeName)) {
+                result.set(timerWheel.getLateCount());
+            } else if (TimerServiceResourceDefinition.AVERAGE_SCHEDULE_LAG.getName().equals(attributeName)) {
+                result.set(timerWheel.getAverageLag());
+            } else if (TimerServiceResourceDefinition.MAX_SCHEDULE_LAG.getName().equals(attributeName)) {
+                result.set(timerWheel.getMaxLag());
+            } else {
+                context.getFailureDescription().set("Unknown metric " + attributeName);
+            }
+        }
+        context.completeStep();
+    }
+}
@@ -32,12 +32,15 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -62,6 +65,14 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition DATA_STORE_TYPE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATA_STORE_TYPE, ModelType.STRING, true)
+                    .setValidator(new EnumValidator<TimerPersistenceType>(TimerPersistenceType.class, true, true))
+                    .setDefaultValue(new ModelNode().set(TimerPersistenceType.FILE.getName()))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     public static final SimpleAttributeDefinition CORE_THREADS =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CORE_THREADS, ModelType.INT, true)
                     .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
@@ -75,12 +86,28 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition SCHEDULED_TIMERS = new SimpleAttributeDefinitionBuilder("scheduled-timers", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition EXPIRED_TIMERS = new SimpleAttributeDefinitionBuilder("expired-timers", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition CANCELLED_TIMERS = new SimpleAttributeDefinitionBuilder("cancelled-timers", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition LATE_TIMERS = new SimpleAttributeDefinitionBuilder("late-timers", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition AVERAGE_SCHEDULE_LAG = new SimpleAttributeDefinitionBuilder("average-schedule-lag", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition MAX_SCHEDULE_LAG = new SimpleAttributeDefinitionBuilder("max-schedule-lag", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(PATH.getName(), PATH);
         map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(DATA_STORE_TYPE.getName(), DATA_STORE_TYPE);
         map.put(CORE_THREADS.getName(), CORE_THREADS);
         map.put(MAX_THREADS.getName(), MAX_THREADS);
 
@@ -99,5 +126,11 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        resourceRegistration.registerMetric(SCHEDULED_TIMERS, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(EXPIRED_TIMERS, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(CANCELLED_TIMERS, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(LATE_TIMERS, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(AVERAGE_SCHEDULE_LAG, TimerServiceMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(MAX_SCHEDULE_LAG, TimerServiceMetricsHandler.INSTANCE);
     }
 }
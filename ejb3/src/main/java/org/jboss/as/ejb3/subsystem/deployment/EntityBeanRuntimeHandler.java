@@ -22,10 +22,17 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import static org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition.CACHE_EVICTION_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition.CACHE_HIT_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition.CACHE_MAX_SIZE;
+import static org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition.CACHE_MISS_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.EntityBeanResourceDefinition.CACHE_SIZE;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
+import org.jboss.as.ejb3.component.entity.entitycache.EntityCacheStatistics;
 import org.jboss.as.ejb3.component.messagedriven.MessageDrivenComponent;
 
 /**
@@ -43,7 +50,29 @@ public class EntityBeanRuntimeHandler extends AbstractEJBComponentRuntimeHandler
 
     @Override
     protected void executeReadAttribute(String attributeName, OperationContext context, EntityBeanComponent component, ComponentConfiguration config, PathAddress address) {
-        super.executeReadAttribute(attributeName, context, component, config, address);
-        //TODO expose the cache
+        final EntityCacheStatistics statistics = component.getCache() instanceof EntityCacheStatistics ? (EntityCacheStatistics) component.getCache() : null;
+        if (CACHE_SIZE.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getCacheSize());
+            }
+        } else if (CACHE_MAX_SIZE.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getMaxSize());
+            }
+        } else if (CACHE_HIT_COUNT.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getHitCount());
+            }
+        } else if (CACHE_MISS_COUNT.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getMissCount());
+            }
+        } else if (CACHE_EVICTION_COUNT.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getEvictionCount());
+            }
+        } else {
+            super.executeReadAttribute(attributeName, context, component, config, address);
+        }
     }
 }
@@ -23,9 +23,13 @@
 package org.jboss.as.ejb3.subsystem.deployment;
 
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
-import org.jboss.as.ejb3.component.entity.EntityBeanComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link ResourceDefinition} for a {@link StatefulSessionComponent}.
@@ -36,7 +40,50 @@ public class StatefulSessionBeanResourceDefinition extends AbstractEJBComponentR
 
     public static final StatefulSessionBeanResourceDefinition INSTANCE = new StatefulSessionBeanResourceDefinition();
 
+    // Cache attributes
+
+    public static final SimpleAttributeDefinition CACHE_SIZE = new SimpleAttributeDefinitionBuilder("cache-size", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition EXPIRED_COUNT = new SimpleAttributeDefinitionBuilder("expired-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition EXPIRATION_RATE = new SimpleAttributeDefinitionBuilder("expiration-rate", ModelType.DOUBLE, false)
+            .setMeasurementUnit(MeasurementUnit.PER_SECOND)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition EXPIRATION_SCAN_TIME = new SimpleAttributeDefinitionBuilder("expiration-scan-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+
+    // Passivation attributes
+
+    public static final SimpleAttributeDefinition PASSIVATED_COUNT = new SimpleAttributeDefinitionBuilder("passivated-count", ModelType.INT, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition PASSIVATION_COUNT = new SimpleAttributeDefinitionBuilder("passivation-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition ACTIVATION_COUNT = new SimpleAttributeDefinitionBuilder("activation-count", ModelType.LONG, false)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition AVERAGE_PASSIVATION_TIME = new SimpleAttributeDefinitionBuilder("average-passivation-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition AVERAGE_ACTIVATION_TIME = new SimpleAttributeDefinitionBuilder("average-activation-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+
     private StatefulSessionBeanResourceDefinition() {
         super(EJBComponentType.STATEFUL);
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        final StatefulSessionBeanRuntimeHandler handler = StatefulSessionBeanRuntimeHandler.INSTANCE;
+        resourceRegistration.registerMetric(CACHE_SIZE, handler);
+        resourceRegistration.registerMetric(EXPIRED_COUNT, handler);
+        resourceRegistration.registerMetric(EXPIRATION_RATE, handler);
+        resourceRegistration.registerMetric(EXPIRATION_SCAN_TIME, handler);
+        resourceRegistration.registerMetric(PASSIVATED_COUNT, handler);
+        resourceRegistration.registerMetric(PASSIVATION_COUNT, handler);
+        resourceRegistration.registerMetric(ACTIVATION_COUNT, handler);
+        resourceRegistration.registerMetric(AVERAGE_PASSIVATION_TIME, handler);
+        resourceRegistration.registerMetric(AVERAGE_ACTIVATION_TIME, handler);
+    }
 }
@@ -22,9 +22,22 @@
 
 package org.jboss.as.ejb3.subsystem.deployment;
 
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.AVERAGE_ACTIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.AVERAGE_PASSIVATION_TIME;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.CACHE_SIZE;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.EXPIRATION_RATE;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.EXPIRATION_SCAN_TIME;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.EXPIRED_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.PASSIVATED_COUNT;
+import static org.jboss.as.ejb3.subsystem.deployment.StatefulSessionBeanResourceDefinition.PASSIVATION_COUNT;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.ee.component.ComponentConfiguration;
+import org.jboss.as.ejb3.cache.Cache;
+import org.jboss.as.ejb3.cache.CacheStatistics;
+import org.jboss.as.ejb3.cache.PassivationStatistics;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 
 /**
@@ -42,7 +55,48 @@ public class StatefulSessionBeanRuntimeHandler extends AbstractEJBComponentRunti
 
     @Override
     protected void executeReadAttribute(String attributeName, OperationContext context, StatefulSessionComponent component, ComponentConfiguration config, PathAddress address) {
-        super.executeReadAttribute(attributeName, context, component, config, address);
-        //TODO expose the cache
+        final Cache<?> cache = component.getCache();
+        final CacheStatistics statistics = cache instanceof CacheStatistics ? (CacheStatistics) cache : null;
+        // the passivation metrics are undefined unless passivation is configured
+        final PassivationStatistics passivation = cache instanceof PassivationStatistics ? (PassivationStatistics) cache : null;
+        if (CACHE_SIZE.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getCacheSize());
+            }
+        } else if (EXPIRED_COUNT.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getExpiredCount());
+            }
+        } else if (EXPIRATION_RATE.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getExpirationRate());
+            }
+        } else if (EXPIRATION_SCAN_TIME.getName().equals(attributeName)) {
+            if (statistics != null) {
+                context.getResult().set(statistics.getExpirationScanTime());
+            }
+        } else if (PASSIVATED_COUNT.getName().equals(attributeName)) {
+            if (passivation != null) {
+                context.getResult().set(passivation.getPassivatedCount());
+            }
+        } else if (PASSIVATION_COUNT.getName().equals(attributeName)) {
+            if (passivation != null) {
+                context.getResult().set(passivation.getPassivationCount());
+            }
+        } else if (ACTIVATION_COUNT.getName().equals(attributeName)) {
+            if (passivation != null) {
+                context.getResult().set(passivation.getActivationCount());
+            }
+        } else if (AVERAGE_PASSIVATION_TIME.getName().equals(attributeName)) {
+            if (passivation != null) {
+                context.getResult().set(passivation.getAveragePassivationTime());
+            }
+        } else if (AVERAGE_ACTIVATION_TIME.getName().equals(attributeName)) {
+            if (passivation != null) {
+                context.getResult().set(passivation.getAverageActivationTime());
+            }
+        } else {
+            super.executeReadAttribute(attributeName, context, component, config, address);
+        }
     }
 }
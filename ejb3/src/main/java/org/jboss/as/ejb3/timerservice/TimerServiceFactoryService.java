@@ -22,8 +22,12 @@
 package org.jboss.as.ejb3.timerservice;
 
 import org.jboss.as.ejb3.timerservice.mk2.TimerServiceFactoryImpl;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
 import org.jboss.as.ejb3.timerservice.mk2.persistence.filestore.FileTimerPersistence;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.JournalTimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceFactory;
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
 import org.jboss.modules.Module;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -55,20 +59,23 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
 
     private volatile TimerServiceFactory timerServiceFactory;
     private volatile ExecutorService executorService;
-    private volatile FileTimerPersistence timerPersistence;
+    private volatile TimerPersistence timerPersistence;
 
     private final InjectedValue<TransactionManager> transactionManagerInjectedValue = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistryInjectedValue = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<String> path = new InjectedValue<String>();
+    private final InjectedValue<HashedTimerWheel> timerWheel = new InjectedValue<HashedTimerWheel>();
     private final int maxThreads;
     private final int coreThreads;
+    private final TimerPersistenceType dataStoreType;
     private final String name;
     private final Module module;
 
-    public TimerServiceFactoryService(final int coreThreads, final int maxThreads, final String name, final Module module) {
+    public TimerServiceFactoryService(final int coreThreads, final int maxThreads, final TimerPersistenceType dataStoreType, final String name, final Module module) {
         this.name = name;
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
+        this.dataStoreType = dataStoreType;
         this.module = module;
     }
 
@@ -80,16 +87,21 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
         //only start the persistence service if it has been configured
         final String path = this.path.getOptionalValue();
         if (path != null) {
-            timerPersistence = new FileTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), new File(path + File.separatorChar + name), true, module.getModuleLoader());
+            final File dataStore = new File(path + File.separatorChar + name);
+            if (dataStoreType == TimerPersistenceType.JOURNAL) {
+                timerPersistence = new JournalTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), dataStore, module.getModuleLoader());
+            } else {
+                timerPersistence = new FileTimerPersistence(transactionManagerInjectedValue.getValue(), transactionSynchronizationRegistryInjectedValue.getValue(), dataStore, true, module.getModuleLoader());
+            }
             timerPersistence.start();
         }
-        timerServiceFactory = new TimerServiceFactoryImpl(timerPersistence, transactionManagerInjectedValue.getValue(), executorService);
+        timerServiceFactory = new TimerServiceFactoryImpl(timerPersistence, transactionManagerInjectedValue.getValue(), executorService, timerWheel.getValue());
     }
 
     @Override
     public void stop(final StopContext context) {
         executorService.shutdownNow();
-        if (path == null) {
+        if (timerPersistence != null) {
             timerPersistence.stop();
             timerPersistence = null;
         }
@@ -117,4 +129,8 @@ public class TimerServiceFactoryService implements Service<TimerServiceFactory>
     public InjectedValue<String> getPath() {
         return path;
     }
+
+    public InjectedValue<HashedTimerWheel> getTimerWheel() {
+        return timerWheel;
+    }
 }
@@ -25,12 +25,12 @@ import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceFactory;
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
 import org.jboss.logging.Logger;
 
 import javax.ejb.TimerService;
 import javax.transaction.TransactionManager;
 import java.util.List;
-import java.util.Timer;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -63,15 +63,15 @@ public class TimerServiceFactoryImpl implements TimerServiceFactory {
     private final ExecutorService executor;
 
     /**
-     * The timer to use
+     * The timing wheel, shared with the timer services of all other deployments
      */
-    private final Timer timer;
+    private final HashedTimerWheel timerWheel;
 
-    public TimerServiceFactoryImpl(final TimerPersistence timerPersistence, final TransactionManager transactionManager, final ExecutorService executor) {
+    public TimerServiceFactoryImpl(final TimerPersistence timerPersistence, final TransactionManager transactionManager, final ExecutorService executor, final HashedTimerWheel timerWheel) {
         this.timerPersistence = timerPersistence;
         this.transactionManager = transactionManager;
         this.executor = executor;
-        this.timer = new Timer("EJB Timer Thread", true);
+        this.timerWheel = timerWheel;
     }
 
     /**
@@ -83,7 +83,7 @@ public class TimerServiceFactoryImpl implements TimerServiceFactory {
      */
     public TimerService createTimerService(TimedObjectInvoker invoker) {
         // create the timer service
-        TimerServiceImpl timerService = new TimerServiceImpl(timer, invoker, timerPersistence, transactionManager, executor);
+        TimerServiceImpl timerService = new TimerServiceImpl(timerWheel, invoker, timerPersistence, transactionManager, executor);
 
         String timedObjectId = invoker.getTimedObjectId();
         // EJBTHREE-2209 I'm not too happy with this "fix". Ideally,
@@ -32,6 +32,7 @@ import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.mk2.task.TimerTask;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
 import org.jboss.logging.Logger;
 
 import javax.ejb.EJBException;
@@ -64,6 +65,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -100,9 +102,9 @@ public class TimerServiceImpl implements TimerService {
     private final ExecutorService executorService;
 
     /**
-     * The timer
+     * The timing wheel which schedules the timer tasks
      */
-    private final java.util.Timer timer;
+    private final HashedTimerWheel timerWheel;
 
     /**
      * All non-persistent timers which were created by this {@link TimerService}
@@ -112,21 +114,25 @@ public class TimerServiceImpl implements TimerService {
     private final Map<TimerHandle, TimerImpl> persistentWaitingOnTxCompletionTimers = new ConcurrentHashMap<TimerHandle, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link HashedTimerWheel.Timeout} of each of the timer tasks that have been scheduled
      */
-    private final Map<TimerHandle, java.util.TimerTask> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, java.util.TimerTask>();
+    private final Map<TimerHandle, HashedTimerWheel.Timeout> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, HashedTimerWheel.Timeout>();
 
     /**
      * Creates a {@link TimerServiceImpl}
      *
+     * @param timerWheel         The timing wheel which schedules the timer tasks
      * @param invoker            The {@link TimedObjectInvoker} responsible for invoking the timeout method
      * @param timerPersistence   The persistent timer store
      * @param transactionManager Transaction manager responsible for managing the transactional timer service
      * @param executor           Executor service responsible for creating scheduled timer tasks
      * @throws IllegalArgumentException If either of the passed param is null
      */
-    public TimerServiceImpl(final java.util.Timer timer, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
+    public TimerServiceImpl(final HashedTimerWheel timerWheel, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
                             ExecutorService executor) {
+        if (timerWheel == null) {
+            throw new IllegalArgumentException("Timer wheel cannot be null");
+        }
         if (invoker == null) {
             throw new IllegalArgumentException("Invoker cannot be null");
         }
@@ -141,7 +147,7 @@ public class TimerServiceImpl implements TimerService {
         this.timerPersistence = timerPersistence;
         this.transactionManager = transactionManager;
         this.executorService = executor;
-        this.timer = timer;
+        this.timerWheel = timerWheel;
     }
 
     /**
@@ -732,30 +738,28 @@ public class TimerServiceImpl implements TimerService {
             logger.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
                     + " milli seconds from now with repeated interval=" + intervalDuration);
             // schedule the task
-            final Task task = new Task(timerTask);
-            this.timer.scheduleAtFixedRate(task, delay, intervalDuration);
+            final HashedTimerWheel.Timeout timeout = this.timerWheel.scheduleAtFixedRate(timerTask, executorService, delay, intervalDuration, TimeUnit.MILLISECONDS);
             // maintain it in timerservice for future use (like cancellation)
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+            this.scheduledTimerFutures.put(timer.getTimerHandle(), timeout);
         } else {
             logger.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milli seconds from now");
             // schedule the task
-            this.timer.schedule(new Task(timerTask), delay);
+            final HashedTimerWheel.Timeout timeout = this.timerWheel.schedule(timerTask, executorService, delay, TimeUnit.MILLISECONDS);
             // maintain it in timerservice for future use (like cancellation)
-            final Task task = new Task(timerTask);
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+            this.scheduledTimerFutures.put(timer.getTimerHandle(), timeout);
         }
     }
 
     /**
-     * Cancels any scheduled {@link java.util.concurrent.Future} corresponding to the passed <code>timer</code>
+     * Cancels any scheduled {@link HashedTimerWheel.Timeout} corresponding to the passed <code>timer</code>
      *
      * @param timer
      */
     protected void cancelTimeout(TimerImpl timer) {
         TimerHandle handle = timer.getTimerHandle();
-        java.util.TimerTask timerTask = this.scheduledTimerFutures.get(handle);
-        if (timerTask != null) {
-            timerTask.cancel();
+        HashedTimerWheel.Timeout timeout = this.scheduledTimerFutures.remove(handle);
+        if (timeout != null) {
+            timeout.cancel();
         }
 
     }
@@ -1025,18 +1029,4 @@ public class TimerServiceImpl implements TimerService {
 
     }
 
-    private class Task extends java.util.TimerTask {
-
-        private final Runnable delegate;
-
-        public Task(final Runnable delegate) {
-            this.delegate = delegate;
-        }
-
-        @Override
-        public void run() {
-            executorService.submit(delegate);
-        }
-    }
-
 }
@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.mk2.persistence.journal;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.InputStreamByteInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistent timer store which appends every change to a {@link TimerJournal}.
+ * <p/>
+ * Unlike {@link org.jboss.as.ejb3.timerservice.mk2.persistence.filestore.FileTimerPersistence}, which rewrites and
+ * syncs a file per timer on every change, the journal is written sequentially and the changes of concurrently
+ * committing transactions share a single sync. On startup the journal is replayed, but only the timers which are
+ * still live are unmarshalled, once their timed object asks for them.
+ * <p/>
+ * As with the file store, changes made in a transaction are only written once it has committed.
+ */
+public class JournalTimerPersistence implements TimerPersistence {
+
+    private static final Logger logger = Logger.getLogger(JournalTimerPersistence.class);
+
+    private final TransactionManager transactionManager;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+    private final TimerJournal journal;
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    /**
+     * map of timed object id : timer id : timer
+     */
+    private final ConcurrentMap<String, Map<String, TimerEntity>> timers = new ConcurrentHashMap<String, Map<String, TimerEntity>>();
+    private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
+
+    /**
+     * The marshalled timers read from the journal, which have not yet been asked for by their timed object
+     */
+    private final ConcurrentMap<String, Map<String, byte[]>> replayed = new ConcurrentHashMap<String, Map<String, byte[]>>();
+
+    public JournalTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final ModuleLoader moduleLoader) {
+        this.transactionManager = transactionManager;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        this.journal = new TimerJournal(baseDir);
+        RiverMarshallerFactory factory = new RiverMarshallerFactory();
+        MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(ModularClassResolver.getInstance(moduleLoader));
+
+        this.configuration = configuration;
+        this.factory = factory;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            replayed.putAll(journal.open());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open timer journal", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        journal.close();
+        timers.clear();
+        replayed.clear();
+    }
+
+    @Override
+    public void persistTimer(final TimerEntity timerEntity) {
+        try {
+            final int status = transactionManager.getStatus();
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN) {
+                writeTimer(timerEntity);
+            } else {
+                transactionSynchronizationRegistry.registerInterposedSynchronization(new PersistTransactionSynchronization(timerEntity));
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public TimerEntity loadTimer(final String id, final String timedObjectId) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            final Map<String, TimerEntity> timers = getTimers(timedObjectId);
+            return timers.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeTimer(final TimerEntity timerEntity) {
+        final Lock lock = getLock(timerEntity.getTimedObjectId());
+        final TimerJournal.Batch batch;
+        try {
+            lock.lock();
+            //remove is not a transactional operation, as it only happens once the timer has expired
+            final Map<String, TimerEntity> timers = getTimers(timerEntity.getTimedObjectId());
+            timers.remove(timerEntity.getId());
+            batch = journal.remove(timerEntity.getTimedObjectId(), timerEntity.getId());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+        await(batch);
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId) {
+        final Lock lock = getLock(timedObjectId);
+        try {
+            lock.lock();
+            final Map<String, TimerEntity> timers = getTimers(timedObjectId);
+            return new ArrayList<TimerEntity>(timers.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the timer and appends it to the journal. The record is queued under the lock of the timed object, so
+     * records of the same timer reach the journal in order, but the sync is waited for after the lock has been
+     * released so that changes of other timers of the same timed object can join the same write.
+     */
+    private void writeTimer(final TimerEntity timerEntity) {
+        final byte[] state = marshal(timerEntity);
+        final Lock lock = getLock(timerEntity.getTimedObjectId());
+        final TimerJournal.Batch batch;
+        try {
+            lock.lock();
+            Map<String, TimerEntity> map = getTimers(timerEntity.getTimedObjectId());
+            map.put(timerEntity.getId(), timerEntity);
+            batch = journal.put(timerEntity.getTimedObjectId(), timerEntity.getId(), state);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            lock.unlock();
+        }
+        await(batch);
+    }
+
+    private void await(final TimerJournal.Batch batch) {
+        try {
+            batch.await();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Lock getLock(final String timedObjectId) {
+        Lock lock = locks.get(timedObjectId);
+        if (lock == null) {
+            final Lock addedLock = new ReentrantLock();
+            lock = locks.putIfAbsent(timedObjectId, addedLock);
+            if (lock == null) {
+                lock = addedLock;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Gets the timer map, unmarshalling the replayed timers if necessary. Should be called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The timers for the object
+     */
+    private Map<String, TimerEntity> getTimers(final String timedObjectId) {
+        Map<String, TimerEntity> map = timers.get(timedObjectId);
+        if (map == null) {
+            map = new HashMap<String, TimerEntity>();
+            final Map<String, byte[]> states = replayed.remove(timedObjectId);
+            if (states != null) {
+                for (Map.Entry<String, byte[]> entry : states.entrySet()) {
+                    try {
+                        final TimerEntity entity = unmarshal(entry.getValue());
+                        map.put(entity.getId(), entity);
+                    } catch (Exception e) {
+                        logger.error("Could not restore timer " + entry.getKey() + " of " + timedObjectId, e);
+                    }
+                }
+            }
+            timers.put(timedObjectId, map);
+        }
+        return map;
+    }
+
+    private byte[] marshal(final TimerEntity entity) {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+            final Marshaller marshaller = factory.createMarshaller(configuration);
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(entity);
+            marshaller.finish();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private TimerEntity unmarshal(final byte[] state) throws IOException, ClassNotFoundException {
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        unmarshaller.start(new InputStreamByteInput(new ByteArrayInputStream(state)));
+        final TimerEntity entity = unmarshaller.readObject(TimerEntity.class);
+        unmarshaller.finish();
+        return entity;
+    }
+
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final TimerEntity timer;
+
+        public PersistTransactionSynchronization(final TimerEntity timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void beforeCompletion() {
+
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == Status.STATUS_COMMITTED) {
+                writeTimer(timer);
+            }
+        }
+    }
+}
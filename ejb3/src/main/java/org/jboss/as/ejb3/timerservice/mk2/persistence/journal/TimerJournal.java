@@ -0,0 +1,571 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.mk2.persistence.journal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.jboss.logging.Logger;
+
+/**
+ * An append only journal of timer records.
+ * <p/>
+ * Every change to a timer is appended to the journal as a record, either a put record which holds the complete
+ * marshalled timer or a remove record. Records are not written by the thread which adds them: they are queued in a
+ * batch, and the first thread that waits for its batch while no write is in progress writes and syncs all of the
+ * queued records at once. Commits of concurrent transactions are therefore grouped into a single write and a single
+ * sync.
+ * <p/>
+ * Each record starts with its length and a CRC32 checksum, so that a record which was only partially written when
+ * the server crashed is detected when the journal is replayed. Replay stops at the first such record and the
+ * journal is truncated to the last complete one.
+ * <p/>
+ * The journal keeps the last put record of every live timer in memory. Once the journal has grown to
+ * <code>compactionRatio</code> times the size of these records, they are written to a new journal file which then
+ * replaces the old one. The new file is only renamed into place once it has been synced, so a crash during
+ * compaction leaves the old file in place.
+ */
+public class TimerJournal {
+    private static final Logger logger = Logger.getLogger(TimerJournal.class);
+
+    public static final int DEFAULT_COMPACTION_RATIO = 4;
+    public static final long DEFAULT_MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_SIZE = 8;
+
+    private static final String PREFIX = "timers-";
+    private static final String SUFFIX = ".journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final int compactionRatio;
+    private final long minCompactionSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private Batch current;
+    private boolean writing;
+
+    // the following fields are only accessed by the thread that writes a batch, or under the lock while nobody does
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private long generation;
+    private long size;
+    /**
+     * The put record of each live timer, by timed object id and timer id
+     */
+    private final Map<String, Map<String, byte[]>> live = new HashMap<String, Map<String, byte[]>>();
+    private long liveSize;
+
+    private volatile long recordCount;
+    private volatile long writeCount;
+    private volatile long compactionCount;
+
+    public TimerJournal(final File directory) {
+        this(directory, DEFAULT_COMPACTION_RATIO, DEFAULT_MIN_COMPACTION_SIZE);
+    }
+
+    public TimerJournal(final File directory, final int compactionRatio, final long minCompactionSize) {
+        if (compactionRatio < 2) {
+            throw new IllegalArgumentException("Compaction ratio must be at least 2: " + compactionRatio);
+        }
+        this.directory = directory;
+        this.compactionRatio = compactionRatio;
+        this.minCompactionSize = minCompactionSize;
+    }
+
+    /**
+     * Opens the journal, replaying the existing journal file if there is one.
+     *
+     * @return the marshalled state of the live timers, by timed object id and timer id
+     * @throws IOException if the journal could not be read or created
+     */
+    public Map<String, Map<String, byte[]>> open() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                throw new IllegalStateException("Timer journal " + directory + " is already open");
+            }
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create timer journal directory " + directory);
+            }
+            // find the newest journal, anything else is left over from an interrupted compaction
+            File newest = null;
+            generation = 0;
+            final File[] files = directory.listFiles();
+            for (File candidate : files) {
+                final long candidateGeneration = generation(candidate.getName());
+                if (candidateGeneration > generation) {
+                    generation = candidateGeneration;
+                    newest = candidate;
+                }
+            }
+            for (File candidate : files) {
+                if (candidate != newest && candidate.getName().startsWith(PREFIX)) {
+                    if (!candidate.delete()) {
+                        logger.warn("Could not delete stale timer journal " + candidate);
+                    }
+                }
+            }
+            live.clear();
+            liveSize = 0;
+            if (newest == null) {
+                generation = 1;
+                newest = journalFile(generation, false);
+                size = 0;
+            } else {
+                size = replay(newest);
+            }
+            file = new RandomAccessFile(newest, "rw");
+            channel = file.getChannel();
+            if (channel.size() != size) {
+                logger.warn("Discarding " + (channel.size() - size) + " bytes of incomplete records at the end of timer journal " + newest);
+                channel.truncate(size);
+                channel.force(true);
+            }
+            channel.position(size);
+            current = new Batch();
+
+            final Map<String, Map<String, byte[]>> result = new HashMap<String, Map<String, byte[]>>();
+            for (Map.Entry<String, Map<String, byte[]>> entry : live.entrySet()) {
+                final Map<String, byte[]> timers = new HashMap<String, byte[]>();
+                for (Map.Entry<String, byte[]> timer : entry.getValue().entrySet()) {
+                    timers.put(timer.getKey(), decode(timer.getValue()).entity);
+                }
+                result.put(entry.getKey(), timers);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the journal. Records which are queued but not yet written are discarded.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            while (writing) {
+                written.awaitUninterruptibly();
+            }
+            if (channel == null) {
+                return;
+            }
+            if (current != null) {
+                current.fail(new IOException("Timer journal " + directory + " has been closed"));
+                current = null;
+            }
+            written.signalAll();
+            try {
+                file.close();
+            } catch (IOException e) {
+                logger.error("Could not close timer journal " + directory, e);
+            }
+            file = null;
+            channel = null;
+            live.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a record which holds the current state of a timer.
+     *
+     * @return the batch the record was added to, which must be awaited before the change is durable
+     */
+    public Batch put(final String timedObjectId, final String id, final byte[] entity) throws IOException {
+        return add(PUT, encode(PUT, timedObjectId, id, entity), timedObjectId, id);
+    }
+
+    /**
+     * Queues a record which removes a timer.
+     *
+     * @return the batch the record was added to, which must be awaited before the change is durable
+     */
+    public Batch remove(final String timedObjectId, final String id) throws IOException {
+        return add(REMOVE, encode(REMOVE, timedObjectId, id, null), timedObjectId, id);
+    }
+
+    /**
+     * @return the number of records which have been written
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return the number of batches, and hence syncs, the records were written in
+     */
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * @return the number of times the journal has been compacted
+     */
+    public long getCompactionCount() {
+        return compactionCount;
+    }
+
+    private Batch add(final byte type, final byte[] record, final String timedObjectId, final String id) throws IOException {
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IOException("Timer journal " + directory + " is not open");
+            }
+            final Batch batch = current;
+            batch.add(type, record, timedObjectId, id);
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void await(final Batch batch) throws IOException {
+        lock.lock();
+        try {
+            while (!batch.done) {
+                if (!writing) {
+                    // become the writer of the queued records, which include those of the given batch
+                    writing = true;
+                    final Batch toWrite = current;
+                    current = new Batch();
+                    lock.unlock();
+                    try {
+                        write(toWrite);
+                    } finally {
+                        lock.lock();
+                        writing = false;
+                        toWrite.done = true;
+                        written.signalAll();
+                    }
+                } else {
+                    written.awaitUninterruptibly();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch.failure != null) {
+            throw new IOException("Could not write timer journal " + directory, batch.failure);
+        }
+    }
+
+    /**
+     * Writes and syncs a batch of records. Only called by the thread that holds the writer role.
+     */
+    private void write(final Batch batch) {
+        final int count = batch.records.size();
+        if (count == 0) {
+            return;
+        }
+        final ByteBuffer[] buffers = new ByteBuffer[count];
+        long length = 0;
+        for (int i = 0; i < count; i++) {
+            buffers[i] = ByteBuffer.wrap(batch.records.get(i));
+            length += buffers[i].remaining();
+        }
+        try {
+            long remaining = length;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            batch.failure = e;
+            // don't leave a partial batch in front of the records that are written next
+            try {
+                channel.truncate(size);
+                channel.position(size);
+            } catch (IOException ignore) {
+                logger.error("Could not truncate timer journal " + directory + " after a failed write", ignore);
+            }
+            return;
+        }
+        size += length;
+        recordCount += count;
+        writeCount++;
+
+        for (int i = 0; i < count; i++) {
+            final String timedObjectId = batch.timedObjectIds.get(i);
+            final String id = batch.ids.get(i);
+            Map<String, byte[]> timers = live.get(timedObjectId);
+            final byte[] previous;
+            if (batch.types.get(i) == PUT) {
+                if (timers == null) {
+                    live.put(timedObjectId, timers = new HashMap<String, byte[]>());
+                }
+                final byte[] record = batch.records.get(i);
+                previous = timers.put(id, record);
+                liveSize += record.length;
+            } else {
+                previous = timers == null ? null : timers.remove(id);
+                if (timers != null && timers.isEmpty()) {
+                    live.remove(timedObjectId);
+                }
+            }
+            if (previous != null) {
+                liveSize -= previous.length;
+            }
+        }
+
+        if (size >= minCompactionSize && size >= liveSize * compactionRatio) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // the current journal is still complete, so this is not fatal
+                logger.error("Could not compact timer journal " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the live records to a new journal file which replaces the current one.
+     */
+    private void compact() throws IOException {
+        final long nextGeneration = generation + 1;
+        final File temp = journalFile(nextGeneration, true);
+        final RandomAccessFile compacted = new RandomAccessFile(temp, "rw");
+        boolean success = false;
+        try {
+            final FileChannel compactedChannel = compacted.getChannel();
+            compactedChannel.truncate(0);
+            for (Map<String, byte[]> timers : live.values()) {
+                for (byte[] record : timers.values()) {
+                    final ByteBuffer buffer = ByteBuffer.wrap(record);
+                    while (buffer.hasRemaining()) {
+                        compactedChannel.write(buffer);
+                    }
+                }
+            }
+            compactedChannel.force(true);
+            compacted.close();
+            final File target = journalFile(nextGeneration, false);
+            if (!temp.renameTo(target)) {
+                throw new IOException("Could not rename " + temp + " to " + target);
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                compacted.close();
+                temp.delete();
+            }
+        }
+        final File old = journalFile(generation, false);
+        file.close();
+        generation = nextGeneration;
+        file = new RandomAccessFile(journalFile(generation, false), "rw");
+        channel = file.getChannel();
+        size = channel.size();
+        channel.position(size);
+        if (!old.delete()) {
+            logger.warn("Could not delete compacted timer journal " + old);
+        }
+        compactionCount++;
+    }
+
+    /**
+     * Reads the records of a journal file into the live records.
+     *
+     * @return the length of the complete records
+     */
+    private long replay(final File journal) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)));
+        long position = 0;
+        try {
+            final CRC32 crc = new CRC32();
+            for (; ; ) {
+                final int length;
+                final int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > journal.length() - position - HEADER_SIZE) {
+                    break;
+                }
+                final byte[] record = new byte[HEADER_SIZE + length];
+                try {
+                    in.readFully(record, HEADER_SIZE, length);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(record, HEADER_SIZE, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                ByteBuffer.wrap(record).putInt(length).putInt(checksum);
+                final Record decoded = decode(record);
+                Map<String, byte[]> timers = live.get(decoded.timedObjectId);
+                final byte[] previous;
+                if (decoded.type == PUT) {
+                    if (timers == null) {
+                        live.put(decoded.timedObjectId, timers = new HashMap<String, byte[]>());
+                    }
+                    previous = timers.put(decoded.id, record);
+                    liveSize += record.length;
+                } else {
+                    previous = timers == null ? null : timers.remove(decoded.id);
+                    if (timers != null && timers.isEmpty()) {
+                        live.remove(decoded.timedObjectId);
+                    }
+                }
+                if (previous != null) {
+                    liveSize -= previous.length;
+                }
+                position += record.length;
+            }
+        } finally {
+            in.close();
+        }
+        return position;
+    }
+
+    private static byte[] encode(final byte type, final String timedObjectId, final String id, final byte[] entity) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + 64 + (entity == null ? 0 : entity.length));
+        final DataOutputStream out = new DataOutputStream(bytes);
+        // placeholder for the header
+        out.writeLong(0);
+        out.writeByte(type);
+        out.writeUTF(timedObjectId);
+        out.writeUTF(id);
+        if (entity != null) {
+            out.write(entity);
+        }
+        out.close();
+        final byte[] record = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, record.length - HEADER_SIZE);
+        ByteBuffer.wrap(record).putInt(record.length - HEADER_SIZE).putInt((int) crc.getValue());
+        return record;
+    }
+
+    private static Record decode(final byte[] record) throws IOException {
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(record, HEADER_SIZE, record.length - HEADER_SIZE);
+        final DataInputStream in = new DataInputStream(bytes);
+        final byte type = in.readByte();
+        if (type != PUT && type != REMOVE) {
+            throw new IOException("Unknown timer journal record type " + type);
+        }
+        final String timedObjectId = in.readUTF();
+        final String id = in.readUTF();
+        byte[] entity = null;
+        if (type == PUT) {
+            entity = new byte[bytes.available()];
+            in.readFully(entity);
+        }
+        return new Record(type, timedObjectId, id, entity);
+    }
+
+    private File journalFile(final long generation, final boolean temp) {
+        return new File(directory, PREFIX + generation + SUFFIX + (temp ? TEMP_SUFFIX : ""));
+    }
+
+    /**
+     * @return the generation of a complete journal file, or 0 if the name is not that of one
+     */
+    private static long generation(final String name) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Record {
+        final byte type;
+        final String timedObjectId;
+        final String id;
+        final byte[] entity;
+
+        Record(final byte type, final String timedObjectId, final String id, final byte[] entity) {
+            this.type = type;
+            this.timedObjectId = timedObjectId;
+            this.id = id;
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * A group of records which are written and synced together
+     */
+    public final class Batch {
+        private final List<Byte> types = new ArrayList<Byte>();
+        private final List<byte[]> records = new ArrayList<byte[]>();
+        private final List<String> timedObjectIds = new ArrayList<String>();
+        private final List<String> ids = new ArrayList<String>();
+        private boolean done;
+        private IOException failure;
+
+        private Batch() {
+        }
+
+        void add(final byte type, final byte[] record, final String timedObjectId, final String id) {
+            types.add(type);
+            records.add(record);
+            timedObjectIds.add(timedObjectId);
+            ids.add(id);
+        }
+
+        void fail(final IOException failure) {
+            this.failure = failure;
+            this.done = true;
+        }
+
+        /**
+         * Waits until the records of this batch have been written and synced, writing them if no other thread
+         * is currently writing.
+         *
+         * @throws IOException if the records could not be written
+         */
+        public void await() throws IOException {
+            TimerJournal.this.await(this);
+        }
+    }
+}
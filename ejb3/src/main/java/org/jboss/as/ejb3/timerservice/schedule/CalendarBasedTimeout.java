@@ -50,6 +50,10 @@ public class CalendarBasedTimeout {
      */
     private static final Logger logger = Logger.getLogger(CalendarBasedTimeout.class);
 
+    private static final int[] MONTH_LENGTHS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private static final int[] DAY_OF_WEEK_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
     /**
      * The {@link javax.ejb.ScheduleExpression} from which this {@link CalendarBasedTimeout}
      * was created
@@ -91,6 +95,25 @@ public class CalendarBasedTimeout {
      */
     private Year year;
 
+    /**
+     * The schedule compiled into bit sets, in which bit <code>n</code> is set if value <code>n</code> of the field
+     * is eligible. Months are 0 based, like {@link Calendar#MONTH}. Day of month values like "Last" or "2nd Fri"
+     * depend on the month, so they're resolved per month by {@link DayOfMonth#getBitMask(int, int)}.
+     */
+    private final long seconds;
+
+    private final long minutes;
+
+    private final long hours;
+
+    private final long months;
+
+    /**
+     * The days of a month which fall on an eligible day of week, indexed by the {@link Calendar} day of week
+     * of the first day of that month (minus 1)
+     */
+    private final long[] daysOfWeekByFirstDay = new long[7];
+
     /**
      * The first timeout relative to the time when this {@link CalendarBasedTimeout} was created
      * from a {@link javax.ejb.ScheduleExpression}
@@ -156,6 +179,21 @@ public class CalendarBasedTimeout {
             this.timezone = TimeZone.getDefault();
         }
 
+        // compile the parsed values into bit sets, so that the next timeout can be looked up
+        // without creating any intermediate objects
+        this.seconds = this.second.getBitMask();
+        this.minutes = this.minute.getBitMask();
+        this.hours = this.hour.getBitMask();
+        this.months = this.month.getBitMask() >>> 1;
+        long daysOfWeek = this.dayOfWeek.getBitMask();
+        for (int first = 0; first < 7; first++) {
+            for (int date = 1; date <= DayOfMonth.MAX_DAY_OF_MONTH; date++) {
+                if ((daysOfWeek & (1L << ((first + date - 1) % 7))) != 0) {
+                    this.daysOfWeekByFirstDay[first] |= 1L << date;
+                }
+            }
+        }
+
         // Now that we have parsed the values from the ScheduleExpression,
         // determine and set the first timeout (relative to the current time)
         // of this CalendarBasedTimeout
@@ -163,10 +201,7 @@ public class CalendarBasedTimeout {
     }
 
     public Calendar getNextTimeout() {
-        Calendar now = new GregorianCalendar(this.timezone);
-        now.setTime(new Date());
-
-        return this.getNextTimeout(now);
+        return this.getNextTimeout(this.timezone, System.currentTimeMillis());
     }
 
     /**
@@ -178,50 +213,20 @@ public class CalendarBasedTimeout {
 
 
     private void setFirstTimeout() {
-        this.firstTimeout = new GregorianCalendar(this.timezone);
+        Calendar cal = new GregorianCalendar(this.timezone);
+        cal.setFirstDayOfWeek(Calendar.SUNDAY);
+        long from;
         Date start = this.scheduleExpression.getStart();
         if (start != null) {
-            this.firstTimeout.setTime(start);
+            from = ceilToSecond(start.getTime());
         } else {
-            this.firstTimeout.set(Calendar.SECOND, this.second.getFirst());
-            this.firstTimeout.set(Calendar.MINUTE, this.minute.getFirst());
-            this.firstTimeout.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            this.firstTimeout.set(Calendar.MILLISECOND, 0);
-        }
-        this.firstTimeout.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        this.firstTimeout = this.computeNextSecond(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMinute(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextHour(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextMonth(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextDate(this.firstTimeout);
-        if (this.firstTimeout == null) {
-            return;
-        }
-
-        this.firstTimeout = this.computeNextYear(this.firstTimeout);
-
-        // one final check
-        if (this.firstTimeout != null && this.noMoreTimeouts(this.firstTimeout)) {
-            this.firstTimeout = null;
+            cal.set(Calendar.SECOND, Long.numberOfTrailingZeros(this.seconds));
+            cal.set(Calendar.MINUTE, Long.numberOfTrailingZeros(this.minutes));
+            cal.set(Calendar.HOUR_OF_DAY, Long.numberOfTrailingZeros(this.hours));
+            cal.set(Calendar.MILLISECOND, 0);
+            from = cal.getTimeInMillis();
         }
-
+        this.firstTimeout = this.computeNextTimeout(cal, this.timezone, from);
     }
 
     /**
@@ -235,523 +240,199 @@ public class CalendarBasedTimeout {
     }
 
     public Calendar getNextTimeout(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
+        return this.getNextTimeout(currentCal.getTimeZone(), currentCal.getTimeInMillis());
+    }
+
+    private Calendar getNextTimeout(TimeZone zone, long currentTime) {
+        Date end = this.scheduleExpression.getEnd();
+        if (end != null && currentTime > end.getTime()) {
             return null;
         }
-        Calendar nextCal = this.copy(currentCal);
-
+        long from;
         Date start = this.scheduleExpression.getStart();
-        if (start != null && currentCal.getTime().before(start)) {
-            nextCal.setTime(start);
+        if (start != null && currentTime < start.getTime()) {
+            from = ceilToSecond(start.getTime());
         } else {
-            // increment the current second by 1
-            nextCal.add(Calendar.SECOND, 1);
-            nextCal.set(Calendar.MILLISECOND, 0);
+            // the next second after the current one
+            from = ceilToSecond(currentTime + 1);
         }
+        Calendar nextCal = new GregorianCalendar(zone);
         nextCal.setFirstDayOfWeek(Calendar.SUNDAY);
-
-        nextCal = this.computeNextSecond(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextMinute(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextHour(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextMonth(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextDate(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        nextCal = this.computeNextYear(nextCal);
-        if (nextCal == null) {
-            return null;
-        }
-
-        // one final check
-        if (this.noMoreTimeouts(nextCal)) {
-            return null;
-        }
-        return nextCal;
-    }
-
-    private Calendar computeNextSecond(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextSecond = this.second.getNextMatch(currentCal);
-
-        if (nextSecond == null) {
-            return null;
-        }
-        int currentSecond = currentCal.get(Calendar.SECOND);
-        // if the current second is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentSecond == nextSecond) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" second has been identified.
-        // There can be 2 cases
-        // 1) The "next" second is greater than the current second : This
-        // implies that the next second is within the "current" minute.
-        // 2) The "next" second is lesser than the current second : This implies
-        // that the next second is in the next minute (i.e. current minute needs to
-        // be advanced to next minute).
-
-        // handle case#1
-        if (nextSecond > currentSecond) {
-            nextCal.set(Calendar.SECOND, nextSecond);
-            return nextCal;
-        }
-
-        // case#2
-        if (nextSecond < currentSecond) {
-            nextCal.set(Calendar.SECOND, nextSecond);
-            // advance the minute to next minute
-            nextCal.add(Calendar.MINUTE, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextMinute(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextMinute = this.minute.getNextMatch(currentCal);
-
-        if (nextMinute == null) {
-            return null;
-        }
-        int currentMinute = currentCal.get(Calendar.MINUTE);
-        // if the current minute is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentMinute == nextMinute) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" minute has been identified.
-        // There can be 2 cases
-        // 1) The "next" minute is greater than the current minute : This
-        // implies that the next minute is within the "current" hour.
-        // 2) The "next" minute is lesser than the current minute : This implies
-        // that the next minute is in the next hour (i.e. current hour needs to
-        // be advanced to next hour).
-
-        // handle case#1
-        if (nextMinute > currentMinute) {
-            // set the chosen minute
-            nextCal.set(Calendar.MINUTE, nextMinute);
-            // since we are moving to a different minute (as compared to the current minute),
-            // we should reset the second, to its first possible value
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-
-            return nextCal;
-        }
-
-        // case#2
-        if (nextMinute < currentMinute) {
-            // since we are advancing the hour, we should
-            // restart from the first eligible second
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            // set the chosen minute
-            nextCal.set(Calendar.MINUTE, nextMinute);
-            // advance the hour to next hour
-            nextCal.add(Calendar.HOUR_OF_DAY, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextHour(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextHour = this.hour.getNextMatch(currentCal);
-
-        if (nextHour == null) {
-            return null;
-        }
-        int currentHour = currentCal.get(Calendar.HOUR_OF_DAY);
-        // if the current hour is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentHour == nextHour) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" hour has been identified.
-        // There can be 2 cases
-        // 1) The "next" hour is greater than the current hour : This
-        // implies that the next hour is within the "current" day.
-        // 2) The "next" hour is lesser than the current hour : This implies
-        // that the next hour is in the next day (i.e. current day needs to
-        // be advanced to next day).
-
-        // handle case#1
-        if (nextHour > currentHour) {
-            // set the chosen day of hour
-            nextCal.set(Calendar.HOUR_OF_DAY, nextHour);
-            // since we are moving to a different hour (as compared to the current hour),
-            // we should reset the second and minute appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-
-            return nextCal;
-        }
-
-        // case#2
-        if (nextHour < currentHour) {
-            // set the chosen hour
-            nextCal.set(Calendar.HOUR_OF_DAY, nextHour);
-
-            // since we are moving to a different hour (as compared to the current hour),
-            // we should reset the second and minute appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-
-            // advance to next day
-            nextCal.add(Calendar.DATE, 1);
-
-            return nextCal;
-        }
-
-        return null;
+        return this.computeNextTimeout(nextCal, zone, from);
     }
 
-    private Calendar computeNextDayOfWeek(Calendar currentCal) {
-
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextDayOfWeek = this.dayOfWeek.getNextMatch(currentCal);
-
-        if (nextDayOfWeek == null) {
-            return null;
-        }
-        int currentDayOfWeek = currentCal.get(Calendar.DAY_OF_WEEK);
-        // if the current day-of-week is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfWeek == nextDayOfWeek) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" day-of-week has been identified.
-        // There can be 2 cases
-        // 1) The "next" day-of-week is greater than the current day-of-week : This
-        // implies that the next day-of-week is within the "current" week.
-        // 2) The "next" day-of-week is lesser than the current day-of-week : This implies
-        // that the next day-of-week is in the next week (i.e. current week needs to
-        // be advanced to next week).
-
-        // handle case#1
-        if (nextDayOfWeek > currentDayOfWeek) {
-            // set the chosen day-of-week
-            int dayDiff = nextDayOfWeek - currentDayOfWeek;
-            nextCal.add(Calendar.DAY_OF_MONTH, dayDiff);
-            // since we are moving to a different day-of-week (as compared to the current day-of-week),
-            // we should reset the second, minute and hour appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            return nextCal;
-        }
-
-        // case#2
-        if (nextDayOfWeek < currentDayOfWeek) {
-            // set the chosen day-of-week
-            nextCal.set(Calendar.DAY_OF_WEEK, nextDayOfWeek);
-            // advance to next week
-            nextCal.add(Calendar.WEEK_OF_MONTH, 1);
-
-            // since we are moving to a different day-of-week (as compared to the current day-of-week),
-            // we should reset the second, minute and hour appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-
-            return nextCal;
-        }
-        return null;
-    }
-
-    private Calendar computeNextMonth(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextMonth = this.month.getNextMatch(currentCal);
-
-        if (nextMonth == null) {
-            return null;
-        }
-        int currentMonth = currentCal.get(Calendar.MONTH);
-        // if the current month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentMonth == nextMonth) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-        // At this point, a suitable "next" month has been identified.
-        // There can be 2 cases
-        // 1) The "next" month is greater than the current month : This
-        // implies that the next month is within the "current" year.
-        // 2) The "next" month is lesser than the current month : This implies
-        // that the next month is in the next year (i.e. current year needs to
-        // be advanced to next year).
-
-        // handle case#1
-        if (nextMonth > currentMonth) {
-            // since we are moving to a different month (as compared to the current month),
-            // we should reset the second, minute, hour, day-of-week and dayofmonth appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            nextCal.set(Calendar.DAY_OF_WEEK, this.dayOfWeek.getFirst());
-            nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            // set the chosen month
-            nextCal.set(Calendar.MONTH, nextMonth);
-            return nextCal;
-        }
-
-        // case#2
-        if (nextMonth < currentMonth) {
-            // set the chosen month
-            nextCal.set(Calendar.MONTH, nextMonth);
-            // since we are moving to a different month (as compared to the current month),
-            // we should reset the second, minute, hour, day-of-week and dayofmonth appropriately, to their first possible
-            // values
-            nextCal.set(Calendar.SECOND, this.second.getFirst());
-            nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-            nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            nextCal.set(Calendar.DAY_OF_WEEK, this.dayOfWeek.getFirst());
-            nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            // advance to next year
-            nextCal.add(Calendar.YEAR, 1);
-
-            return nextCal;
-        }
-
-        return null;
-    }
-
-    private Calendar computeNextDate(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        if (this.isDayOfMonthWildcard()) {
-            return this.computeNextDayOfWeek(currentCal);
-        }
-
-        if (this.isDayOfWeekWildcard()) {
-            return this.computeNextDayOfMonth(currentCal);
-        }
-
-        // both day-of-month and day-of-week are *non-wildcards*
-        Calendar nextDayOfMonthCal = this.computeNextDayOfMonth(currentCal);
-        Calendar nextDayOfWeekCal = this.computeNextDayOfWeek(currentCal);
-
-        if (nextDayOfMonthCal == null) {
-            return nextDayOfWeekCal;
-        }
-        if (nextDayOfWeekCal == null) {
-            return nextDayOfMonthCal;
-        }
-
-        return nextDayOfWeekCal.getTime().before(nextDayOfMonthCal.getTime()) ? nextDayOfWeekCal : nextDayOfMonthCal;
-
-    }
-
-    private Calendar computeNextDayOfMonth(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextDayOfMonth = this.dayOfMonth.getNextMatch(currentCal);
-
-        if (nextDayOfMonth == null) {
-            return null;
-        }
-        int currentDayOfMonth = currentCal.get(Calendar.DAY_OF_MONTH);
-        // if the current day-of-month is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentDayOfMonth == nextDayOfMonth) {
-            return currentCal;
-        }
-
-        Calendar nextCal = this.copy(currentCal);
-
-        if (nextDayOfMonth > currentDayOfMonth) {
-            if (this.monthHasDate(nextCal, nextDayOfMonth)) {
-                // set the chosen day-of-month
-                nextCal.set(Calendar.DAY_OF_MONTH, nextDayOfMonth);
-                // since we are moving to a different day-of-month (as compared to the current day-of-month),
-                // we should reset the second, minute and hour appropriately, to their first possible
-                // values
-                nextCal.set(Calendar.SECOND, this.second.getFirst());
-                nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-                nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-            } else {
-                nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
-            }
-        } else if (nextDayOfMonth < currentDayOfMonth) {
-            nextCal.add(Calendar.MONTH, 1);
-            nextCal = this.computeNextMonth(nextCal);
-            if (nextCal == null) {
+    /**
+     * Finds the first timeout at or after <code>from</code> and sets it on <code>cal</code>.
+     * <p>
+     * The search runs on the local date and time fields. Each field jumps straight to its next eligible value in
+     * the compiled bit sets. If a field has no eligible value left, the next larger field is advanced and all
+     * smaller fields restart from their first value. Only the final date and time is converted into an instant,
+     * so nothing but <code>cal</code> is used.
+     * </p>
+     * <p>
+     * A local time which doesn't exist, because the clocks were put forward, is moved forward by the
+     * {@link Calendar}. A local time which occurs twice, because the clocks were put back, resolves to the
+     * earliest occurrence at or after <code>from</code>.
+     * </p>
+     *
+     * @return <code>cal</code>, or null if there are no more timeouts
+     */
+    private Calendar computeNextTimeout(Calendar cal, TimeZone zone, long from) {
+        cal.setTimeInMillis(from);
+        int fromOffset = cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET);
+        int year = cal.get(Calendar.YEAR);
+        int month = cal.get(Calendar.MONTH);
+        int day = cal.get(Calendar.DAY_OF_MONTH);
+        int hour = cal.get(Calendar.HOUR_OF_DAY);
+        int minute = cal.get(Calendar.MINUTE);
+        int second = cal.get(Calendar.SECOND);
+        for (;;) {
+            int nextYear = this.year.getNextMatch(year);
+            if (nextYear < 0 || nextYear > Year.MAX_YEAR) {
                 return null;
             }
-            nextDayOfMonth = this.dayOfMonth.getFirstMatch(nextCal);
-            if (nextDayOfMonth == null) {
-                return null;
+            if (nextYear != year) {
+                year = nextYear;
+                month = 0;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            int nextMonth = nextBit(this.months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 0;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            int nextDay = nextBit(this.getDaysOfMonth(year, month), day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = minute = second = 0;
+            }
+            int nextHour = nextBit(this.hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+            int nextMinute = nextBit(this.minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
             }
-            // make sure the month can handle the date
-            nextCal = this.advanceTillMonthHasDate(nextCal, nextDayOfMonth);
+            int nextSecond = nextBit(this.seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            second = nextSecond;
+
+            cal.clear();
+            cal.set(year, month, day, hour, minute, second);
+            long time = cal.getTimeInMillis();
+            int offset = zone.getOffset(time);
+            if (offset != fromOffset) {
+                // the clocks may have been put back in between, in which case this local time also exists
+                // with the offset of from
+                long other = time + offset - fromOffset;
+                if (other >= from && (other < time || time < from) && zone.getOffset(other) == fromOffset) {
+                    time = other;
+                }
+            }
+            if (time >= from) {
+                cal.setTimeInMillis(time);
+                if (this.isAfterEnd(time)) {
+                    return null;
+                }
+                return cal;
+            }
+            second++;
         }
-
-        return nextCal;
     }
 
-
-    private Calendar computeNextYear(Calendar currentCal) {
-        if (this.noMoreTimeouts(currentCal)) {
-            return null;
-        }
-
-        Integer nextYear = this.year.getNextMatch(currentCal);
-
-        if (nextYear == null || nextYear > Year.MAX_YEAR) {
-            return null;
-        }
-        int currentYear = currentCal.get(Calendar.YEAR);
-        // if the current year is a match, then nothing else to
-        // do. Just return back the calendar
-        if (currentYear == nextYear) {
-            return currentCal;
+    /**
+     * Returns the eligible days of the month as a bit set, in which bit <code>n</code> is set if day <code>n</code>
+     * is eligible
+     */
+    private long getDaysOfMonth(int year, int month) {
+        int lastDay = MONTH_LENGTHS[month];
+        if (month == Calendar.FEBRUARY && isLeapYear(year)) {
+            lastDay++;
         }
-        // If the next year is lesser than the current year, then
-        // we have no more timeouts for the calendar expression
-        if (nextYear < currentYear) {
-            return null;
+        int firstDayOfWeek = getDayOfWeek(year, month, 1);
+        long days;
+        if (this.isDayOfMonthWildcard()) {
+            days = this.daysOfWeekByFirstDay[firstDayOfWeek - 1];
+        } else if (this.isDayOfWeekWildcard()) {
+            days = this.dayOfMonth.getBitMask(lastDay, firstDayOfWeek);
+        } else {
+            // both are non-wildcards, so either of them makes a day eligible
+            days = this.dayOfMonth.getBitMask(lastDay, firstDayOfWeek) | this.daysOfWeekByFirstDay[firstDayOfWeek - 1];
         }
+        return days & ((1L << (lastDay + 1)) - 2);
+    }
 
-        Calendar nextCal = this.copy(currentCal);
-        // at this point we have chosen a year which is greater than the current
-        // year.
-        // set the chosen year
-        nextCal.set(Calendar.YEAR, nextYear);
-        // since we are moving to a different year (as compared to the current year),
-        // we should reset all other calendar attribute expressions appropriately, to their first possible
-        // values
-        nextCal.set(Calendar.SECOND, this.second.getFirst());
-        nextCal.set(Calendar.MINUTE, this.minute.getFirst());
-        nextCal.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-        nextCal.set(Calendar.MONTH, this.month.getFirstMatch());
-        nextCal.set(Calendar.DAY_OF_MONTH, 1);
-
-        nextCal = this.computeNextDate(nextCal);
-        if (nextCal == null) {
-            return null;
+    /**
+     * Returns the first set bit in <code>mask</code> at or after <code>from</code>, or -1 if there is none
+     */
+    private static int nextBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
         }
-
-        return nextCal;
+        long remaining = mask >>> from;
+        return remaining == 0 ? -1 : from + Long.numberOfTrailingZeros(remaining);
     }
 
-    private Calendar advanceTillMonthHasDate(Calendar cal, Integer date) {
-        Calendar copy = this.copy(cal);
-        // make sure the month can handle the date
-        while (monthHasDate(copy, date) == false) {
-            if (copy.get(Calendar.YEAR) > Year.MAX_YEAR) {
-                return null;
-            }
-            // this month can't handle the date, so advance month to next month
-            // and get the next suitable matching month
-            copy.add(Calendar.MONTH, 1);
-            copy = this.computeNextMonth(copy);
-            if (copy == null) {
-                return null;
-            }
-            date = this.dayOfMonth.getFirstMatch(copy);
-            if (date == null) {
-                return null;
-            }
-
-            copy.set(Calendar.SECOND, this.second.getFirst());
-            copy.set(Calendar.MINUTE, this.minute.getFirst());
-            copy.set(Calendar.HOUR_OF_DAY, this.hour.getFirst());
-
+    private static long ceilToSecond(long time) {
+        long remainder = time % 1000;
+        if (remainder == 0) {
+            return time;
         }
-        copy.set(Calendar.DAY_OF_MONTH, date);
-        return copy;
+        return remainder > 0 ? time - remainder + 1000 : time - remainder;
     }
 
-    private Calendar copy(Calendar cal) {
-        Calendar copy = new GregorianCalendar(cal.getTimeZone());
-        copy.setTime(cal.getTime());
-
-        return copy;
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
     }
 
-    private boolean monthHasDate(Calendar cal, int date) {
-        Calendar tmpCal = new GregorianCalendar(cal.getTimeZone());
-        tmpCal.set(Calendar.YEAR, cal.get(Calendar.YEAR));
-        tmpCal.set(Calendar.MONTH, cal.get(Calendar.MONTH));
-        tmpCal.set(Calendar.DAY_OF_MONTH, 1);
-        int maximumPossibleDateForTheMonth = tmpCal.getActualMaximum(Calendar.DAY_OF_MONTH);
-
-        if (date > maximumPossibleDateForTheMonth) {
-            return false;
+    /**
+     * Returns the {@link Calendar} day of week of a date in the proleptic Gregorian calendar
+     */
+    private static int getDayOfWeek(int year, int month, int day) {
+        // Sakamoto's method, with a 0 based month
+        if (month < 2) {
+            year--;
         }
-        return true;
-
+        int dayOfWeek = (year + year / 4 - year / 100 + year / 400 + DAY_OF_WEEK_OFFSETS[month] + day) % 7;
+        return dayOfWeek + Calendar.SUNDAY;
     }
 
-    private boolean isAfterEnd(Calendar cal) {
+    private boolean isAfterEnd(long time) {
         Date end = this.scheduleExpression.getEnd();
-        if (end == null) {
-            return false;
-        }
         // check that the next timeout isn't past the end date
-        return cal.getTime().after(end);
-    }
-
-    private boolean noMoreTimeouts(Calendar cal) {
-        if (cal.get(Calendar.YEAR) > Year.MAX_YEAR || isAfterEnd(cal)) {
-            return true;
-        }
-        return false;
+        return end != null && time > end.getTime();
     }
 
     private boolean isDayOfWeekWildcard() {
@@ -129,6 +129,37 @@ public class DayOfMonth extends IntegerBasedExpression {
 
     }
 
+    /**
+     * The bit set of day 1 to 31
+     */
+    private static final long ALL_DAYS = 0xFFFFFFFEL;
+
+    /**
+     * The encoded value of "Last". Negative values (-1 to -7) and absolute values (1 to 31) are encoded as
+     * themselves.
+     */
+    private static final int LAST = 0;
+
+    /**
+     * Values like "2nd Fri" or "Last Mon" are encoded as <code>ORDINAL_BASE + 10 * weekNumber + dayOfWeek</code>,
+     * where the week number of "Last" is {@link #LAST_WEEK} and the day of week is a {@link Calendar} day of week.
+     */
+    private static final int ORDINAL_BASE = 100;
+
+    private static final int LAST_WEEK = 6;
+
+    /**
+     * The bit set of the absolute days of month, bit <code>n</code> being day <code>n</code>
+     */
+    private final long absoluteMask;
+
+    /**
+     * The encoded start and end values of the relative values. A relative single value has the same start and end.
+     */
+    private final int[] relativeStarts;
+
+    private final int[] relativeEnds;
+
 
     /**
      * Creates a {@link DayOfMonth} by parsing the passed {@link String} <code>value</code>
@@ -144,6 +175,21 @@ public class DayOfMonth extends IntegerBasedExpression {
      */
     public DayOfMonth(String value) {
         super(value);
+        this.absoluteMask = super.getBitMask() & ALL_DAYS;
+        this.relativeStarts = new int[this.relativeValues.size()];
+        this.relativeEnds = new int[this.relativeValues.size()];
+        int i = 0;
+        for (ScheduleValue relativeValue : this.relativeValues) {
+            if (relativeValue instanceof RangeValue) {
+                RangeValue range = (RangeValue) relativeValue;
+                this.relativeStarts[i] = this.encodeDayOfMonth(range.getStart());
+                this.relativeEnds[i] = this.encodeDayOfMonth(range.getEnd());
+            } else {
+                this.relativeStarts[i] = this.encodeDayOfMonth(((SingleValue) relativeValue).getValue());
+                this.relativeEnds[i] = this.relativeStarts[i];
+            }
+            i++;
+        }
     }
 
     /**
@@ -186,6 +232,83 @@ public class DayOfMonth extends IntegerBasedExpression {
         return eligibleDaysOfMonth.first();
     }
 
+    /**
+     * Returns the eligible days of a month as a bit set, in which bit <code>n</code> is set if day <code>n</code>
+     * is eligible. The relative values are resolved against the month described by <code>lastDayOfMonth</code>
+     * and <code>firstDayOfWeek</code>, without creating any objects.
+     *
+     * @param lastDayOfMonth The number of days in the month
+     * @param firstDayOfWeek The {@link Calendar} day of week of the first day of the month
+     * @return the bit set of the eligible days
+     */
+    public long getBitMask(int lastDayOfMonth, int firstDayOfWeek) {
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            return ALL_DAYS;
+        }
+        long mask = this.absoluteMask;
+        for (int i = 0; i < this.relativeStarts.length; i++) {
+            int start = resolveDayOfMonth(this.relativeStarts[i], lastDayOfMonth, firstDayOfWeek);
+            int end = resolveDayOfMonth(this.relativeEnds[i], lastDayOfMonth, firstDayOfWeek);
+            if (start <= end) {
+                mask |= daysBetween(start, end);
+            } else {
+                // "x-y" with x larger than y is "x-max, min-y"
+                mask |= daysBetween(start, MAX_DAY_OF_MONTH) | daysBetween(1, end);
+            }
+        }
+        return mask & ALL_DAYS;
+    }
+
+    private static long daysBetween(int start, int end) {
+        start = Math.max(start, 1);
+        if (start > end) {
+            return 0;
+        }
+        return ((1L << (end - start + 1)) - 1) << start;
+    }
+
+    private int encodeDayOfMonth(String value) {
+        String trimmedValue = value.trim();
+        if (trimmedValue.equalsIgnoreCase("last")) {
+            return LAST;
+        }
+        if (this.isValidNegativeDayOfMonth(trimmedValue)) {
+            return Integer.parseInt(trimmedValue);
+        }
+        if (this.isDayOfWeekBased(trimmedValue)) {
+            String[] parts = trimmedValue.split("\\s+");
+            String ordinal = parts[0].toLowerCase(Locale.ENGLISH);
+            int dayOfWeek = DAY_OF_MONTH_ALIAS.get(parts[1].toLowerCase(Locale.ENGLISH));
+            int weekNumber = ordinal.equals("last") ? LAST_WEEK : ORDINAL_TO_WEEK_NUMBER_MAPPING.get(ordinal);
+            return ORDINAL_BASE + 10 * weekNumber + dayOfWeek;
+        }
+        Integer absolute = this.parseInt(trimmedValue);
+        this.assertValid(absolute);
+        return absolute;
+    }
+
+    private static int resolveDayOfMonth(int encoded, int lastDayOfMonth, int firstDayOfWeek) {
+        if (encoded == LAST) {
+            return lastDayOfMonth;
+        }
+        if (encoded < 0) {
+            return lastDayOfMonth + encoded;
+        }
+        if (encoded < ORDINAL_BASE) {
+            return encoded;
+        }
+        int weekNumber = (encoded - ORDINAL_BASE) / 10;
+        int dayOfWeek = encoded % 10;
+        int firstDate = 1 + (dayOfWeek - firstDayOfWeek + 7) % 7;
+        if (weekNumber == LAST_WEEK) {
+            return firstDate + 7 * ((lastDayOfMonth - firstDate) / 7);
+        }
+        int date = firstDate + 7 * (weekNumber - 1);
+        // same as getAbsoluteDayOfMonth: a week which isn't in this month (like the 5th Wed) falls back
+        // to the last date of the month
+        return date > lastDayOfMonth ? lastDayOfMonth : date;
+    }
+
     @Override
     protected void assertValid(Integer value) throws IllegalArgumentException {
         if (value != null && value == 0) {
@@ -149,4 +149,17 @@ public class DayOfWeek extends IntegerBasedExpression {
         }
         return this.offsetAdjustedDaysOfWeek.first();
     }
+
+    /**
+     * Returns the eligible days of the week as a bit set, in which bit 0 is Sunday and bit 6 is Saturday. A 7
+     * (which is Sunday too) is folded into bit 0.
+     */
+    @Override
+    public long getBitMask() {
+        long mask = super.getBitMask();
+        if ((mask & (1L << 7)) != 0) {
+            mask = (mask | 1L) & ~(1L << 7);
+        }
+        return mask;
+    }
 }
@@ -214,4 +214,32 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * Returns the absolute values of this expression as a bit set, in which bit <code>n</code> is set if
+     * <code>n</code> is an eligible value. A {@link ScheduleExpressionType#WILDCARD} makes every value between
+     * {@link #getMinValue()} and {@link #getMaxValue()} eligible. Values outside of 0 to 63 can't be represented
+     * and are left out.
+     *
+     * @return the bit set of the absolute values
+     */
+    public long getBitMask() {
+        long mask = 0;
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            for (int i = Math.max(0, this.getMinValue()); i <= Math.min(63, this.getMaxValue()); i++) {
+                mask |= 1L << i;
+            }
+            return mask;
+        }
+        for (Integer value : this.absoluteValues) {
+            if (value >= 0 && value <= 63) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    public boolean isWildcard() {
+        return this.scheduleExpressionType == ScheduleExpressionType.WILDCARD;
+    }
+
 }
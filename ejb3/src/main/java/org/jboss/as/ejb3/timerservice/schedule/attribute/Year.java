@@ -55,6 +55,11 @@ public class Year extends IntegerBasedExpression {
     // That's the reason we have set it to 1000 here.
     public static final Integer MIN_YEAR = 1000;
 
+    /**
+     * The eligible years in ascending order
+     */
+    private final int[] years;
+
 
     /**
      * Creates a {@link Year} by parsing the passed {@link String} <code>value</code>
@@ -70,6 +75,11 @@ public class Year extends IntegerBasedExpression {
      */
     public Year(String value) {
         super(value);
+        this.years = new int[this.absoluteValues.size()];
+        int i = 0;
+        for (Integer year : this.absoluteValues) {
+            this.years[i++] = year;
+        }
     }
 
     /**
@@ -131,4 +141,26 @@ public class Year extends IntegerBasedExpression {
         }
         return this.absoluteValues.first();
     }
+
+    /**
+     * Returns the first eligible year which is equal to or after <code>currentYear</code>, or -1 if there is
+     * no such year.
+     */
+    public int getNextMatch(int currentYear) {
+        if (this.scheduleExpressionType == ScheduleExpressionType.WILDCARD) {
+            return currentYear;
+        }
+        // a binary search, so that no boxed values are created
+        int low = 0;
+        int high = this.years.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.years[mid] < currentYear) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low < this.years.length ? this.years[low] : -1;
+    }
 }
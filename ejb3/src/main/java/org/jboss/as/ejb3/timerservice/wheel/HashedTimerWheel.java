@@ -0,0 +1,537 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.wheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A hashed timing wheel which schedules the timeouts of any number of timer services on a single thread.
+ * <p/>
+ * Time is divided into ticks of <code>tickDuration</code> and a timeout is hashed onto the bucket of the tick
+ * it is due in, modulo the number of buckets. Each bucket is a doubly linked list, together with the number of
+ * full revolutions of the wheel that remain before the timeout is due. Scheduling and cancelling are O(1) and
+ * never block: both only enqueue the timeout and the wheel thread links it into, or unlinks it from, its
+ * bucket on the next tick. Cancelled timeouts are therefore removed right away instead of lingering until
+ * they would have been due, which is what happens with {@link java.util.Timer}.
+ * <p/>
+ * The timeouts which are due in a tick are not run on the wheel thread but handed to the {@link Executor}
+ * they were scheduled with, each on its own, so that a slow task never holds up the other timeouts of the
+ * same tick as long as the executor has idle threads.
+ * <p/>
+ * The delay between the time a timeout was due and the time its task actually started to run is recorded
+ * as the schedule lag. Lag of up to one tick is inherent to the wheel; anything more means either the wheel
+ * thread or the executor can not keep up, and the timeout is counted as late.
+ */
+public class HashedTimerWheel {
+    private static final Logger log = Logger.getLogger(HashedTimerWheel.class);
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+    private static final int STATE_SCHEDULED = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final String name;
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    /**
+     * Timeouts which have been scheduled or cancelled since the last tick. These are intrusive stacks, linked
+     * through the timeouts themselves, so scheduling and cancelling do not allocate anything but the timeout.
+     */
+    private final AtomicReference<Timeout> pending = new AtomicReference<Timeout>();
+    private final AtomicReference<Timeout> cancelled = new AtomicReference<Timeout>();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private volatile long startTime;
+    /**
+     * The current tick, only accessed by the wheel thread
+     */
+    private long tick;
+
+    private final AtomicInteger scheduledCount = new AtomicInteger();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong lateCount = new AtomicLong();
+    private final AtomicLong totalLag = new AtomicLong();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    public HashedTimerWheel(final String name) {
+        this(name, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public HashedTimerWheel(final String name, final long tickDuration, final TimeUnit unit, final int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than 0: " + tickDuration);
+        }
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException("Wheel size must be at least 1: " + wheelSize);
+        }
+        this.name = name;
+        this.tickDuration = unit.toNanos(tickDuration);
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startTime = System.nanoTime();
+        tick = 0;
+        running = true;
+        final Thread thread = new Thread(new Worker(), name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the wheel thread. Timeouts which have not yet been dispatched are dropped.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        final Thread thread = worker;
+        worker = null;
+        thread.interrupt();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        for (Bucket bucket : wheel) {
+            bucket.clear();
+        }
+        for (Timeout timeout = pending.getAndSet(null); timeout != null; timeout = timeout.nextPending) {
+            timeout.discard();
+        }
+        cancelled.set(null);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules a task to be run once on the given executor after the given delay.
+     *
+     * @return the handle through which the task can be cancelled
+     */
+    public Timeout schedule(final Runnable task, final Executor executor, final long delay, final TimeUnit unit) {
+        return schedule(task, executor, delay, 0, unit);
+    }
+
+    /**
+     * Schedules a task to be run repeatedly on the given executor, first after the given delay and then every
+     * <code>period</code>. As with {@link java.util.Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)}
+     * each execution is scheduled relative to the time the previous one was due, not the time it actually ran.
+     *
+     * @return the handle through which the task can be cancelled
+     */
+    public Timeout scheduleAtFixedRate(final Runnable task, final Executor executor, final long delay, final long period, final TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be greater than 0: " + period);
+        }
+        return schedule(task, executor, delay, period, unit);
+    }
+
+    private Timeout schedule(final Runnable task, final Executor executor, final long delay, final long period, final TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Timer wheel " + name + " is not running");
+        }
+        final long deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0));
+        final Timeout timeout = new Timeout(task, executor, deadline, unit.toNanos(period));
+        scheduledCount.incrementAndGet();
+        Timeout head;
+        do {
+            head = pending.get();
+            timeout.nextPending = head;
+        } while (!pending.compareAndSet(head, timeout));
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts which are scheduled, including those of fixed rate tasks
+     */
+    public int getScheduledCount() {
+        return scheduledCount.get();
+    }
+
+    /**
+     * @return the number of times a scheduled task has been run
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * @return the number of timeouts that have been cancelled before they were due
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    /**
+     * @return the number of times a scheduled task started more than one tick after it was due
+     */
+    public long getLateCount() {
+        return lateCount.get();
+    }
+
+    /**
+     * @return the average schedule lag in milliseconds
+     */
+    public long getAverageLag() {
+        final long expired = expiredCount.get();
+        return expired == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLag.get() / expired);
+    }
+
+    /**
+     * @return the largest schedule lag in milliseconds
+     */
+    public long getMaxLag() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLag.get());
+    }
+
+    private void recordLag(final long lag) {
+        expiredCount.incrementAndGet();
+        if (lag <= 0) {
+            return;
+        }
+        totalLag.addAndGet(lag);
+        if (lag > tickDuration) {
+            lateCount.incrementAndGet();
+        }
+        long max;
+        while (lag > (max = maxLag.get())) {
+            if (maxLag.compareAndSet(max, lag)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Links the timeout into the bucket of the tick it is due in, but no earlier than <code>minTick</code>.
+     */
+    private void insert(final Timeout timeout, final long minTick) {
+        final long due = timeout.deadline / tickDuration;
+        final long ticks = Math.max(due, minTick);
+        timeout.remainingRounds = (ticks - tick) / wheel.length;
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void transferPending() {
+        // reverse the stack, so that timeouts with the same deadline run in the order they were scheduled
+        Timeout timeout = pending.getAndSet(null);
+        Timeout reversed = null;
+        while (timeout != null) {
+            final Timeout next = timeout.nextPending;
+            timeout.nextPending = reversed;
+            reversed = timeout;
+            timeout = next;
+        }
+        for (timeout = reversed; timeout != null; ) {
+            final Timeout next = timeout.nextPending;
+            timeout.nextPending = null;
+            if (timeout.state == STATE_SCHEDULED) {
+                insert(timeout, tick);
+            }
+            timeout = next;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout = cancelled.getAndSet(null);
+        while (timeout != null) {
+            final Timeout next = timeout.nextCancelled;
+            timeout.nextCancelled = null;
+            final Bucket bucket = timeout.bucket;
+            if (bucket != null) {
+                bucket.remove(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void dispatch(final List<Timeout> due) {
+        for (Timeout timeout : due) {
+            final Expiration expiration = new Expiration(timeout);
+            try {
+                timeout.executor.execute(expiration);
+            } catch (RejectedExecutionException e) {
+                // the executor is shutting down along with its deployment
+                log.debug("Executor rejected timer task " + timeout.task, e);
+            }
+        }
+        // re-arm the fixed rate timeouts once their expirations have captured the current deadline
+        for (Timeout timeout : due) {
+            if (timeout.period > 0 && timeout.state == STATE_SCHEDULED) {
+                timeout.deadline += timeout.period;
+                insert(timeout, tick);
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        public void run() {
+            final List<Timeout> due = new ArrayList<Timeout>();
+            while (running) {
+                final long deadline = waitForNextTick();
+                if (deadline < 0) {
+                    continue;
+                }
+                removeCancelled();
+                transferPending();
+                wheel[(int) (tick & mask)].expire(deadline, due);
+                tick++;
+                try {
+                    dispatch(due);
+                } catch (Throwable t) {
+                    log.error("Failed to dispatch timer tasks", t);
+                }
+                due.clear();
+            }
+        }
+
+        /**
+         * @return the deadline of the current tick, relative to the start time, or -1 if interrupted
+         */
+        private long waitForNextTick() {
+            final long deadline = tickDuration * (tick + 1);
+            for (; ; ) {
+                final long now = System.nanoTime() - startTime;
+                final long sleep = deadline - now;
+                if (sleep <= 0) {
+                    return deadline;
+                }
+                try {
+                    Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleep + 999999));
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return -1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A due timeout, which is run by an executor thread
+     */
+    private final class Expiration implements Runnable {
+        private final Timeout timeout;
+        private final long deadline;
+
+        Expiration(final Timeout timeout) {
+            this.timeout = timeout;
+            this.deadline = timeout.deadline;
+        }
+
+        public void run() {
+            if (timeout.state == STATE_CANCELLED) {
+                return;
+            }
+            recordLag(System.nanoTime() - startTime - deadline);
+            try {
+                timeout.task.run();
+            } catch (Throwable t) {
+                log.error("Timer task " + timeout.task + " failed", t);
+            }
+        }
+    }
+
+    /**
+     * The timeouts of one tick, modulo the wheel size. Only accessed by the wheel thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                tail = timeout;
+            }
+        }
+
+        void remove(final Timeout timeout) {
+            final Timeout next = timeout.next;
+            final Timeout prev = timeout.prev;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expire(final long deadline, final List<Timeout> due) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.state == STATE_CANCELLED) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    if (timeout.expire()) {
+                        due.add(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void clear() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                timeout.discard();
+                timeout = next;
+            }
+            head = tail = null;
+        }
+    }
+
+    /**
+     * The handle of a scheduled task
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private final Executor executor;
+        private final long period;
+        // not private so that the field updater can access it
+        volatile int state = STATE_SCHEDULED;
+
+        // published through the compare and set of the stack they link into
+        private Timeout nextPending;
+        private Timeout nextCancelled;
+
+        // the following fields are only accessed by the wheel thread
+        private long deadline;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        Timeout(final Runnable task, final Executor executor, final long deadline, final long period) {
+            this.task = task;
+            this.executor = executor;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the task. A single action task which is already due will still run.
+         *
+         * @return false if the task had already been cancelled or was due
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_SCHEDULED, STATE_CANCELLED)) {
+                return false;
+            }
+            scheduledCount.decrementAndGet();
+            cancelledCount.incrementAndGet();
+            Timeout head;
+            do {
+                head = cancelled.get();
+                nextCancelled = head;
+            } while (!cancelled.compareAndSet(head, this));
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == STATE_CANCELLED;
+        }
+
+        boolean expire() {
+            if (period > 0) {
+                return state == STATE_SCHEDULED;
+            }
+            if (!STATE_UPDATER.compareAndSet(this, STATE_SCHEDULED, STATE_EXPIRED)) {
+                return false;
+            }
+            scheduledCount.decrementAndGet();
+            return true;
+        }
+
+        void discard() {
+            if (STATE_UPDATER.compareAndSet(this, STATE_SCHEDULED, STATE_CANCELLED)) {
+                scheduledCount.decrementAndGet();
+            }
+        }
+
+        public Runnable getTask() {
+            return task;
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+}
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.wheel;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service that manages the lifecycle of the {@link HashedTimerWheel} shared by the timer services of all deployments
+ */
+public class TimerWheelService implements Service<HashedTimerWheel> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "timer-wheel");
+
+    private volatile HashedTimerWheel timerWheel;
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        final HashedTimerWheel timerWheel = new HashedTimerWheel("EJB Timer Thread");
+        timerWheel.start();
+        this.timerWheel = timerWheel;
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        timerWheel.stop();
+        timerWheel = null;
+    }
+
+    @Override
+    public HashedTimerWheel getValue() throws IllegalStateException, IllegalArgumentException {
+        final HashedTimerWheel timerWheel = this.timerWheel;
+        if (timerWheel == null) {
+            throw new IllegalStateException("Timer wheel is not started");
+        }
+        return timerWheel;
+    }
+}
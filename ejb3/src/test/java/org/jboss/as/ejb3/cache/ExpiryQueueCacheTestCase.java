@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.ejb.client.SessionID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ExpiryQueueCache}
+ */
+public class ExpiryQueueCacheTestCase {
+
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+    private ExpiryQueueCache<Bean> cache;
+    private List<Bean> destroyed;
+
+    static class Bean implements Identifiable {
+        private final SessionID id = SessionID.createSessionID(new byte[]{(byte) ids.incrementAndGet()});
+
+        @Override
+        public SessionID getId() {
+            return id;
+        }
+    }
+
+    @Before
+    public void beforeTest() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.destroyed = new ArrayList<Bean>();
+        this.cache = new ExpiryQueueCache<Bean>(1, TimeUnit.MINUTES, "test", scheduler);
+        this.cache.setStatefulObjectFactory(new StatefulObjectFactory<Bean>() {
+            @Override
+            public Bean createInstance() {
+                return new Bean();
+            }
+
+            @Override
+            public void destroyInstance(Bean instance) {
+                destroyed.add(instance);
+            }
+        });
+        this.cache.start();
+    }
+
+    @After
+    public void afterTest() {
+        this.cache.stop();
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testInactiveBeanExpires() {
+        final Bean bean = cache.create();
+        cache.release(bean);
+        Assert.assertEquals(1, cache.getCacheSize());
+
+        cache.expire(System.currentTimeMillis());
+        Assert.assertEquals("bean expired before its timeout", 1, cache.getCacheSize());
+
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(1, cache.getExpiredCount());
+        Assert.assertEquals(1, destroyed.size());
+        Assert.assertSame(bean, destroyed.get(0));
+        try {
+            cache.get(bean.getId());
+            Assert.fail("Expected NoSuchEJBException");
+        } catch (NoSuchEJBException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBeanInUseDoesNotExpire() {
+        final Bean bean = cache.create();
+        cache.release(bean);
+        Assert.assertSame(bean, cache.get(bean.getId()));
+
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(1, cache.getCacheSize());
+        Assert.assertTrue(destroyed.isEmpty());
+    }
+
+    @Test
+    public void testReusedBeanExpiresFromLastRelease() throws Exception {
+        final Bean bean = cache.create();
+        cache.release(bean);
+        final long firstRelease = System.currentTimeMillis();
+        Thread.sleep(20);
+        cache.get(bean.getId());
+        cache.release(bean);
+
+        // the marker of the first release is stale and must not expire the bean
+        cache.expire(firstRelease + TimeUnit.MINUTES.toMillis(1) + 1);
+        Assert.assertEquals(1, cache.getCacheSize());
+
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(1, destroyed.size());
+    }
+
+    @Test
+    public void testRemove() {
+        final Bean bean = cache.create();
+        cache.release(bean);
+        cache.remove(bean.getId());
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(1, destroyed.size());
+
+        // the queued marker of the removed bean is simply dropped
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(0, cache.getExpiredCount());
+        Assert.assertEquals(1, destroyed.size());
+    }
+
+    @Test
+    public void testStaleMarkersArePurged() throws Exception {
+        final Bean idle = cache.create();
+        cache.release(idle);
+        final Bean busy = cache.create();
+        for (int i = 0; i < 1000; i++) {
+            cache.release(busy);
+            cache.get(busy.getId());
+        }
+        // the purge runs on the scheduler
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (cache.getExpiryQueueSize() > 2 * cache.getCacheSize() + 16 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(cache.getExpiryQueueSize() <= 2 * cache.getCacheSize() + 16);
+
+        cache.purge();
+        // only the marker of the idle bean is left
+        Assert.assertEquals(1, cache.getExpiryQueueSize());
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(1, cache.getCacheSize());
+        Assert.assertSame(idle, destroyed.get(0));
+        Assert.assertSame(busy, cache.get(busy.getId()));
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.as.ejb3.cache.store.OffHeapPassivationStore;
+import org.jboss.as.ejb3.cache.store.PassivationStore;
+import org.jboss.ejb.client.SessionID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PassivatingCache}
+ */
+public class PassivatingCacheTestCase {
+
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private ScheduledExecutorService scheduler;
+    private PassivationStore store;
+    private BeanPassivationManager passivationManager;
+    private PassivatingCache<Bean> cache;
+    private List<Bean> destroyed;
+
+    static class Bean implements Identifiable {
+        private final SessionID id;
+        private int state;
+
+        Bean() {
+            this(SessionID.createSessionID(ByteBuffer.allocate(4).putInt(ids.incrementAndGet()).array()));
+        }
+
+        Bean(final SessionID id) {
+            this.id = id;
+        }
+
+        @Override
+        public SessionID getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Serializes the state field of a bean. Beans with a negative state cannot be serialized.
+     */
+    static class BeanPassivationManager implements PassivationManager<Bean> {
+
+        final Set<Thread> passivatingThreads = new CopyOnWriteArraySet<Thread>();
+
+        @Override
+        public byte[] passivate(final Bean obj) throws IOException {
+            passivatingThreads.add(Thread.currentThread());
+            if (obj.state < 0) {
+                throw new IOException("Not serializable");
+            }
+            return ByteBuffer.allocate(4).putInt(obj.state).array();
+        }
+
+        @Override
+        public Bean activate(final SessionID id, final byte[] state) {
+            final Bean bean = new Bean(id);
+            bean.state = ByteBuffer.wrap(state).getInt();
+            return bean;
+        }
+    }
+
+    @Before
+    public void beforeTest() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.destroyed = new ArrayList<Bean>();
+        this.store = new OffHeapPassivationStore(1024);
+    }
+
+    private void createCache(final long idleTimeout, final int maxSize) {
+        this.passivationManager = new BeanPassivationManager();
+        this.cache = new PassivatingCache<Bean>(1, TimeUnit.MINUTES, idleTimeout, TimeUnit.SECONDS, maxSize, "test", scheduler, passivationManager, store);
+        this.cache.setStatefulObjectFactory(new StatefulObjectFactory<Bean>() {
+            @Override
+            public Bean createInstance() {
+                return new Bean();
+            }
+
+            @Override
+            public void destroyInstance(Bean instance) {
+                destroyed.add(instance);
+            }
+        });
+        this.cache.start();
+    }
+
+    private void awaitPassivatedCount(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (cache.getPassivatedCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, cache.getPassivatedCount());
+    }
+
+    @After
+    public void afterTest() {
+        this.cache.stop();
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testIdleBeanIsPassivatedAndActivated() {
+        createCache(10, -1);
+        final Bean bean = cache.create();
+        bean.state = 42;
+        cache.release(bean);
+
+        cache.passivate(System.currentTimeMillis());
+        Assert.assertEquals("bean passivated before its idle timeout", 0, cache.getPassivatedCount());
+
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+        Assert.assertEquals(1, cache.getPassivatedCount());
+        Assert.assertEquals(1, cache.getPassivationCount());
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(1, cache.getCacheSize());
+
+        final Bean activated = cache.get(bean.getId());
+        Assert.assertNotSame(bean, activated);
+        Assert.assertEquals(bean.getId(), activated.getId());
+        Assert.assertEquals(42, activated.state);
+        Assert.assertEquals(0, cache.getPassivatedCount());
+        Assert.assertEquals(1, cache.getActivationCount());
+        Assert.assertEquals(0, store.size());
+        Assert.assertTrue(destroyed.isEmpty());
+    }
+
+    @Test
+    public void testMaxSizePassivatesLeastRecentlyReleased() throws InterruptedException {
+        createCache(-1, 2);
+        final Bean first = cache.create();
+        final Bean second = cache.create();
+        cache.release(first);
+        cache.release(second);
+        Assert.assertEquals(0, cache.getPassivatedCount());
+
+        final Bean third = cache.create();
+        // the overflow is passivated by the scheduler
+        awaitPassivatedCount(1);
+        Assert.assertEquals(1, store.size());
+
+        // the second bean is still in memory
+        Assert.assertSame(second, cache.get(second.getId()));
+        Assert.assertSame(third, cache.get(third.getId()));
+        // activating the first bean pushes the number in memory over the limit, but the others are in use
+        final Bean activated = cache.get(first.getId());
+        Assert.assertEquals(first.getId(), activated.getId());
+        Assert.assertEquals(0, cache.getPassivatedCount());
+
+        cache.release(second);
+        awaitPassivatedCount(1);
+        Assert.assertNotSame(second, cache.get(second.getId()));
+        // beans are never serialized on the thread which uses the cache
+        Assert.assertFalse(passivationManager.passivatingThreads.isEmpty());
+        Assert.assertFalse(passivationManager.passivatingThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testBeanInUseIsNotPassivated() throws InterruptedException {
+        createCache(10, 0);
+        final Bean bean = cache.create();
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+        Assert.assertEquals(0, cache.getPassivatedCount());
+
+        cache.release(bean);
+        awaitPassivatedCount(1);
+    }
+
+    @Test
+    public void testBeanWhichCannotBePassivatedStaysInMemory() {
+        createCache(10, -1);
+        final Bean bean = cache.create();
+        bean.state = -1;
+        cache.release(bean);
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+        Assert.assertEquals(0, cache.getPassivatedCount());
+        Assert.assertSame(bean, cache.get(bean.getId()));
+    }
+
+    @Test
+    public void testPassivatedBeanExpires() {
+        createCache(10, -1);
+        final Bean bean = cache.create();
+        cache.release(bean);
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+        Assert.assertEquals(1, cache.getPassivatedCount());
+
+        cache.expire(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2));
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(0, cache.getPassivatedCount());
+        Assert.assertEquals(0, store.size());
+        Assert.assertEquals(1, cache.getExpiredCount());
+        // passivated beans are removed without being activated
+        Assert.assertTrue(destroyed.isEmpty());
+        try {
+            cache.get(bean.getId());
+            Assert.fail("Expected NoSuchEJBException");
+        } catch (NoSuchEJBException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRemovePassivatedBean() {
+        createCache(10, -1);
+        final Bean bean = cache.create();
+        bean.state = 7;
+        cache.release(bean);
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+
+        cache.remove(bean.getId());
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(0, store.size());
+        // the bean is activated so that it can be destroyed
+        Assert.assertEquals(1, destroyed.size());
+        Assert.assertEquals(7, destroyed.get(0).state);
+    }
+
+    @Test
+    public void testDiscardPassivatedBean() {
+        createCache(10, -1);
+        final Bean bean = cache.create();
+        cache.release(bean);
+        cache.passivate(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20));
+
+        cache.discard(bean.getId());
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertEquals(0, cache.getPassivatedCount());
+        Assert.assertEquals(0, store.size());
+        Assert.assertTrue(destroyed.isEmpty());
+    }
+
+    @Test
+    public void testStaleMarkersArePurged() {
+        createCache(-1, 100);
+        final Bean idle = cache.create();
+        cache.release(idle);
+        final Bean busy = cache.create();
+        for (int i = 0; i < 1000; i++) {
+            cache.release(busy);
+            cache.get(busy.getId());
+        }
+        cache.passivate(System.currentTimeMillis());
+        // the idle bean is neither passivated nor lost
+        Assert.assertEquals(0, cache.getPassivatedCount());
+        Assert.assertSame(idle, cache.get(idle.getId()));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.cache.store;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.jboss.ejb.client.SessionID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SegmentedPassivationStore} implementations
+ */
+public class SegmentedPassivationStoreTestCase {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    private File directory;
+    private SegmentedPassivationStore store;
+
+    @After
+    public void afterTest() {
+        if (store != null) {
+            store.stop();
+        }
+        if (directory != null) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    private static SessionID id(final int i) {
+        return SessionID.createSessionID(ByteBuffer.allocate(4).putInt(i).array());
+    }
+
+    private static byte[] state(final int length, final int seed) {
+        final byte[] state = new byte[length];
+        for (int i = 0; i < length; i++) {
+            state[i] = (byte) (seed + i);
+        }
+        return state;
+    }
+
+    private File createDirectory() throws Exception {
+        final File file = File.createTempFile("passivation", "");
+        file.delete();
+        return file;
+    }
+
+    @Test
+    public void testOffHeapStore() {
+        store = new OffHeapPassivationStore(SEGMENT_SIZE);
+        store.start();
+        checkStore();
+    }
+
+    @Test
+    public void testMappedFileStore() throws Exception {
+        directory = createDirectory();
+        store = new MappedFilePassivationStore(directory, SEGMENT_SIZE);
+        store.start();
+        checkStore();
+    }
+
+    @Test
+    public void testMappedFileStoreDeletesSegments() throws Exception {
+        directory = createDirectory();
+        store = new MappedFilePassivationStore(directory, SEGMENT_SIZE);
+        store.start();
+        for (int i = 0; i < 10; i++) {
+            store.store(id(i), state(40, i));
+        }
+        Assert.assertEquals(10, directory.listFiles().length);
+        for (int i = 0; i < 10; i++) {
+            store.remove(id(i));
+        }
+        // the current segment and a spare are kept
+        Assert.assertTrue(directory.listFiles().length <= 2);
+        store.stop();
+        Assert.assertEquals(0, directory.listFiles().length);
+        store = null;
+    }
+
+    @Test
+    public void testMostlyUnusedSegmentIsCompacted() {
+        store = new OffHeapPassivationStore(SEGMENT_SIZE);
+        store.start();
+        // two full segments of six entries each, and a third one which is current
+        for (int i = 0; i < 13; i++) {
+            store.store(id(i), state(10, i));
+        }
+        Assert.assertEquals(3 * SEGMENT_SIZE, store.getCapacity());
+        // leaving a single entry in each of the full segments moves it to the current segment, the first segment
+        // released is kept as a spare
+        for (int i = 0; i < 5; i++) {
+            store.remove(id(i));
+            store.remove(id(i + 6));
+        }
+        Assert.assertEquals(2 * SEGMENT_SIZE, store.getCapacity());
+        Assert.assertEquals(3, store.size());
+        Assert.assertTrue(Arrays.equals(state(10, 5), store.load(id(5))));
+        Assert.assertTrue(Arrays.equals(state(10, 11), store.load(id(11))));
+        Assert.assertTrue(Arrays.equals(state(10, 12), store.load(id(12))));
+        Assert.assertEquals(0, store.size());
+    }
+
+    private void checkStore() {
+        // several entries share a segment
+        for (int i = 0; i < 10; i++) {
+            store.store(id(i), state(20, i));
+        }
+        Assert.assertEquals(10, store.size());
+        Assert.assertEquals(4 * SEGMENT_SIZE, store.getCapacity());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(Arrays.equals(state(20, i), store.load(id(i))));
+        }
+        Assert.assertEquals(0, store.size());
+        Assert.assertNull(store.load(id(0)));
+        // only the current segment and a spare are left
+        Assert.assertEquals(2 * SEGMENT_SIZE, store.getCapacity());
+
+        // state larger than a segment gets a segment of its own, which is released once it has been loaded
+        store.store(id(100), state(3 * SEGMENT_SIZE, 100));
+        Assert.assertEquals(5 * SEGMENT_SIZE, store.getCapacity());
+        Assert.assertTrue(Arrays.equals(state(3 * SEGMENT_SIZE, 100), store.load(id(100))));
+        Assert.assertEquals(2 * SEGMENT_SIZE, store.getCapacity());
+
+        // storing under an existing id replaces the previous state
+        store.store(id(1), state(10, 1));
+        store.store(id(1), state(10, 2));
+        Assert.assertEquals(1, store.size());
+        Assert.assertTrue(Arrays.equals(state(10, 2), store.load(id(1))));
+
+        Assert.assertFalse(store.remove(id(1)));
+        store.store(id(2), state(10, 2));
+        Assert.assertTrue(store.remove(id(2)));
+        Assert.assertEquals(0, store.size());
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.entity.entitycache;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ejb.EJBException;
+import javax.ejb.EntityBean;
+import javax.ejb.EntityContext;
+
+import org.jboss.as.ejb3.component.entity.EntityBeanComponentInstance;
+import org.jboss.as.ejb3.pool.InfinitePool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.invocation.Interceptor;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link LRUReadyEntityCache}
+ */
+public class LRUReadyEntityCacheTestCase {
+
+    private final InfinitePool<EntityBeanComponentInstance> pool = new InfinitePool<EntityBeanComponentInstance>(new StatelessObjectFactory<EntityBeanComponentInstance>() {
+        public EntityBeanComponentInstance create() {
+            return new TestInstance();
+        }
+
+        public void destroy(EntityBeanComponentInstance obj) {
+        }
+    });
+
+    static class TestBean implements EntityBean {
+        int loads;
+        int passivations;
+
+        public void ejbActivate() throws EJBException {
+        }
+
+        public void ejbLoad() throws EJBException {
+            loads++;
+        }
+
+        public void ejbPassivate() throws EJBException {
+            passivations++;
+        }
+
+        public void ejbRemove() throws EJBException {
+        }
+
+        public void ejbStore() throws EJBException {
+        }
+
+        public void setEntityContext(EntityContext ctx) throws EJBException {
+        }
+
+        public void unsetEntityContext() throws EJBException {
+        }
+    }
+
+    static class TestInstance extends EntityBeanComponentInstance {
+        TestInstance() {
+            super(null, new AtomicReference<ManagedReference>(new ManagedReference() {
+                private final TestBean bean = new TestBean();
+
+                public void release() {
+                }
+
+                public Object getInstance() {
+                    return bean;
+                }
+            }), null, Collections.<Method, Interceptor>emptyMap());
+        }
+
+        @Override
+        public TestBean getInstance() {
+            return (TestBean) super.getInstance();
+        }
+    }
+
+    private LRUReadyEntityCache cache(final int maxSize, final CommitOption commitOption) {
+        return new LRUReadyEntityCache(pool, maxSize, commitOption, 1);
+    }
+
+    @Test
+    public void testCommitOptionA() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.A);
+        final TestInstance instance = (TestInstance) cache.get("1");
+        Assert.assertEquals("1", instance.getPrimaryKey());
+        cache.release(instance, true);
+
+        Assert.assertSame(instance, cache.get("1"));
+        instance.reloadIfRequired();
+        cache.release(instance, true);
+        Assert.assertEquals(1, instance.getInstance().loads);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getCacheSize());
+    }
+
+    @Test
+    public void testCommitOptionB() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.B);
+        final TestInstance instance = (TestInstance) cache.get("1");
+        cache.release(instance, true);
+        Assert.assertTrue(instance.isReloadRequired());
+
+        Assert.assertSame(instance, cache.get("1"));
+        instance.reloadIfRequired();
+        instance.reloadIfRequired();
+        Assert.assertEquals(2, instance.getInstance().loads);
+        Assert.assertEquals(0, instance.getInstance().passivations);
+    }
+
+    @Test
+    public void testCommitOptionC() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.C);
+        final TestInstance instance = (TestInstance) cache.get("1");
+        cache.release(instance, true);
+        Assert.assertNull(instance.getPrimaryKey());
+        Assert.assertEquals(1, instance.getInstance().passivations);
+        Assert.assertEquals(0, cache.getCacheSize());
+
+        cache.get("1");
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testSharedWhileInUse() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.C);
+        final EntityBeanComponentInstance first = cache.get("1");
+        final EntityBeanComponentInstance second = cache.get("1");
+        Assert.assertSame(first, second);
+        // the second user still holds a reference, so the instance is kept but has to be reloaded
+        cache.release(first, true);
+        Assert.assertEquals("1", first.getPrimaryKey());
+        Assert.assertTrue(first.isReloadRequired());
+        cache.release(second, true);
+        Assert.assertNull(first.getPrimaryKey());
+    }
+
+    @Test
+    public void testRollbackDropsInstance() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.A);
+        final EntityBeanComponentInstance instance = cache.get("1");
+        cache.release(instance, false);
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertNull(instance.getPrimaryKey());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        final LRUReadyEntityCache cache = cache(2, CommitOption.A);
+        final EntityBeanComponentInstance one = cache.get("1");
+        cache.release(one, true);
+        final EntityBeanComponentInstance two = cache.get("2");
+        cache.release(two, true);
+        // touch 1, so that 2 is the least recently used
+        cache.release(cache.get("1"), true);
+
+        final EntityBeanComponentInstance three = cache.get("3");
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals(2, cache.getCacheSize());
+        Assert.assertNull(two.getPrimaryKey());
+        Assert.assertSame(one, cache.get("1"));
+        cache.release(three, true);
+    }
+
+    @Test
+    public void testInUseInstancesAreNotEvicted() {
+        final LRUReadyEntityCache cache = cache(1, CommitOption.A);
+        final EntityBeanComponentInstance one = cache.get("1");
+        final EntityBeanComponentInstance two = cache.get("2");
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertEquals(2, cache.getCacheSize());
+
+        cache.release(one, true);
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNull(one.getPrimaryKey());
+        Assert.assertEquals("2", two.getPrimaryKey());
+    }
+
+    @Test
+    public void testRemovedInstanceIsDropped() {
+        final LRUReadyEntityCache cache = cache(10, CommitOption.A);
+        final EntityBeanComponentInstance instance = cache.get("1");
+        instance.setRemoved(true);
+        cache.release(instance, true);
+        Assert.assertEquals(0, cache.getCacheSize());
+        Assert.assertNotSame(instance, cache.get("1"));
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.concurrency;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ejb.IllegalLoopbackException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Tests the {@link StripedEJBReadWriteLock}
+ */
+public class StripedEJBReadWriteLockTestCase {
+
+    private final StripedEJBReadWriteLock lock = new StripedEJBReadWriteLock(4);
+
+    @Test
+    public void testIllegalLoopBack() throws Exception {
+        final Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            lock.writeLock().tryLock(1, TimeUnit.SECONDS);
+            Assert.fail("Unexpected acquired write lock");
+        } catch (IllegalLoopbackException expected) {
+        } finally {
+            readLock.unlock();
+        }
+        // once the read lock is released the write lock can be obtained again
+        Assert.assertTrue(lock.writeLock().tryLock());
+        lock.writeLock().unlock();
+    }
+
+    @Test
+    public void testSameThreadCanGetWriteThenReadLock() throws Exception {
+        final Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            Assert.assertTrue(lock.readLock().tryLock(2, TimeUnit.SECONDS));
+            lock.readLock().unlock();
+            // reentrant
+            Assert.assertTrue(writeLock.tryLock(2, TimeUnit.SECONDS));
+            writeLock.unlock();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Test
+    public void testReadTimeoutWhileWriteLocked() throws Exception {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread writer = new Thread(new Runnable() {
+            public void run() {
+                lock.writeLock().lock();
+                try {
+                    locked.countDown();
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+        writer.start();
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+        try {
+            Assert.assertFalse("Unexpected obtained a read lock", lock.readLock().tryLock(200, TimeUnit.MILLISECONDS));
+            Assert.assertFalse(lock.readLock().tryLock());
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+        Assert.assertTrue(lock.readLock().tryLock(2, TimeUnit.SECONDS));
+        lock.readLock().unlock();
+    }
+
+    @Test
+    public void testWriteWaitsForReaders() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch locked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final Future<?> reader = executor.submit(new Callable<Void>() {
+                public Void call() throws Exception {
+                    lock.readLock().lock();
+                    try {
+                        locked.countDown();
+                        release.await();
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    return null;
+                }
+            });
+            Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+            // the write lock times out while the reader is active, and doesn't block readers after giving up
+            Assert.assertFalse(lock.writeLock().tryLock(200, TimeUnit.MILLISECONDS));
+            Assert.assertTrue(lock.readLock().tryLock());
+            lock.readLock().unlock();
+
+            final Future<Boolean> writer = executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    final boolean acquired = lock.writeLock().tryLock(10, TimeUnit.SECONDS);
+                    if (acquired) {
+                        lock.writeLock().unlock();
+                    }
+                    return acquired;
+                }
+            });
+            Thread.sleep(100);
+            Assert.assertFalse(writer.isDone());
+            release.countDown();
+            reader.get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(writer.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMutualExclusion() throws Exception {
+        final int threads = 8;
+        final int iterations = 20000;
+        final AtomicInteger activeReaders = new AtomicInteger();
+        final AtomicInteger activeWriters = new AtomicInteger();
+        final AtomicInteger violations = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                final int id = t;
+                futures[t] = executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int i = 0; i < iterations; i++) {
+                            if ((i + id) % 10 == 0) {
+                                lock.writeLock().lock();
+                                try {
+                                    if (activeWriters.incrementAndGet() != 1 || activeReaders.get() != 0) {
+                                        violations.incrementAndGet();
+                                    }
+                                    activeWriters.decrementAndGet();
+                                } finally {
+                                    lock.writeLock().unlock();
+                                }
+                            } else {
+                                lock.readLock().lock();
+                                try {
+                                    activeReaders.incrementAndGet();
+                                    if (activeWriters.get() != 0) {
+                                        violations.incrementAndGet();
+                                    }
+                                    activeReaders.decrementAndGet();
+                                } finally {
+                                    lock.readLock().unlock();
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(0, violations.get());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void testUnlockWithoutLock() {
+        lock.readLock().unlock();
+    }
+}
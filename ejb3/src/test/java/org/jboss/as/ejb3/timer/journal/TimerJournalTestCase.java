@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.TimerJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link TimerJournal}, in particular that it recovers from a crash in the middle of a write or a compaction.
+ * A crash is simulated by abandoning a journal without closing it.
+ */
+public class TimerJournalTestCase {
+
+    private static final String BEAN = "test-bean";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("timer-journal", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory);
+        assertTrue(journal.open().isEmpty());
+        journal.put(BEAN, "a", bytes(1)).await();
+        journal.put(BEAN, "b", bytes(2)).await();
+        journal.put("other-bean", "c", bytes(3)).await();
+        journal.put(BEAN, "a", bytes(4)).await();
+        journal.remove(BEAN, "b").await();
+        journal.close();
+
+        final Map<String, Map<String, byte[]>> timers = new TimerJournal(directory).open();
+        assertEquals(2, timers.size());
+        assertEquals(1, timers.get(BEAN).size());
+        assertArrayEquals(bytes(4), timers.get(BEAN).get("a"));
+        assertArrayEquals(bytes(3), timers.get("other-bean").get("c"));
+    }
+
+    @Test
+    public void testCrashDuringWrite() throws Exception {
+        final TimerJournal crashed = new TimerJournal(directory);
+        crashed.open();
+        crashed.put(BEAN, "a", bytes(1)).await();
+        crashed.put(BEAN, "b", bytes(2)).await();
+        final File file = journalFile();
+        final long complete = file.length();
+        crashed.put(BEAN, "c", bytes(3)).await();
+        // only part of the last record made it to disk
+        truncate(file, complete + (file.length() - complete) / 2);
+
+        final TimerJournal journal = new TimerJournal(directory);
+        Map<String, Map<String, byte[]>> timers = journal.open();
+        assertEquals(2, timers.get(BEAN).size());
+        assertNull(timers.get(BEAN).get("c"));
+        assertEquals(complete, file.length());
+
+        // records written after the recovery must not end up behind the torn one
+        journal.put(BEAN, "d", bytes(4)).await();
+        journal.close();
+        timers = new TimerJournal(directory).open();
+        assertEquals(3, timers.get(BEAN).size());
+        assertArrayEquals(bytes(4), timers.get(BEAN).get("d"));
+    }
+
+    @Test
+    public void testCorruptRecord() throws Exception {
+        final TimerJournal crashed = new TimerJournal(directory);
+        crashed.open();
+        crashed.put(BEAN, "a", bytes(1)).await();
+        final long complete = journalFile().length();
+        crashed.put(BEAN, "b", bytes(2)).await();
+        crashed.put(BEAN, "c", bytes(3)).await();
+        // the second record was garbled, so it and anything after it can not be trusted
+        final RandomAccessFile file = new RandomAccessFile(journalFile(), "rw");
+        try {
+            file.seek(file.length() - 1);
+            final int last = file.read();
+            file.seek(complete + 20);
+            file.write(~last);
+        } finally {
+            file.close();
+        }
+
+        final TimerJournal journal = new TimerJournal(directory);
+        final Map<String, Map<String, byte[]>> timers = journal.open();
+        assertEquals(1, timers.get(BEAN).size());
+        assertArrayEquals(bytes(1), timers.get(BEAN).get("a"));
+        journal.close();
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory, 2, 0);
+        journal.open();
+        for (int i = 0; i < 100; i++) {
+            journal.put(BEAN, "a", bytes(i)).await();
+            journal.put(BEAN, "b", bytes(i)).await();
+        }
+        journal.remove(BEAN, "b").await();
+        assertTrue(journal.getCompactionCount() > 0);
+        assertEquals(1, directory.listFiles().length);
+        journal.close();
+
+        final Map<String, Map<String, byte[]>> timers = new TimerJournal(directory).open();
+        assertEquals(1, timers.get(BEAN).size());
+        assertArrayEquals(bytes(99), timers.get(BEAN).get("a"));
+    }
+
+    @Test
+    public void testCrashDuringCompaction() throws Exception {
+        final TimerJournal crashed = new TimerJournal(directory);
+        crashed.open();
+        crashed.put(BEAN, "a", bytes(1)).await();
+        final File file = journalFile();
+        // the compacted journal was not complete yet when the server crashed
+        final File temp = new File(directory, journalFile(2).getName() + ".tmp");
+        assertTrue(temp.createNewFile());
+
+        final TimerJournal journal = new TimerJournal(directory);
+        final Map<String, Map<String, byte[]>> timers = journal.open();
+        assertArrayEquals(bytes(1), timers.get(BEAN).get("a"));
+        assertFalse(temp.exists());
+        journal.close();
+
+        // the compacted journal was complete but the old one had not been deleted yet
+        final File stale = new File(directory, "stale");
+        assertTrue(file.renameTo(stale));
+        final TimerJournal compacting = new TimerJournal(directory);
+        compacting.open();
+        compacting.put(BEAN, "a", bytes(2)).await();
+        compacting.close();
+        assertTrue(file.renameTo(journalFile(2)));
+        assertTrue(stale.renameTo(file));
+
+        final Map<String, Map<String, byte[]>> replayed = new TimerJournal(directory).open();
+        assertArrayEquals(bytes(2), replayed.get(BEAN).get("a"));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory);
+        journal.open();
+        final int threads = 16;
+        final int timers = 50;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final List<Thread> workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            final String bean = "bean-" + t;
+            final Thread worker = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < timers; i++) {
+                            journal.put(bean, "timer-" + i, bytes(i)).await();
+                        }
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+        assertEquals(threads * timers, journal.getRecordCount());
+        assertTrue("Records were not grouped, " + journal.getWriteCount() + " writes", journal.getWriteCount() < journal.getRecordCount());
+        journal.close();
+
+        final Map<String, Map<String, byte[]>> replayed = new TimerJournal(directory).open();
+        assertEquals(threads, replayed.size());
+        for (Map<String, byte[]> bean : replayed.values()) {
+            assertEquals(timers, bean.size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosed() throws Exception {
+        final TimerJournal journal = new TimerJournal(directory);
+        journal.open();
+        final TimerJournal.Batch batch = journal.put(BEAN, "a", bytes(1));
+        journal.close();
+        batch.await();
+    }
+
+    private File journalFile() {
+        return journalFile(1);
+    }
+
+    private File journalFile(final int generation) {
+        return new File(directory, "timers-" + generation + ".journal");
+    }
+
+    private static void truncate(final File file, final long length) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static byte[] bytes(final int value) {
+        final byte[] bytes = new byte[32];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (value + i);
+        }
+        return bytes;
+    }
+}
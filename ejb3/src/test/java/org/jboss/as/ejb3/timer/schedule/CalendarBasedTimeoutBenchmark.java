@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.schedule;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the time it takes to compute the next timeout of a schedule, with {@link CalendarBasedTimeout} and with
+ * {@link LegacyCalendarBasedTimeout}. Run with <code>-prof gc</code> to see the allocation rate too.
+ * <ul>
+ * <li><code>everySecond</code>: the next timeout is in the same minute</li>
+ * <li><code>weekdays</code>: 09:00 on weekdays, which often moves to a later day</li>
+ * <li><code>lastFriday</code>: the last Friday of the month, a relative day of month which is resolved per month</li>
+ * <li><code>leapDay</code>: the 29th of February, which skips several years</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBasedTimeoutBenchmark {
+
+    private static final String TIME_ZONE = "America/New_York";
+
+    @Param({"legacy", "compiled"})
+    public String implementation;
+
+    @Param({"everySecond", "weekdays", "lastFriday", "leapDay"})
+    public String schedule;
+
+    private CalendarBasedTimeout timeout;
+    private LegacyCalendarBasedTimeout legacy;
+    private Calendar current;
+
+    @Setup
+    public void setup() {
+        final ScheduleExpression expression = new ScheduleExpression().timezone(TIME_ZONE);
+        if ("everySecond".equals(schedule)) {
+            expression.second("*").minute("*").hour("*");
+        } else if ("weekdays".equals(schedule)) {
+            expression.second("0").minute("0").hour("9").dayOfWeek("Mon-Fri");
+        } else if ("lastFriday".equals(schedule)) {
+            expression.second("0").minute("30").hour("17").dayOfMonth("Last Fri");
+        } else {
+            expression.second("0").minute("0").hour("0").dayOfMonth("29").month("Feb");
+        }
+        if ("compiled".equals(implementation)) {
+            timeout = new CalendarBasedTimeout(expression);
+        } else {
+            legacy = new LegacyCalendarBasedTimeout(expression);
+        }
+        current = new GregorianCalendar(TimeZone.getTimeZone(TIME_ZONE));
+        current.clear();
+        current.set(2012, Calendar.MARCH, 15, 10, 30, 15);
+    }
+
+    @Benchmark
+    public Calendar nextTimeout() {
+        if (timeout != null) {
+            return timeout.getNextTimeout(current);
+        }
+        return legacy.getNextTimeout(current);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(CalendarBasedTimeoutBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.schedule;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the timeouts computed by {@link CalendarBasedTimeout} with those of {@link LegacyCalendarBasedTimeout},
+ * for a mix of fixed and random schedules in time zones with and without daylight saving time.
+ * <p/>
+ * The two don't always agree, because the legacy implementation has a few known problems:
+ * <ul>
+ * <li>when it moves to a later day it doesn't always reset the hour, minute and second to their first value,</li>
+ * <li>when both day-of-month and day-of-week are set it can move into a month which isn't in the schedule,</li>
+ * <li>around a daylight saving time change it moves instants instead of local times, which makes it skip or
+ * repeat timeouts, or pick times the schedule doesn't allow.</li>
+ * </ul>
+ * So rather than expecting the same timeout, each timeout has to match the schedule, and the legacy implementation
+ * must never find a matching timeout which is earlier. Both are checked with the attribute classes the legacy
+ * implementation is built from. Within a day of a daylight saving time change only the order is checked, how such a
+ * change is handled is tested separately.
+ */
+public class CalendarBasedTimeoutDifferentialTestCase {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private static final String[] TIME_ZONES = {"UTC", "America/New_York", "America/Sao_Paulo", "Europe/London",
+            "Europe/Moscow", "Asia/Kolkata", "Asia/Tokyo", "Australia/Sydney", "Australia/Lord_Howe", "Pacific/Apia"};
+
+    /**
+     * second, minute, hour, day-of-month, month, day-of-week and year
+     */
+    private static final String[][] SCHEDULES = {
+            {"*", "*", "*", "*", "*", "*", "*"},
+            {"0", "*/15", "*", "*", "*", "*", "*"},
+            {"0", "30", "2", "*", "*", "*", "*"},
+            {"0", "30", "1", "*", "*", "*", "*"},
+            {"15", "15", "5", "*", "*", "*", "*"},
+            {"0", "0", "0", "Last", "*", "*", "*"},
+            {"0", "0", "12", "-3", "*", "*", "*"},
+            {"0", "0", "12", "2nd Fri", "*", "*", "*"},
+            {"0", "0", "12", "Last Mon", "*", "*", "*"},
+            {"0", "0", "12", "5th Wed", "*", "*", "*"},
+            {"0", "0", "12", "31", "*", "*", "*"},
+            {"0", "0", "12", "29", "2", "*", "*"},
+            {"0", "0", "12", "*", "*", "Mon-Fri", "*"},
+            {"0", "0", "12", "13", "*", "Fri", "*"},
+            {"*/10", "*", "9-17", "*", "Jan,Jun-Aug", "*", "*"},
+            {"0", "0", "22-2", "*", "*", "*", "*"},
+            {"0", "0", "0", "1", "1", "*", "2012-2014"},
+            {"0", "0", "0", "1st Sun-Last", "*", "*", "*"},
+            {"0", "0", "3", "*", "*", "0,7", "*"},
+    };
+
+    private static final String[] SECONDS = {"0", "*", "*/15", "10,40", "5-20", "50-10"};
+    private static final String[] MINUTES = {"0", "*", "*/5", "30", "15,45", "50-5"};
+    private static final String[] HOURS = {"*", "0", "1", "2", "12", "9-17", "22-2", "*/6"};
+    private static final String[] DAYS_OF_MONTH = {"*", "*", "1", "15", "31", "Last", "-3", "1st Mon", "2nd Fri",
+            "5th Wed", "Last Sun", "1-7", "1st Sun-Last", "10,20,Last"};
+    private static final String[] MONTHS = {"*", "*", "1", "Feb", "Jun-Aug", "11-2", "3,10"};
+    private static final String[] DAYS_OF_WEEK = {"*", "*", "0", "7", "Mon-Fri", "Sat,Sun", "Fri", "5-1"};
+    private static final String[] YEARS = {"*", "*", "*", "2011-2013", "2012,2014"};
+
+    @Test
+    public void testFixedSchedules() {
+        for (String[] schedule : SCHEDULES) {
+            for (String zone : TIME_ZONES) {
+                compare(schedule, zone, 40, new Random(zone.hashCode()));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomSchedules() {
+        final Random random = new Random(20111017);
+        for (int i = 0; i < 500; i++) {
+            final String[] schedule = {pick(random, SECONDS), pick(random, MINUTES), pick(random, HOURS),
+                    pick(random, DAYS_OF_MONTH), pick(random, MONTHS), pick(random, DAYS_OF_WEEK), pick(random, YEARS)};
+            compare(schedule, pick(random, TIME_ZONES), 20, random);
+        }
+    }
+
+    @Test
+    public void testStartAndEnd() {
+        for (String zone : TIME_ZONES) {
+            final ScheduleExpression expression = expression(new String[]{"0", "0", "12", "*", "*", "Mon-Fri", "*"}, zone);
+            expression.start(new Date(time(zone, 2012, Calendar.MAY, 10, 7, 0, 0)));
+            // the end is inclusive
+            expression.end(new Date(time(zone, 2012, Calendar.MAY, 21, 12, 0, 0)));
+            final CalendarBasedTimeout timeout = new CalendarBasedTimeout(expression);
+            final LegacyCalendarBasedTimeout legacy = new LegacyCalendarBasedTimeout(expression);
+            assertEquals(legacy.getFirstTimeout().getTimeInMillis(), timeout.getFirstTimeout().getTimeInMillis());
+
+            Calendar current = calendar(zone, time(zone, 2012, Calendar.JANUARY, 1, 0, 0, 0));
+            int count = 0;
+            while (true) {
+                final Calendar next = timeout.getNextTimeout(current);
+                final Calendar legacyNext = legacy.getNextTimeout(current);
+                if (next == null) {
+                    assertNull(legacyNext);
+                    break;
+                }
+                assertEquals(format(legacyNext), format(next));
+                current = next;
+                count++;
+            }
+            // 10, 11, 14, 15, 16, 17, 18 and 21 May
+            assertEquals(zone, 8, count);
+        }
+    }
+
+    @Test
+    public void testNonExistentLocalTime() {
+        // the clocks go from 02:00 to 03:00, so 02:30 is 03:30 on that day
+        final CalendarBasedTimeout timeout = timeout(new String[]{"0", "30", "2", "*", "*", "*", "*"}, "America/New_York");
+        Calendar next = timeout.getNextTimeout(calendar("America/New_York", time("America/New_York", 2012, Calendar.MARCH, 10, 3, 0, 0)));
+        assertEquals("2012-03-11 03:30:00 EDT", format(next));
+        next = timeout.getNextTimeout(next);
+        assertEquals("2012-03-12 02:30:00 EDT", format(next));
+    }
+
+    @Test
+    public void testAmbiguousLocalTime() {
+        // the clocks go from 02:00 back to 01:00, so 01:30 happens twice. Only the first one is a timeout.
+        final CalendarBasedTimeout timeout = timeout(new String[]{"0", "30", "1", "*", "*", "*", "*"}, "America/New_York");
+        Calendar next = timeout.getNextTimeout(calendar("America/New_York", time("America/New_York", 2011, Calendar.NOVEMBER, 6, 0, 0, 0)));
+        assertEquals("2011-11-06 01:30:00 EDT", format(next));
+        next = timeout.getNextTimeout(next);
+        assertEquals("2011-11-07 01:30:00 EST", format(next));
+    }
+
+    @Test
+    public void testEverySecondWhileClocksGoBack() {
+        final CalendarBasedTimeout timeout = timeout(new String[]{"*", "*", "*", "*", "*", "*", "*"}, "Europe/London");
+        // the first 01:59:59, an hour after 00:59:59
+        final Calendar current = calendar("Europe/London", time("Europe/London", 2011, Calendar.OCTOBER, 30, 0, 59, 59) + 60 * 60 * 1000);
+        assertEquals("2011-10-30 01:59:59 BST", format(current));
+        final Calendar next = timeout.getNextTimeout(current);
+        assertEquals("2011-10-30 01:00:00 GMT", format(next));
+        assertEquals(1000, next.getTimeInMillis() - current.getTimeInMillis());
+    }
+
+    @Test
+    public void testHalfHourDaylightSaving() {
+        // Lord Howe Island puts the clocks back from 02:00 to 01:30
+        final CalendarBasedTimeout timeout = timeout(new String[]{"0", "0", "*", "*", "*", "*", "*"}, "Australia/Lord_Howe");
+        final Calendar next = timeout.getNextTimeout(calendar("Australia/Lord_Howe", time("Australia/Lord_Howe", 2011, Calendar.APRIL, 3, 1, 0, 0)));
+        assertEquals("2011-04-03 02:00:00 LHST", format(next));
+        assertEquals(90 * 60 * 1000, next.getTimeInMillis() - time("Australia/Lord_Howe", 2011, Calendar.APRIL, 3, 1, 0, 0));
+    }
+
+    /**
+     * Follows a chain of timeouts of the schedule, from a few starting points which include daylight saving time
+     * changes, and compares each timeout with the legacy one for the same current time.
+     */
+    private void compare(final String[] schedule, final String zone, final int timeouts, final Random random) {
+        final TimeZone timeZone = TimeZone.getTimeZone(zone);
+        final CalendarBasedTimeout timeout = timeout(schedule, zone);
+        final LegacyCalendarBasedTimeout legacy = new LegacyCalendarBasedTimeout(expression(schedule, zone));
+        final Matcher matcher = new Matcher(schedule);
+        final long[] starts = {
+                time(zone, 2011, Calendar.MARCH, 12, 23, 59, 59),
+                time(zone, 2011, Calendar.OCTOBER, 29, 0, 0, 0),
+                time(zone, 2012, Calendar.FEBRUARY, 28, 12, 0, 0),
+                time(zone, 2011, Calendar.DECEMBER, 31, 23, 59, 59),
+                time(zone, 2011, Calendar.JANUARY, 1, 0, 0, 0) + (long) (random.nextDouble() * 3 * 365 * DAY)
+        };
+        for (long start : starts) {
+            Calendar current = calendar(zone, start);
+            for (int i = 0; i < timeouts; i++) {
+                final Calendar next = timeout.getNextTimeout(current);
+                final Calendar legacyNext = legacy.getNextTimeout(current);
+                final String message = describe(schedule, zone) + " after " + format(current) + ": "
+                        + format(next) + ", legacy " + format(legacyNext);
+                if (next == null) {
+                    assertTrue(message, legacyNext == null || !matcher.matches(legacyNext));
+                    break;
+                }
+                assertTrue(message, next.after(current));
+                if (!nearDaylightSavingChange(timeZone, current, next, legacyNext)) {
+                    assertTrue(message, matcher.matches(next));
+                    if (legacyNext != null && matcher.matches(legacyNext)) {
+                        assertFalse(message, legacyNext.before(next));
+                    }
+                }
+                current = next;
+            }
+        }
+    }
+
+    /**
+     * Checks the local date and time of a timeout against the schedule
+     */
+    private static final class Matcher {
+        private final Second second;
+        private final Minute minute;
+        private final Hour hour;
+        private final DayOfMonth dayOfMonth;
+        private final Month month;
+        private final DayOfWeek dayOfWeek;
+        private final Year year;
+        private final boolean dayOfMonthWildcard;
+        private final boolean dayOfWeekWildcard;
+
+        Matcher(final String[] schedule) {
+            second = new Second(schedule[0]);
+            minute = new Minute(schedule[1]);
+            hour = new Hour(schedule[2]);
+            dayOfMonth = new DayOfMonth(schedule[3]);
+            month = new Month(schedule[4]);
+            dayOfWeek = new DayOfWeek(schedule[5]);
+            year = new Year(schedule[6]);
+            dayOfMonthWildcard = schedule[3].equals("*");
+            dayOfWeekWildcard = schedule[5].equals("*");
+        }
+
+        boolean matches(final Calendar calendar) {
+            if (!matches(second.getNextMatch(calendar), calendar, Calendar.SECOND)
+                    || !matches(minute.getNextMatch(calendar), calendar, Calendar.MINUTE)
+                    || !matches(hour.getNextMatch(calendar), calendar, Calendar.HOUR_OF_DAY)
+                    || !matches(month.getNextMatch(calendar), calendar, Calendar.MONTH)
+                    || !matches(year.getNextMatch(calendar), calendar, Calendar.YEAR)) {
+                return false;
+            }
+            final boolean dayOfMonthMatches = matches(dayOfMonth.getNextMatch(calendar), calendar, Calendar.DAY_OF_MONTH);
+            final boolean dayOfWeekMatches = matches(dayOfWeek.getNextMatch(calendar), calendar, Calendar.DAY_OF_WEEK);
+            if (dayOfMonthWildcard) {
+                return dayOfWeekMatches;
+            }
+            if (dayOfWeekWildcard) {
+                return dayOfMonthMatches;
+            }
+            return dayOfMonthMatches || dayOfWeekMatches;
+        }
+
+        private static boolean matches(final Integer nextMatch, final Calendar calendar, final int field) {
+            return nextMatch != null && nextMatch == calendar.get(field);
+        }
+    }
+
+    private static boolean nearDaylightSavingChange(final TimeZone zone, final Calendar... calendars) {
+        for (Calendar calendar : calendars) {
+            if (calendar != null) {
+                final long time = calendar.getTimeInMillis();
+                if (zone.getOffset(time - DAY) != zone.getOffset(time + DAY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static CalendarBasedTimeout timeout(final String[] schedule, final String zone) {
+        return new CalendarBasedTimeout(expression(schedule, zone));
+    }
+
+    private static ScheduleExpression expression(final String[] schedule, final String zone) {
+        return new ScheduleExpression().second(schedule[0]).minute(schedule[1]).hour(schedule[2])
+                .dayOfMonth(schedule[3]).month(schedule[4]).dayOfWeek(schedule[5]).year(schedule[6]).timezone(zone);
+    }
+
+    private static long time(final String zone, int year, int month, int day, int hour, int minute, int second) {
+        final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(zone));
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, second);
+        return calendar.getTimeInMillis();
+    }
+
+    private static Calendar calendar(final String zone, final long time) {
+        final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(zone));
+        calendar.setTimeInMillis(time);
+        return calendar;
+    }
+
+    private static String format(final Calendar calendar) {
+        if (calendar == null) {
+            return null;
+        }
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss zzz");
+        format.setTimeZone(calendar.getTimeZone());
+        return format.format(calendar.getTime());
+    }
+
+    private static String describe(final String[] schedule, final String zone) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (String field : schedule) {
+            builder.append(field).append(' ');
+        }
+        return builder.append(zone).append('"').toString();
+    }
+
+    private static String pick(final Random random, final String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.wheel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link HashedTimerWheel}
+ */
+public class HashedTimerWheelTestCase {
+
+    private HashedTimerWheel wheel;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        // a small wheel, so that the timeouts below need several revolutions
+        wheel = new HashedTimerWheel("test-wheel", 5, TimeUnit.MILLISECONDS, 8);
+        wheel.start();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        wheel.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSingleAction() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        wheel.schedule(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, executor, 100, TimeUnit.MILLISECONDS);
+        assertEquals(1, wheel.getScheduledCount());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue("Timeout ran too early", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, wheel.getScheduledCount());
+        assertEquals(1, wheel.getExpiredCount());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final HashedTimerWheel.Timeout timeout = wheel.schedule(new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, executor, 50, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, wheel.getScheduledCount());
+        assertEquals(1, wheel.getCancelledCount());
+
+        Thread.sleep(200);
+        assertEquals(0, runs.get());
+        assertEquals(0, wheel.getExpiredCount());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final HashedTimerWheel.Timeout timeout = wheel.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, executor, 10, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, wheel.getScheduledCount());
+        assertTrue(timeout.cancel());
+        assertEquals(0, wheel.getScheduledCount());
+
+        // give an execution which was already dispatched the chance to finish
+        Thread.sleep(100);
+        final long expired = wheel.getExpiredCount();
+        Thread.sleep(100);
+        assertEquals(expired, wheel.getExpiredCount());
+    }
+
+    @Test
+    public void testOrdering() throws Exception {
+        final int count = 100;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final long[] ran = new long[count];
+        final long start = System.nanoTime();
+        for (int i = count - 1; i >= 0; i--) {
+            final int index = i;
+            wheel.schedule(new Runnable() {
+                public void run() {
+                    ran[index] = System.nanoTime() - start;
+                    latch.countDown();
+                }
+            }, executor, i * 3, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertTrue("Timeout " + i + " ran too early", ran[i] >= TimeUnit.MILLISECONDS.toNanos(i * 3));
+        }
+        assertEquals(count, wheel.getExpiredCount());
+    }
+
+    @Test
+    public void testSlowTaskDoesNotDelayTimeoutsOfSameTick() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch fast = new CountDownLatch(1);
+        wheel.schedule(new Runnable() {
+            public void run() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, executor, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(new Runnable() {
+            public void run() {
+                fast.countDown();
+            }
+        }, executor, 20, TimeUnit.MILLISECONDS);
+        try {
+            // the second timeout gets the other pool thread instead of queueing behind the first one
+            assertTrue(fast.await(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testLateTimeouts() throws Exception {
+        // a single thread which is blocked makes all timeouts dispatched to it late
+        final ExecutorService blocked = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            blocked.execute(new Runnable() {
+                public void run() {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            final CountDownLatch latch = new CountDownLatch(10);
+            for (int i = 0; i < 10; i++) {
+                wheel.schedule(new Runnable() {
+                    public void run() {
+                        latch.countDown();
+                    }
+                }, blocked, 0, TimeUnit.MILLISECONDS);
+            }
+            Thread.sleep(200);
+            release.countDown();
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(10, wheel.getLateCount());
+            assertTrue(wheel.getMaxLag() >= 150);
+            assertTrue(wheel.getAverageLag() >= 150);
+        } finally {
+            blocked.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterStop() {
+        wheel.stop();
+        wheel.schedule(new Runnable() {
+            public void run() {
+            }
+        }, executor, 0, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer.wheel;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.timerservice.wheel.HashedTimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link java.util.Timer} and the {@link HashedTimerWheel} with 1M timers.
+ * <ul>
+ * <li><code>scheduleAndCancel</code> schedules 1M interval timers, spread over the first hour and repeating every
+ * hour, and then cancels all of them again. This is what happens when a deployment with that many timers is
+ * deployed and undeployed.</li>
+ * <li><code>scheduleAndExpire</code> schedules 1M single action timers, spread over the first 100 milliseconds, and
+ * waits until all of them have run on the executor.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TimerWheelBenchmark {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final Runnable TASK = new Runnable() {
+        public void run() {
+        }
+    };
+
+    @Param({"java.util.Timer", "wheel"})
+    public String scheduler;
+
+    @Param({"1000000"})
+    public int timers;
+
+    private ExecutorService executor;
+    private Timer timer;
+    private HashedTimerWheel wheel;
+
+    @Setup
+    public void setupExecutor() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        if ("wheel".equals(scheduler)) {
+            wheel = new HashedTimerWheel("benchmark-wheel");
+            wheel.start();
+        } else {
+            timer = new Timer("benchmark-timer", true);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+            wheel = null;
+        }
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+
+    @Benchmark
+    public int scheduleAndCancel() {
+        if (wheel != null) {
+            final HashedTimerWheel.Timeout[] timeouts = new HashedTimerWheel.Timeout[timers];
+            for (int i = 0; i < timers; i++) {
+                timeouts[i] = wheel.scheduleAtFixedRate(TASK, executor, delay(i, HOUR), HOUR, TimeUnit.MILLISECONDS);
+            }
+            for (HashedTimerWheel.Timeout timeout : timeouts) {
+                timeout.cancel();
+            }
+            return wheel.getScheduledCount();
+        } else {
+            final TimerTask[] tasks = new TimerTask[timers];
+            for (int i = 0; i < timers; i++) {
+                tasks[i] = new ExecutorTask(TASK);
+                timer.scheduleAtFixedRate(tasks[i], delay(i, HOUR), HOUR);
+            }
+            for (TimerTask task : tasks) {
+                task.cancel();
+            }
+            // without a purge the cancelled tasks stay in the queue until they would have been due
+            return timer.purge();
+        }
+    }
+
+    @Benchmark
+    public void scheduleAndExpire() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(timers);
+        final Runnable task = new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < timers; i++) {
+            if (wheel != null) {
+                wheel.schedule(task, executor, delay(i, 100), TimeUnit.MILLISECONDS);
+            } else {
+                timer.schedule(new ExecutorTask(task), delay(i, 100));
+            }
+        }
+        latch.await();
+    }
+
+    /**
+     * Spreads the timers evenly, but not in order, over the range
+     */
+    private long delay(final int i, final long range) {
+        return (i * 2654435761L & Long.MAX_VALUE) % timers * range / timers;
+    }
+
+    /**
+     * Hands the task off to the executor, as the timer service did before it used the wheel
+     */
+    private final class ExecutorTask extends TimerTask {
+        private final Runnable task;
+
+        ExecutorTask(final Runnable task) {
+            this.task = task;
+        }
+
+        public void run() {
+            executor.execute(task);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(TimerWheelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -55,8 +55,10 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.ProxyOperationAddressTranslator;
+import org.jboss.as.controller.ReadOnlyOperationExecutorService;
 import org.jboss.as.controller.client.helpers.domain.ServerStatus;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.common.ReadOperationStatisticsHandler;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
@@ -138,9 +140,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
         DomainModelControllerService service = new DomainModelControllerService(environment, processState,
                 hostControllerInfo, new HostControllerConfigurationPersister(environment, hostControllerInfo),
                 hostProxies, serverProxies, prepareStepHandler);
+        final ServiceName readOnlyExecutorName = ReadOnlyOperationExecutorService.addService(serviceTarget, SERVICE_NAME);
         return serviceTarget.addService(SERVICE_NAME, service)
                 .addDependency(HostControllerBootstrap.SERVICE_NAME_BASE.append("executor"), ExecutorService.class, service.injectedExecutorService)
                 .addDependency(ProcessControllerConnectionService.SERVICE_NAME, ProcessControllerConnectionService.class, service.injectedProcessControllerConnection)
+                .addDependency(readOnlyExecutorName, ExecutorService.class, service.getReadOnlyExecutorInjector())
                 .setInitialMode(ServiceController.Mode.ACTIVE)
                 .install();
     }
@@ -250,6 +254,8 @@ public class DomainModelControllerService extends AbstractControllerService impl
         DomainModelUtil.updateCoreModel(rootResource.getModel());
         HostModelUtil.createHostRegistry(rootRegistration, configurationPersister, environment, localFileRepository,
                 hostControllerInfo, new DelegatingServerInventory(), remoteFileRepository, this, this);
+        ReadOperationStatisticsHandler.registerMetrics(rootRegistration.getSubModel(PathAddress.pathAddress(PathElement.pathElement(HOST),
+                PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.MANAGEMENT))), getReadOperationStatistics());
         this.modelNodeRegistration = rootRegistration;
     }
 
@@ -231,7 +231,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 }
             });
 
+            // Process requests from the domain controller concurrently, and compress them if it supports compression
+            channel.setRequestExecutor(executor);
             channel.startReceiving();
+            channel.setCompressionEnabled(true);
 
             masterProxy = new ExistingChannelModelControllerClient(channel);
         } catch (IOException e) {
@@ -24,10 +24,12 @@ package org.jboss.as.jmx.model;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
@@ -56,10 +58,10 @@ import org.jboss.as.controller.ModelController.OperationTransactionControl;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
-import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
 import org.jboss.as.server.operations.RootResourceHack;
 import org.jboss.as.server.operations.RootResourceHack.ResourceAndRegistration;
 import org.jboss.dmr.ModelNode;
@@ -74,6 +76,7 @@ class ModelControllerMBeanHelper {
     private final boolean standalone;
     private final ModelController controller;
     private final PathAddress CORE_SERVICE_PLATFORM_MBEAN = PathAddress.pathAddress(PathElement.pathElement("core-service", "platform-mbean"));
+    private final ObjectNameIndex index = new ObjectNameIndex(CORE_SERVICE_PLATFORM_MBEAN);
 
     ModelControllerMBeanHelper(ModelController controller) {
         this.controller = controller;
@@ -91,79 +94,45 @@ class ModelControllerMBeanHelper {
     }
 
     int getMBeanCount() {
-        return new RootResourceIterator<Integer>(getRootResourceAndRegistration().getResource(), new ResourceAction<Integer>() {
-            int count;
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                count++;
-                return true;
-            }
-
-            public Integer getResult() {
-                return count;
-            }
-        }).iterate();
+        return getIndex(getRootResourceAndRegistration()).size();
     }
 
     Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectInstance>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectInstance>>() {
-            Set<ObjectInstance> set = new HashSet<ObjectInstance>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(new ObjectInstance(resourceName, CLASS_NAME));
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectInstance> getResult() {
-                return set;
-            }
-        }).iterate();
+        Set<ObjectInstance> set = new HashSet<ObjectInstance>();
+        for (ObjectName resourceName : queryNames(name, query)) {
+            set.add(new ObjectInstance(resourceName, CLASS_NAME));
+        }
+        return set;
     }
 
     Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectName>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectName>>() {
-            Set<ObjectName> set = new HashSet<ObjectName>();
+        //TODO check query
+        return getIndex(getRootResourceAndRegistration()).query(name);
+    }
 
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(resourceName);
-                }
-                return true;
-            }
 
-            @Override
-            public Set<ObjectName> getResult() {
-                return set;
-            }
-        }).iterate();
+    PathAddress resolvePathAddress(final ObjectName name) {
+        return resolvePathAddress(getRootResourceAndRegistration(), name);
     }
 
+    private PathAddress resolvePathAddress(final ResourceAndRegistration reg, final ObjectName name) {
+        final PathAddress address = getIndex(reg).getPathAddress(name);
+        if (address != null) {
+            return address;
+        }
+        // Not indexed, either because it does not exist or because it is below an excluded address
+        return ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+    }
 
-    PathAddress resolvePathAddress(final ObjectName name) {
-        return ObjectNameAddressUtil.resolvePathAddress(getRootResourceAndRegistration().getResource(), name);
+    private ObjectNameIndex getIndex(final ResourceAndRegistration reg) {
+        index.update(reg.getResource());
+        return index;
     }
 
 
     MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException {
         ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -173,7 +142,7 @@ class ModelControllerMBeanHelper {
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -182,28 +151,73 @@ class ModelControllerMBeanHelper {
 
     AttributeList getAttributes(ObjectName name, String[] attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
         AttributeList list = new AttributeList();
-        for (String attribute : attributes) {
+        if (attributes.length == 0) {
+            return list;
+        }
+        if (attributes.length == 1) {
             try {
-                list.add(new Attribute(attribute, getAttribute(reg, address, name, attribute)));
+                list.add(new Attribute(attributes[0], getAttribute(reg, address, name, attributes[0])));
             } catch (AttributeNotFoundException e) {
                 throw new ReflectionException(e);
             }
+            return list;
+        }
+
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final ModelNode description = getModelDescription(registration, address);
+        final String[] attributeNames = new String[attributes.length];
+        final boolean[] runtime = new boolean[attributes.length];
+        boolean includeConfiguration = false;
+        try {
+            for (int i = 0 ; i < attributes.length ; i++) {
+                attributeNames[i] = findAttributeName(description.get(ATTRIBUTES), attributes[i]);
+                AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeNames[i]);
+                runtime[i] = access != null && access.getStorageType() != AttributeAccess.Storage.CONFIGURATION;
+                includeConfiguration |= !runtime[i];
+            }
+        } catch (AttributeNotFoundException e) {
+            throw new ReflectionException(e);
+        }
+
+        //Read all the configuration attributes in one go rather than executing a read-attribute operation for each of them.
+        //Runtime attributes are read one by one, since including them in read-resource would run the read handlers
+        //of all the runtime attributes of the resource and not just the requested ones
+        ModelNode values = null;
+        if (includeConfiguration) {
+            ModelNode op = new ModelNode();
+            op.get(OP).set(READ_RESOURCE_OPERATION);
+            op.get(OP_ADDR).set(address.toModelNode());
+            op.get(INCLUDE_RUNTIME).set(false);
+            ModelNode result = execute(op);
+            String error = getFailureDescription(result);
+            if (error != null) {
+                throw new ReflectionException(new AttributeNotFoundException(error));
+            }
+            values = result.get(RESULT);
+        }
+        for (int i = 0 ; i < attributes.length ; i++) {
+            if (runtime[i]) {
+                try {
+                    list.add(new Attribute(attributes[i], getAttribute(reg, address, name, attributes[i])));
+                } catch (AttributeNotFoundException e) {
+                    throw new ReflectionException(e);
+                }
+            } else {
+                list.add(new Attribute(attributes[i],
+                        TypeConverter.fromModelNode(description.require(ATTRIBUTES).require(attributeNames[i]), values.get(attributeNames[i]))));
+            }
         }
         return list;
     }
 
     private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw new InstanceNotFoundException("No description provider found for " + address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
+        final ModelNode description = getModelDescription(registration, address);
         final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
 
         ModelNode op = new ModelNode();
@@ -222,7 +236,7 @@ class ModelControllerMBeanHelper {
 
     void setAttribute(ObjectName name, Attribute attribute) throws InstanceNotFoundException, AttributeNotFoundException, InvalidAttributeValueException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -232,7 +246,7 @@ class ModelControllerMBeanHelper {
 
     AttributeList setAttributes(ObjectName name, AttributeList attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -300,7 +314,7 @@ class ModelControllerMBeanHelper {
         }
 
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -399,6 +413,14 @@ class ModelControllerMBeanHelper {
         return resourceRegistration;
     }
 
+    private ModelNode getModelDescription(ImmutableManagementResourceRegistration registration, PathAddress address) throws InstanceNotFoundException {
+        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        if (provider == null) {
+            throw new InstanceNotFoundException("No description provider found for " + address);
+        }
+        return provider.getModelDescription(null);
+    }
+
     private String getFailureDescription(ModelNode result) {
         if (result.hasDefined(FAILURE_DESCRIPTION)) {
             return result.get(FAILURE_DESCRIPTION).asString();
@@ -418,7 +440,4 @@ class ModelControllerMBeanHelper {
         throw new AttributeNotFoundException("Could not find any attribute matching: " + attributeName);
     }
 
-    private boolean isExcludeAddress(PathAddress pathAddress) {
-        return pathAddress.equals(CORE_SERVICE_PLATFORM_MBEAN);
-    }
 }
@@ -0,0 +1,230 @@
+/*
+* JBoss, Home of Professional Open Source.
+* Copyright 2011, Red Hat Middleware LLC, and individual contributors
+* as indicated by the @author tags. See the copyright.txt file in the
+* distribution for a full listing of individual contributors.
+*
+* This is free software; you can redistribute it and/or modify it
+* under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation; either version 2.1 of
+* the License, or (at your option) any later version.
+*
+* This software is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+* Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this software; if not, write to the Free
+* Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+* 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+*/
+package org.jboss.as.jmx.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+
+/**
+ * An index of the {@link ObjectName}s of the resources in the management model.
+ * <p/>
+ * The index mirrors the resource tree and remembers which resource it last saw at each address. Writes to the model
+ * only copy the resources on the path from the root to the changed resource, and the rest of a newly published model
+ * is shared with the previous one. So {@link #update(Resource)} only descends into resources which have changed since
+ * the last update, and only creates object names for resources which were added. Resources which are not plain
+ * {@link Resource.Factory#create() model resources}, such as runtime resources which look up their children in a
+ * running service, are always descended into, as are their ancestors.
+ * <p/>
+ * The names are also indexed by their key properties, so that queries for a pattern with fixed key properties only
+ * have to check the names which have those properties instead of all names.
+ */
+class ObjectNameIndex {
+
+    /** The class of the resources created by the controller, whose children are only those registered with them */
+    private static final Class<?> BASIC_RESOURCE_CLASS = Resource.Factory.create().getClass();
+
+    private final Set<PathAddress> excludedAddresses;
+    private final Node root = new Node(PathAddress.EMPTY_ADDRESS, Constants.ROOT_MODEL_NAME);
+    private final Map<ObjectName, PathAddress> addresses = new HashMap<ObjectName, PathAddress>();
+    /** The names keyed by key property name, and then by key property value */
+    private final Map<String, Map<String, Set<ObjectName>>> properties = new HashMap<String, Map<String, Set<ObjectName>>>();
+
+    /**
+     * Creates a new index.
+     *
+     * @param excludedAddresses the addresses which should not be indexed, along with all their children
+     */
+    ObjectNameIndex(final PathAddress... excludedAddresses) {
+        this.excludedAddresses = new HashSet<PathAddress>();
+        Collections.addAll(this.excludedAddresses, excludedAddresses);
+        add(root);
+    }
+
+    /**
+     * Brings the index up to date with the model.
+     *
+     * @param rootResource the root resource of the model
+     */
+    synchronized void update(final Resource rootResource) {
+        update(root, rootResource);
+    }
+
+    /**
+     * Gets the number of indexed names.
+     *
+     * @return the number of names
+     */
+    synchronized int size() {
+        return addresses.size();
+    }
+
+    /**
+     * Gets the address of the resource with a given name.
+     *
+     * @param name the name
+     * @return the address, or {@code null} if the name is not in the index
+     */
+    synchronized PathAddress getPathAddress(final ObjectName name) {
+        return addresses.get(name);
+    }
+
+    /**
+     * Gets the indexed names matching a name, which may be a pattern.
+     *
+     * @param name the name or pattern, {@code null} matches all names
+     * @return the matching names
+     */
+    synchronized Set<ObjectName> query(final ObjectName name) {
+        if (name == null) {
+            return new HashSet<ObjectName>(addresses.keySet());
+        }
+        if (!name.isPattern()) {
+            return addresses.containsKey(name) ? Collections.singleton(name) : Collections.<ObjectName>emptySet();
+        }
+        if (!name.isDomainPattern() && !name.getDomain().equals(Constants.DOMAIN)) {
+            return Collections.emptySet();
+        }
+        // Only check the names which have the least common of the fixed key properties of the pattern
+        Set<ObjectName> candidates = addresses.keySet();
+        for (Map.Entry<String, String> property : name.getKeyPropertyList().entrySet()) {
+            if (name.isPropertyValuePattern(property.getKey())) {
+                continue;
+            }
+            final Map<String, Set<ObjectName>> values = properties.get(property.getKey());
+            final Set<ObjectName> names = values == null ? null : values.get(property.getValue());
+            if (names == null) {
+                return Collections.emptySet();
+            }
+            if (names.size() < candidates.size()) {
+                candidates = names;
+            }
+        }
+        final Set<ObjectName> result = new HashSet<ObjectName>();
+        for (ObjectName candidate : candidates) {
+            if (name.apply(candidate)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private void update(final Node node, final Resource resource) {
+        if (node.resource == resource && !node.dynamic) {
+            // Published basic resources are not modified, only replaced
+            return;
+        }
+        node.resource = resource;
+        // Runtime, proxy and custom resources may however provide their children dynamically, so they and their
+        // ancestors always need to be checked
+        boolean dynamic = resource.getClass() != BASIC_RESOURCE_CLASS || resource.isRuntime() || resource.isProxy();
+        final Set<PathElement> elements = new HashSet<PathElement>();
+        for (String type : resource.getChildTypes()) {
+            for (String childName : resource.getChildrenNames(type)) {
+                final PathElement element = PathElement.pathElement(type, childName);
+                final Resource child = resource.getChild(element);
+                if (child == null) {
+                    continue;
+                }
+                elements.add(element);
+                Node childNode = node.children.get(element);
+                if (childNode == null) {
+                    final PathAddress address = node.address.append(element);
+                    if (excludedAddresses.contains(address)) {
+                        continue;
+                    }
+                    childNode = new Node(address, ObjectNameAddressUtil.createObjectName(address));
+                    node.children.put(element, childNode);
+                    add(childNode);
+                }
+                update(childNode, child);
+                dynamic |= childNode.dynamic;
+            }
+        }
+        node.dynamic = dynamic;
+        for (Iterator<Map.Entry<PathElement, Node>> it = node.children.entrySet().iterator(); it.hasNext();) {
+            final Map.Entry<PathElement, Node> entry = it.next();
+            if (!elements.contains(entry.getKey())) {
+                it.remove();
+                remove(entry.getValue());
+            }
+        }
+    }
+
+    private void add(final Node node) {
+        addresses.put(node.name, node.address);
+        for (Map.Entry<String, String> property : node.name.getKeyPropertyList().entrySet()) {
+            Map<String, Set<ObjectName>> values = properties.get(property.getKey());
+            if (values == null) {
+                values = new HashMap<String, Set<ObjectName>>();
+                properties.put(property.getKey(), values);
+            }
+            Set<ObjectName> names = values.get(property.getValue());
+            if (names == null) {
+                names = new HashSet<ObjectName>();
+                values.put(property.getValue(), names);
+            }
+            names.add(node.name);
+        }
+    }
+
+    private void remove(final Node node) {
+        for (Node child : node.children.values()) {
+            remove(child);
+        }
+        addresses.remove(node.name);
+        for (Map.Entry<String, String> property : node.name.getKeyPropertyList().entrySet()) {
+            final Map<String, Set<ObjectName>> values = properties.get(property.getKey());
+            final Set<ObjectName> names = values.get(property.getValue());
+            names.remove(node.name);
+            if (names.isEmpty()) {
+                values.remove(property.getValue());
+                if (values.isEmpty()) {
+                    properties.remove(property.getKey());
+                }
+            }
+        }
+    }
+
+    private static class Node {
+        private final PathAddress address;
+        private final ObjectName name;
+        private final Map<PathElement, Node> children = new HashMap<PathElement, Node>();
+        private Resource resource;
+        /** Whether the resource or one of its descendants is not a plain model resource */
+        private boolean dynamic;
+
+        Node(final PathAddress address, final ObjectName name) {
+            this.address = address;
+            this.name = name;
+        }
+    }
+}
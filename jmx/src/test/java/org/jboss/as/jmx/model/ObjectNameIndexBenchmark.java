@@ -0,0 +1,170 @@
+/*
+* JBoss, Home of Professional Open Source.
+* Copyright 2011, Red Hat Middleware LLC, and individual contributors
+* as indicated by the @author tags. See the copyright.txt file in the
+* distribution for a full listing of individual contributors.
+*
+* This is free software; you can redistribute it and/or modify it
+* under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation; either version 2.1 of
+* the License, or (at your option) any later version.
+*
+* This software is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+* Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this software; if not, write to the Free
+* Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+* 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+*/
+package org.jboss.as.jmx.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures looking up the MBeans of a model of 5k resources, spread over 50 subsystems with 100 resources each.
+ * <ul>
+ * <li><code>iterate</code> walks the whole model and creates the object name of every resource, which is what
+ * {@link ModelControllerMBeanHelper} used to do for every query.</li>
+ * <li><code>index</code> uses an {@link ObjectNameIndex}, which is brought up to date before every lookup.</li>
+ * </ul>
+ * <code>queryAfterWrite</code> writes to one resource of the model before the query, the way an operation would, so
+ * the index has to check the path to that resource again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectNameIndexBenchmark {
+
+    private static final int SUBSYSTEMS = 50;
+
+    @Param({"iterate", "index"})
+    public String lookup;
+
+    @Param({"5000"})
+    public int resources;
+
+    private Resource published;
+    private ObjectNameIndex index;
+    private PathElement[] subsystems;
+    private PathElement[] children;
+    private ObjectName subsystemPattern;
+    private ObjectName childPattern;
+    private ObjectName name;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        subsystems = new PathElement[SUBSYSTEMS];
+        children = new PathElement[resources / SUBSYSTEMS - 1];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = PathElement.pathElement("child", "child-" + i);
+        }
+        published = Resource.Factory.create();
+        for (int i = 0; i < subsystems.length; i++) {
+            subsystems[i] = PathElement.pathElement("subsystem", "subsystem-" + i);
+            final Resource subsystem = Resource.Factory.create();
+            for (PathElement element : children) {
+                final Resource child = Resource.Factory.create();
+                child.getModel().get("value").set(0);
+                subsystem.registerChild(element, child);
+            }
+            published.registerChild(subsystems[i], subsystem);
+        }
+        index = new ObjectNameIndex();
+        index.update(published);
+
+        subsystemPattern = ObjectName.getInstance(Constants.DOMAIN + ":subsystem=subsystem-7,*");
+        childPattern = ObjectName.getInstance(Constants.DOMAIN + ":child=child-7,*");
+        name = ObjectNameAddressUtil.createObjectName(PathAddress.pathAddress(subsystems[7], children[7]));
+    }
+
+    @Benchmark
+    public Set<ObjectName> querySubsystem() {
+        return query(subsystemPattern);
+    }
+
+    @Benchmark
+    public Set<ObjectName> queryChild() {
+        return query(childPattern);
+    }
+
+    @Benchmark
+    public PathAddress resolve() {
+        if ("iterate".equals(lookup)) {
+            return ObjectNameAddressUtil.resolvePathAddress(published, name);
+        }
+        index.update(published);
+        return index.getPathAddress(name);
+    }
+
+    @Benchmark
+    public Set<ObjectName> queryAfterWrite() {
+        final int i = next++;
+        final CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        final Resource root = model.getRoot();
+        final Resource subsystem = model.requireChildForUpdate(root, subsystems[i % subsystems.length]);
+        model.requireChildForUpdate(subsystem, children[(i / subsystems.length) % children.length]).getModel().get("value").set(i);
+        published = root;
+        return query(subsystemPattern);
+    }
+
+    private Set<ObjectName> query(final ObjectName pattern) {
+        if ("iterate".equals(lookup)) {
+            return new RootResourceIterator<Set<ObjectName>>(published, new ResourceAction<Set<ObjectName>>() {
+                Set<ObjectName> set = new HashSet<ObjectName>();
+
+                public boolean onResource(PathAddress address) {
+                    ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
+                    if (pattern.apply(resourceName)) {
+                        set.add(resourceName);
+                    }
+                    return true;
+                }
+
+                public Set<ObjectName> getResult() {
+                    return set;
+                }
+            }).iterate();
+        }
+        index.update(published);
+        return index.query(pattern);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(ObjectNameIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
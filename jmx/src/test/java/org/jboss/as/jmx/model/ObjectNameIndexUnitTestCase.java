@@ -0,0 +1,235 @@
+/*
+* JBoss, Home of Professional Open Source.
+* Copyright 2011, Red Hat Middleware LLC, and individual contributors
+* as indicated by the @author tags. See the copyright.txt file in the
+* distribution for a full listing of individual contributors.
+*
+* This is free software; you can redistribute it and/or modify it
+* under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation; either version 2.1 of
+* the License, or (at your option) any later version.
+*
+* This software is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+* Lesser General Public License for more details.
+*
+* You should have received a copy of the GNU Lesser General Public
+* License along with this software; if not, write to the Free
+* Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+* 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+*/
+package org.jboss.as.jmx.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.management.ObjectName;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteModel;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ObjectNameIndex}.
+ */
+public class ObjectNameIndexUnitTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement CHILD_1 = PathElement.pathElement("child", "one");
+    private static final PathElement CHILD_2 = PathElement.pathElement("child", "two");
+    private static final PathElement PLATFORM = PathElement.pathElement("core-service", "platform-mbean");
+
+    @Test
+    public void testIndexModel() throws Exception {
+        ObjectNameIndex index = new ObjectNameIndex(PathAddress.pathAddress(PLATFORM));
+        index.update(createModel());
+
+        //Root, 2 subsystems and 2 children each, but nothing of the excluded resources
+        Assert.assertEquals(7, index.size());
+        Assert.assertEquals(PathAddress.EMPTY_ADDRESS, index.getPathAddress(Constants.ROOT_MODEL_NAME));
+        Assert.assertEquals(PathAddress.pathAddress(SUBSYSTEM_B, CHILD_2), index.getPathAddress(name("subsystem=b,child=two")));
+        Assert.assertEquals(PathAddress.pathAddress(SUBSYSTEM_B, CHILD_2), index.getPathAddress(name("child=two,subsystem=b")));
+        Assert.assertNull(index.getPathAddress(name("core-service=platform-mbean")));
+        Assert.assertNull(index.getPathAddress(name("core-service=platform-mbean,type=runtime")));
+        Assert.assertNull(index.getPathAddress(name("subsystem=c")));
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        ObjectNameIndex index = new ObjectNameIndex(PathAddress.pathAddress(PLATFORM));
+        index.update(createModel());
+
+        Assert.assertEquals(7, index.query(null).size());
+        Assert.assertEquals(7, index.query(ObjectName.getInstance(Constants.DOMAIN + ":*")).size());
+        Assert.assertEquals(7, index.query(ObjectName.getInstance("*:*")).size());
+        Assert.assertEquals(0, index.query(ObjectName.getInstance("other:*")).size());
+
+        assertNames(index.query(name("subsystem=a,*")), "subsystem=a", "subsystem=a,child=one", "subsystem=a,child=two");
+        assertNames(index.query(name("child=one,*")), "subsystem=a,child=one", "subsystem=b,child=one");
+        assertNames(index.query(name("child=one,subsystem=b,*")), "subsystem=b,child=one");
+        assertNames(index.query(name("subsystem=b")), "subsystem=b");
+        assertNames(index.query(name("subsystem=*")), "subsystem=a", "subsystem=b");
+        assertNames(index.query(name("subsystem=a,child=t*")), "subsystem=a,child=two");
+        assertNames(index.query(name("subsystem=c,*")));
+        assertNames(index.query(name("subsystem=c")));
+        assertNames(index.query(name("core-service=*,*")));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        ObjectNameIndex index = new ObjectNameIndex(PathAddress.pathAddress(PLATFORM));
+        Resource published = createModel();
+        index.update(published);
+        ObjectName unchanged = index.query(name("subsystem=b,child=one,*")).iterator().next();
+
+        CopyOnWriteModel model = CopyOnWriteModel.create(published);
+        Resource a = model.requireChildForUpdate(model.getRoot(), SUBSYSTEM_A);
+        model.removeChild(a, CHILD_1);
+        Resource three = Resource.Factory.create();
+        three.registerChild(PathElement.pathElement("entry", "one"), Resource.Factory.create());
+        model.registerChild(a, PathElement.pathElement("child", "three"), three);
+        model.removeChild(model.getRoot(), PLATFORM);
+        index.update(model.getRoot());
+
+        Assert.assertEquals(8, index.size());
+        assertNames(index.query(name("subsystem=a,*")), "subsystem=a", "subsystem=a,child=two", "subsystem=a,child=three",
+                "subsystem=a,child=three,entry=one");
+        assertNames(index.query(name("child=one,*")), "subsystem=b,child=one");
+        Assert.assertNull(index.getPathAddress(name("subsystem=a,child=one")));
+        Assert.assertEquals(PathAddress.pathAddress(SUBSYSTEM_A, PathElement.pathElement("child", "three"), PathElement.pathElement("entry", "one")),
+                index.getPathAddress(name("subsystem=a,child=three,entry=one")));
+        Assert.assertSame(unchanged, index.query(name("subsystem=b,child=one,*")).iterator().next());
+
+        model = CopyOnWriteModel.create(model.getRoot());
+        model.removeChild(model.getRoot(), SUBSYSTEM_A);
+        index.update(model.getRoot());
+        Assert.assertEquals(4, index.size());
+        assertNames(index.query(name("child=one,*")), "subsystem=b,child=one");
+        assertNames(index.query(name("subsystem=a,*")));
+    }
+
+    @Test
+    public void testUpdateCustomResource() throws Exception {
+        ObjectNameIndex index = new ObjectNameIndex();
+        Resource root = Resource.Factory.create();
+        //A resource which, like a runtime resource backed by a service, changes its children without being replaced
+        DelegatingResource custom = new DelegatingResource(Resource.Factory.create());
+        custom.registerChild(CHILD_1, Resource.Factory.create());
+        root.registerChild(SUBSYSTEM_A, custom);
+        index.update(root);
+        assertNames(index.query(name("subsystem=a,*")), "subsystem=a", "subsystem=a,child=one");
+
+        custom.registerChild(CHILD_2, Resource.Factory.create());
+        index.update(root);
+        assertNames(index.query(name("subsystem=a,*")), "subsystem=a", "subsystem=a,child=one", "subsystem=a,child=two");
+
+        custom.removeChild(CHILD_1);
+        index.update(root);
+        assertNames(index.query(name("subsystem=a,*")), "subsystem=a", "subsystem=a,child=two");
+    }
+
+    private static Resource createModel() {
+        Resource root = Resource.Factory.create();
+        for (PathElement subsystemElement : new PathElement[] {SUBSYSTEM_A, SUBSYSTEM_B}) {
+            Resource subsystem = Resource.Factory.create();
+            subsystem.registerChild(CHILD_1, Resource.Factory.create());
+            subsystem.registerChild(CHILD_2, Resource.Factory.create());
+            root.registerChild(subsystemElement, subsystem);
+        }
+        Resource platform = Resource.Factory.create();
+        platform.registerChild(PathElement.pathElement("type", "runtime"), Resource.Factory.create());
+        root.registerChild(PLATFORM, platform);
+        return root;
+    }
+
+    private static ObjectName name(String properties) throws Exception {
+        return ObjectName.getInstance(Constants.DOMAIN + ":" + properties);
+    }
+
+    private static class DelegatingResource implements Resource {
+        private final Resource delegate;
+
+        DelegatingResource(Resource delegate) {
+            this.delegate = delegate;
+        }
+
+        public ModelNode getModel() {
+            return delegate.getModel();
+        }
+
+        public void writeModel(ModelNode newModel) {
+            delegate.writeModel(newModel);
+        }
+
+        public boolean isModelDefined() {
+            return delegate.isModelDefined();
+        }
+
+        public boolean hasChild(PathElement element) {
+            return delegate.hasChild(element);
+        }
+
+        public Resource getChild(PathElement element) {
+            return delegate.getChild(element);
+        }
+
+        public Resource requireChild(PathElement element) {
+            return delegate.requireChild(element);
+        }
+
+        public boolean hasChildren(String childType) {
+            return delegate.hasChildren(childType);
+        }
+
+        public Resource navigate(PathAddress address) {
+            return delegate.navigate(address);
+        }
+
+        public Set<String> getChildTypes() {
+            return delegate.getChildTypes();
+        }
+
+        public Set<String> getChildrenNames(String childType) {
+            return delegate.getChildrenNames(childType);
+        }
+
+        public Set<ResourceEntry> getChildren(String childType) {
+            return delegate.getChildren(childType);
+        }
+
+        public void registerChild(PathElement address, Resource resource) {
+            delegate.registerChild(address, resource);
+        }
+
+        public Resource removeChild(PathElement address) {
+            return delegate.removeChild(address);
+        }
+
+        public boolean isRuntime() {
+            return false;
+        }
+
+        public boolean isProxy() {
+            return false;
+        }
+
+        public Resource clone() {
+            return new DelegatingResource(delegate.clone());
+        }
+    }
+
+    private static void assertNames(Set<ObjectName> names, String... expected) throws Exception {
+        Set<ObjectName> expectedNames = new HashSet<ObjectName>();
+        for (String properties : expected) {
+            expectedNames.add(name(properties));
+        }
+        Assert.assertEquals(expectedNames, names);
+    }
+}
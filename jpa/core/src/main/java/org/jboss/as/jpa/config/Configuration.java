@@ -119,6 +119,12 @@ public class Configuration {
      */
     public static final String ADAPTER_CLASS = "jboss.as.jpa.adapterClass";
 
+    /**
+     * maximum number of idle entity managers kept for reuse by transaction scoped entity managers that are used
+     * without a JTA transaction. Pooling is disabled if this is not specified or zero.
+     */
+    public static final String NON_TX_ENTITY_MANAGER_POOL_SIZE = "jboss.as.jpa.nonTxEntityManagerPoolSize";
+
     // key = provider class name, value = module name
     private static final Map<String,String> providerClassToModuleName = new HashMap<String,String>();
 
@@ -24,6 +24,7 @@ package org.jboss.as.jpa.container;
 
 import javax.persistence.EntityManager;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import static org.jboss.as.jpa.JpaLogger.ROOT_LOGGER;
@@ -40,6 +41,12 @@ public class NonTxEmCloser {
      */
     public static ThreadLocalStack<Map<String, EntityManager>> nonTxStack = new ThreadLocalStack<Map<String, EntityManager>>();
 
+    /**
+     * Entity managers that were taken from a pool, key = the entity manager.  The map is only created if a
+     * pool is used.
+     */
+    private static ThreadLocalStack<Map<EntityManager, NonTxEntityManagerPool>> pooledStack = new ThreadLocalStack<Map<EntityManager, NonTxEntityManagerPool>>();
+
     /**
      * entered new session bean invocation, start new collection for tracking transactional entity managers created
      * without a JTA transaction.
@@ -47,16 +54,23 @@ public class NonTxEmCloser {
     public static void pushCall() {
         nonTxStack.push(null);          // to conserve memory/cpu cycles, push a null placeholder that will only get replaced
         // with a Map if we actually need it (in add() below).
+        pooledStack.push(null);
     }
 
     /**
      * current session bean invocation is ending, close any transactional entity managers created without a JTA
-     * transaction.
+     * transaction.  Entity managers taken from a pool are returned to it instead.
      */
     public static void popCall() {
         Map<String, EntityManager> emStack = nonTxStack.pop();
+        Map<EntityManager, NonTxEntityManagerPool> pooled = pooledStack.pop();
         if (emStack != null) {
             for (EntityManager entityManager : emStack.values()) {
+                NonTxEntityManagerPool pool = pooled != null ? pooled.get(entityManager) : null;
+                if (pool != null) {
+                    pool.release(entityManager);
+                    continue;
+                }
                 try {
                     entityManager.close();
                 } catch (RuntimeException safeToIgnore) {
@@ -96,4 +110,35 @@ public class NonTxEmCloser {
             map.put(puScopedName, entityManager);
         }
     }
+
+    /**
+     * Register an entity manager taken from a pool, it will be returned to the pool when the current invocation
+     * ends.
+     */
+    public static void add(String puScopedName, EntityManager entityManager, NonTxEntityManagerPool pool) {
+        if (pooledStack.getList() == null) {
+            return;
+        }
+        add(puScopedName, entityManager);
+        Map<EntityManager, NonTxEntityManagerPool> pooled = pooledStack.get();
+        if (pooled == null) {
+            pooled = new IdentityHashMap<EntityManager, NonTxEntityManagerPool>();
+            pooledStack.replace(pooled);
+        }
+        pooled.put(entityManager, pool);
+    }
+
+    /**
+     * Close the pooled entity manager of the current invocation for the specified scoped persistence unit name
+     * when the invocation ends, instead of returning it to its pool.
+     */
+    public static void doNotPool(String puScopedName) {
+        Map<EntityManager, NonTxEntityManagerPool> pooled = pooledStack.get();
+        if (pooled != null) {
+            EntityManager entityManager = get(puScopedName);
+            if (entityManager != null) {
+                pooled.remove(entityManager);
+            }
+        }
+    }
 }
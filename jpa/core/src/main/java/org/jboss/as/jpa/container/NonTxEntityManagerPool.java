@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jpa.container;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.jboss.as.jpa.JpaLogger.ROOT_LOGGER;
+
+/**
+ * A bounded pool of entity managers for transaction scoped entity managers that are used without a JTA transaction.
+ * <p/>
+ * Instead of creating an entity manager for each invocation and closing it afterwards, the entity manager is taken
+ * from the pool and returned to it by {@link NonTxEmCloser} when the invocation completes.  Returned entity managers
+ * are cleared and get their flush mode reset, so that nothing leaks from one use into the next.  Entity managers
+ * whose provider specific state may have been changed (see {@link TransactionScopedEntityManager#unwrap(Class)})
+ * are closed instead of returned.  At most <code>maxSize</code> idle entity managers are kept, any others are
+ * closed.
+ * <p/>
+ * All entity managers in a pool are created with the same properties.
+ */
+public class NonTxEntityManagerPool {
+
+    private final EntityManagerFactory emf;
+    private final Map properties;
+    private final int maxSize;
+    private final ConcurrentLinkedQueue<EntityManager> idle = new ConcurrentLinkedQueue<EntityManager>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong createCount = new AtomicLong();
+    private final AtomicLong reuseCount = new AtomicLong();
+    private volatile FlushModeType flushMode;
+    private volatile boolean closed;
+
+    public NonTxEntityManagerPool(EntityManagerFactory emf, Map properties, int maxSize) {
+        this.emf = emf;
+        this.properties = properties;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Take an idle entity manager from the pool, or create a new one if there is none.
+     *
+     * @return the entity manager
+     */
+    public EntityManager acquire() {
+        EntityManager entityManager = idle.poll();
+        if (entityManager != null) {
+            idleCount.decrementAndGet();
+            reuseCount.incrementAndGet();
+            return entityManager;
+        }
+        entityManager = EntityManagerUtil.createEntityManager(emf, properties);
+        createCount.incrementAndGet();
+        if (flushMode == null) {
+            flushMode = entityManager.getFlushMode();
+        }
+        return entityManager;
+    }
+
+    /**
+     * Return an entity manager to the pool after use.  The entity manager is closed instead if it can't be reset
+     * or if the pool is full.
+     *
+     * @param entityManager the entity manager taken from this pool
+     */
+    public void release(EntityManager entityManager) {
+        if (!entityManager.isOpen()) {
+            return;
+        }
+        if (!closed) {
+            try {
+                entityManager.clear();
+                if (flushMode != null) {
+                    entityManager.setFlushMode(flushMode);
+                }
+                if (idleCount.incrementAndGet() <= maxSize) {
+                    idle.offer(entityManager);
+                    if (closed && idle.remove(entityManager)) {
+                        // the pool was closed meanwhile
+                        idleCount.decrementAndGet();
+                        close(entityManager);
+                    }
+                    return;
+                }
+                idleCount.decrementAndGet();
+            } catch (RuntimeException e) {
+                if (ROOT_LOGGER.isTraceEnabled()) {
+                    ROOT_LOGGER.trace("Could not reset (non-transactional) container managed entity manager, closing it", e);
+                }
+            }
+        }
+        close(entityManager);
+    }
+
+    /**
+     * Close the idle entity managers.  Entity managers released after this are closed instead of pooled.
+     */
+    public void close() {
+        closed = true;
+        EntityManager entityManager;
+        while ((entityManager = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            close(entityManager);
+        }
+    }
+
+    /**
+     * @return the number of entity managers created by this pool
+     */
+    public long getCreateCount() {
+        return createCount.get();
+    }
+
+    /**
+     * @return the number of times an idle entity manager was reused instead of creating one
+     */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /**
+     * @return the number of idle entity managers in the pool
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    private static void close(EntityManager entityManager) {
+        try {
+            entityManager.close();
+        } catch (RuntimeException safeToIgnore) {
+            if (ROOT_LOGGER.isTraceEnabled()) {
+                ROOT_LOGGER.trace("Could not close (non-transactional) container managed entity manager." +
+                        "  This shouldn't impact application functionality (only read " +
+                        "operations occur in non-transactional mode)", safeToIgnore);
+            }
+        }
+    }
+}
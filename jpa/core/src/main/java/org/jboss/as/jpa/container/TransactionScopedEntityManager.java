@@ -44,12 +44,18 @@ public class TransactionScopedEntityManager extends AbstractEntityManager {
     private final String puScopedName;          // Scoped name of the persistent unit
     private final Map properties;
     private final EntityManagerFactory emf;
+    private final NonTxEntityManagerPool nonTxPool;    // null if entity managers used without a transaction are not pooled
 
     public TransactionScopedEntityManager(String puScopedName, Map properties, EntityManagerFactory emf) {
+        this(puScopedName, properties, emf, null);
+    }
+
+    public TransactionScopedEntityManager(String puScopedName, Map properties, EntityManagerFactory emf, NonTxEntityManagerPool nonTxPool) {
         super(puScopedName, false);
         this.puScopedName = puScopedName;
         this.properties = properties;
         this.emf = emf;
+        this.nonTxPool = nonTxPool;
     }
 
     @Override
@@ -64,8 +70,14 @@ public class TransactionScopedEntityManager extends AbstractEntityManager {
         } else {
             result = NonTxEmCloser.get(puScopedName);
             if (result == null) {
-                result = EntityManagerUtil.createEntityManager(emf, properties);
-                NonTxEmCloser.add(puScopedName, result);
+                if (nonTxPool != null) {
+                    // reuse a cleared entity manager, NonTxEmCloser returns it to the pool when the invocation ends
+                    result = nonTxPool.acquire();
+                    NonTxEmCloser.add(puScopedName, result, nonTxPool);
+                } else {
+                    result = EntityManagerUtil.createEntityManager(emf, properties);
+                    NonTxEmCloser.add(puScopedName, result);
+                }
             }
         }
         return result;
@@ -81,6 +93,42 @@ public class TransactionScopedEntityManager extends AbstractEntityManager {
         return TransactionUtil.getInstance().isInTx();
     }
 
+    /**
+     * The provider specific state of the underlying entity manager (enabled filters, cache mode, read-only defaults
+     * and the like) can be changed through the delegate, which a pooled entity manager can't be reset from, so it
+     * is closed at the end of the invocation instead.
+     */
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        final T result = super.unwrap(cls);
+        if (cls != EntityManagerMetadata.class) {
+            doNotPool();
+        }
+        return result;
+    }
+
+    @Override
+    public Object getDelegate() {
+        final Object result = super.getDelegate();
+        doNotPool();
+        return result;
+    }
+
+    /**
+     * Properties set as hints on the underlying entity manager would otherwise apply to its next use too
+     */
+    @Override
+    public void setProperty(String propertyName, Object value) {
+        super.setProperty(propertyName, value);
+        doNotPool();
+    }
+
+    private void doNotPool() {
+        if (nonTxPool != null && !isInTx()) {
+            NonTxEmCloser.doNotPool(puScopedName);
+        }
+    }
+
     /**
      * Catch the application trying to close the container managed entity manager and throw an IllegalStateException
      */
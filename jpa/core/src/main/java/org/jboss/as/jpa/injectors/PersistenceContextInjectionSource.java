@@ -155,7 +155,7 @@ public class PersistenceContextInjectionSource extends InjectionSource {
             boolean isExtended;
             if (type.equals(PersistenceContextType.TRANSACTION)) {
                 isExtended = false;
-                entityManager = new TransactionScopedEntityManager(unitName, properties, emf);
+                entityManager = new TransactionScopedEntityManager(unitName, properties, emf, service.getNonTxEntityManagerPool(properties));
                 if (JPA_LOGGER.isDebugEnabled())
                     JPA_LOGGER.debugf("created new TransactionScopedEntityManager for unit name=%s", unitName);
             } else {
@@ -22,6 +22,8 @@
 
 package org.jboss.as.jpa.service;
 
+import org.jboss.as.jpa.config.Configuration;
+import org.jboss.as.jpa.container.NonTxEntityManagerPool;
 import org.jboss.as.jpa.spi.PersistenceProviderAdaptor;
 import org.jboss.as.jpa.spi.PersistenceUnitMetadata;
 import org.jboss.as.jpa.spi.PersistenceUnitService;
@@ -37,9 +39,13 @@ import org.jboss.msc.value.InjectedValue;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.spi.PersistenceProvider;
 import javax.sql.DataSource;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.jboss.as.jpa.JpaLogger.JPA_LOGGER;
+import static org.jboss.as.jpa.JpaMessages.MESSAGES;
 
 /**
  * Persistence Unit service that is created for each deployed persistence unit that will be referenced by the
@@ -63,6 +69,10 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
 
     private volatile EntityManagerFactory entityManagerFactory;
 
+    // pools of entity managers used without a JTA transaction, key = the entity manager properties
+    private final ConcurrentMap<Map, NonTxEntityManagerPool> nonTxPools = new ConcurrentHashMap<Map, NonTxEntityManagerPool>();
+    private volatile int nonTxPoolSize;
+
     public PersistenceUnitServiceImpl(final PersistenceUnitMetadata pu, final PersistenceProviderAdaptor persistenceProviderAdaptor, final PersistenceProvider persistenceProvider) {
         this.pu = pu;
         this.persistenceProviderAdaptor = persistenceProviderAdaptor;
@@ -75,6 +85,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
             JPA_LOGGER.startingService("Persistence Unit", pu.getScopedPersistenceUnitName());
             pu.setJtaDataSource(jtaDataSource.getOptionalValue());
             pu.setNonJtaDataSource(nonJtaDataSource.getOptionalValue());
+            this.nonTxPoolSize = getNonTxPoolSize();
             this.entityManagerFactory = createContainerEntityManagerFactory();
 
         } finally {
@@ -85,6 +96,10 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
     @Override
     public void stop(StopContext context) {
         JPA_LOGGER.stoppingService("Persistence Unit", pu.getScopedPersistenceUnitName());
+        for (NonTxEntityManagerPool pool : nonTxPools.values()) {
+            pool.close();
+        }
+        nonTxPools.clear();
         if (entityManagerFactory != null) {
             entityManagerFactory.close();
             entityManagerFactory = null;
@@ -111,6 +126,31 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
         return pu.getScopedPersistenceUnitName();
     }
 
+    /**
+     * Get the pool of entity managers with the specified properties, for transaction scoped entity managers that are
+     * used without a JTA transaction.
+     *
+     * @param properties the entity manager properties
+     * @return the pool or {@code null} if pooling is not enabled for the persistence unit (see
+     *         {@link Configuration#NON_TX_ENTITY_MANAGER_POOL_SIZE}) or the service is not started
+     */
+    public NonTxEntityManagerPool getNonTxEntityManagerPool(Map properties) {
+        final EntityManagerFactory emf = entityManagerFactory;
+        if (nonTxPoolSize <= 0 || emf == null) {
+            return null;
+        }
+        final Map key = properties != null ? properties : Collections.emptyMap();
+        NonTxEntityManagerPool pool = nonTxPools.get(key);
+        if (pool == null) {
+            pool = new NonTxEntityManagerPool(emf, properties, nonTxPoolSize);
+            NonTxEntityManagerPool existing = nonTxPools.putIfAbsent(key, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        }
+        return pool;
+    }
+
     public Injector<Map> getPropertiesInjector() {
         return properties;
     }
@@ -138,6 +178,18 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
         return JPAServiceNames.getPUServiceName(scopedPersistenceUnitName);
     }
 
+    private int getNonTxPoolSize() {
+        final String value = pu.getProperties().getProperty(Configuration.NON_TX_ENTITY_MANAGER_POOL_SIZE);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw MESSAGES.invalidPersistenceUnitProperty(value, Configuration.NON_TX_ENTITY_MANAGER_POOL_SIZE, pu.getScopedPersistenceUnitName());
+        }
+    }
+
     /**
      * Create EE container entity manager factory
      *
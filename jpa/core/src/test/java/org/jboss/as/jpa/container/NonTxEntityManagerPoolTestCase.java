@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jpa.container;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the pooling of entity managers used without a JTA transaction.
+ */
+public class NonTxEntityManagerPoolTestCase {
+
+    private final List<MockEntityManager> created = new ArrayList<MockEntityManager>();
+
+    @Test
+    public void testReuseAfterInvocation() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+
+        NonTxEmCloser.pushCall();
+        EntityManager first = pool.acquire();
+        NonTxEmCloser.add("pu", first, pool);
+        assertSame(first, NonTxEmCloser.get("pu"));
+        first.setFlushMode(FlushModeType.COMMIT);
+        NonTxEmCloser.popCall();
+
+        assertTrue(first.isOpen());
+        assertEquals(1, created.get(0).clearCount);
+        assertEquals(FlushModeType.AUTO, first.getFlushMode());
+        assertEquals(1, pool.getIdleCount());
+
+        NonTxEmCloser.pushCall();
+        EntityManager second = pool.acquire();
+        NonTxEmCloser.add("pu", second, pool);
+        NonTxEmCloser.popCall();
+
+        assertSame(first, second);
+        assertEquals(1, pool.getCreateCount());
+        assertEquals(1, pool.getReuseCount());
+    }
+
+    @Test
+    public void testNestedInvocations() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+
+        NonTxEmCloser.pushCall();
+        EntityManager outer = pool.acquire();
+        NonTxEmCloser.add("pu", outer, pool);
+
+        NonTxEmCloser.pushCall();
+        EntityManager unpooled = createEntityManagerFactory().createEntityManager();
+        NonTxEmCloser.add("other", unpooled);
+        NonTxEmCloser.popCall();
+
+        // the inner invocation closes its own entity manager, but leaves the pooled one of the outer invocation alone
+        assertFalse(unpooled.isOpen());
+        assertEquals(0, pool.getIdleCount());
+        assertSame(outer, NonTxEmCloser.get("pu"));
+
+        NonTxEmCloser.popCall();
+        assertTrue(outer.isOpen());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testChangedEntityManagerIsNotPooled() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+
+        NonTxEmCloser.pushCall();
+        EntityManager entityManager = pool.acquire();
+        NonTxEmCloser.add("pu", entityManager, pool);
+        // e.g. the application unwrapped the provider session and enabled a filter
+        NonTxEmCloser.doNotPool("pu");
+        NonTxEmCloser.popCall();
+
+        assertFalse(entityManager.isOpen());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+        EntityManager first = pool.acquire();
+        EntityManager second = pool.acquire();
+        EntityManager third = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(3, pool.getCreateCount());
+
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+
+        assertEquals(2, pool.getIdleCount());
+        assertTrue(first.isOpen());
+        assertTrue(second.isOpen());
+        assertFalse(third.isOpen());
+    }
+
+    @Test
+    public void testClosedEntityManagerIsNotPooled() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+        EntityManager entityManager = pool.acquire();
+        entityManager.close();
+        pool.release(entityManager);
+
+        assertEquals(0, pool.getIdleCount());
+        assertNotSame(entityManager, pool.acquire());
+    }
+
+    @Test
+    public void testClose() {
+        NonTxEntityManagerPool pool = new NonTxEntityManagerPool(createEntityManagerFactory(), null, 2);
+        EntityManager idle = pool.acquire();
+        EntityManager inUse = pool.acquire();
+        pool.release(idle);
+
+        pool.close();
+        assertFalse(idle.isOpen());
+        assertEquals(0, pool.getIdleCount());
+
+        pool.release(inUse);
+        assertFalse(inUse.isOpen());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    private EntityManagerFactory createEntityManagerFactory() {
+        return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {EntityManagerFactory.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("createEntityManager")) {
+                    MockEntityManager handler = new MockEntityManager();
+                    created.add(handler);
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {EntityManager.class}, handler);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static class MockEntityManager implements InvocationHandler {
+        boolean open = true;
+        int clearCount;
+        FlushModeType flushMode = FlushModeType.AUTO;
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals("isOpen")) {
+                return open;
+            } else if (name.equals("close")) {
+                open = false;
+            } else if (name.equals("clear")) {
+                clearCount++;
+            } else if (name.equals("getFlushMode")) {
+                return flushMode;
+            } else if (name.equals("setFlushMode")) {
+                flushMode = (FlushModeType) args[0];
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else {
+                throw new UnsupportedOperationException(name);
+            }
+            return null;
+        }
+    }
+}
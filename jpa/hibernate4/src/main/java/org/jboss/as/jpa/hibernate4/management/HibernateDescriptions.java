@@ -115,6 +115,9 @@ public class HibernateDescriptions {
         subsystem.get(ATTRIBUTES, "session-open-count", DESCRIPTION).set(bundle.getString(HibernateDescriptionConstants.SESSION_OPEN_COUNT));
         subsystem.get(ATTRIBUTES, "session-open-count", TYPE).set(ModelType.INT);
 
+        subsystem.get(ATTRIBUTES, "session-open-rate", DESCRIPTION).set(bundle.getString(HibernateDescriptionConstants.SESSION_OPEN_RATE));
+        subsystem.get(ATTRIBUTES, "session-open-rate", TYPE).set(ModelType.DOUBLE);
+
         subsystem.get(ATTRIBUTES, "collection-load-count", DESCRIPTION).set(bundle.getString(HibernateDescriptionConstants.COLLECTION_LOAD_COUNT));
         subsystem.get(ATTRIBUTES, "collection-load-count", TYPE).set(ModelType.INT);
 
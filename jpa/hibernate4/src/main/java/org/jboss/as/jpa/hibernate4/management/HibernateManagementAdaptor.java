@@ -22,7 +22,10 @@
 
 package org.jboss.as.jpa.hibernate4.management;
 
+import java.util.LinkedList;
 import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.hibernate.stat.Statistics;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
@@ -69,6 +72,9 @@ public class HibernateManagementAdaptor implements ManagementAdaptor {
     public static final String OPERATION_SECOND_LEVEL_CACHE_PUT_COUNT = "second-level-cache-put-count";
     public static final String OPERATION_SESSION_CLOSE_COUNT = "session-close-count";
     public static final String OPERATION_SESSION_OPEN_COUNT = "session-open-count";
+    public static final String OPERATION_SESSION_OPEN_RATE = "session-open-rate";
+    // the period over which session-open-rate is computed, in ms
+    private static final long SESSION_OPEN_RATE_WINDOW = 60000;
     public static final String OPERATION_COLLECTION_LOAD_COUNT = "collection-load-count";
     public static final String OPERATION_COLLECTION_FETCH_COUNT = "collection-fetch-count";
     public static final String OPERATION_COLLECTION_UPDATE_COUNT = "collection-update-count";
@@ -350,6 +356,40 @@ public class HibernateManagementAdaptor implements ManagementAdaptor {
             }
         });
 
+        /**
+         * Number of sessions (entity managers) opened per second, over about the last SESSION_OPEN_RATE_WINDOW
+         */
+        jpaHibernateRegistration.registerMetric(OPERATION_SESSION_OPEN_RATE, new AbstractMetricsHandler() {
+            // the (time, session open count) samples taken by previous reads, oldest first
+            private final Map<Statistics, LinkedList<long[]>> samples = new WeakHashMap<Statistics, LinkedList<long[]>>();
+
+            @Override
+            void handle(final ModelNode response, final String name, Statistics stats, OperationContext context) {
+                final long now = System.currentTimeMillis();
+                final long count = stats.getSessionOpenCount();
+                final long[] start;
+                synchronized (samples) {
+                    LinkedList<long[]> list = samples.get(stats);
+                    if (list == null) {
+                        samples.put(stats, list = new LinkedList<long[]>());
+                    }
+                    if (!list.isEmpty() && (list.getLast()[1] > count || list.getLast()[0] < stats.getStartTime())) {
+                        // the statistics were cleared since the last read
+                        list.clear();
+                    }
+                    // the window starts at the newest sample which is at least a window old
+                    while (list.size() > 1 && now - list.get(1)[0] >= SESSION_OPEN_RATE_WINDOW) {
+                        list.removeFirst();
+                    }
+                    // on the first read there is nothing to compare with but the start of the statistics
+                    start = list.isEmpty() ? new long[] {stats.getStartTime(), 0} : list.getFirst();
+                    list.addLast(new long[] {now, count});
+                }
+                final long elapsed = now - start[0];
+                response.set(elapsed > 0 ? (count - start[1]) * 1000.0 / elapsed : 0.0);
+            }
+        });
+
         /**
          * Global number of collections loaded
          */
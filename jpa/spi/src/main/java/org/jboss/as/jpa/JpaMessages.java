@@ -572,4 +572,16 @@ public interface JpaMessages {
      */
     @Message(id = 11469, value = "Transaction is required to perform this operation (either use a transaction or extended persistence context)")
     TransactionRequiredException transactionRequired();
+
+    /**
+     * Creates an exception indicating the value of a persistence unit property is invalid.
+     *
+     * @param value                the invalid value.
+     * @param propertyName         the name of the property.
+     * @param persistenceUnitName  the name of the persistence unit.
+     *
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 11470, value = "Invalid value '%s' for property %s of persistence unit %s")
+    IllegalArgumentException invalidPersistenceUnitProperty(String value, String propertyName, String persistenceUnitName);
 }
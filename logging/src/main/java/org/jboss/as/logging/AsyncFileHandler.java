@@ -0,0 +1,412 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.logging;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * A file handler which hands log records to a single writer thread through a preallocated ring buffer.
+ * <p/>
+ * Publishing threads claim a slot with a compare-and-set on the claim sequence and store the record in it, so
+ * publishing never takes a lock and never allocates. The writer thread takes every record published so far as one
+ * batch, formats the batch into a single buffer and writes it to the file channel, so records reach the file in
+ * groups rather than being flushed one at a time. When all slots are in use the {@link OverflowAction} decides
+ * whether the publishing thread waits for a free slot or the record is dropped. Records are always dropped rather
+ * than waited for if the writer thread is gone, or if it is the writer thread itself which publishes them.
+ */
+public class AsyncFileHandler extends ExtHandler {
+
+    public static final int DEFAULT_QUEUE_LENGTH = 8192;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final long PUBLISHER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int CLOSED = 2;
+
+    private final ExtLogRecord[] slots;
+    /**
+     * The sequence stored in each slot, written after the record; a slot holds sequence {@code n} once it is
+     * published.
+     */
+    private final AtomicLongArray published;
+    private final int mask;
+    /**
+     * The next sequence to be claimed by a publishing thread.
+     */
+    private final AtomicLong claimed = new AtomicLong();
+    /**
+     * The next sequence to be taken by the writer; every slot below it may be reused.
+     */
+    private final AtomicLong consumed = new AtomicLong();
+    /**
+     * The next sequence to be written; every record below it has been handed to the file channel or dropped.
+     */
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicInteger state = new AtomicInteger(NEW);
+    private final Thread writer;
+    private volatile boolean writerWaiting;
+    private volatile OverflowAction overflowAction = OverflowAction.BLOCK;
+
+    private final Object outputLock = new Object();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private volatile Charset charset = Charset.defaultCharset();
+    private CharsetEncoder encoder;
+    private FileChannel channel;
+    private boolean append;
+
+    public AsyncFileHandler() {
+        this(DEFAULT_QUEUE_LENGTH);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param queueLength the number of records which may be waiting to be written, rounded up to a power of two
+     */
+    public AsyncFileHandler(final int queueLength) {
+        this(null, queueLength);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param name the name of the handler, used to name the writer thread, or {@code null}
+     * @param queueLength the number of records which may be waiting to be written, rounded up to a power of two
+     */
+    public AsyncFileHandler(final String name, final int queueLength) {
+        if (queueLength < 1 || queueLength > 1 << 30) {
+            throw new IllegalArgumentException("Invalid queue length: " + queueLength);
+        }
+        int size = 1;
+        while (size < queueLength) {
+            size <<= 1;
+        }
+        slots = new ExtLogRecord[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+        mask = size - 1;
+        writer = new Thread(new Runnable() {
+            public void run() {
+                runWriter();
+            }
+        }, name == null ? "Async file handler writer" : "Async file handler writer (" + name + ")");
+        writer.setDaemon(true);
+    }
+
+    protected void doPublish(final ExtLogRecord record) {
+        int current = state.get();
+        if (current == NEW && state.compareAndSet(NEW, RUNNING)) {
+            writer.start();
+        } else if (current == CLOSED) {
+            return;
+        }
+        // capture the thread-bound parts of the record before it leaves this thread
+        record.copyAll();
+        final long sequence = claim();
+        if (sequence < 0L) {
+            dropped.incrementAndGet();
+            return;
+        }
+        final int index = (int) sequence & mask;
+        slots[index] = record;
+        published.set(index, sequence);
+        if (writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private long claim() {
+        for (;;) {
+            final long sequence = claimed.get();
+            if (sequence - consumed.get() > mask) {
+                // nobody would free a slot for a record published by the writer itself or after the writer died
+                // (a writer which is not alive yet is about to be started by the first publishing thread)
+                if (overflowAction == OverflowAction.DISCARD || state.get() == CLOSED
+                        || writer.getState() == Thread.State.TERMINATED || Thread.currentThread() == writer) {
+                    return -1L;
+                }
+                LockSupport.parkNanos(PUBLISHER_PARK_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1L)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void runWriter() {
+        long next = 0L;
+        for (;;) {
+            long end = next;
+            while (end - next <= mask && published.get((int) end & mask) == end) {
+                end++;
+            }
+            if (end > next) {
+                try {
+                    writeBatch(next, end);
+                } catch (Throwable t) {
+                    // keep the writer alive, or publishing threads would wait for it forever
+                    discardBatch(next, end);
+                    reportError("Failed to write log records", t instanceof Exception ? (Exception) t : new RuntimeException(t), ErrorManager.WRITE_FAILURE);
+                }
+                next = end;
+                continue;
+            }
+            if (state.get() == CLOSED && claimed.get() == next) {
+                return;
+            }
+            writerWaiting = true;
+            if (published.get((int) next & mask) != next && state.get() != CLOSED) {
+                LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+            }
+            writerWaiting = false;
+        }
+    }
+
+    private void writeBatch(final long start, final long end) {
+        synchronized (outputLock) {
+            final Formatter formatter = getFormatter();
+            final CharsetEncoder encoder = getEncoder();
+            for (long sequence = start; sequence < end; sequence++) {
+                final int index = (int) sequence & mask;
+                final ExtLogRecord record = slots[index];
+                slots[index] = null;
+                // the slot may be claimed again from here on
+                consumed.lazySet(sequence + 1L);
+                final String text;
+                try {
+                    text = formatter == null ? record.getMessage() : formatter.format(record);
+                } catch (Exception e) {
+                    reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+                    continue;
+                }
+                if (text != null) {
+                    encode(encoder, text);
+                }
+            }
+            drainBuffer();
+        }
+        batches.incrementAndGet();
+        written.set(end);
+    }
+
+    private void discardBatch(final long start, final long end) {
+        synchronized (outputLock) {
+            for (long sequence = start; sequence < end; sequence++) {
+                slots[(int) sequence & mask] = null;
+            }
+            consumed.set(end);
+            buffer.clear();
+        }
+        dropped.addAndGet(end - start);
+        written.set(end);
+    }
+
+    private CharsetEncoder getEncoder() {
+        final Charset charset = this.charset;
+        CharsetEncoder encoder = this.encoder;
+        if (encoder == null || !encoder.charset().equals(charset)) {
+            encoder = charset.newEncoder();
+            encoder.onMalformedInput(CodingErrorAction.REPLACE);
+            encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.encoder = encoder;
+        }
+        return encoder;
+    }
+
+    private void encode(final CharsetEncoder encoder, final String text) {
+        final CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        // malformed and unmappable input is replaced, so the only other outcome is a full buffer
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drainBuffer();
+            }
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(buffer);
+            if (result.isOverflow()) {
+                drainBuffer();
+            }
+        } while (result.isOverflow());
+    }
+
+    private void drainBuffer() {
+        buffer.flip();
+        final FileChannel channel = this.channel;
+        if (channel != null) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                reportError("Failed to write to the log file", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Wait until every record published before this call has been written to the file.
+     */
+    public void flush() {
+        final long target = claimed.get();
+        while (written.get() < target && state.get() == RUNNING && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(PUBLISHER_PARK_NANOS);
+        }
+    }
+
+    public void close() throws SecurityException {
+        final int previous = state.getAndSet(CLOSED);
+        if (previous == CLOSED) {
+            return;
+        }
+        if (previous == RUNNING) {
+            LockSupport.unpark(writer);
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (outputLock) {
+            closeChannel();
+        }
+    }
+
+    public void setEncoding(final String encoding) throws SecurityException, UnsupportedEncodingException {
+        super.setEncoding(encoding);
+        charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+    }
+
+    public void setOverflowAction(final OverflowAction overflowAction) {
+        this.overflowAction = overflowAction == null ? OverflowAction.BLOCK : overflowAction;
+    }
+
+    public OverflowAction getOverflowAction() {
+        return overflowAction;
+    }
+
+    public void setAppend(final boolean append) {
+        synchronized (outputLock) {
+            this.append = append;
+        }
+    }
+
+    public void setFileName(final String fileName) throws FileNotFoundException {
+        setFile(fileName == null ? null : new File(fileName));
+    }
+
+    public void setFile(final File file) throws FileNotFoundException {
+        synchronized (outputLock) {
+            if (file == null) {
+                closeChannel();
+                return;
+            }
+            final File parentFile = file.getAbsoluteFile().getParentFile();
+            if (parentFile != null) {
+                parentFile.mkdirs();
+            }
+            final FileChannel newChannel = new FileOutputStream(file, append).getChannel();
+            closeChannel();
+            channel = newChannel;
+        }
+    }
+
+    private void closeChannel() {
+        final FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                reportError("Failed to close the log file", e, ErrorManager.CLOSE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Get the number of slots in the ring buffer.
+     *
+     * @return the capacity
+     */
+    public int getQueueLength() {
+        return slots.length;
+    }
+
+    /**
+     * Get the number of records which have been published but not yet taken by the writer.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0L, claimed.get() - consumed.get());
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+}
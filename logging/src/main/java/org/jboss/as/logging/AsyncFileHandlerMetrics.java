@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.logging;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.logging.CommonAttributes.BATCH_COUNT;
+import static org.jboss.as.logging.CommonAttributes.DROPPED_COUNT;
+import static org.jboss.as.logging.CommonAttributes.QUEUE_DEPTH;
+import static org.jboss.as.logging.CommonAttributes.WRITTEN_COUNT;
+import static org.jboss.as.logging.LoggingMessages.MESSAGES;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the runtime metrics of an {@link AsyncFileHandler}.
+ */
+class AsyncFileHandlerMetrics extends AbstractRuntimeOnlyHandler {
+
+    static final AsyncFileHandlerMetrics INSTANCE = new AsyncFileHandlerMetrics();
+
+    static final List<String> METRICS = Arrays.asList(QUEUE_DEPTH, DROPPED_COUNT, WRITTEN_COUNT, BATCH_COUNT);
+
+    void registerMetrics(final ManagementResourceRegistration registration) {
+        for (String metric : METRICS) {
+            registration.registerMetric(metric, this);
+        }
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(LogServices.handlerName(name));
+        if (controller == null) {
+            throw new OperationFailedException(new ModelNode().set(MESSAGES.handlerNotFound(name)));
+        }
+        final AsyncFileHandler handler = (AsyncFileHandler) controller.getValue();
+        if (handler != null) {
+            final ModelNode result = context.getResult();
+            if (QUEUE_DEPTH.equals(attributeName)) {
+                result.set(handler.getQueueDepth());
+            } else if (DROPPED_COUNT.equals(attributeName)) {
+                result.set(handler.getDroppedCount());
+            } else if (WRITTEN_COUNT.equals(attributeName)) {
+                result.set(handler.getWrittenCount());
+            } else if (BATCH_COUNT.equals(attributeName)) {
+                result.set(handler.getBatchCount());
+            }
+        }
+        context.completeStep();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.logging;
+
+import java.io.FileNotFoundException;
+import java.io.UnsupportedEncodingException;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service for an {@link AsyncFileHandler}.
+ */
+public final class AsyncFileHandlerService implements Service<Handler> {
+
+    private final InjectedValue<String> fileName = new InjectedValue<String>();
+    private final String name;
+
+    private AbstractFormatterSpec formatterSpec;
+    private Level level;
+    private String encoding;
+    private boolean append = true;
+    private int queueLength = AsyncFileHandler.DEFAULT_QUEUE_LENGTH;
+    private OverflowAction overflowAction = OverflowAction.BLOCK;
+    private AsyncFileHandler value;
+
+    public AsyncFileHandlerService(final String name) {
+        this.name = name;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final AsyncFileHandler handler = new AsyncFileHandler(name, queueLength);
+        formatterSpec.apply(handler);
+        if (level != null) handler.setLevel(level);
+        try {
+            handler.setEncoding(encoding);
+        } catch (UnsupportedEncodingException e) {
+            throw new StartException(e);
+        }
+        handler.setAppend(append);
+        handler.setOverflowAction(overflowAction);
+        try {
+            handler.setFileName(fileName.getValue());
+        } catch (FileNotFoundException e) {
+            throw new StartException(e);
+        }
+        value = handler;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final AsyncFileHandler handler = value;
+        handler.close();
+        value = null;
+    }
+
+    public synchronized Handler getValue() throws IllegalStateException {
+        return value;
+    }
+
+    public synchronized Level getLevel() {
+        return level;
+    }
+
+    public synchronized void setLevel(final Level level) {
+        this.level = level;
+        final AsyncFileHandler handler = value;
+        if (handler != null) handler.setLevel(level);
+    }
+
+    public synchronized AbstractFormatterSpec getFormatterSpec() {
+        return formatterSpec;
+    }
+
+    public synchronized void setFormatterSpec(final AbstractFormatterSpec formatterSpec) {
+        this.formatterSpec = formatterSpec;
+        final AsyncFileHandler handler = value;
+        if (handler != null) formatterSpec.apply(handler);
+    }
+
+    public synchronized String getEncoding() {
+        return encoding;
+    }
+
+    public synchronized void setEncoding(final String encoding) throws UnsupportedEncodingException {
+        final AsyncFileHandler handler = value;
+        if (handler != null) handler.setEncoding(encoding);
+        this.encoding = encoding;
+    }
+
+    public synchronized boolean isAppend() {
+        return append;
+    }
+
+    public synchronized void setAppend(final boolean append) {
+        this.append = append;
+        final AsyncFileHandler handler = value;
+        if (handler != null) handler.setAppend(append);
+    }
+
+    public synchronized int getQueueLength() {
+        return queueLength;
+    }
+
+    public synchronized void setQueueLength(final int queueLength) {
+        this.queueLength = queueLength;
+    }
+
+    public synchronized OverflowAction getOverflowAction() {
+        return overflowAction;
+    }
+
+    public synchronized void setOverflowAction(final OverflowAction overflowAction) {
+        this.overflowAction = overflowAction;
+        final AsyncFileHandler handler = value;
+        if (handler != null) handler.setOverflowAction(overflowAction);
+    }
+
+    public Injector<String> getFileNameInjector() {
+        return fileName;
+    }
+}
@@ -31,14 +31,17 @@ interface CommonAttributes {
     String ALL ="all";
     String ANY ="any";
     String APPEND ="append";
+    String ASYNC_FILE_HANDLER ="async-file-handler";
     String ASYNC_HANDLER ="async-handler";
     String AUTOFLUSH ="autoflush";
+    String BATCH_COUNT ="batch-count";
     String CATEGORY ="category";
     String CHANGE_LEVEL ="change-level";
     String CLASS = "class";
     String CONSOLE_HANDLER ="console-handler";
     String CUSTOM_HANDLER = "custom-handler";
     String DENY ="deny";
+    String DROPPED_COUNT ="dropped-count";
     String ENCODING ="encoding";
     String FILE ="file";
     String FILE_HANDLER ="file-handler";
@@ -67,6 +70,7 @@ interface CommonAttributes {
     String PERIODIC_ROTATING_FILE_HANDLER ="periodic-rotating-file-handler";
     String PROPERTIES ="properties";
     String PROPERTY = "property";
+    String QUEUE_DEPTH ="queue-depth";
     String QUEUE_LENGTH ="queue-length";
     String RELATIVE_TO ="relative-to";
     String REPLACE ="replace";
@@ -80,5 +84,6 @@ interface CommonAttributes {
     String TARGET ="target";
     String USE_PARENT_HANDLERS ="use-parent-handlers";
     String VALUE ="value";
+    String WRITTEN_COUNT ="written-count";
 
 }
@@ -36,6 +36,7 @@ public enum Element {
     ALL(CommonAttributes.ALL),
     ANY(CommonAttributes.ANY),
     APPEND(CommonAttributes.APPEND),
+    ASYNC_FILE_HANDLER(CommonAttributes.ASYNC_FILE_HANDLER),
     ASYNC_HANDLER(CommonAttributes.ASYNC_HANDLER),
     CHANGE_LEVEL(CommonAttributes.CHANGE_LEVEL),
     CONSOLE_HANDLER(CommonAttributes.CONSOLE_HANDLER),
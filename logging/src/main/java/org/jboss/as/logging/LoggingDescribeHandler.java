@@ -29,6 +29,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.operations.common.Util;
+import static org.jboss.as.logging.CommonAttributes.APPEND;
+import static org.jboss.as.logging.CommonAttributes.ASYNC_FILE_HANDLER;
 import static org.jboss.as.logging.CommonAttributes.ASYNC_HANDLER;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
 import static org.jboss.as.logging.CommonAttributes.CLASS;
@@ -99,6 +101,11 @@ public class LoggingDescribeHandler implements OperationStepHandler, Description
                 result.add(defineFileHandler(prop.getName(), prop.getValue(), rootAddress));
             }
         }
+        if (model.hasDefined(ASYNC_FILE_HANDLER)) {
+            for (Property prop : model.get(ASYNC_FILE_HANDLER).asPropertyList()) {
+                result.add(defineAsyncFileHandler(prop.getName(), prop.getValue(), rootAddress));
+            }
+        }
         if (model.hasDefined(CUSTOM_HANDLER)) {
             for (Property prop : model.get(CUSTOM_HANDLER).asPropertyList()) {
                 result.add(defineCustomHandler(prop.getName(), prop.getValue(), rootAddress));
@@ -176,6 +183,33 @@ public class LoggingDescribeHandler implements OperationStepHandler, Description
         return add;
     }
 
+    private ModelNode defineAsyncFileHandler(final String name, final ModelNode handler, final PathAddress rootAddress) {
+        ModelNode add = Util.getEmptyOperation(ADD, rootAddress.append(PathElement.pathElement(ASYNC_FILE_HANDLER, name)).toModelNode());
+
+        if (handler.hasDefined(ENCODING)) {
+            add.get(ENCODING).set(handler.get(ENCODING));
+        }
+        if (handler.hasDefined(FORMATTER)) {
+            add.get(FORMATTER).set(handler.get(FORMATTER));
+        }
+        if (handler.hasDefined(LEVEL)) {
+            add.get(LEVEL).set(handler.get(LEVEL));
+        }
+        if (handler.hasDefined(FILE)) {
+            add.get(FILE).set(handler.get(FILE));
+        }
+        if (handler.hasDefined(APPEND)) {
+            add.get(APPEND).set(handler.get(APPEND));
+        }
+        if (handler.hasDefined(QUEUE_LENGTH)) {
+            add.get(QUEUE_LENGTH).set(handler.get(QUEUE_LENGTH));
+        }
+        if (handler.hasDefined(OVERFLOW_ACTION)) {
+            add.get(OVERFLOW_ACTION).set(handler.get(OVERFLOW_ACTION));
+        }
+
+        return add;
+    }
 
     private ModelNode defineCustomHandler(final String name, final ModelNode handler, final PathAddress rootAddress) {
         ModelNode add = Util.getEmptyOperation(ADD, rootAddress.append(PathElement.pathElement(CUSTOM_HANDLER, name)).toModelNode());
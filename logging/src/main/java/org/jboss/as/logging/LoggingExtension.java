@@ -49,6 +49,7 @@ public class LoggingExtension implements Extension {
     public static final String SUBSYSTEM_NAME = "logging";
     private static final PathElement loggersPath = PathElement.pathElement(CommonAttributes.LOGGER);
     private static final PathElement asyncHandlersPath = PathElement.pathElement(CommonAttributes.ASYNC_HANDLER);
+    private static final PathElement asyncFileHandlersPath = PathElement.pathElement(CommonAttributes.ASYNC_FILE_HANDLER);
     private static final PathElement consoleHandlersPath = PathElement.pathElement(CommonAttributes.CONSOLE_HANDLER);
     private static final PathElement customHandlerPath = PathElement.pathElement(CommonAttributes.CUSTOM_HANDLER);
     private static final PathElement fileHandlersPath = PathElement.pathElement(CommonAttributes.FILE_HANDLER);
@@ -109,6 +110,16 @@ public class LoggingExtension implements Extension {
         fileHandler.registerOperationHandler(HandlerFileChange.OPERATION_NAME, HandlerFileChange.INSTANCE, LoggingSubsystemProviders.HANDLER_CHANGE_FILE, false);
         fileHandler.registerOperationHandler(FileHandlerUpdateProperties.OPERATION_NAME, FileHandlerUpdateProperties.INSTANCE, LoggingSubsystemProviders.FILE_HANDLER_UPDATE, false);
 
+        final ManagementResourceRegistration asyncFileHandler = registration.registerSubModel(asyncFileHandlersPath, LoggingSubsystemProviders.ASYNC_FILE_HANDLER);
+        asyncFileHandler.registerOperationHandler(ADD, AsyncFileHandlerAdd.INSTANCE, LoggingSubsystemProviders.ASYNC_FILE_HANDLER_ADD, false);
+        asyncFileHandler.registerOperationHandler(REMOVE, LoggerHandlerRemove.INSTANCE, LoggingSubsystemProviders.HANDLER_REMOVE, false);
+        asyncFileHandler.registerOperationHandler(ENABLE, HandlerEnable.INSTANCE, LoggingSubsystemProviders.HANDLER_ENABLE, false);
+        asyncFileHandler.registerOperationHandler(DISABLE, HandlerDisable.INSTANCE, LoggingSubsystemProviders.HANDLER_DISABLE, false);
+        asyncFileHandler.registerOperationHandler(HandlerLevelChange.OPERATION_NAME, HandlerLevelChange.INSTANCE, LoggingSubsystemProviders.HANDLER_CHANGE_LEVEL, false);
+        asyncFileHandler.registerOperationHandler(HandlerFileChange.OPERATION_NAME, HandlerFileChange.INSTANCE, LoggingSubsystemProviders.HANDLER_CHANGE_FILE, false);
+        asyncFileHandler.registerOperationHandler(AsyncFileHandlerUpdateProperties.OPERATION_NAME, AsyncFileHandlerUpdateProperties.INSTANCE, LoggingSubsystemProviders.ASYNC_FILE_HANDLER_UPDATE, false);
+        AsyncFileHandlerMetrics.INSTANCE.registerMetrics(asyncFileHandler);
+
         final ManagementResourceRegistration periodicHandler = registration.registerSubModel(periodicHandlersPath, LoggingSubsystemProviders.PERIODIC_HANDLER);
         periodicHandler.registerOperationHandler(ADD, PeriodicRotatingFileHandlerAdd.INSTANCE, LoggingSubsystemProviders.PERIODIC_HANDLER_ADD, false);
         periodicHandler.registerOperationHandler(REMOVE, LoggerHandlerRemove.INSTANCE, LoggingSubsystemProviders.HANDLER_REMOVE, false);
@@ -154,6 +165,7 @@ public class LoggingExtension implements Extension {
         protected void populateModel(ModelNode operation, ModelNode model) {
             model.get(CommonAttributes.LOGGER).setEmptyObject();
             model.get(CommonAttributes.ASYNC_HANDLER).setEmptyObject();
+            model.get(CommonAttributes.ASYNC_FILE_HANDLER).setEmptyObject();
             model.get(CommonAttributes.CONSOLE_HANDLER).setEmptyObject();
             model.get(CommonAttributes.CUSTOM_HANDLER).setEmptyObject();
             model.get(CommonAttributes.FILE_HANDLER).setEmptyObject();
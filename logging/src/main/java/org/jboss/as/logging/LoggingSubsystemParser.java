@@ -55,6 +55,7 @@ import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttri
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 import static org.jboss.as.logging.CommonAttributes.APPEND;
+import static org.jboss.as.logging.CommonAttributes.ASYNC_FILE_HANDLER;
 import static org.jboss.as.logging.CommonAttributes.ASYNC_HANDLER;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
 import static org.jboss.as.logging.CommonAttributes.CLASS;
@@ -161,6 +162,10 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                             parseAsyncHandlerElement(reader, address, list, handlerNames);
                             break;
                         }
+                        case ASYNC_FILE_HANDLER: {
+                            parseAsyncFileHandlerElement(reader, address, list, handlerNames);
+                            break;
+                        }
                         default: {
                             reader.handleAny(list);
                             break;
@@ -531,6 +536,98 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         list.add(node);
     }
 
+    static void parseAsyncFileHandlerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
+        // Attributes
+        String name = null;
+        final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        if (!names.add(name)) {
+            throw duplicateNamedElement(reader, name);
+        }
+        // Elements
+        String levelName = null;
+        String encoding = null;
+        ModelNode fileSpec = null;
+        boolean append = true;
+        String formatterSpec = null;
+        Integer queueLength = null;
+        OverflowAction overflowAction = null;
+
+        final EnumSet<Element> requiredElem = EnumSet.of(Element.FILE);
+        final EnumSet<Element> encountered = EnumSet.noneOf(Element.class);
+        while (reader.nextTag() != END_ELEMENT) {
+            final Element element = Element.forName(reader.getLocalName());
+            if (!encountered.add(element)) {
+                throw unexpectedElement(reader);
+            }
+            requiredElem.remove(element);
+            switch (element) {
+                case LEVEL: {
+                    levelName = readStringAttributeElement(reader, "name");
+                    break;
+                }
+                case ENCODING: {
+                    encoding = readStringAttributeElement(reader, "value");
+                    break;
+                }
+                case FORMATTER: {
+                    formatterSpec = parseFormatterElement(reader);
+                    break;
+                }
+                case FILE: {
+                    fileSpec = parseFileElement(reader);
+                    break;
+                }
+                case APPEND: {
+                    append = Boolean.parseBoolean(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case QUEUE_LENGTH: {
+                    queueLength = Integer.valueOf(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case OVERFLOW_ACTION: {
+                    overflowAction = OverflowAction.valueOf(readStringAttributeElement(reader, "value").toUpperCase(Locale.US));
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!requiredElem.isEmpty()) {
+            throw missingRequired(reader, requiredElem);
+        }
+        final ModelNode node = new ModelNode();
+        node.get(OP).set(ADD);
+        node.get(OP_ADDR).set(address).add(ASYNC_FILE_HANDLER, name);
+        if (levelName != null) node.get(LEVEL).set(levelName);
+        if (encoding != null) node.get(ENCODING).set(encoding);
+        if (formatterSpec != null) node.get(FORMATTER).set(formatterSpec);
+        node.get(FILE).set(fileSpec);
+        node.get(APPEND).set(append);
+        if (queueLength != null) node.get(QUEUE_LENGTH).set(queueLength.intValue());
+        if (overflowAction != null) node.get(OVERFLOW_ACTION).set(overflowAction.toString());
+        list.add(node);
+    }
+
     static void parseCustomHandlerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
         // Attributes
         String name = null;
@@ -1024,6 +1121,18 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                 writeAsynchHandler(writer, handler, name);
             }
         }
+        if (node.hasDefined(ASYNC_FILE_HANDLER)) {
+            final ModelNode handlers = node.get(ASYNC_FILE_HANDLER);
+
+            for (Property handlerProp : handlers.asPropertyList()) {
+                final String name = handlerProp.getName();
+                final ModelNode handler = handlerProp.getValue();
+                if (!handler.isDefined()) {
+                    continue;
+                }
+                writeAsyncFileHandler(writer, handler, name);
+            }
+        }
         if (node.hasDefined(CONSOLE_HANDLER)) {
             final ModelNode handlers = node.get(CONSOLE_HANDLER);
 
@@ -1221,6 +1330,29 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         writer.writeEndElement();
     }
 
+    private void writeAsyncFileHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+        writer.writeStartElement(Element.ASYNC_FILE_HANDLER.getLocalName());
+        writer.writeAttribute(Attribute.NAME.getLocalName(), name);
+        writeLevel(writer, node);
+        writeEncoding(writer, node);
+        writeFilter(writer, node);
+        writeFormatter(writer, node);
+        writeFile(writer, node);
+        writeAppend(writer, node);
+        if (node.hasDefined(QUEUE_LENGTH)) {
+            writer.writeStartElement(Element.QUEUE_LENGTH.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(QUEUE_LENGTH));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(OVERFLOW_ACTION)) {
+            writer.writeStartElement(Element.OVERFLOW_ACTION.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(OVERFLOW_ACTION));
+            writer.writeEndElement();
+        }
+
+        writer.writeEndElement();
+    }
+
     private void writeLogger(final XMLExtendedStreamWriter writer, String name, final ModelNode node) throws XMLStreamException {
         writer.writeStartElement(Element.LOGGER.getLocalName());
         writer.writeAttribute(Attribute.CATEGORY.getLocalName(), name);
@@ -39,8 +39,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYP
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
 import static org.jboss.as.logging.CommonAttributes.APPEND;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
+import static org.jboss.as.logging.CommonAttributes.BATCH_COUNT;
 import static org.jboss.as.logging.CommonAttributes.CATEGORY;
 import static org.jboss.as.logging.CommonAttributes.CLASS;
+import static org.jboss.as.logging.CommonAttributes.DROPPED_COUNT;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
 import static org.jboss.as.logging.CommonAttributes.FILTER;
@@ -53,6 +55,7 @@ import static org.jboss.as.logging.CommonAttributes.NAME;
 import static org.jboss.as.logging.CommonAttributes.OVERFLOW_ACTION;
 import static org.jboss.as.logging.CommonAttributes.PATH;
 import static org.jboss.as.logging.CommonAttributes.PROPERTIES;
+import static org.jboss.as.logging.CommonAttributes.QUEUE_DEPTH;
 import static org.jboss.as.logging.CommonAttributes.QUEUE_LENGTH;
 import static org.jboss.as.logging.CommonAttributes.RELATIVE_TO;
 import static org.jboss.as.logging.CommonAttributes.ROTATE_SIZE;
@@ -61,6 +64,7 @@ import static org.jboss.as.logging.CommonAttributes.SUFFIX;
 import static org.jboss.as.logging.CommonAttributes.TARGET;
 import static org.jboss.as.logging.CommonAttributes.USE_PARENT_HANDLERS;
 import static org.jboss.as.logging.CommonAttributes.VALUE;
+import static org.jboss.as.logging.CommonAttributes.WRITTEN_COUNT;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -91,6 +95,7 @@ class LoggingSubsystemProviders {
 
             subsystem.get(CHILDREN, CommonAttributes.ROOT_LOGGER, DESCRIPTION).set(bundle.getString("root.logger"));
             subsystem.get(CHILDREN, CommonAttributes.ASYNC_HANDLER, DESCRIPTION).set(bundle.getString("async.handler"));
+            subsystem.get(CHILDREN, CommonAttributes.ASYNC_FILE_HANDLER, DESCRIPTION).set(bundle.getString("async.file.handler"));
             subsystem.get(CHILDREN, CommonAttributes.CONSOLE_HANDLER, DESCRIPTION).set(bundle.getString("console.handler"));
             subsystem.get(CHILDREN, CommonAttributes.FILE_HANDLER, DESCRIPTION).set(bundle.getString("file.handler"));
             subsystem.get(CHILDREN, CommonAttributes.PERIODIC_ROTATING_FILE_HANDLER, DESCRIPTION).set(bundle.getString("periodic.handler"));
@@ -671,6 +676,99 @@ class LoggingSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider ASYNC_FILE_HANDLER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("async.file.handler"));
+
+            addCommonHandlerAttributes(node, bundle);
+
+            node.get(ATTRIBUTES, APPEND, TYPE).set(ModelType.BOOLEAN);
+            node.get(ATTRIBUTES, APPEND, DESCRIPTION).set(bundle.getString("file.handler.append"));
+
+            node.get(ATTRIBUTES, FILE, RELATIVE_TO, TYPE).set(ModelType.STRING);
+            node.get(ATTRIBUTES, FILE, RELATIVE_TO, DESCRIPTION).set(bundle.getString("file.handler.relative-to"));
+
+            node.get(ATTRIBUTES, FILE, PATH, TYPE).set(ModelType.STRING);
+            node.get(ATTRIBUTES, FILE, PATH, DESCRIPTION).set(bundle.getString("file.handler.path"));
+
+            node.get(ATTRIBUTES, QUEUE_LENGTH, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, QUEUE_LENGTH, DESCRIPTION).set(bundle.getString("async.file.handler.queue-length"));
+
+            node.get(ATTRIBUTES, OVERFLOW_ACTION, TYPE).set(ModelType.STRING);
+            node.get(ATTRIBUTES, OVERFLOW_ACTION, DESCRIPTION).set(bundle.getString("async.overflow-action"));
+
+            node.get(ATTRIBUTES, QUEUE_DEPTH, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, QUEUE_DEPTH, DESCRIPTION).set(bundle.getString("async.file.handler.queue-depth"));
+
+            node.get(ATTRIBUTES, DROPPED_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, DROPPED_COUNT, DESCRIPTION).set(bundle.getString("async.file.handler.dropped-count"));
+
+            node.get(ATTRIBUTES, WRITTEN_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, WRITTEN_COUNT, DESCRIPTION).set(bundle.getString("async.file.handler.written-count"));
+
+            node.get(ATTRIBUTES, BATCH_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, BATCH_COUNT, DESCRIPTION).set(bundle.getString("async.file.handler.batch-count"));
+
+            return node;
+        }
+    };
+
+    static final DescriptionProvider ASYNC_FILE_HANDLER_ADD = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(ADD);
+            operation.get(DESCRIPTION).set(bundle.getString("async.file.handler.add"));
+
+            addCommonHandlerRequestProperties(operation, bundle);
+
+            operation.get(REQUEST_PROPERTIES, APPEND, TYPE).set(ModelType.BOOLEAN);
+            operation.get(REQUEST_PROPERTIES, APPEND, DESCRIPTION).set(bundle.getString("file.handler.append"));
+            operation.get(REQUEST_PROPERTIES, APPEND, REQUIRED).set(false);
+
+            operation.get(REQUEST_PROPERTIES, FILE, RELATIVE_TO, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, FILE, RELATIVE_TO, DESCRIPTION).set(bundle.getString("file.handler.relative-to"));
+            operation.get(REQUEST_PROPERTIES, FILE, RELATIVE_TO, REQUIRED).set(false);
+
+            operation.get(REQUEST_PROPERTIES, FILE, PATH, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, FILE, PATH, DESCRIPTION).set(bundle.getString("file.handler.path"));
+            operation.get(REQUEST_PROPERTIES, FILE, PATH, REQUIRED).set(true);
+
+            operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, TYPE).set(ModelType.INT);
+            operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, DESCRIPTION).set(bundle.getString("async.file.handler.queue-length"));
+            operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, REQUIRED).set(false);
+
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, DESCRIPTION).set(bundle.getString("async.overflow-action"));
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, REQUIRED).set(false);
+
+            return operation;
+        }
+    };
+
+    static final DescriptionProvider ASYNC_FILE_HANDLER_UPDATE = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(AsyncFileHandlerUpdateProperties.OPERATION_NAME);
+            operation.get(DESCRIPTION).set(bundle.getString("async.file.handler.update"));
+
+            addCommonHandlerUpdateRequestProperties(operation, bundle);
+
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, DESCRIPTION).set(bundle.getString("async.overflow-action"));
+            operation.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, REQUIRED).set(false);
+
+            return operation;
+        }
+    };
+
     static final DescriptionProvider PERIODIC_HANDLER = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
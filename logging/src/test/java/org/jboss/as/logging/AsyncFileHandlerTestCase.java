@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the ring buffer in {@link AsyncFileHandler}.
+ */
+public class AsyncFileHandlerTestCase {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("async-file-handler", ".log");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void testWritesEveryRecordInOrder() throws Exception {
+        final AsyncFileHandler handler = createHandler(64, false);
+        final int threadCount = 8;
+        final int recordCount = 10000;
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++) {
+            final int id = i;
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < recordCount; j++) {
+                        handler.publish(record(id + ":" + j));
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handler.flush();
+        assertEquals(0, handler.getQueueDepth());
+        assertEquals(threadCount * recordCount, handler.getWrittenCount());
+        assertEquals(0L, handler.getDroppedCount());
+        assertTrue(handler.getBatchCount() <= handler.getWrittenCount());
+        handler.close();
+
+        final List<String> lines = readLines();
+        assertEquals(threadCount * recordCount, lines.size());
+        final int[] next = new int[threadCount];
+        for (String line : lines) {
+            final int separator = line.indexOf(':');
+            final int id = Integer.parseInt(line.substring(0, separator));
+            assertEquals(next[id]++, Integer.parseInt(line.substring(separator + 1)));
+        }
+    }
+
+    @Test
+    public void testDiscardsWhenFull() throws Exception {
+        final CountDownLatch formatting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AsyncFileHandler handler = new AsyncFileHandler(4);
+        handler.setOverflowAction(OverflowAction.DISCARD);
+        handler.setFormatter(new Formatter() {
+            public String format(final LogRecord record) {
+                if (record.getMessage().equals("first")) {
+                    formatting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return record.getMessage() + "\n";
+            }
+        });
+        handler.setFile(file);
+
+        handler.publish(record("first"));
+        assertTrue(formatting.await(10, TimeUnit.SECONDS));
+        // the writer holds "first", which leaves all four slots to the records below
+        for (int i = 0; i < 10; i++) {
+            handler.publish(record("record" + i));
+        }
+        assertEquals(4, handler.getQueueDepth());
+        assertEquals(6L, handler.getDroppedCount());
+
+        release.countDown();
+        handler.flush();
+        handler.close();
+        assertEquals(5L, handler.getWrittenCount());
+        assertEquals(5, readLines().size());
+    }
+
+    @Test
+    public void testWriterDoesNotWaitForItself() throws Exception {
+        final AsyncFileHandler handler = new AsyncFileHandler(4);
+        handler.setFormatter(new Formatter() {
+            public String format(final LogRecord record) {
+                if (record.getMessage().equals("first")) {
+                    // e.g. something the formatter calls logs to the same handler
+                    for (int i = 0; i < 10; i++) {
+                        handler.publish(record("nested" + i));
+                    }
+                }
+                return record.getMessage() + "\n";
+            }
+        });
+        handler.setFile(file);
+
+        final Thread publisher = new Thread(new Runnable() {
+            public void run() {
+                handler.publish(record("first"));
+                handler.flush();
+            }
+        });
+        publisher.start();
+        publisher.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse("writer is waiting for a slot only it can free", publisher.isAlive());
+        assertEquals(6L, handler.getDroppedCount());
+        handler.close();
+        assertEquals(5, readLines().size());
+    }
+
+    @Test
+    public void testWriterSurvivesFailingBatch() throws Exception {
+        final AsyncFileHandler handler = createHandler(16, false);
+        final Formatter formatter = handler.getFormatter();
+        handler.setFormatter(new Formatter() {
+            public String format(final LogRecord record) {
+                if (record.getMessage().equals("fail")) {
+                    throw new AssertionError("formatter failure");
+                }
+                return formatter.format(record);
+            }
+        });
+        handler.setErrorManager(new ErrorManager() {
+            public void error(final String msg, final Exception ex, final int code) {
+            }
+        });
+        handler.publish(record("fail"));
+        handler.flush();
+        assertEquals(1L, handler.getDroppedCount());
+
+        handler.publish(record("after"));
+        handler.flush();
+        assertEquals(Collections.singletonList("after"), readLines());
+        handler.close();
+    }
+
+    @Test
+    public void testWriterThreadIsNamedAfterHandler() {
+        final AsyncFileHandler handler = new AsyncFileHandler("FILE", 16);
+        handler.publish(record("first"));
+        boolean found = false;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            found |= thread.getName().contains("FILE");
+        }
+        handler.close();
+        assertTrue(found);
+    }
+
+    @Test
+    public void testFlushWritesPublishedRecords() throws Exception {
+        final AsyncFileHandler handler = createHandler(16, false);
+        for (int i = 0; i < 3; i++) {
+            handler.publish(record("record" + i));
+        }
+        handler.flush();
+        assertEquals(3, readLines().size());
+        handler.close();
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+        AsyncFileHandler handler = createHandler(16, false);
+        handler.publish(record("first"));
+        handler.close();
+
+        handler = createHandler(16, true);
+        handler.publish(record("second"));
+        handler.close();
+        assertEquals(2, readLines().size());
+
+        handler = createHandler(16, false);
+        handler.publish(record("third"));
+        handler.close();
+        final List<String> lines = readLines();
+        assertEquals(1, lines.size());
+        assertEquals("third", lines.get(0));
+    }
+
+    @Test
+    public void testLevel() throws Exception {
+        final AsyncFileHandler handler = createHandler(16, false);
+        handler.setLevel(Level.INFO);
+        handler.publish(record(Level.FINE, "fine"));
+        handler.publish(record(Level.INFO, "info"));
+        handler.close();
+        assertEquals(1, readLines().size());
+        assertEquals(1L, handler.getWrittenCount());
+    }
+
+    @Test
+    public void testQueueLengthIsRoundedUp() {
+        final AsyncFileHandler handler = new AsyncFileHandler(100);
+        assertEquals(128, handler.getQueueLength());
+        handler.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQueueLength() {
+        new AsyncFileHandler(0);
+    }
+
+    private AsyncFileHandler createHandler(final int queueLength, final boolean append) throws IOException {
+        final AsyncFileHandler handler = new AsyncFileHandler(queueLength);
+        handler.setFormatter(new Formatter() {
+            public String format(final LogRecord record) {
+                return record.getMessage() + "\n";
+            }
+        });
+        handler.setAppend(append);
+        handler.setFile(file);
+        return handler;
+    }
+
+    private static ExtLogRecord record(final String message) {
+        return record(Level.INFO, message);
+    }
+
+    private static ExtLogRecord record(final Level level, final String message) {
+        return new ExtLogRecord(level, message, AsyncFileHandlerTestCase.class.getName());
+    }
+
+    private List<String> readLines() throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
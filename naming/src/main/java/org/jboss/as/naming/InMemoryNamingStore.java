@@ -69,6 +69,9 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
     private final ReentrantLock writeLock = new ReentrantLock();
 
+    /* Flattened, copy-on-write index of every node below the root by its full name. Only modified under the write lock. */
+    private volatile Map<Name, TreeNode> index = Collections.emptyMap();
+
     /**
      * Construct instance with no event support.
      */
@@ -159,6 +162,22 @@ public class InMemoryNamingStore implements WritableNamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
+        // fast path, the name of a context or binding node; anything else (including failures) needs the tree walk
+        final TreeNode node = index.get(name);
+        if (node != null) {
+            return node.binding.getObject();
+        }
+        return lookupByTraversal(name);
+    }
+
+    /**
+     * Lookup the object value of a node by walking the tree, without the help of the index.
+     *
+     * @param name The entry name
+     * @return The object value of the binding, or a {@link ResolveResult} if a reference was found instead of a context
+     * @throws NamingException
+     */
+    Object lookupByTraversal(final Name name) throws NamingException {
         return root.accept(new LookupVisitor(name));
     }
 
@@ -267,6 +286,21 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
     private static final AtomicMapFieldUpdater<ContextNode, String, TreeNode> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, Map.class, "children"));
 
+    private static final AtomicMapFieldUpdater<InMemoryNamingStore, Name, TreeNode> indexUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(InMemoryNamingStore.class, Map.class, "index"));
+
+    private void addToIndex(final TreeNode node) {
+        indexUpdater.put(this, (Name) node.fullName.clone(), node);
+    }
+
+    private void removeFromIndex(final TreeNode node) {
+        if (node instanceof ContextNode) {
+            for (TreeNode child : ((ContextNode) node).children.values()) {
+                removeFromIndex(child);
+            }
+        }
+        indexUpdater.remove(this, node.fullName);
+    }
+
     private class ContextNode extends TreeNode {
         volatile Map<String, TreeNode> children = Collections.emptyMap();
         protected final String name;
@@ -282,10 +316,16 @@ public class InMemoryNamingStore implements WritableNamingStore {
             if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
                 throw nameAlreadyBoundException(fullName.add(childName));
             }
+            addToIndex(childNode);
         }
 
         private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            return childrenUpdater.put(this, childName, childNode);
+            final TreeNode previous = childrenUpdater.put(this, childName, childNode);
+            if (previous != null) {
+                removeFromIndex(previous);
+            }
+            addToIndex(childNode);
+            return previous;
         }
 
         private TreeNode removeChild(final String childName) throws NameNotFoundException {
@@ -293,14 +333,17 @@ public class InMemoryNamingStore implements WritableNamingStore {
             if (old == null) {
                 throw nameNotFoundException(childName, fullName);
             }
+            removeFromIndex(old);
             if(parentNode != null && children.isEmpty()) {
                 childrenUpdater.remove(parentNode, name);
+                removeFromIndex(this);
             }
             return old;
         }
 
         private void clear() {
             childrenUpdater.clear(this);
+            indexUpdater.clear(InMemoryNamingStore.this);
         }
 
         protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
@@ -309,7 +352,11 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         public TreeNode addOrGetChild(final String childName, final TreeNode childNode) {
             TreeNode appearing = childrenUpdater.putIfAbsent(this, childName, childNode);
-            return appearing == null ? childNode : appearing;
+            if (appearing == null) {
+                addToIndex(childNode);
+                return childNode;
+            }
+            return appearing;
         }
     }
 
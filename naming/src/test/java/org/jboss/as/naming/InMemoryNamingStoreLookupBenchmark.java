@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+import javax.naming.NamingException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the lookup of a binding in an {@link InMemoryNamingStore} holding a few thousand bindings, with names
+ * like <code>java:comp/env/...</code> of the given depth.
+ * <ul>
+ * <li><code>index</code> uses {@link InMemoryNamingStore#lookup(Name)}, which finds the binding in the flattened
+ * name index.</li>
+ * <li><code>traversal</code> walks the tree one name component at a time, which is what every lookup used to
+ * do.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InMemoryNamingStoreLookupBenchmark {
+
+    @Param({"index", "traversal"})
+    public String lookup;
+
+    @Param({"2", "4", "8"})
+    public int depth;
+
+    @Param({"5000"})
+    public int bindings;
+
+    private InMemoryNamingStore store;
+    private Name[] names;
+    private int next;
+
+    @Setup
+    public void setup() throws NamingException {
+        store = new InMemoryNamingStore();
+        names = new Name[bindings];
+        for (int i = 0; i < bindings; i++) {
+            final StringBuilder builder = new StringBuilder();
+            for (int j = 1; j < depth; j++) {
+                builder.append("context-").append(j).append('-').append(i % (10 * j)).append('/');
+            }
+            builder.append("binding-").append(i);
+            names[i] = new CompositeName(builder.toString());
+            store.bind(names[i], Integer.valueOf(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws NamingException {
+        store.close();
+    }
+
+    @Benchmark
+    public Object lookup() throws NamingException {
+        final Name name = names[next++ % names.length];
+        if ("index".equals(lookup)) {
+            return store.lookup(name);
+        }
+        return store.lookupByTraversal(name);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(InMemoryNamingStoreLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
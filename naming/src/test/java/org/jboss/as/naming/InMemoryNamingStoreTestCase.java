@@ -265,4 +265,50 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testRebindLookup() throws Exception {
+        final Name name = new CompositeName("test/item");
+        nameStore.bind(name, new Object());
+        final Object object = new Object();
+        nameStore.rebind(name, object);
+        assertEquals(object, nameStore.lookup(name));
+        assertEquals(object, nameStore.lookupByTraversal(name));
+    }
+
+    @Test
+    public void testLookupIndependentOfBoundName() throws Exception {
+        final Name name = new CompositeName("test/item");
+        final Object object = new Object();
+        nameStore.bind(name, object);
+        name.add("other");
+        assertEquals(object, nameStore.lookup(new CompositeName("test/item")));
+    }
+
+    @Test
+    public void testUnbindContextRemovesChildren() throws Exception {
+        nameStore.bind(new CompositeName("test/sub/item"), new Object());
+        assertNotNull(nameStore.lookup(new CompositeName("test/sub/item")));
+
+        nameStore.unbind(new CompositeName("test/sub"));
+
+        try {
+            nameStore.lookup(new CompositeName("test/sub/item"));
+            fail("Should have throw name not found exception");
+        } catch (NameNotFoundException expected){}
+        try {
+            nameStore.lookup(new CompositeName("test"));
+            fail("Should have throw name not found exception");
+        } catch (NameNotFoundException expected){}
+    }
+
+    @Test
+    public void testLookupAfterClose() throws Exception {
+        nameStore.bind(new CompositeName("test/item"), new Object());
+        nameStore.close();
+        try {
+            nameStore.lookup(new CompositeName("test/item"));
+            fail("Should have throw name not found exception");
+        } catch (NameNotFoundException expected){}
+    }
 }
@@ -295,6 +295,17 @@ public interface ProtocolMessages {
     @Message(value = "No request handler found with id %s in operation handler %s")
     IOException requestHandlerIdNotFound(byte id, ManagementOperationHandler operationHandler);
 
+    /**
+     * Creates an exception indicating the processing of a request was rejected by the executor.
+     *
+     * @param id    the id of the request.
+     * @param cause the cause of the error.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(value = "Request %d was rejected, no thread is available to process it")
+    IOException requestRejected(int id, @Cause Throwable cause);
+
     /**
      * Creates an exception indicating the response handler has already been registered for the request.
      *
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.jboss.as.protocol.ProtocolLogger.ROOT_LOGGER;
+
+/**
+ * Hands the processing of incoming requests off to an {@link Executor}, so that several requests received on the
+ * same channel can be in progress at once. Requests that are part of the same batch are run one after the other
+ * in the order they were received, requests which are not part of a batch (batch id <code>0</code>) are not
+ * ordered at all. A request which the executor rejects, either when it is received or when the previous request of
+ * its batch completes, is {@link Task#rejected(RejectedExecutionException) told so} so that it can still be answered.
+ */
+class BatchOrderedExecutor {
+
+    private final Executor executor;
+    private final Map<Integer, Queue<Task>> batches = new HashMap<Integer, Queue<Task>>();
+
+    BatchOrderedExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a task for a request of a batch.
+     *
+     * @param batchId the batch id of the request
+     * @param task the task processing the request
+     */
+    void execute(final int batchId, final Task task) {
+        if (batchId == 0) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.rejected(e);
+            }
+            return;
+        }
+        synchronized (batches) {
+            Queue<Task> queue = batches.get(batchId);
+            if (queue != null) {
+                // A request of this batch is still running, it will pick this one up when done
+                queue.add(task);
+                return;
+            }
+            batches.put(batchId, new ArrayDeque<Task>());
+        }
+        executeBatchTask(batchId, task);
+    }
+
+    private void executeBatchTask(final int batchId, final Task first) {
+        Task task = first;
+        while (task != null) {
+            final Task current = task;
+            try {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            current.run();
+                        } finally {
+                            executeBatchTask(batchId, next(batchId));
+                        }
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                ROOT_LOGGER.tracef(e, "Could not execute request of batch %d", batchId);
+                current.rejected(e);
+            }
+            // The rejected task is done, so go on with the next task of the batch
+            task = next(batchId);
+        }
+    }
+
+    private Task next(final int batchId) {
+        synchronized (batches) {
+            final Queue<Task> queue = batches.get(batchId);
+            final Task next = queue == null ? null : queue.poll();
+            if (next == null) {
+                batches.remove(batchId);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * The processing of a request.
+     */
+    interface Task extends Runnable {
+
+        /**
+         * Called instead of {@link #run()} if the executor rejected the task.
+         *
+         * @param e the rejection
+         */
+        void rejected(RejectedExecutionException e);
+    }
+}
@@ -20,10 +20,10 @@ package org.jboss.as.protocol.mgmt;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.jboss.marshalling.Marshalling;
 import org.jboss.marshalling.SimpleDataOutput;
-import org.jboss.remoting3.MessageOutputStream;
 
 /**
  *
@@ -38,7 +38,7 @@ class FlushableDataOutputImpl implements FlushableDataOutput, Closeable {
         this.output = output;
     }
 
-    static FlushableDataOutputImpl create(MessageOutputStream output) {
+    static FlushableDataOutputImpl create(OutputStream output) {
         return new FlushableDataOutputImpl(new SimpleDataOutput(Marshalling.createByteOutput(output)));
     }
 
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Header announcing the optional protocol features one side of a channel supports. A side which wants to use such a
+ * feature sends a {@link ManagementProtocol#TYPE_CAPABILITIES_REQUEST capabilities request}, and the other side
+ * answers with a {@link ManagementProtocol#TYPE_CAPABILITIES_RESPONSE capabilities response}. Older versions do not
+ * know these types and do not answer, in which case the features are not used.
+ */
+class ManagementCapabilitiesHeader extends ManagementProtocolHeader {
+
+    private final byte type;
+    private byte capabilities;
+
+    /**
+     * Construct an instance with the protocol version for the header.
+     *
+     * @param version The protocol version
+     * @param type The type, either a capabilities request or response
+     * @param capabilities The capabilities of the sender
+     */
+    ManagementCapabilitiesHeader(final int version, final byte type, final byte capabilities) {
+        super(version);
+        this.type = type;
+        this.capabilities = capabilities;
+    }
+
+    ManagementCapabilitiesHeader(final int version, final byte type, final DataInput input) throws IOException {
+        super(version);
+        this.type = type;
+        read(input);
+    }
+
+    public void read(final DataInput input) throws IOException {
+        ProtocolUtils.expectHeader(input, ManagementProtocol.CAPABILITIES);
+        capabilities = input.readByte();
+    }
+
+    /** {@inheritDoc} */
+    public void write(final DataOutput output) throws IOException {
+        super.write(output);
+        output.write(ManagementProtocol.CAPABILITIES);
+        output.write(capabilities);
+    }
+
+    /**
+     * Whether the sender supports a capability
+     *
+     * @param capability the capability, e.g. {@link ManagementProtocol#CAPABILITY_COMPRESSION}
+     * @return <code>true</code> if the capability is supported
+     */
+    boolean isSupported(final byte capability) {
+        return (capabilities & capability) != 0;
+    }
+
+    @Override
+    byte getType() {
+        return type;
+    }
+}
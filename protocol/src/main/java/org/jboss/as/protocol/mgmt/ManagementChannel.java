@@ -23,12 +23,19 @@ import static org.jboss.as.protocol.ProtocolMessages.MESSAGES;
 import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
-import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import org.jboss.as.protocol.ProtocolChannel;
 import org.jboss.marshalling.Marshalling;
@@ -37,6 +44,7 @@ import org.jboss.marshalling.SimpleDataOutput;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.MessageInputStream;
+import org.jboss.remoting3.MessageOutputStream;
 import org.xnio.IoUtils;
 
 /**
@@ -46,6 +54,9 @@ import org.xnio.IoUtils;
  */
 public class ManagementChannel extends ProtocolChannel {
 
+    /** The optional protocol features supported by this side of the channel */
+    private static final byte CAPABILITIES = ManagementProtocol.CAPABILITY_COMPRESSION;
+
     private final ManagementChannelPinger pinger = ManagementChannelPinger.getInstance();
     private final RequestReceiver requestReceiver = new RequestReceiver();
     private final ResponseReceiver responseReceiver = new ResponseReceiver();
@@ -53,6 +64,10 @@ public class ManagementChannel extends ProtocolChannel {
     private volatile long lastResponseReceived;
     private AtomicBoolean awaitingPong = new AtomicBoolean();
     private volatile boolean receivedByeBye;
+    private volatile BatchOrderedExecutor requestExecutor;
+    private volatile boolean compressionEnabled;
+    private volatile boolean peerSupportsCompression;
+    private final AtomicBoolean capabilitiesRequested = new AtomicBoolean();
 
     ManagementChannel(String name, Channel channel) {
         super(name, channel);
@@ -104,6 +119,44 @@ public class ManagementChannel extends ProtocolChannel {
         requestReceiver.setOperationHandler(handler);
     }
 
+    /**
+     * Sets the executor used to process incoming requests and write their responses. Once a request has been read
+     * the channel goes on receiving the next message, so that many requests sent on this channel can be in
+     * progress at once. The requests of a batch are still processed one after the other, in the order they were
+     * received. If no executor is set, a request is processed by the thread which received it.
+     *
+     * @param executor the executor, or {@code null} to process requests in the receiving thread
+     */
+    public void setRequestExecutor(final Executor executor) {
+        requestExecutor = executor == null ? null : new BatchOrderedExecutor(executor);
+    }
+
+    /**
+     * Sets whether the body of the requests sent on this channel is compressed. The other side will then also
+     * compress the body of the responses to these requests. Enabling compression asks the other side of the channel
+     * for its capabilities, and requests are only compressed once it has answered that it understands compressed
+     * requests. Older versions do not answer, so requests to them are never compressed.
+     *
+     * @param compressionEnabled {@code true} to compress requests
+     */
+    public void setCompressionEnabled(final boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+        if (compressionEnabled && capabilitiesRequested.compareAndSet(false, true)) {
+            ROOT_LOGGER.tracef("Requesting capabilities of the other side of %s", this);
+            sendHeader(new ManagementCapabilitiesHeader(ManagementProtocol.VERSION, ManagementProtocol.TYPE_CAPABILITIES_REQUEST, CAPABILITIES));
+        }
+    }
+
+    /**
+     * Whether the body of the requests sent on this channel is compressed, i.e. compression is enabled and the other
+     * side has answered that it supports it.
+     *
+     * @return {@code true} if requests are compressed
+     */
+    boolean isCompressingRequests() {
+        return compressionEnabled && peerSupportsCompression;
+    }
+
     @Override
     protected void doHandle(final MessageInputStream message) {
         ROOT_LOGGER.tracef("%s handling incoming data", this);
@@ -111,7 +164,9 @@ public class ManagementChannel extends ProtocolChannel {
         Exception error = null;
         ManagementRequestHeader requestHeader = null;
         ManagementRequestHandler requestHandler = null;
+        Inflater inflater = null;
         boolean wasPing = false;
+        boolean wasCapabilitiesRequest = false;
         try {
             ManagementProtocolHeader header;
             header = ManagementProtocolHeader.parse(input);
@@ -119,11 +174,22 @@ public class ManagementChannel extends ProtocolChannel {
             switch (header.getType()) {
             case ManagementProtocol.TYPE_REQUEST:
                 requestHeader = (ManagementRequestHeader)header;
-                requestHandler = requestReceiver.readRequest(requestHeader, input);
+                if (requestHeader.isCompressed()) {
+                    inflater = new Inflater();
+                    requestHandler = requestReceiver.readRequest(requestHeader, inflate(input, inflater));
+                } else {
+                    requestHandler = requestReceiver.readRequest(requestHeader, input);
+                }
                 break;
             case ManagementProtocol.TYPE_RESPONSE:
                 gotIncomingResponse();
-                responseReceiver.handleResponse((ManagementResponseHeader)header, input);
+                final ManagementResponseHeader responseHeader = (ManagementResponseHeader)header;
+                if (responseHeader.isCompressed()) {
+                    inflater = new Inflater();
+                    responseReceiver.handleResponse(responseHeader, inflate(input, inflater));
+                } else {
+                    responseReceiver.handleResponse(responseHeader, input);
+                }
                 break;
             case ManagementProtocol.TYPE_BYE_BYE:
                 ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
@@ -138,6 +204,14 @@ public class ManagementChannel extends ProtocolChannel {
                 ROOT_LOGGER.tracef("Received pong on %s", this);
                 gotIncomingResponse();
                 break;
+            case ManagementProtocol.TYPE_CAPABILITIES_REQUEST:
+                ROOT_LOGGER.tracef("Received capabilities request on %s", this);
+                wasCapabilitiesRequest = true;
+                break;
+            case ManagementProtocol.TYPE_CAPABILITIES_RESPONSE:
+                ROOT_LOGGER.tracef("Received capabilities response on %s", this);
+                peerSupportsCompression = ((ManagementCapabilitiesHeader) header).isSupported(ManagementProtocol.CAPABILITY_COMPRESSION);
+                break;
             }
         } catch (Exception e) {
             error = e;
@@ -151,27 +225,38 @@ public class ManagementChannel extends ProtocolChannel {
 
             } catch (IOException ignore) {
             }
+            if (inflater != null) {
+                inflater.end();
+            }
             IoUtils.safeClose(input);
             IoUtils.safeClose(message);
         }
 
         if (requestHeader != null) {
-            if (error == null) {
-                try {
-                    requestReceiver.processRequest(requestHeader, requestHandler);
-                } catch (Exception e) {
-                    error = e;
-                }
-            }
-
-            if (error != null) {
-                ROOT_LOGGER.tracef(error, "Error processing request %s", this);
+            final BatchOrderedExecutor requestExecutor = this.requestExecutor;
+            if (error == null && requestExecutor != null) {
+                final ManagementRequestHeader header = requestHeader;
+                final ManagementRequestHandler handler = requestHandler;
+                requestExecutor.execute(header.getBatchId(), new BatchOrderedExecutor.Task() {
+                    public void run() {
+                        requestReceiver.handleRequest(header, handler, null);
+                    }
+
+                    public void rejected(RejectedExecutionException e) {
+                        ROOT_LOGGER.tracef(e, "%s could not hand off request %d", ManagementChannel.this, header.getRequestId());
+                        requestReceiver.writeResponse(header, handler, MESSAGES.requestRejected(header.getRequestId(), e));
+                    }
+                });
+                return;
             }
-            requestReceiver.writeResponse(requestHeader, requestHandler, error);
+            requestReceiver.handleRequest(requestHeader, requestHandler, error);
         } else if (wasPing) {
             ROOT_LOGGER.tracef("Sending pong on %s", this);
             ManagementPongHeader pongHeader = new ManagementPongHeader(ManagementProtocol.VERSION);
             sendHeaderAndCloseOnError(pongHeader);
+        } else if (wasCapabilitiesRequest) {
+            ROOT_LOGGER.tracef("Sending capabilities on %s", this);
+            sendHeader(new ManagementCapabilitiesHeader(ManagementProtocol.VERSION, ManagementProtocol.TYPE_CAPABILITIES_RESPONSE, CAPABILITIES));
         }
     }
 
@@ -184,10 +269,11 @@ public class ManagementChannel extends ProtocolChannel {
     void executeRequest(ManagementRequest<?> request, ManagementResponseHandler<?> responseHandler) throws IOException {
         addCloseHandler(request, responseHandler);
         responseReceiver.registerResponseHandler(request.getCurrentRequestId(), responseHandler);
-        final FlushableDataOutputImpl output = FlushableDataOutputImpl.create(this.writeMessage());
+        final MessageOutputStream message = this.writeMessage();
+        FlushableDataOutputImpl output = null;
         try {
-            final ManagementRequestHeader managementRequestHeader = new ManagementRequestHeader(ManagementProtocol.VERSION, request.getCurrentRequestId(), request.getBatchId(), request.getRequestCode());
-            managementRequestHeader.write(output);
+            final ManagementRequestHeader managementRequestHeader = new ManagementRequestHeader(ManagementProtocol.VERSION, request.getCurrentRequestId(), request.getBatchId(), request.getRequestCode(), isCompressingRequests());
+            output = writeHeader(message, managementRequestHeader, managementRequestHeader.isCompressed());
 
             request.writeRequest(this, output);
         } catch (Exception e) {
@@ -196,8 +282,48 @@ public class ManagementChannel extends ProtocolChannel {
             if (e instanceof IOException) throw (IOException)e;
             throw new IOException(e);
         } finally {
-            IoUtils.safeClose(output);
+            if (output != null) {
+                IoUtils.safeClose(output);
+            } else {
+                IoUtils.safeClose(message);
+            }
+        }
+    }
+
+    /**
+     * Writes the header of a message and creates the output for the body following it. A compressed body is
+     * deflated as it is written, so that large bodies are still streamed rather than buffered.
+     *
+     * @param message the message
+     * @param header the header
+     * @param compressed whether the body is compressed
+     * @return the output for the body, closing it closes the message
+     */
+    private static FlushableDataOutputImpl writeHeader(final MessageOutputStream message, final ManagementProtocolHeader header, final boolean compressed) throws IOException {
+        if (!compressed) {
+            final FlushableDataOutputImpl output = FlushableDataOutputImpl.create(message);
+            header.write(output);
+            return output;
         }
+        header.write(new DataOutputStream(message));
+        return FlushableDataOutputImpl.create(deflate(message));
+    }
+
+    private static OutputStream deflate(final OutputStream output) {
+        return new DeflaterOutputStream(output, new Deflater(Deflater.BEST_SPEED), 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    def.end();
+                }
+            }
+        };
+    }
+
+    private static SimpleDataInput inflate(final SimpleDataInput input, final Inflater inflater) {
+        return new SimpleDataInput(Marshalling.createByteInput(new InflaterInputStream(input, inflater, 8192)));
     }
 
     private void addCloseHandler(ManagementRequest<?> request, ManagementResponseHandler<?> responseHandler) {
@@ -238,6 +364,21 @@ public class ManagementChannel extends ProtocolChannel {
         }
     }
 
+    private boolean sendHeader(ManagementProtocolHeader header) {
+        try {
+            SimpleDataOutput out = new SimpleDataOutput(Marshalling.createByteOutput(writeMessage()));
+            try {
+                header.write(out);
+                return true;
+            } finally {
+                IoUtils.safeClose(out);
+            }
+        } catch (IOException e) {
+            ROOT_LOGGER.tracef(e, "Error sending 0x%X on %s", header.getType(), this);
+            return false;
+        }
+    }
+
     private void sendHeaderAndCloseOnError(ManagementProtocolHeader header) {
         boolean ok = false;
         try {
@@ -291,17 +432,33 @@ public class ManagementChannel extends ProtocolChannel {
         }
 
 
+        private void handleRequest(ManagementRequestHeader requestHeader, ManagementRequestHandler requestHandler, Exception error) {
+            if (error == null) {
+                try {
+                    processRequest(requestHeader, requestHandler);
+                } catch (Exception e) {
+                    error = e;
+                }
+            }
+
+            if (error != null) {
+                ROOT_LOGGER.tracef(error, "Error processing request %s", ManagementChannel.this);
+            }
+            writeResponse(requestHeader, requestHandler, error);
+        }
+
         private void writeResponse(ManagementRequestHeader requestHeader, ManagementRequestHandler requestHandler, Exception error) {
             ROOT_LOGGER.tracef("%s writing response %d", ManagementChannel.this, requestHeader.getBatchId());
-            final FlushableDataOutputImpl output;
+            final MessageOutputStream message;
             try {
-                output = FlushableDataOutputImpl.create(writeMessage());
+                message = writeMessage();
             } catch (Exception e) {
                 ROOT_LOGGER.tracef(e, "%s could not open output stream for request %d", ManagementChannel.this, requestHeader.getBatchId());
                 return;
             }
+            FlushableDataOutputImpl output = null;
             try {
-                writeResponseHeader(requestHeader, output, error);
+                output = writeResponseHeader(requestHeader, message, error);
 
                 if (error == null && requestHandler != null) {
                     requestHandler.writeResponse(output);
@@ -311,7 +468,11 @@ public class ManagementChannel extends ProtocolChannel {
                 ROOT_LOGGER.tracef(e, "%s finished writing response %d with error", ManagementChannel.this, requestHeader.getBatchId());
             } finally {
                 ROOT_LOGGER.tracef("%s finished writing response %d", ManagementChannel.this, requestHeader.getBatchId());
-                IoUtils.safeClose(output);
+                if (output != null) {
+                    IoUtils.safeClose(output);
+                } else {
+                    IoUtils.safeClose(message);
+                }
             }
         }
 
@@ -333,12 +494,12 @@ public class ManagementChannel extends ProtocolChannel {
             }
         }
 
-        private void writeResponseHeader(final ManagementRequestHeader header, DataOutput output, Exception exception) throws IOException {
+        private FlushableDataOutputImpl writeResponseHeader(final ManagementRequestHeader header, MessageOutputStream message, Exception exception) throws IOException {
             final int workingVersion = Math.min(ManagementProtocol.VERSION, header.getVersion());
             try {
-                // Now write the response header
-                final ManagementResponseHeader responseHeader = new ManagementResponseHeader(workingVersion, header.getRequestId(), formatException(exception));
-                responseHeader.write(output);
+                // Now write the response header, the response body is compressed if the request body was
+                final ManagementResponseHeader responseHeader = new ManagementResponseHeader(workingVersion, header.getRequestId(), formatException(exception), header.isCompressed());
+                return writeHeader(message, responseHeader, responseHeader.isCompressed());
             } catch (IOException e) {
                 throw e;
             } catch (Throwable t) {
@@ -37,6 +37,8 @@ public interface ManagementProtocol {
     byte TYPE_BYE_BYE = 0x4;
     byte TYPE_PING = 0x5;
     byte TYPE_PONG = 0x6;
+    byte TYPE_CAPABILITIES_REQUEST = 0x7;
+    byte TYPE_CAPABILITIES_RESPONSE = 0x8;
 
     byte REQUEST_ID = 0x10;
     byte BATCH_ID = 0x11;
@@ -44,10 +46,17 @@ public interface ManagementProtocol {
     byte ONE_WAY = 0x13;
     byte REQUEST_BODY = 0x14;
     byte REQUEST_END = 0x15;
+    byte COMPRESSED = 0x16; // The request body is deflated, and a deflated response body is accepted
 
     byte RESPONSE_ID = 0x20;
     byte RESPONSE_TYPE = 0x21;
     byte RESPONSE_BODY = 0x22;
     byte RESPONSE_ERROR = 0x23;
     byte RESPONSE_END = 0x24;
+    byte RESPONSE_BODY_COMPRESSED = 0x25;
+
+    byte CAPABILITIES = 0x30;
+
+    // Capabilities
+    byte CAPABILITY_COMPRESSION = 0x1; // Compressed requests and responses are understood
 }
@@ -116,6 +116,9 @@ abstract class ManagementProtocolHeader {
                 return new ManagementPingHeader(version);
             case ManagementProtocol.TYPE_PONG:
                 return new ManagementPongHeader(version);
+            case ManagementProtocol.TYPE_CAPABILITIES_REQUEST:
+            case ManagementProtocol.TYPE_CAPABILITIES_RESPONSE:
+                return new ManagementCapabilitiesHeader(version, type, input);
             default:
                 throw MESSAGES.invalidType("0x" + Integer.toHexString(type));
         }
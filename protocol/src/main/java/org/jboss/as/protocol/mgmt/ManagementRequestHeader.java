@@ -40,6 +40,7 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
     private byte operationId;
     //TODO still unused, put in the protocol for when we get round to doing requests not expecting a response
     private boolean oneWay;
+    private boolean compressed;
 
     /**
      * Construct an instance with the protocol version and operation handler for the header.
@@ -50,10 +51,24 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
      * @param operationId The operation to invoke on the server
      */
     ManagementRequestHeader(final int version, final  int requestId, final int batchId, final byte operationId) {
+        this(version, requestId, batchId, operationId, false);
+    }
+
+    /**
+     * Construct an instance with the protocol version and operation handler for the header.
+     *
+     * @param version The protocol version
+     * @param requestId The request id
+     * @param batchId The batch id
+     * @param operationId The operation to invoke on the server
+     * @param compressed Whether the request body is compressed
+     */
+    ManagementRequestHeader(final int version, final  int requestId, final int batchId, final byte operationId, final boolean compressed) {
         super(version);
         this.requestId = requestId;
         this.batchId = batchId;
         this.operationId = operationId;
+        this.compressed = compressed;
     }
 
     ManagementRequestHeader(final int version, final DataInput input) throws IOException {
@@ -71,7 +86,12 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
         operationId = input.readByte();
         ProtocolUtils.expectHeader(input, ManagementProtocol.ONE_WAY);
         oneWay = input.readBoolean();
-        ProtocolUtils.expectHeader(input, ManagementProtocol.REQUEST_BODY);
+        byte next = input.readByte();
+        if (next == ManagementProtocol.COMPRESSED) {
+            compressed = true;
+            next = input.readByte();
+        }
+        ProtocolUtils.expectHeader(next, ManagementProtocol.REQUEST_BODY);
     }
 
     /** {@inheritDoc} */
@@ -85,6 +105,9 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
         output.write(operationId);
         output.write(ManagementProtocol.ONE_WAY);
         output.writeBoolean(oneWay);
+        if (compressed) {
+            output.write(ManagementProtocol.COMPRESSED);
+        }
         output.write(ManagementProtocol.REQUEST_BODY);
     }
 
@@ -115,6 +138,16 @@ public class ManagementRequestHeader extends ManagementProtocolHeader {
         return operationId;
     }
 
+    /**
+     * Whether the request body is compressed. The sender of a compressed request also accepts a compressed
+     * response.
+     *
+     * @return <code>true</code> if the request body is compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     @Override
     byte getType() {
         return ManagementProtocol.TYPE_REQUEST;
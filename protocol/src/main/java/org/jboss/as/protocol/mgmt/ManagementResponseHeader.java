@@ -38,6 +38,7 @@ import static org.jboss.as.protocol.ProtocolMessages.MESSAGES;
 class ManagementResponseHeader extends ManagementProtocolHeader {
     private int responseId;
     private String error;
+    private boolean compressed;
 
     /**
      * Construct an instance with the protocol version for the header.
@@ -46,9 +47,21 @@ class ManagementResponseHeader extends ManagementProtocolHeader {
      * @param responseId The response id
      */
     public ManagementResponseHeader(final int version, final int responseId, final String error) {
+        this(version, responseId, error, false);
+    }
+
+    /**
+     * Construct an instance with the protocol version for the header.
+     *
+     * @param version The protocol version
+     * @param responseId The response id
+     * @param compressed Whether the response body is compressed, this is ignored for an error
+     */
+    public ManagementResponseHeader(final int version, final int responseId, final String error, final boolean compressed) {
         super(version);
         this.responseId = responseId;
         this.error = error;
+        this.compressed = error == null && compressed;
     }
 
     ManagementResponseHeader(final int version, final DataInput input) throws IOException {
@@ -63,6 +76,8 @@ class ManagementResponseHeader extends ManagementProtocolHeader {
         byte type = input.readByte();
         if (type == ManagementProtocol.RESPONSE_ERROR) {
             error = input.readUTF();
+        } else if (type == ManagementProtocol.RESPONSE_BODY_COMPRESSED) {
+            compressed = true;
         } else if (type != ManagementProtocol.RESPONSE_BODY) {
             throw MESSAGES.invalidType("RESPONSE_ERROR", "RESPONSE_BODY", type);
         }
@@ -76,6 +91,8 @@ class ManagementResponseHeader extends ManagementProtocolHeader {
         if (error != null) {
             output.write(ManagementProtocol.RESPONSE_ERROR);
             output.writeUTF(error);
+        } else if (compressed) {
+            output.write(ManagementProtocol.RESPONSE_BODY_COMPRESSED);
         } else {
             output.write(ManagementProtocol.RESPONSE_BODY);
         }
@@ -99,6 +116,15 @@ class ManagementResponseHeader extends ManagementProtocolHeader {
         return error;
     }
 
+    /**
+     * Whether the response body is compressed
+     *
+     * @return <code>true</code> if the response body is compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     @Override
     byte getType() {
         return ManagementProtocol.TYPE_RESPONSE;
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.security.Provider;
+import java.security.Security;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.jboss.sasl.JBossSaslProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of management requests echoing a payload over a pair of channels connected through the
+ * loopback interface. Every benchmark thread has one request outstanding at a time, so with several threads that
+ * many requests are in flight on the one channel.
+ * <ul>
+ * <li><code>requestExecutor</code> hands the processing of requests off to an executor on the receiving side,
+ * see {@link ManagementChannel#setRequestExecutor(java.util.concurrent.Executor)}.</li>
+ * <li><code>compression</code> compresses the request and response bodies, see
+ * {@link ManagementChannel#setCompressionEnabled(boolean)}.</li>
+ * </ul>
+ * Run {@link #main(String[])} to measure with 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ManagementChannelBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"false", "true"})
+    public boolean requestExecutor;
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    @Param({"64", "65536"})
+    public int payloadSize;
+
+    private final Provider saslProvider = new JBossSaslProvider();
+    private RemoteChannelPairSetup channels;
+    private ExecutorService executor;
+    private ManagementClientChannelStrategy strategy;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws Exception {
+        if (Security.getProvider(saslProvider.getName()) == null) {
+            Security.insertProviderAt(saslProvider, 1);
+        }
+        channels = new RemoteChannelPairSetup();
+        channels.setupRemoting();
+        channels.startChannels();
+        channels.getClientChannel().startReceiving();
+        channels.getClientChannel().setCompressionEnabled(compression);
+        channels.getServerChannel().setOperationHandler(new SimpleHandlers.OperationHandler());
+        if (requestExecutor) {
+            executor = Executors.newCachedThreadPool();
+            channels.getServerChannel().setRequestExecutor(executor);
+        }
+        strategy = ManagementClientChannelStrategy.create(channels.getClientChannel());
+
+        // Something that compresses about as well as a model
+        final byte[] text = "{\"outcome\" => \"success\", \"result\" => {\"name\" => \"value\"}}".getBytes("UTF-8");
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = text[i % text.length];
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        channels.stopChannels();
+        channels.shutdownRemoting();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public byte[] echo() throws Exception {
+        return new SimpleHandlers.EchoRequest(payload).executeForResult(channels.getExecutorService(), strategy);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            final Options options = new OptionsBuilder()
+                    .include(ManagementChannelBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
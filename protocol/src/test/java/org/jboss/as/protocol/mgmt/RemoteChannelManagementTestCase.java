@@ -26,6 +26,9 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.Provider;
 import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -33,6 +36,7 @@ import java.util.concurrent.Future;
 
 import junit.framework.Assert;
 
+import org.jboss.as.protocol.mgmt.support.ConcurrentProcessingOperationHandler;
 import org.jboss.as.protocol.mgmt.support.ConcurrentRequestOperationHandler;
 import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
 import org.jboss.as.protocol.mgmt.support.RemotingChannelPairSetup;
@@ -219,4 +223,123 @@ public class RemoteChannelManagementTestCase {
         } catch (ExecutionException expected) {
         }
     }
+
+    @Test
+    public void testCompressedRequest() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        channel.setOperationHandler(new SimpleHandlers.OperationHandler());
+        enableCompression(channels.getClientChannel());
+        SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600);
+        Assert.assertEquals(Integer.valueOf(1200), request.executeForResult(channels.getExecutorService(), ManagementClientChannelStrategy.create(channels.getClientChannel())));
+    }
+
+    @Test
+    public void testCompressedLargeRequest() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        channel.setOperationHandler(new SimpleHandlers.OperationHandler());
+        enableCompression(channels.getClientChannel());
+        byte[] data = new byte[1024 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 100);
+        }
+        SimpleHandlers.EchoRequest request = new SimpleHandlers.EchoRequest(data);
+        Assert.assertTrue(Arrays.equals(data, request.executeForResult(channels.getExecutorService(), ManagementClientChannelStrategy.create(channels.getClientChannel()))));
+    }
+
+    @Test
+    public void testCompressedRequestError() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        channel.setOperationHandler(new SimpleHandlers.OperationHandler());
+        enableCompression(channels.getClientChannel());
+        SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.REQUEST_WITH_BAD_READ, 600);
+        try {
+            request.executeForResult(channels.getExecutorService(), ManagementClientChannelStrategy.create(channels.getClientChannel()));
+            Assert.fail("Should have failed");
+        } catch (ExecutionException expected) {
+            Assert.assertTrue(expected.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testRejectedRequest() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        channel.setOperationHandler(new SimpleHandlers.OperationHandler());
+        ExecutorService requestExecutor = Executors.newCachedThreadPool();
+        requestExecutor.shutdown();
+        channel.setRequestExecutor(requestExecutor);
+        for (int batchId : new int[] {0, 1}) {
+            SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, batchId, 600);
+            try {
+                request.executeForResult(channels.getExecutorService(), ManagementClientChannelStrategy.create(channels.getClientChannel()));
+                Assert.fail("Should have failed");
+            } catch (ExecutionException expected) {
+                Assert.assertTrue(expected.getCause() instanceof IOException);
+            }
+        }
+    }
+
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        ConcurrentProcessingOperationHandler handler = new ConcurrentProcessingOperationHandler(3);
+        channel.setOperationHandler(handler);
+        ExecutorService requestExecutor = Executors.newCachedThreadPool();
+        channel.setRequestExecutor(requestExecutor);
+        try {
+            ManagementClientChannelStrategy strategy =  ManagementClientChannelStrategy.create(channels.getClientChannel());
+            ExecutorService executorService = Executors.newCachedThreadPool();
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600 + i).execute(executorService, strategy));
+            }
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(Integer.valueOf(1200 + i * 2), futures.get(i).get());
+            }
+            Assert.assertEquals(3, handler.getMaxProcessing());
+            executorService.shutdown();
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPipelinedBatchRequests() throws Exception {
+        ManagementChannel channel = channels.getServerChannel();
+        channels.getClientChannel().startReceiving();
+        ConcurrentProcessingOperationHandler handler = new ConcurrentProcessingOperationHandler();
+        channel.setOperationHandler(handler);
+        ExecutorService requestExecutor = Executors.newCachedThreadPool();
+        channel.setRequestExecutor(requestExecutor);
+        try {
+            ManagementClientChannelStrategy strategy =  ManagementClientChannelStrategy.create(channels.getClientChannel());
+            ExecutorService executorService = Executors.newCachedThreadPool();
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 1, 600 + i).execute(executorService, strategy));
+            }
+            for (int i = 0; i < 5; i++) {
+                Assert.assertEquals(Integer.valueOf(1200 + i * 2), futures.get(i).get());
+            }
+            //The requests of a batch are never processed at the same time
+            Assert.assertEquals(1, handler.getMaxProcessing());
+            executorService.shutdown();
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    private static void enableCompression(ManagementChannel channel) throws InterruptedException {
+        channel.setCompressionEnabled(true);
+        //Requests are only compressed once the other side has answered that it supports compression
+        long end = System.currentTimeMillis() + 10000;
+        while (!channel.isCompressingRequests()) {
+            Assert.assertTrue("Compression was not negotiated", System.currentTimeMillis() < end);
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt.support;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementOperationHandler;
+import org.jboss.as.protocol.mgmt.ManagementRequestHandler;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+
+/**
+ * Handles {@link SimpleHandlers#SIMPLE_REQUEST}s, keeping track of how many requests are processed at the same time.
+ * If a number of concurrent requests is given the processing of a request waits for that many requests to be
+ * processed, otherwise it just takes a little while.
+ */
+public class ConcurrentProcessingOperationHandler implements ManagementOperationHandler {
+
+    private final CyclicBarrier barrier;
+    private final AtomicInteger processing = new AtomicInteger();
+    private final AtomicInteger maxProcessing = new AtomicInteger();
+
+    public ConcurrentProcessingOperationHandler() {
+        barrier = null;
+    }
+
+    public ConcurrentProcessingOperationHandler(final int concurrentRequests) {
+        barrier = new CyclicBarrier(concurrentRequests);
+    }
+
+    public int getMaxProcessing() {
+        return maxProcessing.get();
+    }
+
+    @Override
+    public ManagementRequestHandler getRequestHandler(byte id) {
+        if (id != SimpleHandlers.SIMPLE_REQUEST) {
+            return null;
+        }
+        return new RequestHandler();
+    }
+
+    private class RequestHandler extends ManagementRequestHandler {
+        int data;
+
+        @Override
+        public void readRequest(DataInput input) throws IOException {
+            data = input.readInt();
+        }
+
+        @Override
+        protected void processRequest() throws RequestProcessingException {
+            final int current = processing.incrementAndGet();
+            try {
+                int max = maxProcessing.get();
+                while (current > max && !maxProcessing.compareAndSet(max, current)) {
+                    max = maxProcessing.get();
+                }
+                if (barrier != null) {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } else {
+                    Thread.sleep(20);
+                }
+            } catch (Exception e) {
+                throw new RequestProcessingException(e);
+            } finally {
+                processing.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void writeResponse(FlushableDataOutput output) throws IOException {
+            output.writeInt(data * 2);
+        }
+    }
+}
@@ -42,6 +42,7 @@ public class SimpleHandlers {
     public static final byte REQUEST_WITH_NO_HANDLER = 103;
     public static final byte REQUEST_WITH_BAD_READ = 104;
     public static final byte REQUEST_WITH_BAD_WRITE = 105;
+    public static final byte ECHO_REQUEST = 106;
 
     public static class Request extends ManagementRequest<Integer>{
         final int sentData;
@@ -52,6 +53,12 @@ public class SimpleHandlers {
             this.sentData = sentData;
         }
 
+        public Request(byte requestCode, int batchId, int sentData) {
+            super(batchId);
+            this.requestCode = requestCode;
+            this.sentData = sentData;
+        }
+
         @Override
         protected byte getRequestCode() {
             return requestCode;
@@ -85,6 +92,8 @@ public class SimpleHandlers {
                 return new BadReadRequestHandler();
             case REQUEST_WITH_BAD_WRITE:
                 return new BadWriteRequestHandler();
+            case ECHO_REQUEST:
+                return new EchoRequestHandler();
             case REQUEST_WITH_NO_HANDLER:
                 //No handler for this
             default:
@@ -108,6 +117,52 @@ public class SimpleHandlers {
         }
     }
 
+    public static class EchoRequest extends ManagementRequest<byte[]>{
+        final byte[] sentData;
+
+        public EchoRequest(byte[] sentData) {
+            this.sentData = sentData;
+        }
+
+        @Override
+        protected byte getRequestCode() {
+            return ECHO_REQUEST;
+        }
+
+        @Override
+        protected void writeRequest(int protocolVersion, FlushableDataOutput output) throws IOException {
+            output.writeInt(sentData.length);
+            output.write(sentData);
+        }
+
+        @Override
+        protected ManagementResponseHandler<byte[]> getResponseHandler() {
+            return new ManagementResponseHandler<byte[]>() {
+                protected byte[] readResponse(DataInput input) throws IOException {
+                    byte[] data = new byte[input.readInt()];
+                    input.readFully(data);
+                    return data;
+                }
+            };
+        }
+    }
+
+    public static class EchoRequestHandler extends ManagementRequestHandler {
+        byte[] data;
+
+        @Override
+        public void readRequest(DataInput input) throws IOException {
+            data = new byte[input.readInt()];
+            input.readFully(data);
+        }
+
+        @Override
+        public void writeResponse(FlushableDataOutput output) throws IOException {
+            output.writeInt(data.length);
+            output.write(data);
+        }
+    }
+
     public static class BadReadRequestHandler extends ManagementRequestHandler {
 
         @Override
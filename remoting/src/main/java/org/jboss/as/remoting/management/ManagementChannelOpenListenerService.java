@@ -22,15 +22,23 @@
 package org.jboss.as.remoting.management;
 
 import java.io.IOException;
+import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.remote.ManagementOperationHandlerFactory;
 import org.jboss.as.protocol.mgmt.ManagementChannel;
 import org.jboss.as.protocol.mgmt.ManagementChannelFactory;
 import org.jboss.as.protocol.mgmt.ManagementOperationHandler;
 import org.jboss.as.remoting.AbstractChannelOpenListenerService;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
+import org.jboss.threads.JBossThreadFactory;
 import org.xnio.OptionMap;
 
 /**
@@ -43,10 +51,26 @@ class ManagementChannelOpenListenerService extends AbstractChannelOpenListenerSe
     private final InjectedValue<ManagementOperationHandlerFactory> operationHandlerFactoryValue = new InjectedValue<ManagementOperationHandlerFactory>();
 
 
+    private volatile ExecutorService requestExecutor;
+
     ManagementChannelOpenListenerService(String channelName, OptionMap optionMap) {
         super(channelName, optionMap);
     }
 
+    @Override
+    public void start(StartContext context) throws StartException {
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("management-handler-threads"), Boolean.FALSE, null,
+                "%G - %t", null, null, AccessController.getContext());
+        requestExecutor = Executors.newCachedThreadPool(threadFactory);
+        super.start(context);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        super.stop(context);
+        requestExecutor.shutdown();
+    }
+
     public InjectedValue<ManagementOperationHandlerFactory> getOperationHandlerInjector(){
         return operationHandlerFactoryValue;
     }
@@ -56,7 +80,9 @@ class ManagementChannelOpenListenerService extends AbstractChannelOpenListenerSe
         final ManagementOperationHandler handler = operationHandlerFactoryValue.getValue().createOperationHandler();
         final ManagementChannel managementChannel = new ManagementChannelFactory(handler).create(channelName, channel);
         log.tracef("Opened %s: %s with handler %s", channelName, managementChannel, handler);
+        managementChannel.setRequestExecutor(requestExecutor);
         managementChannel.startReceiving();
+        managementChannel.setCompressionEnabled(true);
         channel.addCloseHandler(new CloseHandler<Channel>() {
             public void handleClose(final Channel closed, final IOException exception) {
                 try {
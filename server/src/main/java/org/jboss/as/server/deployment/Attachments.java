@@ -24,6 +24,7 @@ package org.jboss.as.server.deployment;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexStatistics;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
@@ -81,9 +82,9 @@ public final class Attachments {
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
     /**
-     * The deployment hash
+     * The deployment hash. Only available for deployments whose content is stored in the content repository.
      */
-    //public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+    public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
     /**
      * The special status listener attachment.
@@ -171,6 +172,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<String>> INDEX_IGNORE_PATHS = AttachmentKey.createList(String.class);
 
+    /**
+     * Statistics about the annotation indexing of a top level deployment and its sub deployments.
+     */
+    public static final AttachmentKey<AnnotationIndexStatistics> ANNOTATION_INDEX_STATISTICS = AttachmentKey.create(AnnotationIndexStatistics.class);
+
     /**
      * Flag to determine whether to process the child annotation indexes as part of the parent deployment.
      * Ex.  An EAR deployment should not processes nested JAR index when checking for deployable annotations.
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * An on-disk cache of annotation indexes, which survives redeployments and server restarts.
+ * <p/>
+ * Indexes are stored in one file per resource root. The key of a resource root is derived from the hash the deployment
+ * content was stored under in the content repository and the path of the resource root within the deployment, so
+ * identical content always maps to the same index while changed content never does. The files are grouped in one
+ * directory per content hash, which {@link #removeStale(ContentRepository)} deletes once the content is gone.
+ *
+ * @see AnnotationIndexProcessor
+ */
+public final class AnnotationIndexCache {
+
+    private static final Logger logger = Logger.getLogger(AnnotationIndexCache.class);
+
+    private static final String SUFFIX = ".idx";
+    private static final int PATH_DIGEST_LENGTH = 20;
+
+    private final File directory;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory to store the indexes in. Will be created if it does not exist
+     */
+    public AnnotationIndexCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates the key of a resource root.
+     *
+     * @param contentHash the SHA-1 hash of the deployment content
+     * @param path the path of the resource root, relative to the deployment root
+     * @return the key, the content hash followed by the SHA-1 hash of the path
+     */
+    public static byte[] createKey(final byte[] contentHash, final String path) {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+        final byte[] pathDigest;
+        try {
+            pathDigest = messageDigest.digest(path.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] key = Arrays.copyOf(contentHash, contentHash.length + pathDigest.length);
+        System.arraycopy(pathDigest, 0, key, contentHash.length, pathDigest.length);
+        return key;
+    }
+
+    /**
+     * Gets the index stored under a key.
+     *
+     * @param key the key
+     * @return the index, or {@code null} if there is none or it could not be read
+     */
+    public Index get(final byte[] key) {
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        Index index = null;
+        InputStream inputStream = null;
+        try {
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+            index = new IndexReader(inputStream).read();
+        } catch (Exception e) {
+            logger.debugf(e, "Could not read cached index %s", file);
+        } finally {
+            VFSUtils.safeClose(inputStream);
+        }
+        if (index == null && !file.delete()) {
+            file.deleteOnExit();
+        }
+        return index;
+    }
+
+    /**
+     * Stores an index under a key. Failing to store the index is not considered an error; the index will just
+     * have to be generated again the next time.
+     *
+     * @param key the key
+     * @param index the index
+     */
+    public void put(final byte[] key, final Index index) {
+        final File file = getFile(key);
+        final File contentDirectory = file.getParentFile();
+        File tmp = null;
+        OutputStream outputStream = null;
+        try {
+            if (!contentDirectory.isDirectory() && !contentDirectory.mkdirs() && !contentDirectory.isDirectory()) {
+                throw new IOException("Cannot create directory " + contentDirectory.getAbsolutePath());
+            }
+            // write to a temporary file first, so concurrent readers never see a partially written index
+            tmp = File.createTempFile("index", "tmp", contentDirectory);
+            outputStream = new BufferedOutputStream(new FileOutputStream(tmp));
+            new IndexWriter(outputStream).write(index);
+            outputStream.close();
+            outputStream = null;
+            if (!tmp.renameTo(file) && !file.exists()) {
+                throw new IOException("Cannot rename " + tmp.getAbsolutePath() + " to " + file.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            logger.debugf(e, "Could not store index %s", file);
+        } finally {
+            VFSUtils.safeClose(outputStream);
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Deletes the indexes of content which is no longer in the content repository. Anything else in the cache
+     * directory which is not a directory of indexes is deleted as well.
+     *
+     * @param contentRepository the content repository
+     */
+    public void removeStale(final ContentRepository contentRepository) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                byte[] contentHash;
+                try {
+                    contentHash = HashUtil.hexStringToByteArray(file.getName());
+                } catch (RuntimeException e) {
+                    contentHash = null;
+                }
+                if (contentHash != null && contentRepository.hasContent(contentHash)) {
+                    continue;
+                }
+                logger.tracef("Removing cached indexes %s", file);
+            }
+            delete(file);
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete() && file.exists()) {
+            logger.debugf("Could not delete %s", file);
+        }
+    }
+
+    private File getFile(final byte[] key) {
+        final int split = key.length - PATH_DIGEST_LENGTH;
+        final File contentDirectory = new File(directory, HashUtil.bytesToHexString(Arrays.copyOf(key, split)));
+        return new File(contentDirectory, HashUtil.bytesToHexString(Arrays.copyOfRange(key, split, key.length)) + SUFFIX);
+    }
+}
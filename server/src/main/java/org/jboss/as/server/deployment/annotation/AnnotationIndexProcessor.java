@@ -45,9 +45,17 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p/>
+ * If an executor is provided the resource roots of a deployment unit are indexed in parallel. If a cache is provided
+ * generated indexes of managed deployment content are stored in it, and reused when the same content is deployed
+ * again.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
@@ -56,6 +64,24 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
     private static final Logger logger = Logger.getLogger(AnnotationIndexProcessor.class);
 
+    private final Executor executor;
+    private final AnnotationIndexCache cache;
+
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param executor the executor to index resource roots with, or {@code null} to index them on the deploying thread
+     * @param cache the cache of generated indexes, or {@code null} to not cache them
+     */
+    public AnnotationIndexProcessor(final Executor executor, final AnnotationIndexCache cache) {
+        this.executor = executor;
+        this.cache = cache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -65,12 +91,15 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      *
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final List<ResourceRoot> allResourceRoots = new ArrayList<ResourceRoot>();
-        final List<ResourceRoot> resourceRoots = phaseContext.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        final List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         if (resourceRoots != null) {
             allResourceRoots.addAll(resourceRoots);
         }
-        allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+        allResourceRoots.add(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT));
+
+        final List<ResourceRoot> rootsToIndex = new ArrayList<ResourceRoot>();
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -93,47 +122,168 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             if (shouldIndexResource != null && !shouldIndexResource) {
                 continue;
             }
+            rootsToIndex.add(resourceRoot);
+        }
+        if (rootsToIndex.isEmpty()) {
+            return;
+        }
 
-            final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
-            final Set<String> indexIgnorePaths;
-            if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
-                indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
+        final DeploymentUnit topLevelDeployment = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+        final AnnotationIndexStatistics statistics = getStatistics(topLevelDeployment);
+        final byte[] contentHash = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final VirtualFile contentRoot = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT).getRoot();
+
+        final List<FutureTask<Index>> tasks = new ArrayList<FutureTask<Index>>(rootsToIndex.size());
+        for (final ResourceRoot resourceRoot : rootsToIndex) {
+            final byte[] cacheKey = getCacheKey(resourceRoot, contentHash, contentRoot);
+            final String rootName = getRootName(resourceRoot, contentRoot);
+            final FutureTask<Index> task = new FutureTask<Index>(new Callable<Index>() {
+                public Index call() throws Exception {
+                    return indexResourceRoot(resourceRoot, rootName, cacheKey, statistics);
+                }
+            });
+            tasks.add(task);
+            // the deploying thread takes care of the last root itself
+            if (executor != null && tasks.size() < rootsToIndex.size()) {
+                executor.execute(task);
+            }
+        }
+        try {
+            if (executor == null) {
+                for (FutureTask<Index> task : tasks) {
+                    task.run();
+                }
             } else {
-                indexIgnorePaths = null;
+                tasks.get(tasks.size() - 1).run();
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                rootsToIndex.get(i).putAttachment(Attachments.ANNOTATION_INDEX, tasks.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            for (FutureTask<Index> task : tasks) {
+                task.cancel(true);
             }
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException("Interrupted while indexing deployment root for annotations", e);
+        } catch (ExecutionException e) {
+            throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e.getCause());
+        }
+    }
+
+    private Index indexResourceRoot(final ResourceRoot resourceRoot, final String rootName, final byte[] cacheKey,
+                                    final AnnotationIndexStatistics statistics) throws IOException {
+        final long start = System.currentTimeMillis();
+        Index index = null;
+        if (cacheKey != null) {
+            index = cache.get(cacheKey);
+            if (index != null) {
+                statistics.recordCacheHit();
+                logger.tracef("Read cached index for archive %s", resourceRoot.getRoot());
+            } else {
+                statistics.recordCacheMiss();
+            }
+        }
+        if (index == null) {
+            index = createIndex(resourceRoot);
+            if (cacheKey != null) {
+                cache.put(cacheKey, index);
+            }
+        }
+        statistics.recordIndexTime(rootName, System.currentTimeMillis() - start);
+        return index;
+    }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
+    private static Index createIndex(final ResourceRoot resourceRoot) throws IOException {
+        final List<String> indexIgnorePathList = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+        final Set<String> indexIgnorePaths;
+        if (indexIgnorePathList != null && !indexIgnorePathList.isEmpty()) {
+            indexIgnorePaths = new HashSet<String>(indexIgnorePathList);
+        } else {
+            indexIgnorePaths = null;
+        }
+
+        final VirtualFile virtualFile = resourceRoot.getRoot();
+        final Indexer indexer = new Indexer();
+        final VisitorAttributes visitorAttributes = new VisitorAttributes();
+        visitorAttributes.setLeavesOnly(true);
+        visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+            public boolean accepts(VirtualFile file) {
+                return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+            }
+        });
+
+        final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+        for (VirtualFile classFile : classChildren) {
+            InputStream inputStream = null;
             try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                    }
-                });
-
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } catch (Exception e) {
-                        logger.warn("Could not index class " + classFile.getPathNameRelativeTo(virtualFile) + " in archive '" + virtualFile + "'", e);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
-                    }
-                }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-                logger.tracef("Generated index for archive %s", virtualFile);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+                inputStream = classFile.openStream();
+                indexer.index(inputStream);
+            } catch (Exception e) {
+                logger.warn("Could not index class " + classFile.getPathNameRelativeTo(virtualFile) + " in archive '" + virtualFile + "'", e);
+            } finally {
+                VFSUtils.safeClose(inputStream);
+            }
+        }
+        final Index index = indexer.complete();
+        logger.tracef("Generated index for archive %s", virtualFile);
+        return index;
+    }
+
+    /**
+     * Gets the cache key of a resource root. Only resource roots within managed content (which cannot change without
+     * its hash changing) and without ignored paths are cached.
+     */
+    private byte[] getCacheKey(final ResourceRoot resourceRoot, final byte[] contentHash, final VirtualFile contentRoot) {
+        if (cache == null || contentHash == null) {
+            return null;
+        }
+        final List<String> indexIgnorePaths = resourceRoot.getAttachment(Attachments.INDEX_IGNORE_PATHS);
+        if (indexIgnorePaths != null && !indexIgnorePaths.isEmpty()) {
+            return null;
+        }
+        final String path = getRelativePath(resourceRoot.getRoot(), contentRoot);
+        if (path == null) {
+            // e.g. an external resource root added by jboss-deployment-structure.xml
+            return null;
+        }
+        return AnnotationIndexCache.createKey(contentHash, path);
+    }
+
+    private static String getRootName(final ResourceRoot resourceRoot, final VirtualFile contentRoot) {
+        final String path = getRelativePath(resourceRoot.getRoot(), contentRoot);
+        if (path == null) {
+            return resourceRoot.getRoot().getPathName();
+        }
+        return path.length() == 0 ? contentRoot.getName() : contentRoot.getName() + "/" + path;
+    }
+
+    /**
+     * Gets the path of a file relative to the deployment root, or {@code null} if it is not inside the deployment.
+     */
+    private static String getRelativePath(final VirtualFile file, final VirtualFile contentRoot) {
+        if (file.equals(contentRoot)) {
+            return "";
+        }
+        if (file.getPathName().startsWith(contentRoot.getPathName() + "/")) {
+            return file.getPathNameRelativeTo(contentRoot);
+        }
+        return null;
+    }
+
+    private static AnnotationIndexStatistics getStatistics(final DeploymentUnit topLevelDeployment) {
+        synchronized (topLevelDeployment) {
+            AnnotationIndexStatistics statistics = topLevelDeployment.getAttachment(Attachments.ANNOTATION_INDEX_STATISTICS);
+            if (statistics == null) {
+                statistics = new AnnotationIndexStatistics();
+                topLevelDeployment.putAttachment(Attachments.ANNOTATION_INDEX_STATISTICS, statistics);
             }
+            return statistics;
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
+        if (context.getParent() == null) {
+            context.removeAttachment(Attachments.ANNOTATION_INDEX_STATISTICS);
+        }
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics about the annotation indexing of a deployment, including its sub deployments.
+ *
+ * @see AnnotationIndexProcessor
+ */
+public final class AnnotationIndexStatistics {
+
+    private final Map<String, Long> indexTimes = new LinkedHashMap<String, Long>();
+    private long cacheHits;
+    private long cacheMisses;
+
+    /**
+     * Records the time it took to index a resource root.
+     *
+     * @param rootName the name of the resource root
+     * @param millis the time in milliseconds
+     */
+    public synchronized void recordIndexTime(final String rootName, final long millis) {
+        indexTimes.put(rootName, millis);
+    }
+
+    public synchronized void recordCacheHit() {
+        cacheHits++;
+    }
+
+    public synchronized void recordCacheMiss() {
+        cacheMisses++;
+    }
+
+    /**
+     * Gets the time it took to index each resource root, in milliseconds.
+     *
+     * @return a copy of the index times by resource root name
+     */
+    public synchronized Map<String, Long> getIndexTimes() {
+        return new LinkedHashMap<String, Long>(indexTimes);
+    }
+
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    public synchronized long getCacheMisses() {
+        return cacheMisses;
+    }
+}
@@ -109,6 +109,8 @@ public class HostControllerConnectionService implements Service<ManagementChanne
             client.connect(new ClientCallbackHandler());
             channel = client.openChannel(ManagementRemotingServices.SERVER_CHANNEL);
             channel.startReceiving();
+            // Compress requests to the host controller if it supports compression
+            channel.setCompressionEnabled(true);
         } catch (IOException e) {
             throw new StartException("Failed to start remote Host Controller connection", e);
         }
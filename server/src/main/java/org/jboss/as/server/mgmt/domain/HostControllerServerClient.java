@@ -67,6 +67,7 @@ public class HostControllerServerClient implements Service<HostControllerServerC
 
     /** {@inheritDoc} */
     public void start(final StartContext context) throws StartException {
+        hcChannel.getValue().setRequestExecutor(executor);
         hcChannel.getValue().setOperationHandler(new TransactionalModelControllerOperationHandler(executor, controller.getValue()));
 
         try {
@@ -67,7 +67,8 @@ public class RootResourceHack implements OperationStepHandler, DescriptionProvid
         if (threadResource == null || threadResource != ResourceAndRegistration.NULL) {
             throw new OperationFailedException(new ModelNode().set("This operation is internal use only"));
         }
-        resource.set(new ResourceAndRegistration(context.getRootResource(), context.getResourceRegistration()));
+        // The resource is only ever read, so there is no need to copy the whole model
+        resource.set(new ResourceAndRegistration(context.getOriginalRootResource(), context.getResourceRegistration()));
         context.completeStep();
     }
 
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheUnitTestCase {
+
+    private static final byte[] CONTENT_HASH = new byte[20];
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("annotation-index", "test");
+        directory.delete();
+    }
+
+    @After
+    public void deleteDirectory() {
+        delete(directory);
+    }
+
+    @Test
+    public void testStoreAndRead() throws IOException {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final byte[] key = AnnotationIndexCache.createKey(CONTENT_HASH, "lib/test.jar");
+        assertNull(cache.get(key));
+
+        cache.put(key, createIndex());
+        final Index index = cache.get(key);
+        assertNotNull(index);
+        assertNotNull(index.getClassByName(DotName.createSimple(AnnotationIndexCacheUnitTestCase.class.getName())));
+
+        // a new cache instance, as after a restart
+        assertNotNull(new AnnotationIndexCache(directory).get(key));
+    }
+
+    @Test
+    public void testKeys() {
+        final byte[] key = AnnotationIndexCache.createKey(CONTENT_HASH, "lib/test.jar");
+        assertTrue(Arrays.equals(key, AnnotationIndexCache.createKey(CONTENT_HASH, "lib/test.jar")));
+        assertFalse(Arrays.equals(key, AnnotationIndexCache.createKey(CONTENT_HASH, "lib/other.jar")));
+        final byte[] otherHash = new byte[20];
+        otherHash[0] = 1;
+        assertFalse(Arrays.equals(key, AnnotationIndexCache.createKey(otherHash, "lib/test.jar")));
+    }
+
+    @Test
+    public void testCorruptIndexIsDiscarded() throws IOException {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final byte[] key = AnnotationIndexCache.createKey(CONTENT_HASH, "");
+        cache.put(key, createIndex());
+        final File[] files = directory.listFiles()[0].listFiles();
+        assertTrue(files.length == 1);
+        final FileOutputStream outputStream = new FileOutputStream(files[0]);
+        try {
+            outputStream.write(new byte[] { 1, 2, 3 });
+        } finally {
+            outputStream.close();
+        }
+        assertNull(cache.get(key));
+        assertFalse(files[0].exists());
+    }
+
+    @Test
+    public void testRemoveStale() throws IOException {
+        final byte[] otherHash = new byte[20];
+        otherHash[0] = 1;
+        final AnnotationIndexCache cache = new AnnotationIndexCache(directory);
+        final byte[] key = AnnotationIndexCache.createKey(CONTENT_HASH, "lib/test.jar");
+        final byte[] staleKey = AnnotationIndexCache.createKey(otherHash, "lib/test.jar");
+        cache.put(key, createIndex());
+        cache.put(staleKey, createIndex());
+        // an index stored by a version which did not group the indexes by content
+        assertTrue(new File(directory, "0123.idx").createNewFile());
+
+        // a restart after the content with the other hash was removed
+        final AnnotationIndexCache restarted = new AnnotationIndexCache(directory);
+        restarted.removeStale(new ContentRepository() {
+            public byte[] addContent(final InputStream stream) {
+                throw new UnsupportedOperationException();
+            }
+
+            public VirtualFile getContent(final byte[] hash) {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasContent(final byte[] hash) {
+                return Arrays.equals(hash, CONTENT_HASH);
+            }
+
+            public void removeContent(final byte[] hash) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        assertNotNull(restarted.get(key));
+        assertNull(restarted.get(staleKey));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream inputStream = AnnotationIndexCacheUnitTestCase.class.getResourceAsStream(AnnotationIndexCacheUnitTestCase.class.getSimpleName() + ".class");
+        try {
+            indexer.index(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        return indexer.complete();
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Adjusts the core size of a thread pool to the load it sees.
+ * <p/>
+ * The sizer measures, per interval, the time tasks spend waiting in the queue, the number of completed tasks and
+ * the peak number of tasks running at the same time. At the end of every interval the core size is adjusted:
+ * <ul>
+ * <li>If the 90th percentile queue wait, or the age of the oldest task still waiting in the queue, exceeds the target
+ * the core size is increased by one (additive increase).
+ * If the previous increase did not improve the throughput, adding threads is not helping (the tasks are bound by
+ * something else) and the core size is held instead; while held, a single thread is added every few intervals to
+ * find out whether this has changed.</li>
+ * <li>If the 90th percentile queue wait is below half of the target and fewer threads than the core size were busy
+ * at the peak, half of the unused threads are released (multiplicative decrease), so the core size converges on the
+ * peak concurrency.</li>
+ * </ul>
+ * The core size always stays between the configured minimum and the pool's maximum size.
+ * <p/>
+ * No timer thread is used: the adjustment runs on the thread which submits or completes the first task after an
+ * interval has ended. Since submitting counts too, a pool whose threads are all blocked still grows while tasks pile up
+ * in its queue; a pool which receives no tasks at all keeps its size.
+ */
+public class AdaptivePoolSizer {
+
+    /**
+     * The pool being sized.
+     */
+    public interface SizedPool {
+        int getCoreThreads();
+
+        void setCoreThreads(int coreThreads);
+
+        int getMaxThreads();
+    }
+
+    /**
+     * The outcome of an adjustment.
+     */
+    public enum Decision {
+        INCREASE,
+        DECREASE,
+        HOLD,
+    }
+
+    static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final int PROBE_INTERVALS = 16;
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final SizedPool pool;
+    private final int minCoreThreads;
+    private final long targetQueueWait;
+    private final long interval;
+
+    private volatile AtomicLongArray waits = new AtomicLongArray(BUCKETS);
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peakRunning = new AtomicInteger();
+    // the submitted tasks in submission order; tasks which left the queue are pruned from the head
+    private final ConcurrentLinkedQueue<SizedTask> queued = new ConcurrentLinkedQueue<SizedTask>();
+
+    private final AtomicBoolean adjusting = new AtomicBoolean();
+    private volatile long nextAdjustment;
+
+    // written by the adjusting thread only
+    private double lastThroughput;
+    private Decision lastDecision = Decision.HOLD;
+    private boolean stalled;
+    private int stalledIntervals;
+    private volatile long[] lastWaitPercentiles = new long[PERCENTILES.length];
+    private volatile String lastDecisionDescription = "none";
+    private final AtomicLong increaseCount = new AtomicLong();
+    private final AtomicLong decreaseCount = new AtomicLong();
+
+    /**
+     * Construct a new instance.
+     *
+     * @param pool the pool to size
+     * @param minCoreThreads the lower bound of the core size
+     * @param targetQueueWait the 90th percentile queue wait to aim for
+     * @param interval the time between two adjustments
+     * @param unit the unit of {@code targetQueueWait} and {@code interval}
+     */
+    public AdaptivePoolSizer(final SizedPool pool, final int minCoreThreads, final long targetQueueWait, final long interval, final TimeUnit unit) {
+        this(pool, minCoreThreads, targetQueueWait, interval, unit, System.nanoTime());
+    }
+
+    AdaptivePoolSizer(final SizedPool pool, final int minCoreThreads, final long targetQueueWait, final long interval, final TimeUnit unit, final long nanoTime) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool is null");
+        }
+        if (minCoreThreads < 1) {
+            throw new IllegalArgumentException("minCoreThreads must be at least 1: " + minCoreThreads);
+        }
+        if (targetQueueWait <= 0 || interval <= 0) {
+            throw new IllegalArgumentException("targetQueueWait and interval must be positive");
+        }
+        this.pool = pool;
+        this.minCoreThreads = minCoreThreads;
+        this.targetQueueWait = unit.toNanos(targetQueueWait);
+        this.interval = unit.toNanos(interval);
+        this.nextAdjustment = nanoTime + this.interval;
+    }
+
+    /**
+     * Wrap a task so that its queue wait and completion are recorded.
+     *
+     * @param task the task
+     * @return the wrapped task
+     */
+    public Runnable wrap(final Runnable task) {
+        if (task == null) {
+            throw new NullPointerException("task is null");
+        }
+        return taskSubmitted(task, System.nanoTime());
+    }
+
+    /**
+     * Report that a wrapped task was not accepted by the pool, so that it is no longer counted as waiting.
+     *
+     * @param task the task returned by {@link #wrap(Runnable)}
+     */
+    public void rejected(final Runnable task) {
+        if (task instanceof SizedTask) {
+            dequeued((SizedTask) task);
+        }
+    }
+
+    SizedTask taskSubmitted(final Runnable task, final long nanoTime) {
+        final SizedTask sized = new SizedTask(task, nanoTime);
+        queued.add(sized);
+        checkAdjustment(nanoTime);
+        return sized;
+    }
+
+    void taskStarted(final SizedTask task, final long nanoTime) {
+        dequeued(task);
+        waits.incrementAndGet(bucket(nanoTime - task.queued));
+        final int now = running.incrementAndGet();
+        int peak;
+        while (now > (peak = peakRunning.get())) {
+            if (peakRunning.compareAndSet(peak, now)) {
+                break;
+            }
+        }
+    }
+
+    void taskCompleted(final long nanoTime) {
+        running.decrementAndGet();
+        completed.incrementAndGet();
+        checkAdjustment(nanoTime);
+    }
+
+    private void dequeued(final SizedTask task) {
+        task.dequeued = true;
+        SizedTask head;
+        while ((head = queued.peek()) != null && head.dequeued) {
+            queued.remove(head);
+        }
+    }
+
+    private long oldestQueueWait(final long nanoTime) {
+        for (SizedTask task : queued) {
+            if (!task.dequeued) {
+                return nanoTime - task.queued;
+            }
+        }
+        return 0;
+    }
+
+    private void checkAdjustment(final long nanoTime) {
+        if (nanoTime - nextAdjustment >= 0 && adjusting.compareAndSet(false, true)) {
+            try {
+                if (nanoTime - nextAdjustment >= 0) {
+                    adjust(nanoTime);
+                }
+            } finally {
+                adjusting.set(false);
+            }
+        }
+    }
+
+    private void adjust(final long nanoTime) {
+        final long elapsed = nanoTime - nextAdjustment + interval;
+        nextAdjustment = nanoTime + interval;
+
+        // tasks recording concurrently with the swap may end up in either window
+        final AtomicLongArray window = waits;
+        waits = new AtomicLongArray(BUCKETS);
+        final long tasks = completed.getAndSet(0);
+        final int peak = peakRunning.getAndSet(running.get());
+
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = window.get(i);
+        }
+        final long[] percentiles = valuesAtPercentiles(counts, PERCENTILES);
+        lastWaitPercentiles = percentiles;
+        // tasks stuck in the queue have no recorded wait yet, e.g. if every thread is blocked
+        final long oldest = oldestQueueWait(nanoTime);
+        final long wait = Math.max(percentiles[1], oldest);
+        final double throughput = (double) tasks * TimeUnit.SECONDS.toNanos(1) / elapsed;
+
+        final int core = pool.getCoreThreads();
+        final int max = Math.max(minCoreThreads, pool.getMaxThreads());
+        int newCore = core;
+        Decision decision = Decision.HOLD;
+        String reason;
+        if (wait > targetQueueWait) {
+            if (core >= max) {
+                reason = "core size is at the maximum";
+            } else if (lastDecision == Decision.INCREASE && tasks > 0 && throughput <= lastThroughput * 1.02) {
+                stalled = true;
+                stalledIntervals = 0;
+                reason = "throughput did not improve after the last increase";
+            } else if (stalled && ++stalledIntervals < PROBE_INTERVALS) {
+                reason = "throughput did not improve after the last increase";
+            } else {
+                stalled = false;
+                newCore = core + 1;
+                decision = Decision.INCREASE;
+                reason = oldest > percentiles[1] ? "oldest queued task waiting longer than target" : "queue wait above target";
+            }
+        } else {
+            stalled = false;
+            if (wait <= targetQueueWait / 2 && peak < core && core > minCoreThreads) {
+                newCore = Math.max(minCoreThreads, core - Math.max(1, (core - peak) / 2));
+                decision = Decision.DECREASE;
+                reason = "only " + peak + " threads busy at peak";
+            } else {
+                reason = "queue wait within target";
+            }
+        }
+        newCore = Math.min(newCore, max);
+        if (newCore != core) {
+            pool.setCoreThreads(newCore);
+        }
+        if (decision == Decision.INCREASE) {
+            increaseCount.incrementAndGet();
+        } else if (decision == Decision.DECREASE) {
+            decreaseCount.incrementAndGet();
+        }
+        lastDecision = decision;
+        lastThroughput = throughput;
+        lastDecisionDescription = decision + " " + core + " -> " + newCore + ": " + reason + " (p90 queue wait "
+                + TimeUnit.NANOSECONDS.toMicros(percentiles[1]) + "us, oldest queued "
+                + TimeUnit.NANOSECONDS.toMicros(oldest) + "us, " + Math.round(throughput) + " tasks/s)";
+    }
+
+    /**
+     * A submitted task, which records its queue wait and completion when run.
+     */
+    final class SizedTask implements Runnable {
+        private final Runnable task;
+        final long queued;
+        volatile boolean dequeued;
+
+        SizedTask(final Runnable task, final long queued) {
+            this.task = task;
+            this.queued = queued;
+        }
+
+        public void run() {
+            taskStarted(this, System.nanoTime());
+            try {
+                task.run();
+            } finally {
+                taskCompleted(System.nanoTime());
+            }
+        }
+
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketUpperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long sub = bucket % SUB_BUCKETS;
+        final long bound = ((SUB_BUCKETS + sub + 1) << shift) - 1;
+        return bound < 0 ? Long.MAX_VALUE : bound;
+    }
+
+    static long[] valuesAtPercentiles(final long[] counts, final double... percentiles) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        final long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int p = 0; p < percentiles.length; p++) {
+            final long rank = Math.max(1, (long) Math.ceil(percentiles[p] / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    values[p] = bucketUpperBound(i);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Get the queue wait percentiles (p50, p90, p99 and p99.9) of the last interval, in nanoseconds.
+     *
+     * @return the percentiles
+     */
+    public long[] getQueueWaitPercentiles() {
+        return lastWaitPercentiles.clone();
+    }
+
+    public String getLastDecision() {
+        return lastDecisionDescription;
+    }
+
+    public long getIncreaseCount() {
+        return increaseCount.get();
+    }
+
+    public long getDecreaseCount() {
+        return decreaseCount.get();
+    }
+
+    public int getMinCoreThreads() {
+        return minCoreThreads;
+    }
+
+    public long getTargetQueueWait(final TimeUnit unit) {
+        return unit.convert(targetQueueWait, TimeUnit.NANOSECONDS);
+    }
+
+    public long getInterval(final TimeUnit unit) {
+        return unit.convert(interval, TimeUnit.NANOSECONDS);
+    }
+}
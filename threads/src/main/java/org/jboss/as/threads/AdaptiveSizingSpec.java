@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.io.Serializable;
+
+/**
+ * A specification of the adaptive sizing of a thread pool's core size.
+ */
+public final class AdaptiveSizingSpec implements Serializable {
+
+    private static final long serialVersionUID = -2418907632711529543L;
+
+    public static final long DEFAULT_TARGET_QUEUE_WAIT = 10L;
+
+    public static final long DEFAULT_INTERVAL = 1000L;
+
+    private final int minCoreThreads;
+    private final long targetQueueWait;
+    private final long interval;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param minCoreThreads the lower bound of the core size
+     * @param targetQueueWait the 90th percentile queue wait to aim for, in milliseconds
+     * @param interval the time between two adjustments, in milliseconds
+     */
+    public AdaptiveSizingSpec(final int minCoreThreads, final long targetQueueWait, final long interval) {
+        this.minCoreThreads = minCoreThreads;
+        this.targetQueueWait = targetQueueWait;
+        this.interval = interval;
+    }
+
+    /**
+     * Get the lower bound of the core size.
+     *
+     * @return the minimum number of core threads
+     */
+    public int getMinCoreThreads() {
+        return minCoreThreads;
+    }
+
+    /**
+     * Get the 90th percentile queue wait to aim for.
+     *
+     * @return the target queue wait in milliseconds
+     */
+    public long getTargetQueueWait() {
+        return targetQueueWait;
+    }
+
+    /**
+     * Get the time between two adjustments.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+}
@@ -32,10 +32,14 @@ public enum Attribute {
     UNKNOWN(null),
     /* Threads 1.0 attributes, in alpha order */
     ALLOW_CORE_TIMEOUT(CommonAttributes.ALLOW_CORE_TIMEOUT),
+    ASYNC_MODE(CommonAttributes.ASYNC_MODE),
     BLOCKING(CommonAttributes.BLOCKING),
     COUNT(CommonAttributes.COUNT),
     GROUP_NAME(CommonAttributes.GROUP_NAME),
+    INTERVAL(CommonAttributes.INTERVAL),
+    MIN_CORE_THREADS(CommonAttributes.MIN_CORE_THREADS),
     NAME(CommonAttributes.NAME),
+    TARGET_QUEUE_WAIT(CommonAttributes.TARGET_QUEUE_WAIT),
     THREAD_NAME_PATTERN(CommonAttributes.THREAD_NAME_PATTERN),
     TIME(CommonAttributes.TIME),
     PER_CPU(CommonAttributes.PER_CPU),
@@ -56,7 +56,7 @@ public class BoundedQueueThreadPoolAdd extends AbstractAddStepHandler implements
     static final AttributeDefinition[] ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
         PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.PROPERTIES, PoolAttributeDefinitions.THREAD_FACTORY,
         PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.QUEUE_LENGTH, PoolAttributeDefinitions.HANDOFF_EXECUTOR,
-        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT, PoolAttributeDefinitions.BLOCKING};
+        PoolAttributeDefinitions.ALLOW_CORE_TIMEOUT, PoolAttributeDefinitions.BLOCKING, PoolAttributeDefinitions.ADAPTIVE_SIZING};
 
     static final AttributeDefinition[] RW_ATTRIBUTES = new AttributeDefinition[] {PoolAttributeDefinitions.KEEPALIVE_TIME,
         PoolAttributeDefinitions.MAX_THREADS, PoolAttributeDefinitions.CORE_THREADS, PoolAttributeDefinitions.QUEUE_LENGTH,
@@ -97,7 +97,8 @@ public class BoundedQueueThreadPoolAdd extends AbstractAddStepHandler implements
                 params.getQueueLength().getScaledCount(),
                 params.isBlocking(),
                 params.getKeepAliveTime(),
-                params.isAllowCoreTimeout());
+                params.isAllowCoreTimeout(),
+                params.getAdaptiveSizing());
 
         //TODO add the handoffExceutor injection
 
@@ -24,6 +24,7 @@ package org.jboss.as.threads;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -37,7 +38,11 @@ import org.jboss.msc.service.Service;
  */
 public class BoundedQueueThreadPoolReadAttributeHandler extends ThreadPoolReadAttributeHandler {
 
-    public static final List<String> METRICS = Arrays.asList(CommonAttributes.CURRENT_THREAD_COUNT, CommonAttributes.LARGEST_THREAD_COUNT);
+    public static final List<String> METRICS = Arrays.asList(CommonAttributes.CURRENT_THREAD_COUNT, CommonAttributes.LARGEST_THREAD_COUNT,
+            CommonAttributes.CURRENT_CORE_THREADS, CommonAttributes.QUEUE_WAIT_PERCENTILES, CommonAttributes.LAST_SIZING_DECISION,
+            CommonAttributes.SIZING_INCREASE_COUNT, CommonAttributes.SIZING_DECREASE_COUNT);
+
+    static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
 
     public static final BoundedQueueThreadPoolReadAttributeHandler INSTANCE = new BoundedQueueThreadPoolReadAttributeHandler();
 
@@ -53,6 +58,28 @@ public class BoundedQueueThreadPoolReadAttributeHandler extends ThreadPoolReadAt
             context.getResult().set(bounded.getCurrentThreadCount());
         } else if (attributeName.equals(CommonAttributes.LARGEST_THREAD_COUNT)) {
             context.getResult().set(bounded.getLargestThreadCount());
+        } else if (attributeName.equals(CommonAttributes.CURRENT_CORE_THREADS)) {
+            context.getResult().set(bounded.getCurrentCoreThreads());
+        } else if (attributeName.equals(CommonAttributes.QUEUE_WAIT_PERCENTILES)) {
+            // only measured when adaptive sizing is enabled
+            final AdaptivePoolSizer sizer = bounded.getAdaptivePoolSizer();
+            if (sizer != null) {
+                final long[] values = sizer.getQueueWaitPercentiles();
+                for (int i = 0; i < values.length; i++) {
+                    context.getResult().get(PERCENTILE_NAMES[i]).set(TimeUnit.NANOSECONDS.toMicros(values[i]));
+                }
+            }
+        } else if (attributeName.equals(CommonAttributes.LAST_SIZING_DECISION)) {
+            final AdaptivePoolSizer sizer = bounded.getAdaptivePoolSizer();
+            if (sizer != null) {
+                context.getResult().set(sizer.getLastDecision());
+            }
+        } else if (attributeName.equals(CommonAttributes.SIZING_INCREASE_COUNT)) {
+            final AdaptivePoolSizer sizer = bounded.getAdaptivePoolSizer();
+            context.getResult().set(sizer == null ? 0L : sizer.getIncreaseCount());
+        } else if (attributeName.equals(CommonAttributes.SIZING_DECREASE_COUNT)) {
+            final AdaptivePoolSizer sizer = bounded.getAdaptivePoolSizer();
+            context.getResult().set(sizer == null ? 0L : sizer.getDecreaseCount());
         } else if (METRICS.contains(attributeName)) {
             throw new OperationFailedException(new ModelNode().set("Unsupported attribute '" + attributeName + "'"));
         }
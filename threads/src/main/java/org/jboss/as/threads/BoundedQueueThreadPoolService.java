@@ -52,8 +52,14 @@ public class BoundedQueueThreadPoolService implements Service<ManagedQueueExecut
     private boolean blocking;
     private TimeSpec keepAlive;
     private boolean allowCoreTimeout;
+    private final AdaptiveSizingSpec adaptiveSizing;
 
     public BoundedQueueThreadPoolService(int coreThreads, int maxThreads, int queueLength, boolean blocking, TimeSpec keepAlive, boolean allowCoreTimeout) {
+        this(coreThreads, maxThreads, queueLength, blocking, keepAlive, allowCoreTimeout, null);
+    }
+
+    public BoundedQueueThreadPoolService(int coreThreads, int maxThreads, int queueLength, boolean blocking, TimeSpec keepAlive, boolean allowCoreTimeout, AdaptiveSizingSpec adaptiveSizing) {
+        this.adaptiveSizing = adaptiveSizing;
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
         this.queueLength = queueLength;
@@ -65,9 +71,27 @@ public class BoundedQueueThreadPoolService implements Service<ManagedQueueExecut
     public synchronized void start(final StartContext context) throws StartException {
         final TimeSpec keepAliveSpec = keepAlive;
         long keepAliveTime = keepAliveSpec == null ? Long.MAX_VALUE : keepAliveSpec.getUnit().toNanos(keepAliveSpec.getDuration());
-        QueueExecutor queueExecutor = new QueueExecutor(coreThreads, maxThreads, keepAliveTime, TimeUnit.NANOSECONDS, queueLength, threadFactoryValue.getValue(), blocking, handoffExecutorValue.getOptionalValue());
+        final QueueExecutor queueExecutor = new QueueExecutor(coreThreads, maxThreads, keepAliveTime, TimeUnit.NANOSECONDS, queueLength, threadFactoryValue.getValue(), blocking, handoffExecutorValue.getOptionalValue());
         queueExecutor.setAllowCoreThreadTimeout(allowCoreTimeout);
-        executor = new ManagedQueueExecutorService(queueExecutor);
+        final AdaptiveSizingSpec adaptiveSizing = this.adaptiveSizing;
+        if (adaptiveSizing == null) {
+            executor = new ManagedQueueExecutorService(queueExecutor);
+        } else {
+            final AdaptivePoolSizer sizer = new AdaptivePoolSizer(new AdaptivePoolSizer.SizedPool() {
+                public int getCoreThreads() {
+                    return queueExecutor.getCoreThreads();
+                }
+
+                public void setCoreThreads(final int coreThreads) {
+                    queueExecutor.setCoreThreads(coreThreads);
+                }
+
+                public int getMaxThreads() {
+                    return queueExecutor.getMaxThreads();
+                }
+            }, adaptiveSizing.getMinCoreThreads(), adaptiveSizing.getTargetQueueWait(), adaptiveSizing.getInterval(), TimeUnit.MILLISECONDS);
+            executor = new ManagedQueueExecutorService(queueExecutor, sizer);
+        }
     }
 
     public synchronized void stop(final StopContext context) {
@@ -161,4 +185,25 @@ public class BoundedQueueThreadPoolService implements Service<ManagedQueueExecut
         }
         return executor.getLargestThreadCount();
     }
+
+    public int getCurrentCoreThreads() {
+        final ManagedQueueExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getCoreThreads();
+    }
+
+    /**
+     * Get the sizer of the pool.
+     *
+     * @return the sizer, or {@code null} if adaptive sizing is not enabled
+     */
+    public AdaptivePoolSizer getAdaptivePoolSizer() {
+        final ManagedQueueExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getAdaptivePoolSizer();
+    }
 }
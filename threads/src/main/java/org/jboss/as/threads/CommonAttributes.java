@@ -27,18 +27,25 @@ package org.jboss.as.threads;
  */
 public class CommonAttributes {
     public static final String ACTIVE_COUNT = "active-count";
+    public static final String ADAPTIVE_SIZING = "adaptive-sizing";
     public static final String ALLOW_CORE_TIMEOUT = "allow-core-timeout";
+    public static final String ASYNC_MODE = "async-mode";
     public static final String BLOCKING = "blocking";
     public static final String BOUNDED_QUEUE_THREAD_POOL = "bounded-queue-thread-pool";
     public static final String COMPLETED_TASK_COUNT = "completed-task-count";
     public static final String CORE_THREADS = "core-threads";
     public static final String COUNT = "count";
+    public static final String CURRENT_CORE_THREADS = "current-core-threads";
     public static final String CURRENT_THREAD_COUNT = "current-thread-count";
     public static final String PER_CPU = "per-cpu";
     public static final String HANDOFF_EXECUTOR = "handoff-executor";
+    public static final String INTERVAL = "interval";
     public static final String LARGEST_POOL_SIZE = "largest-pool-size";
     public static final String LARGEST_THREAD_COUNT = "largest-thread-count";
+    public static final String LAST_SIZING_DECISION = "last-sizing-decision";
+    public static final String MIN_CORE_THREADS = "min-core-threads";
     public static final String NAME = "name";
+    public static final String PARALLELISM = "parallelism";
     public static final String GROUP_NAME = "group-name";
     public static final String KEEPALIVE_TIME = "keepalive-time";
     public static final String MAX_THREADS = "max-threads";
@@ -47,8 +54,14 @@ public class CommonAttributes {
     public static final String PROPERTY = "property";
     public static final String QUEUELESS_THREAD_POOL = "queueless-thread-pool";
     public static final String QUEUE_LENGTH = "queue-length";
+    public static final String QUEUED_TASK_COUNT = "queued-task-count";
+    public static final String QUEUE_WAIT_PERCENTILES = "queue-wait-percentiles";
     public static final String REJECTED_COUNT = "rejected-count";
     public static final String SCHEDULED_THREAD_POOL = "scheduled-thread-pool";
+    public static final String SIZING_DECREASE_COUNT = "sizing-decrease-count";
+    public static final String SIZING_INCREASE_COUNT = "sizing-increase-count";
+    public static final String STEAL_COUNT = "steal-count";
+    public static final String TARGET_QUEUE_WAIT = "target-queue-wait";
     public static final String TASK_COUNT = "task-count";
     public static final String THREADS = "threads";
     public static final String TIME = "time";
@@ -58,4 +71,5 @@ public class CommonAttributes {
     public static final String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     public static final String UNIT = "unit";
     public static final String VALUE = "value";
+    public static final String WORK_STEALING_THREAD_POOL = "work-stealing-thread-pool";
 }
@@ -33,11 +33,13 @@ public enum Element {
     UNKNOWN(null),
 
     // Threads 1.0 elements in alpha order
+    ADAPTIVE_SIZING(CommonAttributes.ADAPTIVE_SIZING),
     BOUNDED_QUEUE_THREAD_POOL(CommonAttributes.BOUNDED_QUEUE_THREAD_POOL),
     CORE_THREADS(CommonAttributes.CORE_THREADS),
     HANDOFF_EXECUTOR(CommonAttributes.HANDOFF_EXECUTOR),
     KEEPALIVE_TIME(CommonAttributes.KEEPALIVE_TIME),
     MAX_THREADS(CommonAttributes.MAX_THREADS),
+    PARALLELISM(CommonAttributes.PARALLELISM),
     PROPERTIES(CommonAttributes.PROPERTIES),
     PROPERTY(CommonAttributes.PROPERTY),
     QUEUE_LENGTH(CommonAttributes.QUEUE_LENGTH),
@@ -46,6 +48,7 @@ public enum Element {
     SUBSYSTEM(org.jboss.as.controller.parsing.Element.SUBSYSTEM.getLocalName()),
     THREAD_FACTORY(CommonAttributes.THREAD_FACTORY),
     UNBOUNDED_QUEUE_THREAD_POOL(CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL),
+    WORK_STEALING_THREAD_POOL(CommonAttributes.WORK_STEALING_THREAD_POOL),
     ;
 
     private final String name;
@@ -21,6 +21,8 @@
  */
 package org.jboss.as.threads;
 
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -37,10 +39,28 @@ import org.jboss.threads.QueueExecutor;
 public class ManagedQueueExecutorService extends ManagedExecutorService implements BlockingExecutor {
 
     private final QueueExecutor executor;
+    private final AdaptivePoolSizer sizer;
+    private final BlockingExecutor blockingExecutor;
 
     public ManagedQueueExecutorService(QueueExecutor executor) {
-        super(executor);
+        this(executor, null);
+    }
+
+    /**
+     * Create a managed executor whose tasks are reported to the given sizer.
+     *
+     * @param executor the executor
+     * @param sizer the sizer adjusting the core size of the executor, or {@code null} for a fixed core size
+     */
+    public ManagedQueueExecutorService(QueueExecutor executor, AdaptivePoolSizer sizer) {
+        this(executor, sizer, sizer == null ? null : new SizedExecutor(executor, sizer));
+    }
+
+    private ManagedQueueExecutorService(QueueExecutor executor, AdaptivePoolSizer sizer, SizedExecutor sizedExecutor) {
+        super(sizedExecutor == null ? executor : sizedExecutor);
         this.executor = executor;
+        this.sizer = sizer;
+        this.blockingExecutor = sizedExecutor == null ? executor : sizedExecutor;
     }
 
     @Override
@@ -102,6 +122,10 @@ public class ManagedQueueExecutorService extends ManagedExecutorService implemen
         return executor.getLargestThreadCount();
     }
 
+    public AdaptivePoolSizer getAdaptivePoolSizer() {
+        return sizer;
+    }
+
     <A> void addShutdownListener(final EventListener<A> shutdownListener, final A attachment) {
         executor.addShutdownListener(shutdownListener, attachment);
     }
@@ -109,18 +133,113 @@ public class ManagedQueueExecutorService extends ManagedExecutorService implemen
     @Override
     public void executeBlocking(Runnable task)
             throws RejectedExecutionException, InterruptedException {
-        executor.executeBlocking(task);
+        blockingExecutor.executeBlocking(task);
     }
 
     @Override
     public void executeBlocking(Runnable task, long timeout, TimeUnit unit)
             throws RejectedExecutionException, InterruptedException {
-        executor.executeBlocking(task, timeout, unit);
+        blockingExecutor.executeBlocking(task, timeout, unit);
     }
 
     @Override
     public void executeNonBlocking(Runnable task)
             throws RejectedExecutionException {
-        executor.executeNonBlocking(task);
+        blockingExecutor.executeNonBlocking(task);
+    }
+
+    /**
+     * Reports every task to the sizer, including the tasks the executor does not accept; the protected executor
+     * service submits through {@link #execute(Runnable)}.
+     */
+    private static final class SizedExecutor extends AbstractExecutorService implements BlockingExecutor {
+        private final QueueExecutor executor;
+        private final AdaptivePoolSizer sizer;
+
+        SizedExecutor(QueueExecutor executor, AdaptivePoolSizer sizer) {
+            this.executor = executor;
+            this.sizer = sizer;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            final Runnable sized = sizer.wrap(task);
+            boolean accepted = false;
+            try {
+                executor.execute(sized);
+                accepted = true;
+            } finally {
+                if (!accepted) {
+                    sizer.rejected(sized);
+                }
+            }
+        }
+
+        @Override
+        public void executeBlocking(Runnable task) throws RejectedExecutionException, InterruptedException {
+            final Runnable sized = sizer.wrap(task);
+            boolean accepted = false;
+            try {
+                executor.executeBlocking(sized);
+                accepted = true;
+            } finally {
+                if (!accepted) {
+                    sizer.rejected(sized);
+                }
+            }
+        }
+
+        @Override
+        public void executeBlocking(Runnable task, long timeout, TimeUnit unit) throws RejectedExecutionException, InterruptedException {
+            final Runnable sized = sizer.wrap(task);
+            boolean accepted = false;
+            try {
+                executor.executeBlocking(sized, timeout, unit);
+                accepted = true;
+            } finally {
+                if (!accepted) {
+                    sizer.rejected(sized);
+                }
+            }
+        }
+
+        @Override
+        public void executeNonBlocking(Runnable task) throws RejectedExecutionException {
+            final Runnable sized = sizer.wrap(task);
+            boolean accepted = false;
+            try {
+                executor.executeNonBlocking(sized);
+                accepted = true;
+            } finally {
+                if (!accepted) {
+                    sizer.rejected(sized);
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executor.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return executor.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.awaitTermination(timeout, unit);
+        }
     }
 }
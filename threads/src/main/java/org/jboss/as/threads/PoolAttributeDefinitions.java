@@ -104,6 +104,12 @@ public interface PoolAttributeDefinitions {
 
     SimpleAttributeDefinition ALLOW_CORE_TIMEOUT = new SimpleAttributeDefinition(CommonAttributes.ALLOW_CORE_TIMEOUT, ModelType.BOOLEAN, true);
 
+    SimpleAttributeDefinition ADAPTIVE_SIZING = new SimpleAttributeDefinition(CommonAttributes.ADAPTIVE_SIZING, ModelType.OBJECT, true);
+
+    SimpleAttributeDefinition PARALLELISM = new SimpleAttributeDefinition(CommonAttributes.PARALLELISM, ModelType.OBJECT, false);
+
+    SimpleAttributeDefinition ASYNC_MODE = new SimpleAttributeDefinition(CommonAttributes.ASYNC_MODE, ModelType.BOOLEAN, true);
+
     SimpleAttributeDefinition GROUP_NAME = new SimpleAttributeDefinition(CommonAttributes.GROUP_NAME, ModelType.STRING, true);
 
     SimpleAttributeDefinition THREAD_NAME_PATTERN = new SimpleAttributeDefinition(CommonAttributes.THREAD_NAME_PATTERN, ModelType.STRING, true);
@@ -27,7 +27,9 @@ import org.jboss.as.controller.PathElement;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import org.jboss.as.controller.operations.common.Util;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.ASYNC_MODE;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
@@ -36,6 +38,7 @@ import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
 import static org.jboss.as.threads.CommonAttributes.NAME;
+import static org.jboss.as.threads.CommonAttributes.PARALLELISM;
 import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
@@ -108,6 +111,9 @@ public class ThreadsDescriptionUtil {
         if (pool.hasDefined(HANDOFF_EXECUTOR)) {
             operation.get(HANDOFF_EXECUTOR).set(pool.get(HANDOFF_EXECUTOR));
         }
+        if (pool.hasDefined(ADAPTIVE_SIZING)) {
+            operation.get(ADAPTIVE_SIZING).set(pool.get(ADAPTIVE_SIZING));
+        }
         result.add(operation);
     }
 
@@ -149,6 +155,23 @@ public class ThreadsDescriptionUtil {
         result.add(operation);
     }
 
+    public static void addWorkStealingThreadPool(final ModelNode result, final ModelNode pool,  final PathElement... addressParts) {
+        final ModelNode operation = Util.getEmptyOperation(ADD, pathAddress(addressParts));
+
+        operation.get(NAME).set(pool.require(NAME));
+        if (pool.hasDefined(THREAD_FACTORY)) {
+            operation.get(THREAD_FACTORY).set(pool.get(THREAD_FACTORY));
+        }
+        if (pool.hasDefined(PROPERTIES)) {
+            operation.get(PROPERTIES).set(pool.get(PROPERTIES));
+        }
+        operation.get(PARALLELISM).set(pool.require(PARALLELISM));
+        if (pool.hasDefined(ASYNC_MODE)) {
+            operation.get(ASYNC_MODE).set(pool.get(ASYNC_MODE));
+        }
+        result.add(operation);
+    }
+
     public static void addUnboundedQueueThreadPool(final ModelNode result, final ModelNode pool,  final PathElement... addressParts) {
         final ModelNode operation = Util.getEmptyOperation(ADD, pathAddress(addressParts));
 
@@ -31,11 +31,13 @@ import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.THREADS;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.addBoundedQueueThreadPool;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.addQueuelessThreadPool;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.addScheduledThreadPool;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.addThreadFactory;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.addUnboundedQueueThreadPool;
+import static org.jboss.as.threads.ThreadsDescriptionUtil.addWorkStealingThreadPool;
 import static org.jboss.as.threads.ThreadsDescriptionUtil.pathAddress;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.BOUNDED_QUEUE_THREAD_POOL_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.QUEUELESS_THREAD_POOL_DESC;
@@ -43,6 +45,7 @@ import static org.jboss.as.threads.ThreadsSubsystemProviders.SCHEDULED_THREAD_PO
 import static org.jboss.as.threads.ThreadsSubsystemProviders.SUBSYSTEM_PROVIDER;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.THREAD_FACTORY_DESC;
 import static org.jboss.as.threads.ThreadsSubsystemProviders.UNBOUNDED_QUEUE_THREAD_POOL_DESC;
+import static org.jboss.as.threads.ThreadsSubsystemProviders.WORK_STEALING_THREAD_POOL_DESC;
 
 import java.util.Locale;
 
@@ -129,6 +132,15 @@ public class ThreadsExtension implements Extension {
                 ScheduledThreadPoolRemove.INSTANCE, false);
         ScheduledThreadPoolReadAttributeHandler.INSTANCE.registerAttributes(scheduledThreadPools);
         ScheduledThreadPoolWriteAttributeHandler.INSTANCE.registerAttributes(scheduledThreadPools);
+
+        final ManagementResourceRegistration workStealingThreadPools = subsystem.registerSubModel(
+                PathElement.pathElement(WORK_STEALING_THREAD_POOL), WORK_STEALING_THREAD_POOL_DESC);
+        workStealingThreadPools.registerOperationHandler(ADD, WorkStealingThreadPoolAdd.INSTANCE, WorkStealingThreadPoolAdd.INSTANCE,
+                false);
+        workStealingThreadPools.registerOperationHandler(REMOVE, WorkStealingThreadPoolRemove.INSTANCE,
+                WorkStealingThreadPoolRemove.INSTANCE, false);
+        WorkStealingThreadPoolReadAttributeHandler.INSTANCE.registerAttributes(workStealingThreadPools);
+        WorkStealingThreadPoolWriteAttributeHandler.INSTANCE.registerAttributes(workStealingThreadPools);
     }
 
     @Override
@@ -150,6 +162,7 @@ public class ThreadsExtension implements Extension {
             addScheduledThreadPools(result, model);
             addThreadFactories(result, model);
             addUnboundedQueueThreadPools(result, model);
+            addWorkStealingThreadPools(result, model);
 
             context.completeStep();
         }
@@ -199,6 +212,15 @@ public class ThreadsExtension implements Extension {
             }
         }
 
+        private void addWorkStealingThreadPools(final ModelNode result, final ModelNode model) {
+            if (model.hasDefined(WORK_STEALING_THREAD_POOL)) {
+                ModelNode pools = model.get(WORK_STEALING_THREAD_POOL);
+                for (Property poolProp : pools.asPropertyList()) {
+                    addWorkStealingThreadPool(result, poolProp.getValue(), PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME), PathElement.pathElement(WORK_STEALING_THREAD_POOL, poolProp.getName()));
+                }
+            }
+        }
+
         @Override
         public ModelNode getModelDescription(Locale locale) {
             return CommonDescriptions.getSubsystemDescribeOperation(locale);
@@ -32,27 +32,34 @@ import static org.jboss.as.controller.parsing.ParseUtils.missingRequiredElement;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.ASYNC_MODE;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.COUNT;
 import static org.jboss.as.threads.CommonAttributes.GROUP_NAME;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
+import static org.jboss.as.threads.CommonAttributes.INTERVAL;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
+import static org.jboss.as.threads.CommonAttributes.MIN_CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.NAME;
+import static org.jboss.as.threads.CommonAttributes.PARALLELISM;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.TARGET_QUEUE_WAIT;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -135,6 +142,10 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
                 name = parseUnboundedQueueThreadPool(reader, address, list);
                 break;
             }
+            case WORK_STEALING_THREAD_POOL: {
+                name = parseWorkStealingThreadPool(reader, address, list);
+                break;
+            }
             default: {
                 throw unexpectedElement(reader);
             }
@@ -298,6 +309,10 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
                     foundQueueLength = true;
                     break;
                 }
+                case ADAPTIVE_SIZING: {
+                    op.get(ADAPTIVE_SIZING).set(parseAdaptiveSizing(reader));
+                    break;
+                }
                 default: {
                     throw unexpectedElement(reader);
                 }
@@ -462,6 +477,77 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         return name;
     }
 
+    public String parseWorkStealingThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress,
+            final List<ModelNode> list) throws XMLStreamException {
+        return parseWorkStealingThreadPool(reader, parentAddress, list, WORK_STEALING_THREAD_POOL, null);
+    }
+
+    public String parseWorkStealingThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress,
+            final List<ModelNode> list, final String childAddress, final String providedName) throws XMLStreamException {
+        final ModelNode op = new ModelNode();
+        list.add(op);
+        op.get(OP).set(ADD);
+
+        String name = null;
+        int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                case ASYNC_MODE: {
+                    op.get(ASYNC_MODE).set(Boolean.valueOf(value));
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (providedName != null) {
+            name = providedName;
+        } else if (name == null) {
+            throw missingRequired(reader, Collections.singleton(Attribute.NAME));
+        }
+
+        final ModelNode address = parentAddress.clone();
+        address.add(childAddress, name);
+        address.protect();
+        op.get(OP_ADDR).set(address);
+
+        boolean foundParallelism = false;
+        while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            switch (Element.forName(reader.getLocalName())) {
+                case PARALLELISM: {
+                    op.get(PARALLELISM).set(parseScaledCount(reader));
+                    foundParallelism = true;
+                    break;
+                }
+                case THREAD_FACTORY: {
+                    op.get(CommonAttributes.THREAD_FACTORY).set(parseRef(reader));
+                    break;
+                }
+                case PROPERTIES: {
+                    ModelNode props = parseProperties(reader);
+                    if (props.isDefined()) {
+                        op.get(PROPERTIES).set(props);
+                    }
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!foundParallelism) {
+            throw missingRequiredElement(reader, Collections.singleton(Element.PARALLELISM));
+        }
+        return name;
+    }
+
     public String parseQueuelessThreadPool(final XMLExtendedStreamReader reader, final ModelNode parentAddress,
             final List<ModelNode> list) throws XMLStreamException {
         return parseQueuelessThreadPool(reader, parentAddress, list, QUEUELESS_THREAD_POOL, null);
@@ -595,6 +681,66 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         return node;
     }
 
+    private ModelNode parseAdaptiveSizing(final XMLExtendedStreamReader reader) throws XMLStreamException {
+        final ModelNode node = new ModelNode();
+        final int attrCount = reader.getAttributeCount();
+        for (int i = 0; i < attrCount; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            switch (attribute) {
+                case MIN_CORE_THREADS: {
+                    try {
+                        final int minCoreThreads = Integer.parseInt(value);
+                        if (minCoreThreads < 1) {
+                            throw invalidAttributeValue(reader, i);
+                        }
+                        node.get(MIN_CORE_THREADS).set(minCoreThreads);
+                    } catch (NumberFormatException e) {
+                        throw invalidAttributeValue(reader, i);
+                    }
+                    break;
+                }
+                case TARGET_QUEUE_WAIT: {
+                    try {
+                        final long targetQueueWait = Long.parseLong(value);
+                        if (targetQueueWait <= 0) {
+                            throw invalidAttributeValue(reader, i);
+                        }
+                        node.get(TARGET_QUEUE_WAIT).set(targetQueueWait);
+                    } catch (NumberFormatException e) {
+                        throw invalidAttributeValue(reader, i);
+                    }
+                    break;
+                }
+                case INTERVAL: {
+                    try {
+                        final long interval = Long.parseLong(value);
+                        if (interval <= 0) {
+                            throw invalidAttributeValue(reader, i);
+                        }
+                        node.get(INTERVAL).set(interval);
+                    } catch (NumberFormatException e) {
+                        throw invalidAttributeValue(reader, i);
+                    }
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+
+        if (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+            throw unexpectedElement(reader);
+        }
+
+        if (!node.isDefined()) {
+            // all defaults
+            node.setEmptyObject();
+        }
+        return node;
+    }
+
     private ModelNode parseTimeSpec(final XMLExtendedStreamReader reader) throws XMLStreamException {
         final int attrCount = reader.getAttributeCount();
         TimeUnit unit = null;
@@ -765,6 +911,14 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
                 }
             }
         }
+        if (node.hasDefined(WORK_STEALING_THREAD_POOL)) {
+            for (String name : node.get(WORK_STEALING_THREAD_POOL).keys()) {
+                final ModelNode child = node.get(WORK_STEALING_THREAD_POOL, name);
+                if (child.isDefined()) {
+                    writeWorkStealingThreadPool(writer, child);
+                }
+            }
+        }
     }
 
     public void writeThreadFactory(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
@@ -819,6 +973,20 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         if (node.hasDefined(PROPERTIES)) {
             writeProperties(writer, node.get(PROPERTIES));
         }
+        if (node.hasDefined(ADAPTIVE_SIZING)) {
+            writer.writeStartElement(Element.ADAPTIVE_SIZING.getLocalName());
+            ModelNode adaptiveSizing = node.get(ADAPTIVE_SIZING);
+            if (adaptiveSizing.hasDefined(MIN_CORE_THREADS)) {
+                writeAttribute(writer, Attribute.MIN_CORE_THREADS, adaptiveSizing.get(MIN_CORE_THREADS));
+            }
+            if (adaptiveSizing.hasDefined(TARGET_QUEUE_WAIT)) {
+                writeAttribute(writer, Attribute.TARGET_QUEUE_WAIT, adaptiveSizing.get(TARGET_QUEUE_WAIT));
+            }
+            if (adaptiveSizing.hasDefined(INTERVAL)) {
+                writeAttribute(writer, Attribute.INTERVAL, adaptiveSizing.get(INTERVAL));
+            }
+            writer.writeEndElement();
+        }
 
         writer.writeEndElement();
     }
@@ -893,6 +1061,31 @@ public final class ThreadsParser implements XMLStreamConstants, XMLElementReader
         writer.writeEndElement();
     }
 
+    public void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final ModelNode node) throws XMLStreamException {
+        writeWorkStealingThreadPool(writer, node, Element.WORK_STEALING_THREAD_POOL.getLocalName(), true);
+    }
+
+    public void writeWorkStealingThreadPool(final XMLExtendedStreamWriter writer, final ModelNode node, final String elementName, final boolean includeName)
+            throws XMLStreamException {
+        writer.writeStartElement(elementName);
+
+        if (includeName && node.hasDefined(NAME)) {
+            writeAttribute(writer, Attribute.NAME, node.get(NAME));
+        }
+        if (node.hasDefined(ASYNC_MODE)) {
+            writeAttribute(writer, Attribute.ASYNC_MODE, node.get(ASYNC_MODE));
+        }
+
+        writeRef(writer, node, Element.THREAD_FACTORY, THREAD_FACTORY);
+        writeThreads(writer, node, Element.PARALLELISM);
+
+        if (node.hasDefined(PROPERTIES)) {
+            writeProperties(writer, node.get(PROPERTIES));
+        }
+
+        writer.writeEndElement();
+    }
+
     private void writeRef(final XMLExtendedStreamWriter writer, final ModelNode node, Element element, String name)
             throws XMLStreamException {
         if (node.hasDefined(name)) {
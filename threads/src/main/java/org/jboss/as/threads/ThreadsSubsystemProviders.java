@@ -38,23 +38,30 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.ASYNC_MODE;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.COUNT;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
+import static org.jboss.as.threads.CommonAttributes.INTERVAL;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
+import static org.jboss.as.threads.CommonAttributes.MIN_CORE_THREADS;
+import static org.jboss.as.threads.CommonAttributes.PARALLELISM;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.TARGET_QUEUE_WAIT;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -104,6 +111,10 @@ public class ThreadsSubsystemProviders {
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, MIN_OCCURS).set(0);
             subsystem.get(CHILDREN, SCHEDULED_THREAD_POOL, MAX_OCCURS).set(Integer.MAX_VALUE);
 
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.workstealing"));
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, MIN_OCCURS).set(0);
+            subsystem.get(CHILDREN, WORK_STEALING_THREAD_POOL, MAX_OCCURS).set(Integer.MAX_VALUE);
+
             return subsystem;
         }
     };
@@ -192,6 +203,8 @@ public class ThreadsSubsystemProviders {
             operation.get(ATTRIBUTES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
             operation.get(ATTRIBUTES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
 
+            addAdaptiveSizing(bundle, operation.get(ATTRIBUTES));
+
             return operation;
         }
     };
@@ -233,6 +246,25 @@ public class ThreadsSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("threadpool.workstealing.description"));
+            node.get(HEAD_COMMENT_ALLOWED).set(true);
+            node.get(TAIL_COMMENT_ALLOWED).set(true);
+
+            node.get(ATTRIBUTES, NAME, DESCRIPTION).set(bundle.getString("threadpool.common.name"));
+            node.get(ATTRIBUTES, NAME, TYPE).set(ModelType.STRING);
+            node.get(ATTRIBUTES, NAME, REQUIRED).set(true);
+
+            addWorkStealingThreadPoolAttributes(bundle, node.get(ATTRIBUTES));
+            return node;
+        }
+    };
+
     private static ModelNode getCommonThreadPool(final ResourceBundle bundle, final String description) {
         final ModelNode node = new ModelNode();
         node.get(DESCRIPTION).set(description);
@@ -387,10 +419,30 @@ public class ThreadsSubsystemProviders {
             operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
             operation.get(REQUEST_PROPERTIES, QUEUE_LENGTH, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
 
+            addAdaptiveSizing(bundle, operation.get(REQUEST_PROPERTIES));
+
             return operation;
         }
     };
 
+    private static void addAdaptiveSizing(final ResourceBundle bundle, final ModelNode attributes) {
+        attributes.get(ADAPTIVE_SIZING, DESCRIPTION).set(bundle.getString("threadpool.bounded.adaptivesizing"));
+        attributes.get(ADAPTIVE_SIZING, TYPE).set(ModelType.OBJECT);
+        attributes.get(ADAPTIVE_SIZING, REQUIRED).set(false);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, MIN_CORE_THREADS, DESCRIPTION).set(
+                bundle.getString("threadpool.bounded.adaptivesizing.mincorethreads"));
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, MIN_CORE_THREADS, TYPE).set(ModelType.INT);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, MIN_CORE_THREADS, REQUIRED).set(false);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, TARGET_QUEUE_WAIT, DESCRIPTION).set(
+                bundle.getString("threadpool.bounded.adaptivesizing.targetqueuewait"));
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, TARGET_QUEUE_WAIT, TYPE).set(ModelType.LONG);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, TARGET_QUEUE_WAIT, REQUIRED).set(false);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, INTERVAL, DESCRIPTION).set(
+                bundle.getString("threadpool.bounded.adaptivesizing.interval"));
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, INTERVAL, TYPE).set(ModelType.LONG);
+        attributes.get(ADAPTIVE_SIZING, VALUE_TYPE, INTERVAL, REQUIRED).set(false);
+    }
+
     static DescriptionProvider ADD_QUEUELESS_THREAD_POOL_DESC = new DescriptionProvider() {
 
         @Override
@@ -429,6 +481,51 @@ public class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider ADD_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set(ADD);
+            operation.get(DESCRIPTION).set(bundle.getString("threadpool.workstealing.add"));
+            operation.get(REQUEST_PROPERTIES, NAME, DESCRIPTION).set(bundle.getString("threadpool.common.name"));
+            operation.get(REQUEST_PROPERTIES, NAME, TYPE).set(ModelType.STRING);
+            operation.get(REQUEST_PROPERTIES, NAME, REQUIRED).set(false);
+
+            addWorkStealingThreadPoolAttributes(bundle, operation.get(REQUEST_PROPERTIES));
+            operation.get(REPLY_PROPERTIES).setEmptyObject();
+            return operation;
+        }
+    };
+
+    private static void addWorkStealingThreadPoolAttributes(final ResourceBundle bundle, final ModelNode attributes) {
+        attributes.get(THREAD_FACTORY, DESCRIPTION).set(bundle.getString("threadpool.common.threadfactory"));
+        attributes.get(THREAD_FACTORY, TYPE).set(ModelType.STRING);
+        attributes.get(THREAD_FACTORY, REQUIRED).set(false);
+
+        attributes.get(PROPERTIES, DESCRIPTION).set(bundle.getString("threadpool.common.properties"));
+        attributes.get(PROPERTIES, TYPE).set(ModelType.OBJECT);
+        attributes.get(PROPERTIES, VALUE_TYPE).set(ModelType.STRING);
+        attributes.get(PROPERTIES, REQUIRED).set(false);
+
+        attributes.get(PARALLELISM, DESCRIPTION).set(bundle.getString("threadpool.workstealing.parallelism"));
+        attributes.get(PARALLELISM, TYPE).set(ModelType.OBJECT);
+        attributes.get(PARALLELISM, REQUIRED).set(true);
+        attributes.get(PARALLELISM, VALUE_TYPE, COUNT, DESCRIPTION).set(
+                bundle.getString("threadpool.workstealing.parallelism.count"));
+        attributes.get(PARALLELISM, VALUE_TYPE, COUNT, TYPE).set(ModelType.BIG_DECIMAL);
+        attributes.get(PARALLELISM, VALUE_TYPE, COUNT, REQUIRED).set(true);
+        attributes.get(PARALLELISM, VALUE_TYPE, PER_CPU, DESCRIPTION).set(
+                bundle.getString("threadpool.workstealing.parallelism.percpu"));
+        attributes.get(PARALLELISM, VALUE_TYPE, PER_CPU, TYPE).set(ModelType.BIG_DECIMAL);
+        attributes.get(PARALLELISM, VALUE_TYPE, PER_CPU, REQUIRED).set(true);
+
+        attributes.get(ASYNC_MODE, DESCRIPTION).set(bundle.getString("threadpool.workstealing.asyncmode"));
+        attributes.get(ASYNC_MODE, TYPE).set(ModelType.BOOLEAN);
+        attributes.get(ASYNC_MODE, REQUIRED).set(false);
+    }
+
     static ModelNode getCommonAddThreadPool(final ResourceBundle bundle, final String operationName, final String description) {
         final ModelNode operation = new ModelNode();
         operation.get(OPERATION_NAME).set(operationName);
@@ -509,6 +606,15 @@ public class ThreadsSubsystemProviders {
         }
     };
 
+    static DescriptionProvider REMOVE_WORK_STEALING_THREAD_POOL_DESC = new DescriptionProvider() {
+
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            return getCommonRemoveThreadPool(bundle, REMOVE, bundle.getString("threadpool.workstealing.remove"));
+        }
+    };
+
     private static ModelNode getCommonRemoveThreadPool(final ResourceBundle bundle, String operationName, String description) {
         ModelNode operation = new ModelNode();
         operation.get(OPERATION_NAME).set(operationName);
@@ -543,6 +649,9 @@ public class ThreadsSubsystemProviders {
         node.get(CHILDREN, SCHEDULED_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.scheduled"));
         node.get(CHILDREN, SCHEDULED_THREAD_POOL, REQUIRED).set(false);
 
+        node.get(CHILDREN, WORK_STEALING_THREAD_POOL, DESCRIPTION).set(bundle.getString("threadpool.workstealing"));
+        node.get(CHILDREN, WORK_STEALING_THREAD_POOL, REQUIRED).set(false);
+
         return node;
     }
 }
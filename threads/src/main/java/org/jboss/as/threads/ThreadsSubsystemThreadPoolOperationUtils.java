@@ -22,16 +22,22 @@
 package org.jboss.as.threads;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.ADAPTIVE_SIZING;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.ASYNC_MODE;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.COUNT;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
+import static org.jboss.as.threads.CommonAttributes.INTERVAL;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
+import static org.jboss.as.threads.CommonAttributes.MIN_CORE_THREADS;
+import static org.jboss.as.threads.CommonAttributes.PARALLELISM;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
+import static org.jboss.as.threads.CommonAttributes.TARGET_QUEUE_WAIT;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
@@ -99,28 +105,38 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         params.coreThreads = getScaledCount(operation, CORE_THREADS);
         params.queueLength = getScaledCount(operation, QUEUE_LENGTH);
 
+        if (operation.hasDefined(ADAPTIVE_SIZING)) {
+            ModelNode adaptiveSizing = operation.get(ADAPTIVE_SIZING);
+            final int minCoreThreads = adaptiveSizing.hasDefined(MIN_CORE_THREADS) ? adaptiveSizing.get(MIN_CORE_THREADS).asInt() : 1;
+            final long targetQueueWait = adaptiveSizing.hasDefined(TARGET_QUEUE_WAIT) ? adaptiveSizing.get(TARGET_QUEUE_WAIT).asLong() : AdaptiveSizingSpec.DEFAULT_TARGET_QUEUE_WAIT;
+            final long interval = adaptiveSizing.hasDefined(INTERVAL) ? adaptiveSizing.get(INTERVAL).asLong() : AdaptiveSizingSpec.DEFAULT_INTERVAL;
+            if (minCoreThreads < 1) {
+                throw new IllegalArgumentException("'" + MIN_CORE_THREADS + "' for '" + ADAPTIVE_SIZING + "' must be at least 1");
+            }
+            if (targetQueueWait <= 0 || interval <= 0) {
+                throw new IllegalArgumentException("'" + TARGET_QUEUE_WAIT + "' and '" + INTERVAL + "' for '" + ADAPTIVE_SIZING + "' must be positive");
+            }
+            params.adaptiveSizing = new AdaptiveSizingSpec(minCoreThreads, targetQueueWait, interval);
+        }
+
         return params;
     }
 
+    static WorkStealingOperationParameters parseWorkStealingThreadPoolOperationParameters(ModelNode operation) {
+        OperationParametersImpl params = new OperationParametersImpl();
+        parseCommonOperationParameters(operation, params);
 
-    private static OperationParametersImpl parseBaseThreadPoolOperationParameters(ModelNode operation, OperationParametersImpl params) {
-        params.address = operation.require(OP_ADDR);
-        PathAddress pathAddress = PathAddress.pathAddress(params.address);
-        params.name = pathAddress.getLastElement().getValue();
-
-        //Get/validate the properties
-        params.threadFactory = operation.hasDefined(THREAD_FACTORY) ? operation.get(THREAD_FACTORY).asString() : null;
-        params.properties = operation.hasDefined(PROPERTIES) ? operation.get(PROPERTIES) : null;
-        if (params.properties != null) {
-            if (params.properties.getType() != ModelType.LIST) {
-                throw new IllegalArgumentException(PROPERTIES + " must be a list of properties"); //TODO i18n
-            }
-            for (ModelNode property : params.properties.asList()) {
-                if (property.getType() != ModelType.PROPERTY) {
-                    throw new IllegalArgumentException(PROPERTIES + " must be a list of properties"); //TODO i18n
-                }
-            }
+        params.parallelism = getScaledCount(operation, PARALLELISM);
+        if (params.parallelism == null) {
+            throw new IllegalArgumentException(PARALLELISM + " was not defined");
         }
+        params.asyncMode = operation.hasDefined(ASYNC_MODE) ? operation.get(ASYNC_MODE).asBoolean() : false;
+
+        return params;
+    }
+
+    private static OperationParametersImpl parseBaseThreadPoolOperationParameters(ModelNode operation, OperationParametersImpl params) {
+        parseCommonOperationParameters(operation, params);
         params.maxThreads = getScaledCount(operation, MAX_THREADS);
         if (params.maxThreads == null) {
             throw new IllegalArgumentException(MAX_THREADS + " was not defined");
@@ -140,6 +156,26 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         return params;
     }
 
+    private static void parseCommonOperationParameters(ModelNode operation, OperationParametersImpl params) {
+        params.address = operation.require(OP_ADDR);
+        PathAddress pathAddress = PathAddress.pathAddress(params.address);
+        params.name = pathAddress.getLastElement().getValue();
+
+        //Get/validate the properties
+        params.threadFactory = operation.hasDefined(THREAD_FACTORY) ? operation.get(THREAD_FACTORY).asString() : null;
+        params.properties = operation.hasDefined(PROPERTIES) ? operation.get(PROPERTIES) : null;
+        if (params.properties != null) {
+            if (params.properties.getType() != ModelType.LIST) {
+                throw new IllegalArgumentException(PROPERTIES + " must be a list of properties"); //TODO i18n
+            }
+            for (ModelNode property : params.properties.asList()) {
+                if (property.getType() != ModelType.PROPERTY) {
+                    throw new IllegalArgumentException(PROPERTIES + " must be a list of properties"); //TODO i18n
+                }
+            }
+        }
+    }
+
     private static ScaledCount getScaledCount(ModelNode operation, String paramName) {
         if (operation.hasDefined(paramName)) {
             ModelNode scaledCount = operation.get(paramName);
@@ -178,9 +214,24 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         boolean isAllowCoreTimeout();
         ScaledCount getCoreThreads();
         ScaledCount getQueueLength();
+        AdaptiveSizingSpec getAdaptiveSizing();
     }
 
-    private static class OperationParametersImpl implements QueuelessOperationParameters, BoundedOperationParameters {
+    interface WorkStealingOperationParameters {
+        ModelNode getAddress();
+
+        String getName();
+
+        String getThreadFactory();
+
+        ModelNode getProperties();
+
+        ScaledCount getParallelism();
+
+        boolean isAsyncMode();
+    }
+
+    private static class OperationParametersImpl implements QueuelessOperationParameters, BoundedOperationParameters, WorkStealingOperationParameters {
         ModelNode address;
         String name;
         String threadFactory;
@@ -192,6 +243,9 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         boolean allowCoreTimeout;
         ScaledCount coreThreads;
         ScaledCount queueLength;
+        AdaptiveSizingSpec adaptiveSizing;
+        ScaledCount parallelism;
+        boolean asyncMode;
 
         @Override
         public ModelNode getAddress() {
@@ -247,6 +301,21 @@ class ThreadsSubsystemThreadPoolOperationUtils {
         public ScaledCount getQueueLength() {
             return queueLength;
         }
+
+        @Override
+        public AdaptiveSizingSpec getAdaptiveSizing() {
+            return adaptiveSizing;
+        }
+
+        @Override
+        public ScaledCount getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public boolean isAsyncMode() {
+            return asyncMode;
+        }
     }
 
 }
@@ -0,0 +1,361 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An executor with a fixed number of worker threads, each of which has its own task deque.
+ * <p/>
+ * Tasks submitted from a worker thread are pushed onto the deque of that worker; tasks submitted from other threads
+ * are queued to an idle worker, or spread round robin over the workers if none is idle. A worker takes the tasks of
+ * its own deque newest first, or oldest first in async mode, and then the tasks queued to it, always oldest first. A
+ * worker with nothing left to run steals the oldest task of another worker, forked or queued, before it goes idle.
+ * Unlike a {@link java.util.concurrent.ThreadPoolExecutor} there is no single queue which all submitters and workers
+ * contend on.
+ */
+public class WorkStealingExecutor extends AbstractExecutorService {
+
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+    private static final int TERMINATED = 3;
+
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<Worker>();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final AtomicInteger liveWorkers;
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    private final CountDownLatch terminationLatch = new CountDownLatch(1);
+    private volatile boolean asyncMode;
+
+    public WorkStealingExecutor(final int parallelism, final boolean asyncMode, final ThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("Thread factory is null.");
+        }
+        this.asyncMode = asyncMode;
+        this.liveWorkers = new AtomicInteger(parallelism);
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            final Thread thread = threadFactory.newThread(worker);
+            if (thread == null) {
+                throw new IllegalStateException("Thread factory did not create a thread.");
+            }
+            worker.thread = thread;
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new NullPointerException("task is null");
+        }
+        if (state.get() != RUNNING) {
+            reject(task);
+        }
+        final Worker worker = currentWorker.get();
+        final Worker target;
+        final boolean removed;
+        if (worker != null) {
+            target = worker;
+            target.deque.addFirst(task);
+            removed = state.get() != RUNNING && target.deque.removeFirstOccurrence(task);
+        } else {
+            target = findIdleWorker();
+            target.queue.offer(task);
+            removed = state.get() != RUNNING && target.queue.remove(task);
+        }
+        if (removed) {
+            // raced with shutdown and no worker will run it anymore
+            reject(task);
+        }
+        if (target.idle) {
+            LockSupport.unpark(target.thread);
+        } else if (idleWorkers.get() > 0) {
+            // let an idle worker steal it
+            final Worker idle = findIdleWorker();
+            if (idle.idle) {
+                LockSupport.unpark(idle.thread);
+            }
+        }
+    }
+
+    private void reject(final Runnable task) {
+        rejectedCount.incrementAndGet();
+        throw new RejectedExecutionException("Executor is shut down, rejecting " + task);
+    }
+
+    private Worker findIdleWorker() {
+        final int start = (nextWorker.getAndIncrement() & Integer.MAX_VALUE) % workers.length;
+        if (idleWorkers.get() > 0) {
+            for (int i = 0; i < workers.length; i++) {
+                final Worker worker = workers[(start + i) % workers.length];
+                if (worker.idle) {
+                    return worker;
+                }
+            }
+        }
+        return workers[start];
+    }
+
+    public void shutdown() {
+        if (state.compareAndSet(RUNNING, SHUTDOWN)) {
+            for (Worker worker : workers) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+    }
+
+    public List<Runnable> shutdownNow() {
+        int current;
+        do {
+            current = state.get();
+        } while (current < STOP && !state.compareAndSet(current, STOP));
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (Worker worker : workers) {
+            worker.deque.drainTo(tasks);
+            worker.queue.drainTo(tasks);
+            worker.thread.interrupt();
+        }
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return state.get() != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return state.get() == TERMINATED;
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminationLatch.await(timeout, unit);
+    }
+
+    /**
+     * Invoked once the last worker has exited after a shutdown.
+     */
+    protected void terminated() {
+    }
+
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    public boolean isAsyncMode() {
+        return asyncMode;
+    }
+
+    public void setAsyncMode(final boolean asyncMode) {
+        this.asyncMode = asyncMode;
+    }
+
+    /**
+     * Gets the number of workers which are running a task.
+     *
+     * @return the number of active workers
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (Worker worker : workers) {
+            if (worker.active) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of workers which have not exited yet.
+     *
+     * @return the number of threads
+     */
+    public int getCurrentThreadCount() {
+        return liveWorkers.get();
+    }
+
+    /**
+     * Gets the number of tasks waiting in the deques and queues of the workers.
+     *
+     * @return the number of queued tasks
+     */
+    public long getQueuedTaskCount() {
+        long count = 0;
+        for (Worker worker : workers) {
+            count += worker.deque.size() + worker.queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of tasks which were run by another worker than the one they were queued to.
+     *
+     * @return the number of stolen tasks
+     */
+    public long getStealCount() {
+        long count = 0;
+        for (Worker worker : workers) {
+            count += worker.stealCount;
+        }
+        return count;
+    }
+
+    public long getCompletedTaskCount() {
+        long count = 0;
+        for (Worker worker : workers) {
+            count += worker.completedTaskCount;
+        }
+        return count;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private void workerExited() {
+        if (liveWorkers.decrementAndGet() == 0) {
+            state.set(TERMINATED);
+            try {
+                terminated();
+            } finally {
+                terminationLatch.countDown();
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final int index;
+        // the tasks forked by this worker, newest at the head, oldest at the tail
+        private final LinkedBlockingDeque<Runnable> deque = new LinkedBlockingDeque<Runnable>();
+        // the tasks submitted from other threads, oldest at the head
+        private final LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+        private volatile Thread thread;
+        private volatile boolean idle;
+        private volatile boolean active;
+        // only written by the worker itself
+        private volatile long stealCount;
+        private volatile long completedTaskCount;
+
+        Worker(final int index) {
+            this.index = index;
+        }
+
+        public void run() {
+            currentWorker.set(this);
+            try {
+                for (;;) {
+                    if (state.get() >= STOP) {
+                        return;
+                    }
+                    Runnable task = asyncMode ? deque.pollLast() : deque.pollFirst();
+                    if (task == null) {
+                        task = queue.poll();
+                    }
+                    if (task == null) {
+                        task = steal();
+                    }
+                    if (task != null) {
+                        runTask(task);
+                        continue;
+                    }
+                    if (state.get() != RUNNING) {
+                        // shut down and nothing left to run
+                        return;
+                    }
+                    idle = true;
+                    idleWorkers.incrementAndGet();
+                    try {
+                        // check again, as a task may have been queued before we became idle
+                        if (state.get() == RUNNING && !hasQueuedTasks()) {
+                            LockSupport.park(this);
+                        }
+                    } finally {
+                        idle = false;
+                        idleWorkers.decrementAndGet();
+                    }
+                }
+            } finally {
+                currentWorker.remove();
+                workerExited();
+            }
+        }
+
+        private Runnable steal() {
+            for (int i = 1; i < workers.length; i++) {
+                final Worker victim = workers[(index + i) % workers.length];
+                Runnable task = victim.deque.pollLast();
+                if (task == null) {
+                    task = victim.queue.poll();
+                }
+                if (task != null) {
+                    stealCount++;
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasQueuedTasks() {
+            for (Worker worker : workers) {
+                if (!worker.deque.isEmpty() || !worker.queue.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void runTask(final Runnable task) {
+            // clear an interrupt left over from a previous task
+            Thread.interrupted();
+            active = true;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                final Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, t);
+            } finally {
+                active = false;
+                completedTaskCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Service responsible for creating, starting and stopping a work stealing thread pool executor.
+ */
+public final class WorkStealingThreadPoolService implements Service<ManagedWorkStealingExecutorService> {
+
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+
+    private ManagedWorkStealingExecutorService executor;
+    private StopContext context;
+
+    private final int parallelism;
+    private boolean asyncMode;
+
+    public WorkStealingThreadPoolService(final int parallelism, final boolean asyncMode) {
+        this.parallelism = parallelism;
+        this.asyncMode = asyncMode;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        executor = new ManagedWorkStealingExecutorService(new ExecutorImpl(parallelism, asyncMode, threadFactoryValue.getValue()));
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        this.context = context;
+        context.asynchronous();
+        executor.internalShutdown();
+        this.executor = null;
+    }
+
+    public synchronized ManagedWorkStealingExecutorService getValue() throws IllegalStateException {
+        final ManagedWorkStealingExecutorService value = this.executor;
+        if (value == null) {
+            throw new IllegalStateException();
+        }
+        return value;
+    }
+
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+
+    public synchronized void setAsyncMode(final boolean asyncMode) {
+        this.asyncMode = asyncMode;
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor != null) {
+            executor.setAsyncMode(asyncMode);
+        }
+    }
+
+    public int getActiveCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getCurrentThreadCount();
+    }
+
+    public long getQueuedTaskCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getQueuedTaskCount();
+    }
+
+    public int getRejectedCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getRejectedCount();
+    }
+
+    public long getStealCount() {
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor == null) {
+            throw new IllegalStateException("The exector service hasn't been initialized.");
+        }
+        return executor.getStealCount();
+    }
+
+    private class ExecutorImpl extends WorkStealingExecutor {
+
+        ExecutorImpl(final int parallelism, final boolean asyncMode, final ThreadFactory threadFactory) {
+            super(parallelism, asyncMode, threadFactory);
+        }
+
+        protected void terminated() {
+            synchronized (WorkStealingThreadPoolService.this) {
+                super.terminated();
+                context.complete();
+                context = null;
+            }
+        }
+    }
+}
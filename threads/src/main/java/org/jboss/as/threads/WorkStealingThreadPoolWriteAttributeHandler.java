@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+
+/**
+ * Writes the runtime attributes of a work-stealing thread pool.
+ */
+public class WorkStealingThreadPoolWriteAttributeHandler extends ThreadsWriteAttributeOperationHandler {
+
+    public static final WorkStealingThreadPoolWriteAttributeHandler INSTANCE = new WorkStealingThreadPoolWriteAttributeHandler();
+
+    private WorkStealingThreadPoolWriteAttributeHandler() {
+        super(WorkStealingThreadPoolAdd.ATTRIBUTES, WorkStealingThreadPoolAdd.RW_ATTRIBUTES);
+    }
+
+    protected void applyOperation(ModelNode operation, String attributeName, ServiceController<?> service) {
+
+        final WorkStealingThreadPoolService pool =  (WorkStealingThreadPoolService) service.getService();
+        final ModelNode value = operation.require(CommonAttributes.VALUE);
+        if (CommonAttributes.ASYNC_MODE.equals(attributeName)) {
+            pool.setAsyncMode(value.asBoolean());
+        } else {
+            throw new IllegalArgumentException("Unexpected attribute '" + attributeName + "'");
+        }
+    }
+
+    @Override
+    protected ServiceController<?> getService(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String name = Util.getNameFromAddress(operation.require(OP_ADDR));
+        final ServiceName serviceName = ThreadsServices.executorName(name);
+        ServiceController<?> controller = context.getServiceRegistry(true).getService(serviceName);
+        if(controller == null) {
+            throw new OperationFailedException(new ModelNode().set("Service " + serviceName + " not found."));
+        }
+        return controller;
+    }
+}
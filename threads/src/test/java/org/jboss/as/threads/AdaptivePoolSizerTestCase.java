@@ -0,0 +1,241 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link AdaptivePoolSizer}, driven by a simulated pool in virtual time.
+ */
+public class AdaptivePoolSizerTestCase {
+
+    private static final long TARGET_WAIT_MS = 10;
+
+    @Test
+    public void testGrowsUnderLoad() {
+        final SimulatedPool pool = new SimulatedPool(2, 100);
+        final AdaptivePoolSizer sizer = pool.newSizer(2);
+
+        // 1000 tasks/s of 20ms each need 20 threads
+        pool.run(sizer, 1000, 20, Integer.MAX_VALUE, 120);
+        assertTrue("core " + pool.coreThreads, pool.coreThreads >= 20 && pool.coreThreads <= 30);
+        assertTrue(pool.queue.size() < 100);
+        assertTrue(sizer.getQueueWaitPercentiles()[1] <= TimeUnit.MILLISECONDS.toNanos(TARGET_WAIT_MS));
+        assertTrue(sizer.getIncreaseCount() >= 19);
+    }
+
+    @Test
+    public void testShrinksWhenLoadDrops() {
+        final SimulatedPool pool = new SimulatedPool(2, 100);
+        final AdaptivePoolSizer sizer = pool.newSizer(2);
+        pool.run(sizer, 1000, 20, Integer.MAX_VALUE, 120);
+        final int peakCore = pool.coreThreads;
+
+        // 100 tasks/s of 20ms each need 2 threads
+        pool.run(sizer, 100, 20, Integer.MAX_VALUE, 120);
+        assertTrue("core " + pool.coreThreads, pool.coreThreads >= 2 && pool.coreThreads <= 5);
+        assertTrue(sizer.getDecreaseCount() > 0);
+        assertTrue(sizer.getDecreaseCount() < peakCore);
+
+        // and grows back
+        pool.run(sizer, 1000, 20, Integer.MAX_VALUE, 120);
+        assertTrue("core " + pool.coreThreads, pool.coreThreads >= 20 && pool.coreThreads <= 30);
+    }
+
+    @Test
+    public void testSettlesWithoutOscillating() {
+        final SimulatedPool pool = new SimulatedPool(2, 100);
+        final AdaptivePoolSizer sizer = pool.newSizer(2);
+        pool.run(sizer, 500, 20, Integer.MAX_VALUE, 120);
+
+        final long increases = sizer.getIncreaseCount();
+        final long decreases = sizer.getDecreaseCount();
+        final int min = pool.coreThreads;
+        int max = pool.coreThreads;
+        for (int i = 0; i < 60; i++) {
+            pool.run(sizer, 500, 20, Integer.MAX_VALUE, 1);
+            max = Math.max(max, pool.coreThreads);
+        }
+        assertTrue("core moved between " + min + " and " + max, max - Math.min(min, pool.coreThreads) <= 2);
+        assertTrue(sizer.getIncreaseCount() - increases + sizer.getDecreaseCount() - decreases <= 4);
+    }
+
+    @Test
+    public void testHoldsWhenThreadsDoNotHelp() {
+        final SimulatedPool pool = new SimulatedPool(2, 100);
+        final AdaptivePoolSizer sizer = pool.newSizer(2);
+
+        // a downstream resource only allows 10 tasks to make progress at the same time, so the pool is overloaded
+        // whatever its size
+        pool.run(sizer, 1000, 20, 10, 120);
+        assertTrue("core " + pool.coreThreads, pool.coreThreads >= 10 && pool.coreThreads <= 20);
+        assertTrue(sizer.getLastDecision(), sizer.getLastDecision().contains("throughput did not improve")
+                || sizer.getLastDecision().startsWith("INCREASE"));
+    }
+
+    @Test
+    public void testGrowsWhenAllThreadsAreBlocked() {
+        final SimulatedPool pool = new SimulatedPool(2, 100);
+        final AdaptivePoolSizer sizer = pool.newSizer(2);
+
+        // no task completes within the test, only the submissions drive the sizer
+        pool.run(sizer, 100, 1000000, Integer.MAX_VALUE, 20);
+        assertEquals(0, sizer.getDecreaseCount());
+        assertTrue("core " + pool.coreThreads, pool.coreThreads >= 15);
+        assertTrue(sizer.getLastDecision(), sizer.getLastDecision().startsWith("INCREASE"));
+    }
+
+    @Test
+    public void testRejectedTasksAreNotWaiting() {
+        final SimulatedPool pool = new SimulatedPool(2, 4);
+        final AdaptivePoolSizer sizer = new AdaptivePoolSizer(pool, 1, 1, 1, TimeUnit.MILLISECONDS, 0);
+        sizer.rejected(sizer.taskSubmitted(SimulatedPool.TASK, 0));
+        // the submission ends the first interval; a rejected task waiting since then would have been over the target
+        sizer.taskSubmitted(SimulatedPool.TASK, TimeUnit.MILLISECONDS.toNanos(2));
+        assertFalse("none".equals(sizer.getLastDecision()));
+        assertEquals(0, sizer.getIncreaseCount());
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        final SimulatedPool pool = new SimulatedPool(4, 8);
+        final AdaptivePoolSizer sizer = pool.newSizer(3);
+        // 8 threads handle 400 tasks/s
+        pool.run(sizer, 500, 20, Integer.MAX_VALUE, 20);
+        assertEquals(8, pool.coreThreads);
+        assertTrue(sizer.getLastDecision(), sizer.getLastDecision().contains("maximum"));
+
+        pool.run(sizer, 1, 20, Integer.MAX_VALUE, 60);
+        assertTrue(pool.queue.isEmpty());
+        assertEquals(3, pool.coreThreads);
+    }
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int i = 0; i < 200; i++) {
+            final long bound = AdaptivePoolSizer.bucketUpperBound(i);
+            assertTrue(bound > previous);
+            assertEquals(i, AdaptivePoolSizer.bucket(bound));
+            assertEquals(i, AdaptivePoolSizer.bucket(previous + 1));
+            previous = bound;
+        }
+        assertEquals(0, AdaptivePoolSizer.bucket(-5));
+        AdaptivePoolSizer.bucket(Long.MAX_VALUE);
+
+        final long[] counts = new long[256];
+        counts[AdaptivePoolSizer.bucket(1000)] = 90;
+        counts[AdaptivePoolSizer.bucket(100000)] = 10;
+        final long[] values = AdaptivePoolSizer.valuesAtPercentiles(counts, 50, 90, 99);
+        assertTrue(values[0] >= 1000 && values[0] < 1250);
+        assertEquals(values[0], values[1]);
+        assertTrue(values[2] >= 100000 && values[2] < 125000);
+    }
+
+    @Test
+    public void testWrappedTasksAreRecorded() throws Exception {
+        final SimulatedPool pool = new SimulatedPool(2, 4);
+        final AdaptivePoolSizer sizer = new AdaptivePoolSizer(pool, 1, 1, 1, TimeUnit.NANOSECONDS);
+        final boolean[] ran = new boolean[1];
+        final Runnable task = sizer.wrap(new Runnable() {
+            public void run() {
+                ran[0] = true;
+            }
+        });
+        assertFalse(ran[0]);
+        Thread.sleep(1);
+        task.run();
+        assertTrue(ran[0]);
+        assertFalse("none".equals(sizer.getLastDecision()));
+    }
+
+    /**
+     * A pool of {@code coreThreads} threads with an unbounded FIFO queue, advanced in steps of one millisecond.
+     */
+    private static final class SimulatedPool implements AdaptivePoolSizer.SizedPool {
+        private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+        private static final Runnable TASK = new Runnable() {
+            public void run() {
+            }
+        };
+
+        final ArrayDeque<AdaptivePoolSizer.SizedTask> queue = new ArrayDeque<AdaptivePoolSizer.SizedTask>();
+        final PriorityQueue<Long> running = new PriorityQueue<Long>();
+        int coreThreads;
+        final int maxThreads;
+        long now;
+        double arrivals;
+
+        SimulatedPool(final int coreThreads, final int maxThreads) {
+            this.coreThreads = coreThreads;
+            this.maxThreads = maxThreads;
+        }
+
+        AdaptivePoolSizer newSizer(final int minCoreThreads) {
+            return new AdaptivePoolSizer(this, minCoreThreads, TARGET_WAIT_MS, 1000, TimeUnit.MILLISECONDS, now);
+        }
+
+        /**
+         * Run the simulation. Tasks arrive at a constant rate; a task's service time grows proportionally once more
+         * than {@code concurrencyLimit} tasks run at the same time.
+         */
+        void run(final AdaptivePoolSizer sizer, final double tasksPerSecond, final long serviceMillis, final int concurrencyLimit,
+                final long seconds) {
+            final long serviceTime = TimeUnit.MILLISECONDS.toNanos(serviceMillis);
+            for (final long end = now + TimeUnit.SECONDS.toNanos(seconds); now < end; now += TICK) {
+                while (!running.isEmpty() && running.peek() <= now) {
+                    running.poll();
+                    sizer.taskCompleted(now);
+                }
+                arrivals += tasksPerSecond * TICK / TimeUnit.SECONDS.toNanos(1);
+                for (; arrivals >= 1; arrivals--) {
+                    queue.add(sizer.taskSubmitted(TASK, now));
+                }
+                while (!queue.isEmpty() && running.size() < coreThreads) {
+                    sizer.taskStarted(queue.poll(), now);
+                    final double slowdown = Math.max(1.0, (running.size() + 1) / (double) concurrencyLimit);
+                    running.add(now + (long) (serviceTime * slowdown));
+                }
+            }
+        }
+
+        public int getCoreThreads() {
+            return coreThreads;
+        }
+
+        public void setCoreThreads(final int coreThreads) {
+            this.coreThreads = coreThreads;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+    }
+}
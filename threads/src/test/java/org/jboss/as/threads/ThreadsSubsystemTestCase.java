@@ -22,6 +22,7 @@
 package org.jboss.as.threads;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
@@ -53,6 +54,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYP
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.ASYNC_MODE;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
@@ -61,6 +63,7 @@ import static org.jboss.as.threads.CommonAttributes.GROUP_NAME;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
+import static org.jboss.as.threads.CommonAttributes.PARALLELISM;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
@@ -587,6 +590,53 @@ public class ThreadsSubsystemTestCase {
         assertEquals("test-poolB", threadFactory.require("test-poolB").require("name").asString());
     }
 
+    @Test
+    public void testSimpleWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem("<work-stealing-thread-pool name=\"test-pool\">"
+                + "   <parallelism count=\"1\" per-cpu=\"2\"/>" + "</work-stealing-thread-pool>");
+        assertEquals(2, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                executeForResult(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals("test-pool", threadPool.require("test-pool").require("name").asString());
+        assertFalse(threadPool.require("test-pool").hasDefined(ASYNC_MODE));
+    }
+
+    @Test
+    public void testFullWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<thread-factory name=\"test-factory\"/>" +
+                "<work-stealing-thread-pool name=\"test-pool\" async-mode=\"true\">" +
+                "   <parallelism count=\"4\" per-cpu=\"2\"/>" +
+                "   <thread-factory name=\"test-factory\"/>" +
+                "   <properties>" +
+                "      <property name=\"propA\" value=\"valueA\"/>" +
+                "   </properties>" +
+                "</work-stealing-thread-pool>");
+
+        executeForResult(updates.get(0));
+        executeForResult(updates.get(1));
+        executeForResult(updates.get(2));
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals("test-pool", threadPool.require("test-pool").require("name").asString());
+        assertEquals(new BigDecimal(4), threadPool.require("test-pool").require(PARALLELISM).require(COUNT).asBigDecimal());
+        assertEquals(new BigDecimal(2), threadPool.require("test-pool").require(PARALLELISM).require(PER_CPU).asBigDecimal());
+        assertTrue(threadPool.require("test-pool").require(ASYNC_MODE).asBoolean());
+        assertEquals("test-factory", threadPool.require("test-pool").require(THREAD_FACTORY).asString());
+        assertEquals(1, threadPool.require("test-pool").require("properties").asList().size());
+    }
+
     @Test
     public void testSimpleQueuelessThreadPool() throws Exception {
         List<ModelNode> updates = createSubSystem("<queueless-thread-pool name=\"test-pool\">"
@@ -755,6 +805,28 @@ public class ThreadsSubsystemTestCase {
         }
     }
 
+    @Test
+    public void testAdaptiveBoundedQueueThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem("<bounded-queue-thread-pool name=\"test-pool\">"
+                + "   <max-threads count=\"1\" per-cpu=\"2\"/>" + "   <queue-length count=\"1\" per-cpu=\"2\"/>"
+                + "   <adaptive-sizing min-core-threads=\"2\" target-queue-wait=\"20\" interval=\"500\"/>"
+                + "</bounded-queue-thread-pool>");
+        assertEquals(2, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                executeForResult(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("profile").require("test").require("subsystem").require("threads");
+        ModelNode adaptiveSizing = subsystem.require("bounded-queue-thread-pool").require("test-pool").require("adaptive-sizing");
+        assertEquals(2, adaptiveSizing.require("min-core-threads").asInt());
+        assertEquals(20L, adaptiveSizing.require("target-queue-wait").asLong());
+        assertEquals(500L, adaptiveSizing.require("interval").asLong());
+    }
+
     @Test
     public void testSeveralBoundedQueueThreadPools() throws Exception {
         List<ModelNode> updates = createSubSystem("<bounded-queue-thread-pool name=\"test-poolA\">"
@@ -0,0 +1,253 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link WorkStealingExecutor}.
+ */
+public class WorkStealingExecutorTestCase {
+
+    private WorkStealingExecutor executor;
+
+    @After
+    public void shutdown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testRunsExternalTasks() throws Exception {
+        executor = new WorkStealingExecutor(3, false, Executors.defaultThreadFactory());
+        assertEquals(3, executor.getCurrentThreadCount());
+
+        final int tasks = 1000;
+        final CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(tasks, executor.getCompletedTaskCount());
+        assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testSubtasksAreStolen() throws Exception {
+        executor = new WorkStealingExecutor(2, false, Executors.defaultThreadFactory());
+
+        // one task forks all subtasks onto its own deque and keeps its worker busy until the other worker has stolen one
+        final int subtasks = 100;
+        final CountDownLatch done = new CountDownLatch(subtasks);
+        final CountDownLatch stolen = new CountDownLatch(1);
+        final AtomicReference<Thread> forkerThread = new AtomicReference<Thread>();
+        executor.execute(new Runnable() {
+            public void run() {
+                forkerThread.set(Thread.currentThread());
+                for (int i = 0; i < subtasks; i++) {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            if (Thread.currentThread() != forkerThread.get()) {
+                                stolen.countDown();
+                            }
+                            done.countDown();
+                        }
+                    });
+                }
+                try {
+                    stolen.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, stolen.getCount());
+        assertTrue(executor.getStealCount() > 0);
+    }
+
+    @Test
+    public void testShutdownRunsQueuedTasks() throws Exception {
+        executor = new WorkStealingExecutor(1, true, Executors.defaultThreadFactory());
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger ran = new AtomicInteger();
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                ran.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    ran.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        assertFalse(executor.awaitTermination(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(executor.isTerminated());
+        assertEquals(11, ran.get());
+    }
+
+    @Test
+    public void testRejectsAfterShutdown() throws Exception {
+        executor = new WorkStealingExecutor(2, false, Executors.defaultThreadFactory());
+        executor.shutdown();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Task should have been rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    public void testShutdownNowReturnsQueuedTasks() throws Exception {
+        executor = new WorkStealingExecutor(1, false, Executors.defaultThreadFactory());
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    // expected
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+        }
+        assertEquals(5, executor.shutdownNow().size());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExternalTasksRunInSubmissionOrder() throws Exception {
+        assertEquals(Arrays.asList("A", "B", "C", "D"), runExternalTasks(true));
+        assertEquals(Arrays.asList("A", "B", "C", "D"), runExternalTasks(false));
+    }
+
+    @Test
+    public void testForkedTasksOrder() throws Exception {
+        assertEquals(Arrays.asList("A", "B", "C", "D"), runForkedTasks(true));
+        assertEquals(Arrays.asList("D", "C", "B", "A"), runForkedTasks(false));
+    }
+
+    private List<String> runExternalTasks(final boolean asyncMode) throws Exception {
+        executor = new WorkStealingExecutor(1, asyncMode, Executors.defaultThreadFactory());
+        final CountDownLatch release = new CountDownLatch(1);
+        // keep the only worker busy until all tasks are queued
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        for (String name : new String[] {"A", "B", "C", "D"}) {
+            executor.execute(new RecordingTask(name, order));
+        }
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        executor = null;
+        return order;
+    }
+
+    private List<String> runForkedTasks(final boolean asyncMode) throws Exception {
+        executor = new WorkStealingExecutor(1, asyncMode, Executors.defaultThreadFactory());
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch forked = new CountDownLatch(1);
+        // the subtasks are forked by the only worker, so they all wait in its deque until the forking task is done
+        executor.execute(new Runnable() {
+            public void run() {
+                for (String name : new String[] {"A", "B", "C", "D"}) {
+                    executor.execute(new RecordingTask(name, order));
+                }
+                forked.countDown();
+            }
+        });
+        assertTrue(forked.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        executor = null;
+        return order;
+    }
+
+    private static final class RecordingTask implements Runnable {
+        private final String name;
+        private final List<String> order;
+
+        RecordingTask(final String name, final List<String> order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        public void run() {
+            order.add(name);
+        }
+    }
+}
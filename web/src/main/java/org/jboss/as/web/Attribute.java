@@ -58,6 +58,7 @@ enum Attribute {
     JAVA_ENCODING(Constants.JAVA_ENCODING),
     KEEP_GENERATED(Constants.KEEP_GENERATED),
     KEY_ALIAS(Constants.KEY_ALIAS),
+    LATENCY_WINDOW(Constants.LATENCY_WINDOW),
     LISTINGS(Constants.LISTINGS),
     MAPPED_FILE(Constants.MAPPED_FILE),
     MAX_CONNECTIONS(Constants.MAX_CONNECTIONS),
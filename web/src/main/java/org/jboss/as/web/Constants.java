@@ -61,6 +61,8 @@ interface Constants {
     String JSP_CONFIGURATION = "jsp-configuration";
     String KEEP_GENERATED = "keep-generated";
     String KEY_ALIAS = "key-alias";
+    String LATENCY_PERCENTILES = "latency-percentiles";
+    String LATENCY_WINDOW = "latency-window";
     String LISTINGS = "listings";
     String MAPPED_FILE = "mapped-file";
     String MAX_CONNECTIONS = "max-connections";
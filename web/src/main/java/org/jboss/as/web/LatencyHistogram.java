@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies over a rolling time window, which can be recorded to concurrently without locking.
+ * <p/>
+ * Values are counted in log-linear buckets: values below 32 each have their own bucket, and every power of two above
+ * that is split into 16 buckets, so a value is always reported within about 6% of what was recorded. Values larger
+ * than 2<sup>32</sup> are counted in the last bucket. The unit of the values is up to the caller.
+ * <p/>
+ * The window is divided into {@value #SLOTS} slots with a set of buckets each, which are reused as time goes by, so
+ * the memory used by a histogram is constant. The first value recorded into a slot after the slot became current
+ * clears it; values recorded concurrently with that may get lost. Percentiles are computed over all slots which are
+ * part of the window, which means they cover between 7/8 of the window and the whole window.
+ */
+public final class LatencyHistogram {
+
+    static final int SLOTS = 8;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int MAX_MAGNITUDE = 27;
+    static final int BUCKETS = (MAX_MAGNITUDE + 2) << SUB_BUCKET_BITS;
+
+    private final long origin = System.nanoTime();
+    private final long slotNanos;
+    /** The counts of all slots, slot after slot */
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(SLOTS * BUCKETS);
+    /** The number of the time slot each slot currently counts */
+    private final AtomicLongArray slotNumbers = new AtomicLongArray(SLOTS);
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param window the length of the window the percentiles are computed over
+     * @param unit the unit of the window
+     */
+    public LatencyHistogram(final long window, final TimeUnit unit) {
+        final long slotNanos = unit.toNanos(window) / SLOTS;
+        if (slotNanos <= 0) {
+            throw new IllegalArgumentException("Window too short: " + window + " " + unit);
+        }
+        this.slotNanos = slotNanos;
+        for (int i = 0; i < SLOTS; i++) {
+            slotNumbers.set(i, -1);
+        }
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value
+     */
+    public void record(final long value) {
+        record(value, System.nanoTime());
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value
+     * @param nanoTime the current {@link System#nanoTime()}, for callers which have just read it anyway
+     */
+    public void record(final long value, final long nanoTime) {
+        final long slotNumber = slotNumber(nanoTime);
+        final int slot = (int) (slotNumber & (SLOTS - 1));
+        final long current = slotNumbers.get(slot);
+        if (current < slotNumber && slotNumbers.compareAndSet(slot, current, slotNumber)) {
+            final int offset = slot * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(offset + i, 0);
+            }
+        }
+        counts.getAndIncrement(slot * BUCKETS + bucket(value));
+    }
+
+    /**
+     * Gets the number of values recorded in the current window.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count(System.nanoTime());
+    }
+
+    long count(final long nanoTime) {
+        long count = 0;
+        for (long bucketCount : snapshot(nanoTime)) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the values below which a given percentage of the values recorded in the current window fall.
+     *
+     * @param percentiles the percentiles, between 0 and 100
+     * @return the value for each of the percentiles, 0 if nothing was recorded in the current window
+     */
+    public long[] getValuesAtPercentiles(final double... percentiles) {
+        return valuesAtPercentiles(System.nanoTime(), percentiles);
+    }
+
+    long[] valuesAtPercentiles(final long nanoTime, final double... percentiles) {
+        final long[] buckets = snapshot(nanoTime);
+        long total = 0;
+        for (long bucketCount : buckets) {
+            total += bucketCount;
+        }
+        final long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int i = 0; i < percentiles.length; i++) {
+            final long rank = Math.max(1, (long) Math.ceil(percentiles[i] / 100.0 * total));
+            long count = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                count += buckets[bucket];
+                if (count >= rank) {
+                    values[i] = highestValue(bucket);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    private long[] snapshot(final long nanoTime) {
+        final long current = slotNumber(nanoTime);
+        final long[] buckets = new long[BUCKETS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            final long slotNumber = slotNumbers.get(slot);
+            if (slotNumber > current - SLOTS && slotNumber <= current) {
+                final int offset = slot * BUCKETS;
+                for (int i = 0; i < BUCKETS; i++) {
+                    buckets[i] += counts.get(offset + i);
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private long slotNumber(final long nanoTime) {
+        // Relative to the creation of the histogram, as nanoTime may be negative
+        final long elapsed = nanoTime - origin;
+        return elapsed < 0 ? 0 : elapsed / slotNanos;
+    }
+
+    static int bucket(final long value) {
+        if (value < 0) {
+            return 0;
+        }
+        final int magnitude = 59 - Long.numberOfLeadingZeros(value);
+        if (magnitude <= 0) {
+            return (int) value;
+        }
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        return (magnitude << SUB_BUCKET_BITS) + (int) (value >>> magnitude);
+    }
+
+    static long highestValue(final int bucket) {
+        if (bucket < 2 << SUB_BUCKET_BITS) {
+            return bucket;
+        }
+        final int magnitude = (bucket >> SUB_BUCKET_BITS) - 1;
+        final long subBucket = (bucket & ((1 << SUB_BUCKET_BITS) - 1)) + (1 << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.apache.catalina.Pipeline;
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A {@code Valve} recording the time spent processing requests into a {@link LatencyHistogram} per connector or per
+ * servlet, in microseconds. Only the time until the request returns from the pipeline is recorded, so the
+ * asynchronous part of an asynchronous request is not included.
+ */
+public class LatencyValve extends ValveBase {
+
+    /** The percentiles exposed by the latency-percentiles metrics */
+    public static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * What the requests are recorded by.
+     */
+    public enum Target {
+        /** A histogram per connector, for a valve in the engine */
+        CONNECTOR,
+        /** A histogram per servlet, for a valve in a context */
+        SERVLET,
+    }
+
+    private final Target target;
+    private final long window;
+    private final ConcurrentMap<Object, LatencyHistogram> histograms = new ConcurrentHashMap<Object, LatencyHistogram>();
+
+    /**
+     * Creates a new valve.
+     *
+     * @param target what the requests are recorded by
+     * @param window the length in seconds of the window the percentiles are computed over
+     */
+    public LatencyValve(final Target target, final long window) {
+        this.target = target;
+        this.window = window;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        final long start = System.nanoTime();
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            final long end = System.nanoTime();
+            final Object key = target == Target.CONNECTOR ? request.getConnector() : request.getWrapper();
+            if (key != null) {
+                getHistogram(key).record((end - start) / 1000, end);
+            }
+        }
+    }
+
+    /**
+     * Gets the histogram of a connector or servlet.
+     *
+     * @param key the {@code Connector} or {@code Wrapper}
+     * @return the histogram, or {@code null} if no request was recorded for it yet
+     */
+    public LatencyHistogram findHistogram(final Object key) {
+        return histograms.get(key);
+    }
+
+    /**
+     * Stops tracking a connector or servlet.
+     *
+     * @param key the {@code Connector} or {@code Wrapper}
+     */
+    public void remove(final Object key) {
+        histograms.remove(key);
+    }
+
+    private LatencyHistogram getHistogram(final Object key) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram(window, TimeUnit.SECONDS);
+            final LatencyHistogram existing = histograms.putIfAbsent(key, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Finds the latency valve of a pipeline.
+     *
+     * @param pipeline the pipeline
+     * @return the valve, or {@code null} if there is none
+     */
+    public static LatencyValve find(final Pipeline pipeline) {
+        for (Valve valve : pipeline.getValves()) {
+            if (valve instanceof LatencyValve) {
+                return (LatencyValve) valve;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the percentiles of a histogram as the value of a latency-percentiles metric.
+     *
+     * @param result the metric value
+     * @param histogram the histogram, may be {@code null} if nothing was recorded yet
+     */
+    public static void getPercentiles(final ModelNode result, final LatencyHistogram histogram) {
+        final long[] values = histogram == null ? new long[PERCENTILES.length] : histogram.getValuesAtPercentiles(PERCENTILES);
+        for (int i = 0; i < values.length; i++) {
+            result.get(PERCENTILE_NAMES[i]).set(values[i]);
+        }
+    }
+}
@@ -60,7 +60,12 @@ class WebConnectorMetrics implements OperationStepHandler {
                         try {
                             final Connector connector = (Connector) controller.getValue();
                             final ModelNode result = context.getResult();
-                            if (connector.getProtocolHandler() != null && connector.getProtocolHandler().getRequestGroupInfo() != null) {
+                            if (Constants.LATENCY_PERCENTILES.equals(attributeName)) {
+                                final ServiceController<?> server = context.getServiceRegistry(false)
+                                        .getRequiredService(WebSubsystemServices.JBOSS_WEB);
+                                final LatencyValve valve = ((WebServer) server.getValue()).getLatencyValve();
+                                LatencyValve.getPercentiles(result, valve.findHistogram(connector));
+                            } else if (connector.getProtocolHandler() != null && connector.getProtocolHandler().getRequestGroupInfo() != null) {
                                 RequestGroupInfo info = connector.getProtocolHandler().getRequestGroupInfo();
                                 if (Constants.BYTES_SENT.equals(attributeName)) {
                                     result.set("" + info.getBytesSent());
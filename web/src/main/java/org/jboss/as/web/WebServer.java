@@ -71,4 +71,9 @@ public interface WebServer {
      */
     StandardService getService();
 
+    /**
+     * return the valve recording the request latency of each connector
+     */
+    LatencyValve getLatencyValve();
+
 }
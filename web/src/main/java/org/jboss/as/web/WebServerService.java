@@ -43,6 +43,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     private final String defaultHost;
     private final boolean useNative;
     private final String instanceId;
+    private final LatencyValve latencyValve;
 
     private Engine engine;
     private StandardServer server;
@@ -51,10 +52,11 @@ class WebServerService implements WebServer, Service<WebServer> {
     private final InjectedValue<MBeanServer> mbeanServer = new InjectedValue<MBeanServer>();
     private final InjectedValue<String> pathInjector = new InjectedValue<String>();
 
-    public WebServerService(final String defaultHost, final boolean useNative, final String instanceId) {
+    public WebServerService(final String defaultHost, final boolean useNative, final String instanceId, final long latencyWindow) {
         this.defaultHost = defaultHost;
         this.useNative = useNative;
         this.instanceId = instanceId;
+        this.latencyValve = new LatencyValve(LatencyValve.Target.CONNECTOR, latencyWindow);
     }
 
     /** {@inheritDoc} */
@@ -82,6 +84,7 @@ class WebServerService implements WebServer, Service<WebServer> {
         if (instanceId != null) {
             engine.setJvmRoute(instanceId);
         }
+        engine.getPipeline().addValve(latencyValve);
 
         service.setContainer(engine);
 
@@ -130,6 +133,7 @@ class WebServerService implements WebServer, Service<WebServer> {
     public synchronized void removeConnector(Connector connector) {
         final StandardService service = this.service;
         service.removeConnector(connector);
+        latencyValve.remove(connector);
     }
 
     /** {@inheritDoc} */
@@ -160,4 +164,8 @@ class WebServerService implements WebServer, Service<WebServer> {
         return service;
     }
 
+    public LatencyValve getLatencyValve() {
+        return latencyValve;
+    }
+
 }
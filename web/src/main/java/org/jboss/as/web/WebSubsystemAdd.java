@@ -69,6 +69,7 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler implements Descript
     static final WebSubsystemAdd INSTANCE = new WebSubsystemAdd();
     private static final String DEFAULT_VIRTUAL_SERVER = "default-host";
     private static final boolean DEFAULT_NATIVE = true;
+    private static final long DEFAULT_LATENCY_WINDOW = 60;
     private static final String TEMP_DIR = "jboss.server.temp.dir";
 
     private WebSubsystemAdd() {
@@ -113,6 +114,9 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler implements Descript
         if(operation.hasDefined(Constants.INSTANCE_ID)) {
             model.get(Constants.INSTANCE_ID).set(operation.get(Constants.INSTANCE_ID));
         }
+        if(operation.hasDefined(Constants.LATENCY_WINDOW)) {
+            model.get(Constants.LATENCY_WINDOW).set(operation.get(Constants.LATENCY_WINDOW));
+        }
 
         model.get(Constants.CONTAINER_CONFIG).set(ourContainerConfig);
 
@@ -130,6 +134,11 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler implements Descript
                 operation.get(Constants.NATIVE).asBoolean() : DEFAULT_NATIVE;
         final String instanceId = operation.hasDefined(Constants.INSTANCE_ID) ? operation.get(
                 Constants.INSTANCE_ID).asString() : null;
+        final long latencyWindow = operation.hasDefined(Constants.LATENCY_WINDOW) ?
+                operation.get(Constants.LATENCY_WINDOW).asLong() : DEFAULT_LATENCY_WINDOW;
+        if (latencyWindow <= 0) {
+            throw new OperationFailedException(new ModelNode().set("The latency window must be positive: " + latencyWindow));
+        }
 
         context.addStep(new AbstractDeploymentChainStep() {
             protected void execute(DeploymentProcessorTarget processorTarget) {
@@ -152,11 +161,11 @@ class WebSubsystemAdd extends AbstractBoottimeAddStepHandler implements Descript
                 processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.POST_MODULE_JSF_MANAGED_BEANS, new JsfManagedBeanProcessor());
                 processorTarget.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_SERVLET_INIT_DEPLOYMENT, new ServletContainerInitializerDeploymentProcessor());
                 processorTarget.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_JSF_ANNOTATIONS, new JsfAnnotationProcessor());
-                processorTarget.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_WAR_DEPLOYMENT, new WarDeploymentProcessor(defaultVirtualServer));
+                processorTarget.addDeploymentProcessor(Phase.INSTALL, Phase.INSTALL_WAR_DEPLOYMENT, new WarDeploymentProcessor(defaultVirtualServer, latencyWindow));
             }
         }, OperationContext.Stage.RUNTIME);
 
-        final WebServerService service = new WebServerService(defaultVirtualServer, useNative, instanceId);
+        final WebServerService service = new WebServerService(defaultVirtualServer, useNative, instanceId, latencyWindow);
         newControllers.add(context.getServiceTarget().addService(WebSubsystemServices.JBOSS_WEB, service)
                 .addDependency(AbstractPathService.pathNameOf(TEMP_DIR), String.class, service.getPathInjector())
                 .addDependency(DependencyType.OPTIONAL, ServiceName.JBOSS.append("mbean", "server"), MBeanServer.class, service.getMbeanServer())
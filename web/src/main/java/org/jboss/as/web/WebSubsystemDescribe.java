@@ -56,6 +56,9 @@ class WebSubsystemDescribe implements OperationStepHandler, DescriptionProvider
         if(subModel.hasDefined(Constants.DEFAULT_VIRTUAL_SERVER)) {
             subsystemAdd.get(Constants.DEFAULT_VIRTUAL_SERVER).set(subModel.get(Constants.DEFAULT_VIRTUAL_SERVER));
         }
+        if(subModel.hasDefined(Constants.LATENCY_WINDOW)) {
+            subsystemAdd.get(Constants.LATENCY_WINDOW).set(subModel.get(Constants.LATENCY_WINDOW));
+        }
         result.add(subsystemAdd);
         if (subModel.hasDefined(Constants.CONNECTOR)) {
             for (final Property connector : subModel.get(Constants.CONNECTOR).asPropertyList()) {
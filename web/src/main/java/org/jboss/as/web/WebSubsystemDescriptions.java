@@ -40,6 +40,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -80,6 +81,11 @@ class WebSubsystemDescriptions {
         node.get(ATTRIBUTES, Constants.INSTANCE_ID, DESCRIPTION).set(bundle.getString("web.instance-id"));
         node.get(ATTRIBUTES, Constants.INSTANCE_ID, REQUIRED).set(false);
 
+        node.get(ATTRIBUTES, Constants.LATENCY_WINDOW, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, Constants.LATENCY_WINDOW, DESCRIPTION).set(bundle.getString("web.latency-window"));
+        node.get(ATTRIBUTES, Constants.LATENCY_WINDOW, REQUIRED).set(false);
+        node.get(ATTRIBUTES, Constants.LATENCY_WINDOW, DEFAULT).set(60);
+
         getConfigurationCommonDescription(node.get(ATTRIBUTES, Constants.CONTAINER_CONFIG), ATTRIBUTES, bundle);
         getConnectorCommonDescription(node.get(CHILDREN, Constants.CONNECTOR), ATTRIBUTES, bundle);
         getVirtualServerCommonDescription(node.get(CHILDREN, Constants.VIRTUAL_SERVER), ATTRIBUTES, bundle);
@@ -108,6 +114,11 @@ class WebSubsystemDescriptions {
         node.get(REQUEST_PROPERTIES, Constants.INSTANCE_ID, DESCRIPTION).set(bundle.getString("web.instance-id"));
         node.get(REQUEST_PROPERTIES, Constants.INSTANCE_ID, REQUIRED).set(false);
 
+        node.get(REQUEST_PROPERTIES, Constants.LATENCY_WINDOW, TYPE).set(ModelType.LONG);
+        node.get(REQUEST_PROPERTIES, Constants.LATENCY_WINDOW, DESCRIPTION).set(bundle.getString("web.latency-window"));
+        node.get(REQUEST_PROPERTIES, Constants.LATENCY_WINDOW, REQUIRED).set(false);
+        node.get(REQUEST_PROPERTIES, Constants.LATENCY_WINDOW, DEFAULT).set(60);
+
         getConfigurationCommonDescription(node.get(REQUEST_PROPERTIES, Constants.CONTAINER_CONFIG), REQUEST_PROPERTIES, bundle);
 
         return node;
@@ -393,6 +404,9 @@ class WebSubsystemDescriptions {
         node.get(type, Constants.MAX_TIME, DESCRIPTION).set(bundle.getString("web.connector.stats.max-time"));
         node.get(type, Constants.REQUEST_COUNT, TYPE).set(ModelType.INT);
         node.get(type, Constants.REQUEST_COUNT, DESCRIPTION).set(bundle.getString("web.connector.request-count"));
+        node.get(type, Constants.LATENCY_PERCENTILES, TYPE).set(ModelType.OBJECT);
+        node.get(type, Constants.LATENCY_PERCENTILES, VALUE_TYPE).set(ModelType.LONG);
+        node.get(type, Constants.LATENCY_PERCENTILES, DESCRIPTION).set(bundle.getString("web.connector.stats.latency-percentiles"));
 
         getSSLCommonDescription(node.get(type, Constants.SSL), type, bundle);
 
@@ -682,6 +696,9 @@ class WebSubsystemDescriptions {
         node.get(ATTRIBUTES, "processing-time", TYPE).set(ModelType.LONG);
         node.get(ATTRIBUTES, "request-count", DESCRIPTION).set(bundle.getString("web.deployment.servlet.request-count"));
         node.get(ATTRIBUTES, "request-count", TYPE).set(ModelType.INT);
+        node.get(ATTRIBUTES, "latency-percentiles", DESCRIPTION).set(bundle.getString("web.deployment.servlet.latency-percentiles"));
+        node.get(ATTRIBUTES, "latency-percentiles", TYPE).set(ModelType.OBJECT);
+        node.get(ATTRIBUTES, "latency-percentiles", VALUE_TYPE).set(ModelType.LONG);
 
         node.get(OPERATIONS); // placeholder
 
@@ -130,6 +130,7 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         writeAttribute(writer, Attribute.NATIVE.getLocalName(), node);
         writeAttribute(writer, Attribute.DEFAULT_VIRTUAL_SERVER.getLocalName(), node);
         writeAttribute(writer, Attribute.INSTANCE_ID.getLocalName(), node);
+        writeAttribute(writer, Attribute.LATENCY_WINDOW.getLocalName(), node);
         if(node.hasDefined(CONTAINER_CONFIG)) {
             writeContainerConfig(writer, node.get(CONTAINER_CONFIG));
         }
@@ -366,6 +367,7 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
             case NATIVE:
             case DEFAULT_VIRTUAL_SERVER:
             case INSTANCE_ID:
+            case LATENCY_WINDOW:
                 subsystem.get(attribute.getLocalName()).set(value);
                 break;
             default:
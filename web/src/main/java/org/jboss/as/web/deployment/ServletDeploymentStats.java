@@ -33,6 +33,7 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.web.LatencyValve;
 import org.jboss.as.web.WebSubsystemServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
@@ -62,13 +63,13 @@ public class ServletDeploymentStats {
         registration.registerMetric("max-time", new AbstractMetricsHandler() {
             @Override
             void handle(final ModelNode response, final String name, final Wrapper wrapper) {
-                response.set(((StandardWrapper)wrapper).getMinTime());
+                response.set(((StandardWrapper)wrapper).getMaxTime());
             }
         });
         registration.registerMetric("min-time", new AbstractMetricsHandler() {
             @Override
             void handle(final ModelNode response, final String name, final Wrapper wrapper) {
-                response.set(((StandardWrapper)wrapper).getLoadTime());
+                response.set(((StandardWrapper)wrapper).getMinTime());
             }
         });
         registration.registerMetric("processing-time", new AbstractMetricsHandler() {
@@ -83,6 +84,13 @@ public class ServletDeploymentStats {
                 response.set(((StandardWrapper)wrapper).getRequestCount());
             }
         });
+        registration.registerMetric("latency-percentiles", new AbstractMetricsHandler() {
+            @Override
+            void handle(final ModelNode response, final String name, final Wrapper wrapper) {
+                final LatencyValve valve = LatencyValve.find(wrapper.getParent().getPipeline());
+                LatencyValve.getPercentiles(response, valve == null ? null : valve.findHistogram(wrapper));
+            }
+        });
     }
 
     abstract static class AbstractMetricsHandler implements OperationStepHandler {
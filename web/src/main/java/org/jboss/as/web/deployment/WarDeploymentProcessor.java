@@ -52,6 +52,7 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.SetupAction;
+import org.jboss.as.web.LatencyValve;
 import org.jboss.as.web.VirtualHost;
 import org.jboss.as.web.WebSubsystemServices;
 import org.jboss.as.web.deployment.component.ComponentInstantiator;
@@ -84,12 +85,14 @@ import org.jboss.vfs.VirtualFile;
 public class WarDeploymentProcessor implements DeploymentUnitProcessor {
 
     private final String defaultHost;
+    private final long latencyWindow;
 
-    public WarDeploymentProcessor(String defaultHost) {
+    public WarDeploymentProcessor(String defaultHost, long latencyWindow) {
         if (defaultHost == null) {
             throw new IllegalArgumentException("null default host");
         }
         this.defaultHost = defaultHost;
+        this.latencyWindow = latencyWindow;
     }
 
     /**
@@ -142,6 +145,8 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
 
         // add SecurityAssociationValve right at the beginning
         webContext.addValve(new SecurityContextAssociationValve(deploymentUnit));
+        // record the latency of each servlet
+        webContext.addValve(new LatencyValve(LatencyValve.Target.SERVLET, latencyWindow));
 
         List<ValveMetaData> valves = metaData.getValves();
         if (valves == null) {
@@ -1055,6 +1055,16 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
         }
     }
 
+    /**
+     * Notifies the session that the batch in which it was replicated has been rolled back, so its full state must be
+     * replicated again.
+     */
+    public synchronized void sessionReplicationRolledBack() {
+        sessionAttributesDirty();
+        sessionMetadataDirty();
+        requireFullReplication();
+    }
+
     /**
      * Remove myself from the distributed cache.
      */
@@ -21,15 +21,26 @@
  */
 package org.jboss.as.web.session;
 
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.jboss.as.clustering.web.BatchingManager;
 import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
 import org.jboss.logging.Logger;
 
 /**
  * A snapshot manager that collects all modified sessions over a given period of time and distributes them en bloc.
+ * <p/>
+ * Modified sessions are queued without locking; a session modified several times during an interval is only queued,
+ * and stored, once. If the session manager is a {@link ClusteredSessionManager}, all the sessions of an interval are
+ * stored within a single batch of its {@link BatchingManager}, so they are replicated together when the batch ends
+ * rather than one cache write at a time. If storing any of the sessions fails, the whole batch is rolled back and all
+ * of its sessions are queued again, to be replicated in full at the end of the next interval. The size and duration
+ * of each batch are recorded in the {@link ReplicationStatistics}.
  *
  * @author Thomas Peuss <jboss@peuss.de>
  * @author Brian Stansberry
@@ -42,16 +53,16 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
     private int interval = 1000;
 
     // the modified sessions
-    private Set<ClusteredSession<? extends OutgoingDistributableSessionData>> sessions = new LinkedHashSet<ClusteredSession<? extends OutgoingDistributableSessionData>>();
+    private final Set<ClusteredSession<? extends OutgoingDistributableSessionData>> sessions = Collections.newSetFromMap(new ConcurrentHashMap<ClusteredSession<? extends OutgoingDistributableSessionData>, Boolean>());
 
     // the distribute thread
     private Thread thread = null;
 
     // Is session processing allowed?
-    private boolean processingAllowed = false;
+    private volatile boolean processingAllowed = false;
 
     // has the thread finished?
-    private boolean threadDone = false;
+    private volatile boolean threadDone = false;
 
     public IntervalSnapshotManager(SessionManager manager, String path) {
         super(manager, path);
@@ -63,15 +74,13 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
     }
 
     /**
-     * Store the modified session in a hashmap for the distributor thread
+     * Queue the modified session for the distributor thread
      */
     @Override
     public void snapshot(ClusteredSession<? extends OutgoingDistributableSessionData> session) {
         try {
-            // Don't hold a ref to the session for a long time
-            synchronized (sessions) {
-                sessions.add(session);
-            }
+            // A session already queued is stored once at the end of the interval
+            sessions.add(session);
         } catch (Exception e) {
             log.error("Failed to queue session " + session + " for replication", e);
         }
@@ -81,26 +90,117 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
      * Distribute all modified sessions
      */
     protected void processSessions() {
-        Set<ClusteredSession<? extends OutgoingDistributableSessionData>> toProcess = null;
-        synchronized (sessions) {
-            toProcess = new HashSet<ClusteredSession<? extends OutgoingDistributableSessionData>>(sessions);
-            sessions.clear();
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        List<ClusteredSession<? extends OutgoingDistributableSessionData>> batch = new ArrayList<ClusteredSession<? extends OutgoingDistributableSessionData>>(sessions.size());
+        Iterator<ClusteredSession<? extends OutgoingDistributableSessionData>> iterator = sessions.iterator();
+        // Confirm we haven't been stopped
+        while (processingAllowed && iterator.hasNext()) {
+            // Dequeue before storing, so a modification made from here on is picked up by the next interval
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        if (batch.isEmpty()) {
+            return;
         }
 
         SessionManager mgr = getManager();
-        for (ClusteredSession<? extends OutgoingDistributableSessionData> session : toProcess) {
-            // Confirm we haven't been stopped
-            if (!processingAllowed)
-                break;
+        BatchingManager batchingManager = getBatchingManager(mgr);
+        if (batchingManager == null) {
+            storeSessions(mgr, batch);
+            return;
+        }
 
+        long begin = System.currentTimeMillis();
+        try {
+            batchingManager.startBatch();
+        } catch (Exception e) {
+            getLog().error("Caught exception starting batch", e);
+            requeue(batch);
+            return;
+        }
+        int stored = 0;
+        boolean rolledBack = false;
+        try {
+            for (ClusteredSession<? extends OutgoingDistributableSessionData> session : batch) {
+                if (mgr.storeSession(session)) {
+                    stored++;
+                }
+            }
+        } catch (Exception e) {
+            getLog().error("Caught exception processing sessions; rolling back the batch", e);
+            rolledBack = true;
+            try {
+                batchingManager.setBatchRollbackOnly();
+            } catch (Exception ex) {
+                getLog().error("Caught exception rolling back batch", ex);
+            }
+        } finally {
+            try {
+                batchingManager.endBatch();
+            } catch (Exception e) {
+                getLog().error("Caught exception ending batch", e);
+                rolledBack = true;
+            }
+        }
+
+        if (rolledBack) {
+            // The sessions stored before the failure were rolled back with it, so all of them must be replicated again
+            for (ClusteredSession<? extends OutgoingDistributableSessionData> session : batch) {
+                session.sessionReplicationRolledBack();
+            }
+            requeue(batch);
+        } else if (stored > 0 && mgr instanceof SessionManagerMBean) {
+            ((SessionManagerMBean) mgr).getReplicationStatistics().updateBatchStats(stored, System.currentTimeMillis() - begin);
+        }
+    }
+
+    /**
+     * Stores the sessions one by one, for a session manager without a batching manager.
+     */
+    private void storeSessions(SessionManager mgr, List<ClusteredSession<? extends OutgoingDistributableSessionData>> batch) {
+        for (ClusteredSession<? extends OutgoingDistributableSessionData> session : batch) {
             try {
                 mgr.storeSession(session);
             } catch (Exception e) {
                 getLog().error("Caught exception processing session " + session.getRealId(), e);
+                // The session is still dirty after a failed store, so retry it with the next interval
+                if (processingAllowed) {
+                    sessions.add(session);
+                }
             }
         }
     }
 
+    /**
+     * Gets the batching manager to store the sessions of an interval with.
+     *
+     * @return the batching manager, or <code>null</code> if the sessions can't be stored in a batch of their own
+     */
+    private BatchingManager getBatchingManager(SessionManager mgr) {
+        if (!(mgr instanceof ClusteredSessionManager)) {
+            return null;
+        }
+        BatchingManager batchingManager = ((ClusteredSessionManager<?>) mgr).getDistributedCacheManager().getBatchingManager();
+        try {
+            return batchingManager.isBatchInProgress() ? null : batchingManager;
+        } catch (Exception e) {
+            getLog().error("Caught exception checking for a batch in progress; sessions will be replicated individually", e);
+            return null;
+        }
+    }
+
+    /**
+     * Queues the sessions of a failed batch again, so they are retried at the end of the next interval.
+     */
+    private void requeue(List<ClusteredSession<? extends OutgoingDistributableSessionData>> batch) {
+        if (processingAllowed) {
+            sessions.addAll(batch);
+        }
+    }
+
     /**
      * Start the snapshot manager
      */
@@ -117,9 +217,7 @@ public class IntervalSnapshotManager extends SnapshotManager implements Runnable
     public void stop() {
         processingAllowed = false;
         stopThread();
-        synchronized (sessions) {
-            sessions.clear();
-        }
+        sessions.clear();
     }
 
     /**
@@ -37,6 +37,8 @@ public class ReplicationStatistics implements Serializable {
 
     /** A HashMap<String, TimeStatistic> of the method invocations */
     private Map<String, TimeStatistic> ctxStats;
+    /** Statistics of the batches in which interval snapshots store sessions */
+    private final BatchStatistic batchStats = new BatchStatistic();
     /** Time of the last resetStats call */
     public long lastResetTime = System.currentTimeMillis();
 
@@ -69,6 +71,35 @@ public class ReplicationStatistics implements Serializable {
         }
     }
 
+    /**
+     * Statistics of the batches in which an {@link IntervalSnapshotManager} stores the sessions modified during an
+     * interval. The size of a batch is the number of sessions stored; times are in milliseconds and include the end of
+     * the batch, i.e. the replication.
+     */
+    public static class BatchStatistic implements Serializable {
+        private static final long serialVersionUID = -2364186528316372520L;
+
+        public long batchCount;
+        public long lastBatchSize;
+        public long maxBatchSize;
+        public long totalBatchSize;
+        public long lastBatchTime;
+        public long minBatchTime = Long.MAX_VALUE;
+        public long maxBatchTime;
+        public long totalBatchTime;
+
+        public void reset() {
+            batchCount = 0;
+            lastBatchSize = 0;
+            maxBatchSize = 0;
+            totalBatchSize = 0;
+            lastBatchTime = 0;
+            minBatchTime = Long.MAX_VALUE;
+            maxBatchTime = 0;
+            totalBatchTime = 0;
+        }
+    }
+
     public ReplicationStatistics() {
         ctxStats = new ConcurrentHashMap<String, TimeStatistic>(256, 0.75f, 32);
     }
@@ -99,6 +130,28 @@ public class ReplicationStatistics implements Serializable {
             stat.maxReplicationTime = elapsed;
     }
 
+    /**
+     * Update the BatchStatistic. Batches are stored by a single thread, but reads are not synchronized so the results
+     * are approximate values.
+     *
+     * @param size the number of sessions stored in the batch
+     * @param elapsed the elapsed time in milliseconds for the batch.
+     */
+    public void updateBatchStats(int size, long elapsed) {
+        BatchStatistic stat = batchStats;
+        stat.batchCount++;
+        stat.lastBatchSize = size;
+        stat.totalBatchSize += size;
+        if (stat.maxBatchSize < size)
+            stat.maxBatchSize = size;
+        stat.lastBatchTime = elapsed;
+        stat.totalBatchTime += elapsed;
+        if (stat.minBatchTime > elapsed)
+            stat.minBatchTime = elapsed;
+        if (stat.maxBatchTime < elapsed)
+            stat.maxBatchTime = elapsed;
+    }
+
     public void updateLoadStats(String ctx, long elapsed) {
         TimeStatistic stat = getTimeStatistic(ctx);
         stat.loadCount++;
@@ -119,6 +172,7 @@ public class ReplicationStatistics implements Serializable {
                 stat.reset();
             }
         }
+        batchStats.reset();
         lastResetTime = System.currentTimeMillis();
     }
 
@@ -135,6 +189,15 @@ public class ReplicationStatistics implements Serializable {
         return ctxStats;
     }
 
+    /**
+     * Access the statistics of the batches in which interval snapshots store sessions
+     *
+     * @return the BatchStatistic
+     */
+    public BatchStatistic getBatchStats() {
+        return batchStats;
+    }
+
     @Override
     public String toString() {
         StringBuffer tmp = new StringBuffer();
@@ -168,6 +231,25 @@ public class ReplicationStatistics implements Serializable {
                 tmp.append("];");
             }
         }
+        if (batchStats.batchCount > 0) {
+            tmp.append("[batchCount=");
+            tmp.append(batchStats.batchCount);
+            tmp.append(", lastBatchSize=");
+            tmp.append(batchStats.lastBatchSize);
+            tmp.append(", maxBatchSize=");
+            tmp.append(batchStats.maxBatchSize);
+            tmp.append(", totalBatchSize=");
+            tmp.append(batchStats.totalBatchSize);
+            tmp.append(", lastBatchTime=");
+            tmp.append(batchStats.lastBatchTime);
+            tmp.append(", minBatchTime=");
+            tmp.append(batchStats.minBatchTime);
+            tmp.append(", maxBatchTime=");
+            tmp.append(batchStats.maxBatchTime);
+            tmp.append(", totalBatchTime=");
+            tmp.append(batchStats.totalBatchTime);
+            tmp.append("];");
+        }
         tmp.append(")");
         return tmp.toString();
     }
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramUnitTestCase {
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            final long highest = LatencyHistogram.highestValue(bucket);
+            assertTrue("bucket " + bucket, highest > previous);
+            assertEquals(bucket, LatencyHistogram.bucket(highest));
+            assertEquals(bucket, LatencyHistogram.bucket(previous + 1));
+            // within 1/16 of the value
+            assertTrue("bucket " + bucket, highest - previous - 1 <= Math.max(0, highest >> 4));
+            previous = highest;
+        }
+        assertEquals(0, LatencyHistogram.bucket(-5));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram(1, TimeUnit.HOURS);
+        assertArrayEquals(new long[] {0, 0}, histogram.getValuesAtPercentiles(50, 99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        final long[] values = histogram.getValuesAtPercentiles(50, 90, 99, 99.9, 100);
+        final long[] expected = {500, 900, 990, 999, 1000};
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(values[i] + " for " + expected[i], values[i] >= expected[i] && values[i] <= expected[i] * 17 / 16);
+        }
+    }
+
+    @Test
+    public void testRollingWindow() {
+        final long slot = TimeUnit.SECONDS.toNanos(8) / LatencyHistogram.SLOTS;
+        final LatencyHistogram histogram = new LatencyHistogram(8, TimeUnit.SECONDS);
+        final long start = System.nanoTime();
+        histogram.record(5000, start);
+        assertEquals(1, histogram.count(start));
+
+        // still in the window
+        final long later = start + (LatencyHistogram.SLOTS - 1) * slot;
+        for (int i = 0; i < 10; i++) {
+            histogram.record(10, later);
+        }
+        assertEquals(11, histogram.count(later));
+        assertEquals(5000, histogram.valuesAtPercentiles(later, 100)[0], 5000 / 16);
+
+        // the first slot has left the window, and is cleared when it is reused
+        final long end = start + LatencyHistogram.SLOTS * slot;
+        assertEquals(10, histogram.count(end));
+        assertArrayEquals(new long[] {10}, histogram.valuesAtPercentiles(end, 100));
+        histogram.record(20, end);
+        assertEquals(11, histogram.count(end));
+        assertArrayEquals(new long[] {20}, histogram.valuesAtPercentiles(end, 100));
+        assertEquals(0, histogram.count(end + LatencyHistogram.SLOTS * slot));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram(1, TimeUnit.HOURS);
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j % 100);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, histogram.getCount());
+    }
+}
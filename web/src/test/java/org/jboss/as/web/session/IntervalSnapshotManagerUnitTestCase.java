@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Loader;
+import org.jboss.as.clustering.web.BatchingManager;
+import org.jboss.as.clustering.web.DistributedCacheManager;
+import org.jboss.as.clustering.web.OutgoingDistributableSessionData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link IntervalSnapshotManager}.
+ */
+public class IntervalSnapshotManagerUnitTestCase {
+    private ClusteredSessionManager<OutgoingDistributableSessionData> manager;
+    private BatchingManager batchingManager;
+    private ReplicationStatistics stats;
+    private IntervalSnapshotManager snapshotManager;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        manager = mock(ClusteredSessionManager.class, withSettings().extraInterfaces(SessionManagerMBean.class));
+        DistributedCacheManager<OutgoingDistributableSessionData> cacheManager = mock(DistributedCacheManager.class);
+        batchingManager = mock(BatchingManager.class);
+        when(manager.getDistributedCacheManager()).thenReturn(cacheManager);
+        when(cacheManager.getBatchingManager()).thenReturn(batchingManager);
+        when(batchingManager.isBatchInProgress()).thenReturn(false);
+        stats = new ReplicationStatistics();
+        when(((SessionManagerMBean) manager).getReplicationStatistics()).thenReturn(stats);
+
+        snapshotManager = start(manager);
+    }
+
+    @After
+    public void tearDown() {
+        snapshotManager.stop();
+    }
+
+    @Test
+    public void testSessionsStoredInOneBatch() throws Exception {
+        ClusteredSession<? extends OutgoingDistributableSessionData> a = createSession("a");
+        ClusteredSession<? extends OutgoingDistributableSessionData> b = createSession("b");
+        ClusteredSession<? extends OutgoingDistributableSessionData> c = createSession("c");
+        when(manager.storeSession(a)).thenReturn(true);
+        when(manager.storeSession(b)).thenReturn(true);
+        when(manager.storeSession(c)).thenReturn(true);
+
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(b);
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(c);
+        snapshotManager.processSessions();
+        snapshotManager.processSessions();
+
+        verify(batchingManager, times(1)).startBatch();
+        verify(batchingManager, times(1)).endBatch();
+        verify(batchingManager, never()).setBatchRollbackOnly();
+        verify(manager, times(1)).storeSession(a);
+        verify(manager, times(1)).storeSession(b);
+        verify(manager, times(1)).storeSession(c);
+        assertEquals(1, stats.getBatchStats().batchCount);
+        assertEquals(3, stats.getBatchStats().lastBatchSize);
+    }
+
+    @Test
+    public void testFailedStoreRollsBackAndRequeuesBatch() throws Exception {
+        ClusteredSession<? extends OutgoingDistributableSessionData> a = createSession("a");
+        ClusteredSession<? extends OutgoingDistributableSessionData> failing = createSession("failing");
+        when(manager.storeSession(a)).thenReturn(true);
+        when(manager.storeSession(failing)).thenThrow(new RuntimeException("failed to replicate session")).thenReturn(true);
+
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(failing);
+        snapshotManager.processSessions();
+
+        verify(batchingManager, times(1)).setBatchRollbackOnly();
+        verify(batchingManager, times(1)).endBatch();
+        // a may have been stored before the failure; either way the rollback undid it
+        verify(a, times(1)).sessionReplicationRolledBack();
+        verify(failing, times(1)).sessionReplicationRolledBack();
+        assertEquals(0, stats.getBatchStats().batchCount);
+
+        snapshotManager.processSessions();
+        verify(batchingManager, times(2)).startBatch();
+        assertEquals(1, stats.getBatchStats().batchCount);
+        assertEquals(2, stats.getBatchStats().lastBatchSize);
+
+        // Stored, so no longer queued
+        snapshotManager.processSessions();
+        verify(batchingManager, times(2)).startBatch();
+    }
+
+    @Test
+    public void testFailedEndOfBatchRequeuesBatch() throws Exception {
+        ClusteredSession<? extends OutgoingDistributableSessionData> a = createSession("a");
+        ClusteredSession<? extends OutgoingDistributableSessionData> b = createSession("b");
+        when(manager.storeSession(a)).thenReturn(true);
+        when(manager.storeSession(b)).thenReturn(true);
+        doThrow(new RuntimeException("failed to commit batch")).doNothing().when(batchingManager).endBatch();
+
+        snapshotManager.snapshot(a);
+        snapshotManager.snapshot(b);
+        snapshotManager.processSessions();
+
+        verify(a, times(1)).sessionReplicationRolledBack();
+        verify(b, times(1)).sessionReplicationRolledBack();
+        assertEquals(0, stats.getBatchStats().batchCount);
+
+        snapshotManager.processSessions();
+        verify(manager, times(2)).storeSession(a);
+        verify(manager, times(2)).storeSession(b);
+        assertEquals(1, stats.getBatchStats().batchCount);
+        assertEquals(2, stats.getBatchStats().lastBatchSize);
+    }
+
+    @Test
+    public void testSessionsStoredIndividuallyWithoutBatchingManager() {
+        snapshotManager.stop();
+        SessionManager plainManager = mock(SessionManager.class);
+        snapshotManager = start(plainManager);
+        ClusteredSession<? extends OutgoingDistributableSessionData> failing = createSession("failing");
+        ClusteredSession<? extends OutgoingDistributableSessionData> session = createSession("a");
+        when(plainManager.storeSession(failing)).thenThrow(new RuntimeException("failed to replicate session")).thenReturn(true);
+        when(plainManager.storeSession(session)).thenReturn(true);
+
+        snapshotManager.snapshot(failing);
+        snapshotManager.snapshot(session);
+        snapshotManager.processSessions();
+        verify(plainManager, times(1)).storeSession(session);
+
+        // Only the failed session is retried
+        snapshotManager.processSessions();
+        verify(plainManager, times(2)).storeSession(failing);
+        verify(plainManager, times(1)).storeSession(session);
+        verify(session, never()).sessionReplicationRolledBack();
+    }
+
+    private static IntervalSnapshotManager start(SessionManager manager) {
+        Container container = mock(Container.class);
+        when(manager.getContainer()).thenReturn(container);
+        when(container.getLoader()).thenReturn(mock(Loader.class));
+        // Long enough for the distributor thread never to process the sessions itself
+        IntervalSnapshotManager snapshotManager = new IntervalSnapshotManager(manager, "/test", Integer.MAX_VALUE);
+        snapshotManager.start();
+        return snapshotManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ClusteredSession<? extends OutgoingDistributableSessionData> createSession(String id) {
+        ClusteredSession<OutgoingDistributableSessionData> session = mock(ClusteredSession.class);
+        when(session.getRealId()).thenReturn(id);
+        return session;
+    }
+}